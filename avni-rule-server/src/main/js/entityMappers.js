@@ -0,0 +1,100 @@
+// Maps the entities of rule requests to openchs-models objects, as the node rule server does, so that rules can call
+// model methods like findObservation and getAgeInYears. Kept free of npm imports like ruleHandlers.js; openchs-models
+// is passed in by ruleInvoker.js.
+
+function toDate(value) {
+    return value === null || value === undefined ? value : new Date(value);
+}
+
+function assign(entity, json, fields, dateFields = []) {
+    fields.forEach(field => {
+        if (json[field] !== undefined) entity[field] = json[field];
+    });
+    dateFields.forEach(field => {
+        if (json[field] !== undefined) entity[field] = toDate(json[field]);
+    });
+    return entity;
+}
+
+export function createEntityMapper(models) {
+    function concept(json) {
+        const mapped = assign(new models.Concept(), json, ["uuid", "name", "datatype", "lowAbsolute", "hiAbsolute", "lowNormal", "hiNormal", "unit", "voided"]);
+        mapped.keyValues = json.keyValues || [];
+        mapped.answers = (json.answers || []).map(answer => {
+            const conceptAnswer = assign(new models.ConceptAnswer(), answer, ["uuid", "answerOrder", "abnormal", "unique", "voided"]);
+            conceptAnswer.concept = concept(answer.concept || {});
+            return conceptAnswer;
+        });
+        return mapped;
+    }
+
+    function observations(list) {
+        return (list || []).map(observation => {
+            const observationConcept = concept(observation.concept || {});
+            return models.Observation.create(observationConcept, observationConcept.getValueWrapperFor(observation.value));
+        });
+    }
+
+    function referenceData(Type, json) {
+        return json ? assign(new Type(), json, ["uuid", "name", "voided"]) : json;
+    }
+
+    function individual(json) {
+        if (!json) return json;
+        const mapped = assign(new models.Individual(), json, ["uuid", "firstName", "middleName", "lastName", "profilePicture", "registrationLocation", "voided"], ["dateOfBirth", "registrationDate"]);
+        mapped.gender = referenceData(models.Gender, json.gender);
+        mapped.subjectType = json.subjectType && assign(new models.SubjectType(), json.subjectType, ["uuid", "name", "type", "voided"]);
+        mapped.lowestAddressLevel = json.lowestAddressLevel && assign(new models.AddressLevel(), json.lowestAddressLevel, ["uuid", "title", "level", "typeString", "titleLineage", "voided"]);
+        mapped.observations = observations(json.observations);
+        mapped.enrolments = (json.enrolments || []).map(enrolment => programEnrolment(enrolment, mapped));
+        mapped.encounters = (json.encounters || []).map(anEncounter => encounter(anEncounter, mapped));
+        return mapped;
+    }
+
+    function programEnrolment(json, subject) {
+        if (!json) return json;
+        const mapped = assign(new models.ProgramEnrolment(), json, ["uuid", "voided"], ["enrolmentDateTime", "programExitDateTime"]);
+        mapped.program = json.operationalProgramName && assign(new models.Program(), {name: json.operationalProgramName, operationalProgramName: json.operationalProgramName}, ["name", "operationalProgramName"]);
+        mapped.individual = subject || individual(json.subject);
+        mapped.observations = observations(json.observations);
+        mapped.programExitObservations = observations(json.exitObservations);
+        mapped.encounters = (json.programEncounters || []).map(programEncounterJson => programEncounter(programEncounterJson, mapped));
+        return mapped;
+    }
+
+    function assignEncounterFields(mapped, json) {
+        assign(mapped, json, ["uuid", "name", "voided"], ["encounterDateTime", "earliestVisitDateTime", "maxVisitDateTime", "cancelDateTime"]);
+        mapped.encounterType = referenceData(models.EncounterType, json.encounterType);
+        mapped.observations = observations(json.observations);
+        mapped.cancelObservations = observations(json.cancelObservations);
+        return mapped;
+    }
+
+    function programEncounter(json, enrolment) {
+        if (!json) return json;
+        const mapped = assignEncounterFields(new models.ProgramEncounter(), json);
+        mapped.programEnrolment = enrolment || programEnrolment(json.programEnrolment);
+        return mapped;
+    }
+
+    function encounter(json, subject) {
+        if (!json) return json;
+        const mapped = assignEncounterFields(new models.Encounter(), json);
+        mapped.individual = subject || individual(json.subject);
+        return mapped;
+    }
+
+    const mappers = {
+        individual: individual,
+        subject: individual,
+        programenrolment: json => programEnrolment(json),
+        programencounter: json => programEncounter(json),
+        encounter: json => encounter(json)
+    };
+
+    // Entity types other than these, e.g. of users, are passed to rules as they are
+    return function mapEntity(entityType, json) {
+        const mapper = entityType && mappers[entityType.toLowerCase()];
+        return mapper ? mapper(json) : json;
+    };
+}
@@ -0,0 +1,99 @@
+// Rule api handlers used by the embedded rule engine. Kept free of npm imports, so that they can be evaluated and
+// tested without the webpack bundle; rules-config and the mapper of entities to openchs-models objects (see
+// entityMappers.js) are passed in by ruleInvoker.js.
+
+const MAX_COMPILED_RULES = 500;
+
+function success(response) {
+    return Object.assign({status: "success"}, response);
+}
+
+function failure(error) {
+    return {status: "failure", error: {message: error && error.message, stack: error && error.stack}};
+}
+
+export function createRuleExecutor(rulesConfig, mapEntity = (entityType, json) => json) {
+    const compiledRules = new Map();
+
+    // Rule code is compiled once per context and reused for as long as the same code is passed in
+    function compile(ruleCode) {
+        let ruleFunction = compiledRules.get(ruleCode);
+        if (ruleFunction === undefined) {
+            ruleFunction = (0, eval)(ruleCode);
+            if (compiledRules.size >= MAX_COMPILED_RULES) {
+                compiledRules.delete(compiledRules.keys().next().value);
+            }
+            compiledRules.set(ruleCode, ruleFunction);
+        }
+        return ruleFunction;
+    }
+
+    function runRule(ruleCode, params, ruleDependency) {
+        if (!ruleCode || !ruleCode.trim()) return undefined;
+        return compile(ruleCode)({params, imports: {rulesConfig, common: ruleDependency}});
+    }
+
+    function entityRules(request, ruleDependency) {
+        const rule = request.rule || {};
+        const entity = mapEntity(rule.workFlowType, request);
+        const decisions = runRule(rule.decisionCode, {entity, decisions: {enrolmentDecisions: [], encounterDecisions: [], registrationDecisions: []}}, ruleDependency);
+        const visitSchedules = runRule(rule.visitScheduleCode, {entity, visitSchedule: request.visitSchedules || []}, ruleDependency);
+        const checklists = runRule(rule.checklistCode, {entity, checklistDetails: request.checklistDetails || []}, ruleDependency);
+        return success({decisions: decisions || {}, visitSchedules: visitSchedules || [], checklists: checklists || []});
+    }
+
+    function summaryRule(request, ruleDependency) {
+        const rule = request.rule || {};
+        const summaryCode = rule.programSummaryCode || rule.subjectSummaryCode;
+        const entityType = rule.programSummaryCode ? "programEnrolment" : "individual";
+        return success({summaries: runRule(summaryCode, {summaries: [], [entityType]: mapEntity(entityType, request)}, ruleDependency) || []});
+    }
+
+    function encounterEligibility(request, ruleDependency) {
+        const individual = mapEntity("individual", request.individual);
+        const eligibilityRuleEntities = (request.entityTypes || []).map(entityType => {
+            const eligible = runRule(entityType.entityEligibilityCheckRule, {entity: individual}, ruleDependency);
+            return {typeUUID: entityType.uuid, isEligible: eligible === undefined ? true : !!eligible};
+        });
+        return success({eligibilityRuleEntities});
+    }
+
+    function messagingRule(request, ruleDependency) {
+        const result = runRule(request.rule, {entity: mapEntity(request.entityType, request.entity)}, ruleDependency) || {};
+        return success(result);
+    }
+
+    const handlers = {
+        "/api/rules": entityRules,
+        "/api/summaryRule": summaryRule,
+        "/api/encounterEligibility": encounterEligibility,
+        "/api/messagingRule": messagingRule
+    };
+
+    // Runs the requests of a batch one by one, so that a failing request fails only its own response
+    function batch(request, ruleDependency) {
+        const handler = handlers[request.api];
+        const responses = (request.requests || []).map(entityRequest => {
+            if (!handler) return failure(new Error(`Unsupported rule api ${request.api}`));
+            try {
+                return handler(entityRequest, ruleDependency);
+            } catch (error) {
+                return failure(error);
+            }
+        });
+        return {responses};
+    }
+
+    handlers["/api/batch"] = batch;
+
+    // Takes and returns JSON so that no Java objects cross into the context
+    return function execute(api, requestJson, ruleDependency) {
+        const handler = handlers[api];
+        if (!handler) return JSON.stringify(failure(new Error(`Unsupported rule api ${api}`)));
+        try {
+            return JSON.stringify(handler(JSON.parse(requestJson), ruleDependency));
+        } catch (error) {
+            return JSON.stringify(failure(error));
+        }
+    };
+}
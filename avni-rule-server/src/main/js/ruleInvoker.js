@@ -1,4 +1,17 @@
 import * as rulesConfig from "rules-config";
+import * as models from "openchs-models";
+import {createRuleExecutor} from "./ruleHandlers";
+import {createEntityMapper} from "./entityMappers";
+
+// Entry point used by the embedded rule engine
+export const execute = createRuleExecutor(rulesConfig, createEntityMapper(models));
+
+// Called right after an organisation's rule dependency bundle has been evaluated, to take what it exported
+export function captureRuleDependency() {
+    const ruleDependency = globalThis.ruleServiceLibraryInterfaceForSharingModules;
+    globalThis.ruleServiceLibraryInterfaceForSharingModules = undefined;
+    return ruleDependency;
+}
 
 export function callRule(ruleCode, entity) {
     console.log("performing eval", rulesConfig);
@@ -0,0 +1,120 @@
+package org.avni.ruleServer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class RuleHandlersTest {
+    private static final String DECISION_RULE = "({params, imports}) => ({encounterDecisions: [{name: 'Risk', value: [params.entity.name + ':' + imports.rulesConfig.version]}]})";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Context context;
+    private Value execute;
+
+    @Before
+    public void setup() throws IOException {
+        context = Context.newBuilder("js")
+                .allowExperimentalOptions(true)
+                .option("js.esm-eval-returns-exports", "true")
+                .build();
+        Source source = Source.newBuilder("js", new File("src/main/js/ruleHandlers.js"))
+                .mimeType("application/javascript+module")
+                .build();
+        Value ruleHandlers = context.eval(source);
+        Value rulesConfig = context.eval("js", "({version: 'rc'})");
+        // stands in for the openchs-models mapper of entityMappers.js
+        Value mapEntity = context.eval("js", "(entityType, json) => Object.assign({entityType, isMapped: () => true}, json)");
+        execute = ruleHandlers.getMember("createRuleExecutor").execute(rulesConfig, mapEntity);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    private JsonNode execute(String api, String requestJson) throws IOException {
+        return objectMapper.readTree(execute.execute(api, requestJson, null).asString());
+    }
+
+    private static String json(String singleQuoted) {
+        return singleQuoted.replace('\'', '"');
+    }
+
+    @Test
+    public void shouldRunDecisionRule() throws IOException {
+        String request = objectMapper.createObjectNode()
+                .put("name", "Ram")
+                .set("rule", objectMapper.createObjectNode().put("decisionCode", DECISION_RULE))
+                .toString();
+
+        JsonNode response = execute("/api/rules", request);
+
+        assertEquals("success", response.get("status").asText());
+        assertEquals("Ram:rc", response.at("/decisions/encounterDecisions/0/value/0").asText());
+        assertEquals(0, response.get("visitSchedules").size());
+        assertEquals(0, response.get("checklists").size());
+    }
+
+    @Test
+    public void shouldTreatEncounterTypeWithoutEligibilityRuleAsEligible() throws IOException {
+        JsonNode response = execute("/api/encounterEligibility", json("{'individual': {}, 'entityTypes': [" +
+                "{'uuid': 'a'}, " +
+                "{'uuid': 'b', 'entityEligibilityCheckRule': '() => false'}]}"));
+
+        assertEquals("success", response.get("status").asText());
+        assertTrue(response.at("/eligibilityRuleEntities/0/isEligible").asBoolean());
+        assertEquals("b", response.at("/eligibilityRuleEntities/1/typeUUID").asText());
+        assertFalse(response.at("/eligibilityRuleEntities/1/isEligible").asBoolean());
+    }
+
+    @Test
+    public void shouldFailOnlyTheFailingRequestOfBatch() throws IOException {
+        JsonNode response = execute("/api/batch", json("{'api': '/api/messagingRule', 'requests': [" +
+                "{'rule': '({params}) => ({scheduledDateTime: params.entity.date})', 'entity': {'date': 'd1'}}, " +
+                "{'rule': '() => { throw new Error(\\'bad rule\\'); }', 'entity': {}}]}"));
+
+        JsonNode responses = response.get("responses");
+        assertEquals(2, responses.size());
+        assertEquals("success", responses.get(0).get("status").asText());
+        assertEquals("d1", responses.get(0).get("scheduledDateTime").asText());
+        assertEquals("failure", responses.get(1).get("status").asText());
+        assertEquals("bad rule", responses.get(1).at("/error/message").asText());
+    }
+
+    @Test
+    public void shouldFailUnsupportedApi() throws IOException {
+        JsonNode response = execute("/api/upload", "{}");
+
+        assertEquals("failure", response.get("status").asText());
+        assertEquals("Unsupported rule api /api/upload", response.at("/error/message").asText());
+    }
+
+    @Test
+    public void shouldPassMappedEntitiesToRules() throws IOException {
+        String request = objectMapper.createObjectNode()
+                .put("name", "Ram")
+                .set("rule", objectMapper.createObjectNode()
+                        .put("workFlowType", "programEncounter")
+                        .put("decisionCode", "({params}) => ({encounterDecisions: [{name: 'Type', value: [params.entity.entityType, params.entity.isMapped()]}]})"))
+                .toString();
+
+        JsonNode response = execute("/api/rules", request);
+
+        assertEquals("programEncounter", response.at("/decisions/encounterDecisions/0/value/0").asText());
+        assertTrue(response.at("/decisions/encounterDecisions/0/value/1").asBoolean());
+
+        JsonNode messagingResponse = execute("/api/messagingRule", json("{'entityType': 'Subject', 'entity': {}, " +
+                "'rule': '({params}) => ({scheduledDateTime: params.entity.entityType})'}"));
+        assertEquals("Subject", messagingResponse.get("scheduledDateTime").asText());
+    }
+}
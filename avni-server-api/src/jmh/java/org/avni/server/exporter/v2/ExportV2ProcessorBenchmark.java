@@ -0,0 +1,120 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.domain.*;
+import org.avni.server.web.external.request.export.ExportEntityType;
+import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs ExportV2Processor over synthetic subjects with many general and program encounters, half of which match
+ * the export filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExportV2ProcessorBenchmark {
+    private static final int ENCOUNTER_TYPES = 10;
+    private static final int PROGRAMS = 3;
+
+    @Param({"100"})
+    private int subjects;
+
+    @Param({"20", "200"})
+    private int encountersPerSubject;
+
+    private List<Individual> individuals;
+    private ExportV2Processor exportV2Processor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        DateTime start = new DateTime(2020, 1, 1, 0, 0, DateTimeZone.UTC);
+        ExportFilters.DateFilter dateFilter = new ExportFilters.DateFilter(start.plusYears(2), start);
+        List<EncounterType> encounterTypes = new ArrayList<>();
+        List<ExportEntityType> encounterTypeOutputs = new ArrayList<>();
+        for (int i = 0; i < ENCOUNTER_TYPES; i++) {
+            EncounterType encounterType = new EncounterTypeBuilder().withUuid("encounter-type-" + i).build();
+            encounterTypes.add(encounterType);
+            if (i % 2 == 0) encounterTypeOutputs.add(exportEntityType(encounterType.getUuid(), dateFilter));
+        }
+        List<Program> programs = new ArrayList<>();
+        List<ExportOutput.ExportNestedOutput> programOutputs = new ArrayList<>();
+        for (int i = 0; i < PROGRAMS; i++) {
+            Program program = new Program();
+            program.setUuid("program-" + i);
+            programs.add(program);
+            ExportOutput.ExportNestedOutput programOutput = new ExportOutput.ExportNestedOutput();
+            programOutput.setUuid(program.getUuid());
+            programOutput.setEncounters(encounterTypeOutputs);
+            programOutputs.add(programOutput);
+        }
+        ExportOutput exportOutput = new ExportOutput();
+        exportOutput.setEncounters(encounterTypeOutputs);
+        exportOutput.setPrograms(programOutputs);
+
+        individuals = new ArrayList<>();
+        for (int s = 0; s < subjects; s++) {
+            Individual individual = new Individual();
+            individual.setUuid(UUID.randomUUID().toString());
+            Set<Encounter> encounters = new HashSet<>();
+            for (int e = 0; e < encountersPerSubject; e++) {
+                Encounter encounter = new Encounter();
+                initEncounter(encounter, encounterTypes.get(random.nextInt(ENCOUNTER_TYPES)), start.plusDays(random.nextInt(1000)));
+                encounter.setIndividual(individual);
+                encounters.add(encounter);
+            }
+            individual.setEncounters(encounters);
+            Set<ProgramEnrolment> programEnrolments = new HashSet<>();
+            for (Program program : programs) {
+                ProgramEnrolment programEnrolment = new ProgramEnrolment();
+                programEnrolment.setUuid(UUID.randomUUID().toString());
+                programEnrolment.setProgram(program);
+                programEnrolment.setIndividual(individual);
+                programEnrolment.setEnrolmentDateTime(start);
+                Set<ProgramEncounter> programEncounters = new HashSet<>();
+                for (int e = 0; e < encountersPerSubject; e++) {
+                    ProgramEncounter programEncounter = new ProgramEncounter();
+                    initEncounter(programEncounter, encounterTypes.get(random.nextInt(ENCOUNTER_TYPES)), start.plusDays(random.nextInt(1000)));
+                    programEncounter.setProgramEnrolment(programEnrolment);
+                    programEncounters.add(programEncounter);
+                }
+                programEnrolment.setProgramEncounters(programEncounters);
+                programEnrolments.add(programEnrolment);
+            }
+            individual.setProgramEnrolments(programEnrolments);
+            individuals.add(individual);
+        }
+
+        exportV2Processor = new ExportV2Processor(null, null);
+        exportV2Processor.setExportPlan(new ExportV2Plan(exportOutput, DateTimeZone.UTC));
+    }
+
+    @Benchmark
+    public void process(Blackhole blackhole) {
+        for (Individual individual : individuals) {
+            blackhole.consume(exportV2Processor.process(individual));
+        }
+    }
+
+    private static void initEncounter(AbstractEncounter encounter, EncounterType encounterType, DateTime encounterDateTime) {
+        encounter.setUuid(UUID.randomUUID().toString());
+        encounter.setEncounterType(encounterType);
+        encounter.setEncounterDateTime(encounterDateTime, null);
+    }
+
+    private static ExportEntityType exportEntityType(String uuid, ExportFilters.DateFilter dateFilter) {
+        ExportEntityType exportEntityType = new ExportEntityType();
+        exportEntityType.setUuid(uuid);
+        ExportFilters filters = new ExportFilters();
+        filters.setDate(dateFilter);
+        exportEntityType.setFilters(filters);
+        return exportEntityType;
+    }
+}
@@ -0,0 +1,110 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.ObservationCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads, writes and copies observations the way they are mapped to jsonb columns, against the previous String based
+ * codec and serialization copy. Reads are lazy, so read() parses by asking for the size, while readAndWriteUnchanged()
+ * writes observations back without parsing them, as sync does. Observations are a realistic mix of numeric, text, date, coded (single and multi
+ * select), media and repeatable question group values, keyed by concept uuid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonbUserTypeBenchmark {
+    @Param({"20", "200"})
+    private int observationsPerRow;
+
+    private ObservationCollectionUserType userType;
+    private ObservationCollection observations;
+    private byte[] columnBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        userType = new ObservationCollectionUserType();
+        observations = new ObservationCollection();
+        for (int i = 0; i < observationsPerRow; i++) {
+            observations.put(UUID.randomUUID().toString(), observationValue(i, random));
+        }
+        columnBytes = userType.write(observations).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Object observationValue(int i, Random random) {
+        switch (i % 7) {
+            case 0:
+                return random.nextInt(200);
+            case 1:
+                return random.nextDouble() * 100;
+            case 2:
+                return "Free text answer " + random.nextInt(1000);
+            case 3:
+                return "2024-0" + (1 + random.nextInt(9)) + "-15T00:00:00.000Z";
+            case 4:
+                return UUID.randomUUID().toString();
+            case 5:
+                return Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString());
+            default:
+                List<Map<String, Object>> repeatableGroup = new ArrayList<>();
+                for (int g = 0; g < 3; g++) {
+                    Map<String, Object> groupObservations = new LinkedHashMap<>();
+                    groupObservations.put(UUID.randomUUID().toString(), random.nextInt(50));
+                    groupObservations.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+                    groupObservations.put(UUID.randomUUID().toString(), "image-" + random.nextInt(1000) + ".jpg");
+                    repeatableGroup.add(groupObservations);
+                }
+                return repeatableGroup;
+        }
+    }
+
+    @Benchmark
+    public ObservationCollection read() throws IOException {
+        ObservationCollection read = userType.read(columnBytes);
+        read.size();
+        return read;
+    }
+
+    @Benchmark
+    public String readAndWriteUnchanged() throws IOException {
+        return userType.write(userType.read(columnBytes));
+    }
+
+    @Benchmark
+    public ObservationCollection readViaString() throws IOException {
+        String cellContent = new String(columnBytes, StandardCharsets.UTF_8);
+        return AbstractJsonbUserType.mapper.readValue(cellContent.getBytes("UTF-8"), ObservationCollection.class);
+    }
+
+    @Benchmark
+    public String write() throws IOException {
+        return userType.write(observations);
+    }
+
+    @Benchmark
+    public String writeViaStringWriter() throws IOException {
+        StringWriter w = new StringWriter();
+        AbstractJsonbUserType.mapper.writeValue(w, observations);
+        w.flush();
+        return w.toString();
+    }
+
+    @Benchmark
+    public ObservationCollection deepCopy() {
+        return userType.deepCopy(observations);
+    }
+
+    @Benchmark
+    public Object deepCopyBySerialization() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(observations);
+        oos.close();
+        return new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+    }
+}
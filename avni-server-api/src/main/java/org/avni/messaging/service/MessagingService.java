@@ -29,6 +29,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -92,15 +93,19 @@ public class MessagingService {
 
     public void onEntitySave(Long entityId, Long entityTypeId, EntityType entityType, Long subjectId, Long userId) throws RuleExecutionException {
         List<MessageRule> messageRules = messageRuleRepository.findAllByEntityTypeAndEntityTypeIdAndIsVoidedFalse(entityType, entityTypeId);
+        if (messageRules.isEmpty()) return;
+        List<ScheduleRuleResponseEntity> scheduleRuleResponses = ruleService.executeScheduleRules(entityType.name(), entityId,
+                messageRules.stream().map(MessageRule::getScheduleRule).collect(Collectors.toList()));
 
-        for (MessageRule messageRule : messageRules) {
+        for (int i = 0; i < messageRules.size(); i++) {
+            MessageRule messageRule = messageRules.get(i);
             MessageReceiver messageReceiver = null;
             if (messageRule.getReceiverType() == ReceiverType.Subject)
                 messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.Subject, subjectId);
             else if (messageRule.getReceiverType() == ReceiverType.User)
                 messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.User, userId);
 
-            ScheduleRuleResponseEntity scheduleRuleResponse = ruleService.executeScheduleRule(messageRule.getEntityType().name(), entityId, messageRule.getScheduleRule());
+            ScheduleRuleResponseEntity scheduleRuleResponse = scheduleRuleResponses.get(i);
             Boolean shouldSend = scheduleRuleResponse.getShouldSend();
             if (shouldSend == null || shouldSend) {
                 messageRequestService.createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, entityId, scheduleRuleResponse.getScheduledDateTime());
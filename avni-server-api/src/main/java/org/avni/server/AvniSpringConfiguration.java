@@ -2,14 +2,18 @@ package org.avni.server;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.avni.server.application.projections.CatchmentAddressProjection;
 import org.avni.server.domain.User;
+import org.avni.server.framework.cache.WriteEvictedCache;
 import org.avni.server.framework.jpa.CHSAuditorAware;
 import org.avni.server.util.ObjectMapperSingleton;
 import org.keycloak.adapters.KeycloakConfigResolver;
 import org.keycloak.adapters.KeycloakDeployment;
 import org.keycloak.adapters.KeycloakDeploymentBuilder;
 import org.keycloak.representations.adapters.config.AdapterConfig;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,6 +43,11 @@ import java.util.concurrent.TimeUnit;
 
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS;
+import static org.avni.server.service.AuthenticatedUserCache.AUTHENTICATED_USERS;
+import static org.avni.server.service.MetadataChangeWatermarkCache.METADATA_CHANGE_WATERMARKS;
+import static org.avni.server.service.SyncableItemsCache.SYNCABLE_ITEMS;
+import static org.avni.server.service.accessControl.PrivilegeMatrixService.PRIVILEGE_MATRICES;
+import static org.avni.server.web.external.EmbeddedRuleExecutor.RULE_DEPENDENCIES;
 
 @Configuration
 @EnableCaching
@@ -60,6 +69,24 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
     @Value("${avni.cache.max.weight}")
     private int cacheMaxWeight;
 
+    @Value("${avni.cache.writeEvicted.max.entries}")
+    private int maxEntriesToCacheWriteEvicted;
+
+    @Value("${avni.sync.metadataWatermark.ttl.seconds}")
+    private int metadataWatermarkTimeToLiveInSeconds;
+
+    @Value("${avni.sync.syncableItems.ttl.seconds}")
+    private int syncableItemsTimeToLiveInSeconds;
+
+    @Value("${avni.auth.userCache.ttl.seconds}")
+    private int authenticatedUserTimeToLiveInSeconds;
+
+    @Value("${avni.accessControl.privilegeMatrix.ttl.seconds}")
+    private int privilegeMatrixTimeToLiveInSeconds;
+
+    @Value("${avni.rule.engine.embedded.ruleDependency.ttl.seconds}")
+    private int ruleDependencyTimeToLiveInSeconds;
+
     @Value("${avni.custom.query.timeout}")
     private int timeout;
 
@@ -148,7 +175,7 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(ObjectProvider<MeterRegistry> meterRegistry) {
         return new ConcurrentMapCacheManager() {
             @Override
             protected Cache createConcurrentMapCache(final String name) {
@@ -156,8 +183,19 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
                     case ADDRESSES_PER_CATCHMENT:
                     case ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS:
                         return getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(name);
+                    // evicted on writes of the entities they are computed from, see EntityWriteCacheEvictor and WriteEvictedCache
+                    case METADATA_CHANGE_WATERMARKS:
+                        return getWriteEvictedCache(name, metadataWatermarkTimeToLiveInSeconds);
+                    case SYNCABLE_ITEMS:
+                        return getWriteEvictedCache(name, syncableItemsTimeToLiveInSeconds);
+                    case AUTHENTICATED_USERS:
+                        return getWriteEvictedCache(name, authenticatedUserTimeToLiveInSeconds);
+                    case PRIVILEGE_MATRICES:
+                        return getWriteEvictedCache(name, privilegeMatrixTimeToLiveInSeconds);
+                    case RULE_DEPENDENCIES:
+                        return getWriteEvictedCache(name, ruleDependencyTimeToLiveInSeconds);
                     default:
-                        return getConcurrentMapCacheWithMaxEntriesConfig(name);
+                        return getConcurrentMapCacheWithMaxEntriesConfig(name, timeToLiveInSeconds, maxEntriesToCache);
                 }
             }
 
@@ -170,10 +208,20 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
                         .build().asMap(), DISALLOW_NULL_VALUES);
             }
 
-            private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name) {
+            private WriteEvictedCache getWriteEvictedCache(String name, int timeToLiveInSeconds) {
+                com.google.common.cache.Cache<Object, Object> cache = CacheBuilder.newBuilder()
+                        .expireAfterWrite(timeToLiveInSeconds, TimeUnit.SECONDS)
+                        .maximumSize(maxEntriesToCacheWriteEvicted)
+                        .recordStats()
+                        .build();
+                meterRegistry.ifAvailable(registry -> GuavaCacheMetrics.monitor(registry, cache, name));
+                return new WriteEvictedCache(name, cache);
+            }
+
+            private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name, int timeToLiveInSeconds, int maxEntries) {
                 return new ConcurrentMapCache(name, CacheBuilder.newBuilder()
                                 .expireAfterWrite(timeToLiveInSeconds, TimeUnit.SECONDS)
-                                .maximumSize(maxEntriesToCache)
+                                .maximumSize(maxEntries)
                         .build().asMap(), DISALLOW_NULL_VALUES);
             }
         };
@@ -9,7 +9,12 @@ import static org.avni.messaging.repository.GlificContactRepository.GLIFIC_CONTA
 import static org.avni.messaging.repository.GlificMessageTemplateRepository.GLIFIC_TEMPLATES_FOR_ORG;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS;
+import static org.avni.server.service.AuthenticatedUserCache.AUTHENTICATED_USERS;
 import static org.avni.server.service.IndividualService.PHONE_NUMBER_FOR_SUBJECT_ID;
+import static org.avni.server.service.MetadataChangeWatermarkCache.METADATA_CHANGE_WATERMARKS;
+import static org.avni.server.service.SyncableItemsCache.SYNCABLE_ITEMS;
+import static org.avni.server.service.accessControl.PrivilegeMatrixService.PRIVILEGE_MATRICES;
+import static org.avni.server.web.external.EmbeddedRuleExecutor.RULE_DEPENDENCIES;
 
 @Component
 public class SimpleCacheCustomizer
@@ -21,6 +26,11 @@ public class SimpleCacheCustomizer
                 ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS,
                 PHONE_NUMBER_FOR_SUBJECT_ID,
                 GLIFIC_CONTACT_FOR_PHONE_NUMBER,
-                GLIFIC_TEMPLATES_FOR_ORG));
+                GLIFIC_TEMPLATES_FOR_ORG,
+                METADATA_CHANGE_WATERMARKS,
+                SYNCABLE_ITEMS,
+                AUTHENTICATED_USERS,
+                PRIVILEGE_MATRICES,
+                RULE_DEPENDENCIES));
     }
 }
@@ -1,24 +1,61 @@
 package org.avni.server.dao;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
+import org.avni.server.framework.tomcat.ConnectionRole;
 import org.avni.server.framework.security.UserContextHolder;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Statement;
+
+/**
+ * Switches the database role of the connection used by the entity manager. The role is recorded on the pooled
+ * connection and sent to the database only when it differs from the role already set, just before the next statement.
+ */
 public class DbRoleRepository {
     private static final Logger logger = LoggerFactory.getLogger(RoleSwitchableRepository.class);
 
     public static void setDbRoleFromContext(EntityManager entityManager) {
         String dbUser = UserContextHolder.getOrganisation().getDbUser();
-        logger.info("Setting role back to user: " + dbUser);
-        Query setRoleBackToOrgDbUser = entityManager.createNativeQuery("set role \"" + dbUser + "\"");
-        setRoleBackToOrgDbUser.executeUpdate();
+        logger.debug("Setting role back to user: {}", dbUser);
+        switchRole(entityManager, dbUser);
     }
 
     public static void setDbRoleNone(EntityManager entityManager) {
-        logger.info("Setting role to none");
-        Query resetRoleQuery = entityManager.createNativeQuery("reset role;");
-        resetRoleQuery.executeUpdate();
+        logger.debug("Setting role to none");
+        switchRole(entityManager, null);
+    }
+
+    /**
+     * Runs the enclosed statements without the organisation's role, restoring it on close.
+     * <pre>
+     * try (DbRoleScope ignored = DbRoleRepository.withDbRoleNone(entityManager)) { ... }
+     * </pre>
+     */
+    public static DbRoleScope withDbRoleNone(EntityManager entityManager) {
+        setDbRoleNone(entityManager);
+        return () -> setDbRoleFromContext(entityManager);
+    }
+
+    private static void switchRole(EntityManager entityManager, String role) {
+        if (entityManager.isJoinedToTransaction()) {
+            // statements pending in the session belong to the role they were issued under
+            entityManager.flush();
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (connection.isWrapperFor(ConnectionRole.class)) {
+                connection.unwrap(ConnectionRole.class).switchTo(role);
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(role == null ? "reset role" : "set role \"" + role + "\"");
+            }
+        });
+    }
+
+    public interface DbRoleScope extends AutoCloseable {
+        @Override
+        void close();
     }
 }
@@ -96,11 +96,7 @@ public interface GroupSubjectRepository extends TransactionalDataRepository<Grou
             if (subjectType.isShouldSyncByLocation()) {
                 List<Long> addressLevels = syncParameters.getAddressLevels();
                 if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("groupSubjectAddressId"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                    }
-                    predicates.add(inClause1);
+                    predicates.add(TransactionDataCriteriaBuilderUtil.addressIdIn(cb, root.get("groupSubjectAddressId"), addressLevels));
                 } else {
                     predicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -158,11 +154,12 @@ public interface GroupSubjectRepository extends TransactionalDataRepository<Grou
             "group_subject_sync_concept_2_value = CAST((i.observations ->> CAST(:syncAttribute2 as text)) as text), " +
             "last_modified_date_time = (current_timestamp + gs.id * (interval '1 millisecond')/1000), last_modified_by_id = :lastModifiedById " +
             "from individual i " +
-            "where gs.group_subject_id = i.id and i.subject_type_id = :subjectTypeId", nativeQuery = true)
-    void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
+            "where gs.group_subject_id = i.id and i.subject_type_id = :subjectTypeId " +
+            "and i.id > :afterIndividualId and i.id <= :toIndividualId", nativeQuery = true)
+    void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
 
-    default void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2) {
-        this.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
+    default void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2) {
+        this.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
     }
 
     @Modifying
@@ -6,6 +6,7 @@ import org.avni.server.domain.*;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.projection.IndividualWebProjection;
 import org.avni.server.util.S;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.springframework.data.domain.Page;
@@ -17,6 +18,7 @@ import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -53,16 +55,18 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
     Page<Individual> findByIdIn(Long[] ids, Pageable pageable);
 
     default Specification<Individual> getFilterSpecForName(String value) {
-        return (Root<Individual> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+        // ilike on the column rather than like on upper(column), so that the trigram indexes on the name columns are used
+        return (Root<Individual> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) -> {
+            HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) criteriaBuilder;
             if (value != null && !value.isEmpty()) {
                 Predicate[] predicates = new Predicate[2];
                 String[] values = value.trim().split(" ");
                 if (values.length > 0) {
-                    predicates[0] = cb.like(cb.upper(root.get("firstName")), values[0].toUpperCase() + "%");
-                    predicates[1] = cb.like(cb.upper(root.get("lastName")), values[0].toUpperCase() + "%");
+                    predicates[0] = cb.ilike(root.get("firstName"), values[0] + "%");
+                    predicates[1] = cb.ilike(root.get("lastName"), values[0] + "%");
                 }
                 if (values.length > 1) {
-                    predicates[1] = cb.like(cb.upper(root.get("lastName")), values[1].toUpperCase() + "%");
+                    predicates[1] = cb.ilike(root.get("lastName"), values[1] + "%");
                     return cb.and(predicates[0], predicates[1]);
                 }
                 return cb.or(predicates[0], predicates[1]);
@@ -115,6 +119,21 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
             "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
     Stream<Individual> findAllIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
+    @Query("select ind.id from Individual ind " +
+            "where ind.isVoided = false " +
+            "and ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findNonVoidedIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
+    @Query("select ind.id from Individual ind " +
+            "where ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findAllIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
     //group by is added for distinct ind records
     @Query("select i from Individual i " +
             "join i.encounters enc " +
@@ -176,16 +195,24 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
 
     List<IndividualWebProjection> findAllIndividualWebProjectionByUuidIn(List<String> uuids);
 
+    List<Individual> findAllByUuidIn(Collection<String> uuids);
+
+    @Query(value = "select max(id) from (select id from individual where subject_type_id = :subjectTypeId and id > :afterIndividualId order by id limit :chunkSize) chunk", nativeQuery = true)
+    Long findChunkEndIdForSubjectType(Long subjectTypeId, Long afterIndividualId, int chunkSize);
+
+    long countBySubjectTypeId(Long subjectTypeId);
+
     @Modifying(clearAutomatically = true)
     @Query(value = "update individual i set " +
             "sync_concept_1_value = CAST((i.observations ->> CAST(:syncAttribute1 as text)) as text), " +
             "sync_concept_2_value = CAST((i.observations ->> CAST(:syncAttribute2 as text)) as text), " +
             "last_modified_date_time = (current_timestamp + i.id * (interval '1 millisecond')/1000), last_modified_by_id = :lastModifiedById " +
-            "where i.subject_type_id = :subjectTypeId", nativeQuery = true)
-    void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
+            "where i.subject_type_id = :subjectTypeId " +
+            "and i.id > :afterIndividualId and i.id <= :toIndividualId", nativeQuery = true)
+    int updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
 
-    default void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2) {
-        this.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
+    default int updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2) {
+        return this.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
     }
 
     boolean existsByAddressLevelIdIn(List<Long> addressIds);
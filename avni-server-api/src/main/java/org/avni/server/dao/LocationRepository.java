@@ -194,6 +194,13 @@ public interface LocationRepository extends ReferenceDataRepository<AddressLevel
     @Query(value = "select * from address_level where lineage ~ cast(:lquery as lquery)", nativeQuery = true)
     List<AddressLevel> getAllChildLocations(@Param("lquery") String lquery);
 
+    // one ltree <@ ltree per selected location, as the gist index on lineage has no operator for ltree <@ ltree[]
+    @Query(value = "select cast(al.id as bigint) from address_level al " +
+            "where al.is_voided = false " +
+            "and exists (select 1 from address_level sel where sel.id in (:addressLevelIds) and al.lineage <@ sel.lineage)",
+            nativeQuery = true)
+    List<Long> getNonVoidedSelfAndDescendantIds(@Param("addressLevelIds") Collection<Long> addressLevelIds);
+
     String CATCHMENT_ADDRESS_MAPPING_BASE_QUERY = "select row_number() over () as id, c.id as catchment_id, al1.id as addresslevel_id, al1.type_id as type_id from catchment c\n" +
             "                         inner join catchment_address_mapping cam on c.id = cam.catchment_id\n" +
             "                         inner join address_level al on cam.addresslevel_id = al.id\n" +
@@ -0,0 +1,33 @@
+package org.avni.server.dao;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class MetadataChangeRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MetadataChangeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Date> getLastModifiedDateTimes(Collection<String> tableNames) {
+        Map<String, Date> lastModifiedDateTimes = new HashMap<>();
+        if (tableNames.isEmpty()) return lastModifiedDateTimes;
+
+        String query = tableNames.stream()
+                .map(tableName -> String.format("select '%s' as table_name, max(last_modified_date_time) as last_modified_date_time from %s", tableName, tableName))
+                .collect(Collectors.joining("\nunion all\n"));
+        jdbcTemplate.query(query, Collections.emptyMap(), resultSet -> {
+            lastModifiedDateTimes.put(resultSet.getString("table_name"), resultSet.getTimestamp("last_modified_date_time"));
+        });
+        return lastModifiedDateTimes;
+    }
+}
@@ -0,0 +1,74 @@
+package org.avni.server.dao;
+
+import org.avni.server.domain.accessControl.PrivilegeMatrix;
+import org.avni.server.domain.accessControl.PrivilegeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class PrivilegeMatrixRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PrivilegeMatrixRepository.class);
+    // Same joins and conditions as UserRepository.BASE_ENTITY_TYPE_QUERY, returning every allowed row instead of checking one
+    private static final String ALLOWED_PRIVILEGES_QUERY = "select p.type, group_privilege.subject_type_id, group_privilege.program_id,\n" +
+            "       group_privilege.program_encounter_type_id, group_privilege.encounter_type_id\n" +
+            "from group_privilege\n" +
+            "    join privilege p on group_privilege.privilege_id = p.id\n" +
+            "    join groups on group_privilege.group_id = groups.id and groups.is_voided = false\n" +
+            "    join user_group ug on groups.id = ug.group_id and ug.is_voided = false\n" +
+            "    join users on ug.user_id = users.id\n" +
+            "where users.id = :userId and group_privilege.allow and group_privilege.is_voided = false";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PrivilegeMatrixRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void loadAllowedPrivileges(long userId, PrivilegeMatrix privilegeMatrix) {
+        jdbcTemplate.query(ALLOWED_PRIVILEGES_QUERY, Collections.singletonMap("userId", userId), resultSet -> {
+            PrivilegeType privilegeType = getPrivilegeType(resultSet.getString("type"));
+            if (privilegeType == null) return;
+            privilegeMatrix.allow(privilegeType,
+                    resultSet.getObject("subject_type_id", Long.class),
+                    resultSet.getObject("program_id", Long.class),
+                    resultSet.getObject("program_encounter_type_id", Long.class),
+                    resultSet.getObject("encounter_type_id", Long.class));
+        });
+    }
+
+    // A privilege added to the database before the code that knows it is deployed is not granted, rather than failing every check
+    private static PrivilegeType getPrivilegeType(String type) {
+        try {
+            return PrivilegeType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping unknown privilege type {}", type);
+            return null;
+        }
+    }
+
+    public Map<String, Long> getSubjectTypeIds() {
+        return getIdsByUuid("select uuid, id from subject_type");
+    }
+
+    public Map<String, Long> getProgramIds() {
+        return getIdsByUuid("select uuid, id from program");
+    }
+
+    public Map<String, Long> getEncounterTypeIds() {
+        return getIdsByUuid("select uuid, id from encounter_type");
+    }
+
+    private Map<String, Long> getIdsByUuid(String query) {
+        Map<String, Long> idsByUuid = new HashMap<>();
+        jdbcTemplate.query(query, Collections.emptyMap(), resultSet -> {
+            idsByUuid.put(resultSet.getString("uuid"), resultSet.getLong("id"));
+        });
+        return idsByUuid;
+    }
+}
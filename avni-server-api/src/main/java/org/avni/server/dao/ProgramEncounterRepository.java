@@ -146,11 +146,12 @@ public interface ProgramEncounterRepository extends TransactionalDataRepository<
             "sync_concept_2_value = CAST((i.observations ->> CAST(:syncAttribute2 as text)) as text), " +
             "last_modified_date_time = (current_timestamp + enc.id * (interval '1 millisecond')/1000), last_modified_by_id = :lastModifiedById " +
             "from individual i " +
-            "where enc.individual_id = i.id and i.subject_type_id = :subjectTypeId", nativeQuery = true)
-    void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
+            "where enc.individual_id = i.id and i.subject_type_id = :subjectTypeId " +
+            "and i.id > :afterIndividualId and i.id <= :toIndividualId", nativeQuery = true)
+    void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2, Long lastModifiedById);
 
-    default void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, String syncAttribute1, String syncAttribute2) {
-        this.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
+    default void updateConceptSyncAttributesForSubjectType(Long subjectTypeId, Long afterIndividualId, Long toIndividualId, String syncAttribute1, String syncAttribute2) {
+        this.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncAttribute1, syncAttribute2, UserContextHolder.getUserId());
     }
 
     class SearchParams {
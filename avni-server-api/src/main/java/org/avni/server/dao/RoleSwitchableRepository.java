@@ -18,4 +18,8 @@ public abstract class RoleSwitchableRepository {
     protected void setRoleToNone() {
         DbRoleRepository.setDbRoleNone(entityManager);
     }
+
+    protected DbRoleRepository.DbRoleScope withRoleNone() {
+        return DbRoleRepository.withDbRoleNone(entityManager);
+    }
 }
@@ -1,6 +1,7 @@
 package org.avni.server.dao;
 
 import jakarta.persistence.criteria.*;
+import org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil;
 import org.avni.server.domain.*;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.util.JsonObjectUtil;
@@ -41,11 +42,7 @@ public interface SubjectMigrationRepository extends TransactionalDataRepository<
             if (subjectType.isShouldSyncByLocation()) {
                 List<Long> addressLevels = syncParameters.getAddressLevels();
                 if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("oldAddressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                    }
-                    addressLevelPredicates.add(inClause1);
+                    addressLevelPredicates.add(TransactionDataCriteriaBuilderUtil.addressIdIn(cb, root.get("oldAddressLevel").get("id"), addressLevels));
                 } else {
                     addressLevelPredicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -1,15 +1,20 @@
 package org.avni.server.dao;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 import org.avni.server.dao.search.SearchBuilder;
+import org.avni.server.dao.search.SearchResultPage;
 import org.avni.server.dao.search.SqlQuery;
 import org.avni.server.domain.SubjectType;
+import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
 import org.hibernate.query.sql.internal.NativeQueryImpl;
 import org.hibernate.transform.AliasToEntityMapResultTransformer;
+import org.hibernate.type.StandardBasicTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
@@ -31,11 +36,16 @@ public class SubjectSearchRepository extends RoleSwitchableRepository {
         this.subjectTypeRepository = subjectTypeRepository;
     }
 
+    /**
+     * Fetches one row more than the page size, so that whether there are more pages is known without counting.
+     */
     @Transactional
-    public List<Map<String, Object>> search(SubjectSearchRequest searchRequest, SearchBuilder searchBuilder) {
+    public SearchResultPage search(SubjectSearchRequest searchRequest, SearchBuilder searchBuilder) {
         SubjectType subjectType = StringUtils.isEmpty(searchRequest.getSubjectType()) ? null : subjectTypeRepository.findByUuid(searchRequest.getSubjectType());
         SqlQuery query = searchBuilder.getSQLResultQuery(searchRequest, subjectType);
         try {
+            int limit = (Integer) query.getParameters().get("limit");
+            query.getParameters().put("limit", limit + 1);
             setRoleToNone();
             logger.debug("Executing query: " + query.getSql());
             logger.debug("Parameters: " + query.getParameters());
@@ -45,7 +55,7 @@ public class SubjectSearchRepository extends RoleSwitchableRepository {
             query.getParameters().forEach((name, value) -> {
                 sql.setParameter(name, value);
             });
-            return sql.getResultList();
+            return SearchResultPage.of(sql.getResultList(), limit);
         } finally {
             setRoleBackToUser();
         }
@@ -67,4 +77,64 @@ public class SubjectSearchRepository extends RoleSwitchableRepository {
             setRoleBackToUser();
         }
     }
+
+    /**
+     * The planner's estimate of the number of rows of the count query, got from explain without running the query.
+     * Can be well off when the filters are correlated, so only meant for display.
+     */
+    @Transactional
+    public Long getEstimatedCount(SubjectSearchRequest searchRequest, SearchBuilder searchBuilder) {
+        SubjectType subjectType = StringUtils.isEmpty(searchRequest.getSubjectType()) ? null : subjectTypeRepository.findByUuid(searchRequest.getSubjectType());
+        SqlQuery query = searchBuilder.getSQLCountQuery(searchRequest, subjectType);
+        try {
+            setRoleToNone();
+            Query sql = entityManager.createNativeQuery("explain (format json) " + query.getSql());
+            ((NativeQueryImpl<?>) sql).addScalar("QUERY PLAN", StandardBasicTypes.STRING);
+            query.getParameters().forEach((name, value) -> {
+                sql.setParameter(name, value);
+            });
+            return getEstimatedRows((String) sql.getSingleResult());
+        } finally {
+            setRoleBackToUser();
+        }
+    }
+
+    static Long getEstimatedRows(String queryPlan) {
+        try {
+            JsonNode plan = ObjectMapperSingleton.getObjectMapper().readTree(queryPlan).path(0).path("Plan");
+            // the count is the aggregate at the top, the rows counted are estimated by the node under it
+            JsonNode counted = plan.path("Plans").path(0);
+            if (counted.isMissingNode()) {
+                JsonNode planRows = plan.path("Plan Rows");
+                return planRows.isMissingNode() ? null : planRows.asLong();
+            }
+            // a parallel count is Finalize Aggregate -> Gather -> Partial Aggregate -> (node counted in each process)
+            double parallelDivisor = 1;
+            while (isGather(counted) || isPartialAggregate(counted)) {
+                if (isGather(counted)) parallelDivisor = getParallelDivisor(counted.path("Workers Planned").asInt());
+                JsonNode child = counted.path("Plans").path(0);
+                if (child.isMissingNode()) break;
+                counted = child;
+            }
+            JsonNode planRows = counted.path("Plan Rows");
+            return planRows.isMissingNode() ? null : Math.round(planRows.asDouble() * parallelDivisor);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read the search query plan", e);
+        }
+    }
+
+    private static boolean isGather(JsonNode node) {
+        String nodeType = node.path("Node Type").asText();
+        return "Gather".equals(nodeType) || "Gather Merge".equals(nodeType);
+    }
+
+    private static boolean isPartialAggregate(JsonNode node) {
+        return "Aggregate".equals(node.path("Node Type").asText()) && "Partial".equals(node.path("Partial Mode").asText());
+    }
+
+    // Rows of nodes under a gather are estimated per process. Same as get_parallel_divisor of postgres, with the leader participating.
+    private static double getParallelDivisor(int workersPlanned) {
+        double leaderContribution = 1.0 - 0.3 * workersPlanned;
+        return workersPlanned + Math.max(leaderContribution, 0);
+    }
 }
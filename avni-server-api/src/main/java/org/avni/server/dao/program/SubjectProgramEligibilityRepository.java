@@ -20,6 +20,7 @@ import org.springframework.stereotype.Repository;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.addressIdIn;
 import static org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil.joinUserSubjectAssignment;
 
 @Repository
@@ -35,11 +36,7 @@ public interface SubjectProgramEligibilityRepository extends TransactionalDataRe
             if (subjectType.isShouldSyncByLocation()) {
                 List<Long> addressLevels = syncParameters.getAddressLevels();
                 if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> addressLevelFilter = cb.in(subjectJoin.get("addressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        addressLevelFilter.value(id);
-                    }
-                    predicates.add(addressLevelFilter);
+                    predicates.add(addressIdIn(cb, subjectJoin.get("addressLevel").get("id"), addressLevels));
                 } else {
                     predicates.add(cb.equal(root.get("id"), cb.literal(0)));
                 }
@@ -29,33 +29,46 @@ public class BaseSubjectSearchQueryBuilder<T> {
     protected static final String ADDRESS_FILTER = "i.address_id in (select al.id from address_level al where 1=1\n";
     protected static final String SEARCH_ALL_FILTER = "i.id in (select i.id from individual i join program_enrolment penr on penr.individual_id = i.id and penr.is_voided is false\n";
 
+    private static final SqlQueryShapes queryShapes = new SqlQueryShapes();
+
     private String orderByClause = "";
 
-    protected final Set<String> whereClauses = new HashSet<>();
+    // kept in the order added, so that the same filters give the same SQL
+    protected final Set<String> whereClauses = new LinkedHashSet<>();
     private final Map<String, Object> parameters = new HashMap<>();
     private boolean forCount;
-    private final Set<String> customFields = new HashSet<>();
+    private final Map<String, String> customFields = new LinkedHashMap<>();
 
     public BaseSubjectSearchQueryBuilder() {
         logger = LoggerFactory.getLogger(this.getClass());
     }
 
     public SqlQuery buildUsingBaseQuery(String baseQuery, String groupByClause) {
+        addParameter("organisationId", UserContextHolder.getOrganisation().getId());
+        if (parameters.get("offset") == null || parameters.get("limit") == null) {
+            addDefaultPaginationFilters();
+        }
+        if (forCount) {
+            removePaginationFilters();
+        }
+        List<Object> shape = Arrays.asList(baseQuery, new ArrayList<>(whereClauses), groupByClause, orderByClause, new ArrayList<>(customFields.values()), forCount);
+        String sql = queryShapes.get(shape, () -> buildSql(baseQuery, groupByClause));
+        logger.trace(parameters.toString());
+        return new SqlQuery(sql, parameters);
+    }
+
+    private String buildSql(String baseQuery, String groupByClause) {
         StringBuilder query = new StringBuilder();
         query.append(baseQuery);
 
-        query.append(String.format("\n where i.organisation_id = %d and\n", UserContextHolder.getOrganisation().getId()));
+        query.append("\n where i.organisation_id = :organisationId and\n");
 
         query.append(String.join(" \nand ", whereClauses));
         query.append(groupByClause);
-        if (parameters.get("offset") == null || parameters.get("limit") == null) {
-            addDefaultPaginationFilters();
-        }
 
         String finalQuery = "";
         if (forCount) {
             finalQuery = "select count(*) from (" + query + ") a";
-            removePaginationFilters();
         } else {
             String offsetLimitClause = "offset :offset limit :limit";
             finalQuery = query.append("\n")
@@ -64,10 +77,8 @@ public class BaseSubjectSearchQueryBuilder<T> {
                     .append(offsetLimitClause)
                     .toString();
         }
-        String customFieldString = customFields.isEmpty() ? "" : ",\n".concat(String.join(",\n", customFields));
-        String queryWithCustomFields = finalQuery.replace(" $CUSTOM_FIELDS", customFieldString);
-        logger.trace(parameters.toString());
-        return new SqlQuery(queryWithCustomFields, parameters);
+        String customFieldString = customFields.isEmpty() ? "" : ",\n".concat(String.join(",\n", customFields.values()));
+        return finalQuery.replace(" $CUSTOM_FIELDS", customFieldString);
     }
 
     private void addDefaultPaginationFilters() {
@@ -134,12 +145,15 @@ public class BaseSubjectSearchQueryBuilder<T> {
     }
 
     protected void addCustomFields(org.avni.server.domain.Concept concept) {
+        if (customFields.containsKey(concept.getUuid())) return;
+        String parameter = "customFieldConceptUuid" + customFields.size();
+        addParameter(parameter, concept.getUuid());
         if (concept.isCoded()) {
-            customFields.add(String.format("multi_select_coded(i.observations -> '%s') as \"%s\"", concept.getUuid(), concept.getName()));
+            customFields.put(concept.getUuid(), String.format("multi_select_coded(i.observations -> :%s) as \"%s\"", parameter, concept.getName()));
         } else if (concept.getDataType().equals(ConceptDataType.Date.toString())) {
-            customFields.add(String.format("cast(i.observations ->> '%s' as date) as \"%s\"", concept.getUuid(), concept.getName()));
+            customFields.put(concept.getUuid(), String.format("cast(i.observations ->> :%s as date) as \"%s\"", parameter, concept.getName()));
         } else {
-            customFields.add(String.format("i.observations ->> '%s' as \"%s\"", concept.getUuid(), concept.getName()));
+            customFields.put(concept.getUuid(), String.format("i.observations ->> :%s as \"%s\"", parameter, concept.getName()));
         }
     }
 
@@ -279,7 +293,11 @@ public class BaseSubjectSearchQueryBuilder<T> {
                 String value = "%" + c.getValue() + "%";
                 String param = "textValue" + ci;
                 addParameter(param, value);
-                whereClauses.add(generateWhereClause(getFilterForSearchScope(c.getSearchScope()), tableAlias + ".observations->> :" + conceptUuidParam + " ilike :" + param));
+                // the uuid as a literal lets the trigram index of a searchable concept be used
+                String textValue = SearchableConceptIndexRepository.isIndexable(c.getUuid()) ?
+                        SearchableConceptIndexRepository.textValueExpression(tableAlias, c.getUuid()) :
+                        tableAlias + ".observations->> :" + conceptUuidParam;
+                whereClauses.add(generateWhereClause(getFilterForSearchScope(c.getSearchScope()), textValue + " ilike :" + param));
             }
 
             if (c.getDataType().equalsIgnoreCase("NUMERIC")) {
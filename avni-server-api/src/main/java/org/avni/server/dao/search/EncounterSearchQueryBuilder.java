@@ -15,10 +15,13 @@ public class EncounterSearchQueryBuilder {
     private final String baseQuery = "select e.*\n" +
             "from encounter e\n";
 
+    private static final SqlQueryShapes queryShapes = new SqlQueryShapes();
+
     private String offsetLimitClause = "offset :offset limit :limit";
 
-    private Set<String> whereClauses = new HashSet<>();
-    private Set<String> joinClauses = new HashSet<>();
+    // kept in the order added, so that the same filters give the same SQL
+    private Set<String> whereClauses = new LinkedHashSet<>();
+    private Set<String> joinClauses = new LinkedHashSet<>();
     private String orderByString = "order by e.last_modified_date_time asc, e.id asc";
     private Map<String, Object> parameters = new HashMap<>();
     private boolean forCount;
@@ -30,6 +33,20 @@ public class EncounterSearchQueryBuilder {
     public SqlQuery build() {
         addParameter("organisationId", UserContextHolder.getOrganisation().getId());
         whereClauses.add("e.organisation_id = :organisationId");
+        if (parameters.get("offset") == null || parameters.get("limit") == null) {
+            addDefaultPaginationFilters();
+        }
+        if (forCount) {
+            removePaginationFilters();
+        }
+        List<Object> shape = Arrays.asList(new ArrayList<>(joinClauses), new ArrayList<>(whereClauses), orderByString, forCount);
+        String finalQuery = queryShapes.get(shape, this::buildSql);
+        logger.debug(finalQuery);
+        logger.debug(parameters.toString());
+        return new SqlQuery(finalQuery, parameters);
+    }
+
+    private String buildSql() {
         StringBuffer query = new StringBuffer();
         query.append(baseQuery);
         query.append(String.join(" \n ", joinClauses));
@@ -37,25 +54,16 @@ public class EncounterSearchQueryBuilder {
             query.append("\n where \n");
         }
         query.append(String.join(" \nand ", whereClauses));
-        if (parameters.get("offset") == null || parameters.get("limit") == null) {
-            addDefaultPaginationFilters();
-        }
 
-        String finalQuery = "";
         if (forCount) {
-            finalQuery = "select count(*) from (" + query.toString() + ") a";
-            removePaginationFilters();
-        } else {
-            finalQuery = query.append("\n")
-                    .append("\n")
-                    .append(orderByString)
-                    .append("\n")
-                    .append(offsetLimitClause)
-                    .toString();
+            return "select count(*) from (" + query.toString() + ") a";
         }
-        logger.debug(finalQuery);
-        logger.debug(parameters.toString());
-        return new SqlQuery(finalQuery, parameters);
+        return query.append("\n")
+                .append("\n")
+                .append(orderByString)
+                .append("\n")
+                .append(offsetLimitClause)
+                .toString();
     }
 
     private void addDefaultPaginationFilters() {
@@ -0,0 +1,32 @@
+package org.avni.server.dao.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of search results, fetched one row past the page size to know whether there are more without counting them.
+ */
+public class SearchResultPage {
+    private final List<Map<String, Object>> records;
+    private final boolean hasMore;
+
+    public SearchResultPage(List<Map<String, Object>> records, boolean hasMore) {
+        this.records = records;
+        this.hasMore = hasMore;
+    }
+
+    public static SearchResultPage of(List<Map<String, Object>> fetched, int limit) {
+        if (fetched.size() > limit) {
+            return new SearchResultPage(fetched.subList(0, limit), true);
+        }
+        return new SearchResultPage(fetched, false);
+    }
+
+    public List<Map<String, Object>> getRecords() {
+        return records;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
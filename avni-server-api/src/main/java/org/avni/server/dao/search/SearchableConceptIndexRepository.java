@@ -0,0 +1,63 @@
+package org.avni.server.dao.search;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram indexes on the value of one concept in the observations of a table, which serve the
+ * <code>observations ->> 'concept uuid' ilike '%value%'</code> of the search by text and id concepts. The expression is
+ * matched to the index only when the concept uuid is a literal in the query, so it is not bound as a parameter.
+ */
+@Component
+public class SearchableConceptIndexRepository {
+    private static final Pattern UUID = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchableConceptIndexRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // only uuids are put in the SQL as literals
+    public static boolean isIndexable(String conceptUuid) {
+        return conceptUuid != null && UUID.matcher(conceptUuid).matches();
+    }
+
+    public static String textValueExpression(String tableAlias, String conceptUuid) {
+        return tableAlias + "." + textValueExpression(conceptUuid);
+    }
+
+    private static String textValueExpression(String conceptUuid) {
+        return "observations ->> '" + conceptUuid + "'";
+    }
+
+    static String indexName(String tableName, String conceptUuid) {
+        return String.format("%s_obs_%s_trgm", tableName, conceptUuid.replace("-", "").toLowerCase());
+    }
+
+    /**
+     * Builds the index concurrently, so it must not be called in a transaction. An index left invalid by a build that
+     * failed is built again.
+     */
+    public void createIndex(String tableName, String conceptUuid) {
+        if (!isIndexable(conceptUuid)) throw new IllegalArgumentException(String.format("Not a concept uuid: %s", conceptUuid));
+        String indexName = indexName(tableName, conceptUuid);
+        List<Boolean> isValid = jdbcTemplate.queryForList("select i.indisvalid from pg_index i join pg_class c on c.oid = i.indexrelid where c.relname = :indexName",
+                Collections.singletonMap("indexName", indexName), Boolean.class);
+        if (!isValid.isEmpty() && isValid.get(0)) return;
+        if (!isValid.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().execute(String.format("drop index concurrently if exists %s", indexName));
+        }
+        jdbcTemplate.getJdbcOperations().execute(String.format("create index concurrently if not exists %s on %s using gin ((%s) gin_trgm_ops)",
+                indexName, tableName, textValueExpression(conceptUuid)));
+    }
+
+    public List<String> findAllSearchFilters() {
+        return jdbcTemplate.queryForList("select cast(settings -> 'searchFilters' as text) from organisation_config where is_voided = false and settings -> 'searchFilters' is not null",
+                Collections.emptyMap(), String.class);
+    }
+}
@@ -0,0 +1,28 @@
+package org.avni.server.dao.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * SQL of search queries by the clauses they are put together from. Search values are bound as parameters, so the same
+ * combination of filters gives the same SQL every time, which the JDBC driver can then run as a server side prepared
+ * statement. Shapes past the limit are built each time rather than cached.
+ */
+class SqlQueryShapes {
+    private static final int MAX_SHAPES = 1000;
+
+    private final Map<List<Object>, String> shapes = new ConcurrentHashMap<>();
+
+    String get(List<Object> shape, Supplier<String> sql) {
+        String cached = shapes.get(shape);
+        if (cached != null) return cached;
+        String built = sql.get();
+        if (shapes.size() < MAX_SHAPES) {
+            String existing = shapes.putIfAbsent(shape, built);
+            if (existing != null) return existing;
+        }
+        return built;
+    }
+}
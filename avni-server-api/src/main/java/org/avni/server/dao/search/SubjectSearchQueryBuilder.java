@@ -8,32 +8,35 @@ import org.springframework.stereotype.Component;
 @Component
 public class SubjectSearchQueryBuilder extends BaseSubjectSearchQueryBuilder<SubjectSearchQueryBuilder> implements SearchBuilder {
     public static final String SubjectTypeColumn = "                st.name as \"subjectTypeName\",\n";
-    public static final String HardCodedSubjectTypeColumn = "                '$SubjectTypeName' as \"subjectTypeName\",\n";
+    public static final String HardCodedSubjectTypeColumn = "                cast(:subjectTypeName as text) as \"subjectTypeName\",\n";
     public static final String SubjectTypeJoin = "         left outer join subject_type st on i.subject_type_id = st.id and st.is_voided is false\n";
 
-    public SqlQuery build(SubjectType subjectType) {
-        String baseQuery = "select i.id as \"id\",\n" +
-                "                i.first_name as \"firstName\",\n" +
-                "                i.last_name as \"lastName\",\n" +
-                "                i.profile_picture as \"profilePicture\",\n" +
-                "                cast(concat_ws(' ',i.first_name,i.middle_name,i.last_name)as text) as \"fullName\",\n" +
-                "                i.uuid as \"uuid\",\n" +
-                "                i.address_id as \"addressId\",\n" +
-                "$SubjectTypeColumn" +
-                "                gender.name as \"gender\",\n" +
-                "                i.date_of_birth as \"dateOfBirth\" $CUSTOM_FIELDS\n" +
-                "from individual i\n" +
-                "         left outer join gender on i.gender_id = gender.id\n" +
-                "$SubjectTypeJoin";
+    private static final String BaseQuery = "select i.id as \"id\",\n" +
+            "                i.first_name as \"firstName\",\n" +
+            "                i.last_name as \"lastName\",\n" +
+            "                i.profile_picture as \"profilePicture\",\n" +
+            "                cast(concat_ws(' ',i.first_name,i.middle_name,i.last_name)as text) as \"fullName\",\n" +
+            "                i.uuid as \"uuid\",\n" +
+            "                i.address_id as \"addressId\",\n" +
+            "$SubjectTypeColumn" +
+            "                gender.name as \"gender\",\n" +
+            "                i.date_of_birth as \"dateOfBirth\" $CUSTOM_FIELDS\n" +
+            "from individual i\n" +
+            "         left outer join gender on i.gender_id = gender.id\n" +
+            "$SubjectTypeJoin";
+    private static final String BaseQueryForAnySubjectType = BaseQuery
+            .replace("$SubjectTypeColumn", SubjectTypeColumn)
+            .replace("$SubjectTypeJoin", SubjectTypeJoin);
+    private static final String BaseQueryForSubjectType = BaseQuery
+            .replace("$SubjectTypeColumn", HardCodedSubjectTypeColumn)
+            .replace("$SubjectTypeJoin", "");
 
+    public SqlQuery build(SubjectType subjectType) {
         if (subjectType == null) {
-            baseQuery = baseQuery.replace("$SubjectTypeColumn", SubjectTypeColumn);
-            baseQuery = baseQuery.replace("$SubjectTypeJoin", SubjectTypeJoin);
-        } else {
-            baseQuery = baseQuery.replace("$SubjectTypeColumn", HardCodedSubjectTypeColumn.replace("$SubjectTypeName", subjectType.getName()));
-            baseQuery = baseQuery.replace("$SubjectTypeJoin", "");
+            return super.buildUsingBaseQuery(BaseQueryForAnySubjectType, "");
         }
-        return super.buildUsingBaseQuery(baseQuery, "");
+        addParameter("subjectTypeName", subjectType.getName());
+        return super.buildUsingBaseQuery(BaseQueryForSubjectType, "");
     }
 
     public SubjectSearchQueryBuilder withSubjectSearchFilter(SubjectSearchRequest request, SubjectType subjectType) {
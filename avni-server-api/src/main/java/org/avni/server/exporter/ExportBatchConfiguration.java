@@ -4,8 +4,11 @@ import org.avni.server.dao.*;
 import org.avni.server.domain.*;
 import org.avni.server.exporter.v2.ExportV2CSVFieldExtractor;
 import org.avni.server.exporter.v2.ExportV2Processor;
+import org.avni.server.exporter.v2.LongitudinalExportTaskExecutor;
 import org.avni.server.exporter.v2.LongitudinalExportV2TaskletImpl;
+import org.avni.server.exporter.v2.PartitionedLongitudinalExportV2Tasklet;
 import org.avni.server.framework.security.AuthService;
+import org.avni.server.service.AddressLevelService;
 import org.avni.server.service.ExportS3Service;
 import org.avni.server.util.DateTimeUtil;
 import org.avni.server.web.external.request.export.ExportFilters;
@@ -26,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import jakarta.persistence.EntityManager;
@@ -47,13 +51,14 @@ public class ExportBatchConfiguration {
     private final GroupSubjectRepository groupSubjectRepository;
     private final AuthService authService;
     private final ExportS3Service exportS3Service;
-    private final LocationRepository locationRepository;
+    private final AddressLevelService addressLevelService;
     private final SubjectTypeRepository subjectTypeRepository;
     private final EncounterTypeRepository encounterTypeRepository;
     private final ProgramRepository programRepository;
     private final JobRepository jobRepository;
     private final PlatformTransactionManager platformTransactionManager;
     private final int longitudinalExportV2Limit;
+    private final int longitudinalExportV2Partitions;
     private final int legacyLongitudinalExportLimit;
 
     @Autowired
@@ -62,7 +67,7 @@ public class ExportBatchConfiguration {
                                     GroupSubjectRepository groupSubjectRepository,
                                     AuthService authService,
                                     ExportS3Service exportS3Service,
-                                    LocationRepository locationRepository,
+                                    AddressLevelService addressLevelService,
                                     SubjectTypeRepository subjectTypeRepository,
                                     EncounterTypeRepository encounterTypeRepository,
                                     ProgramRepository programRepository,
@@ -70,6 +75,7 @@ public class ExportBatchConfiguration {
                                     JobRepository jobRepository,
                                     PlatformTransactionManager platformTransactionManager,
                                     @Value("${avni.longitudinal.export.v2.limit}") int longitudinalExportV2Limit,
+                                    @Value("${avni.longitudinal.export.v2.partitions}") int longitudinalExportV2Partitions,
                                     @Value("${avni.legacy.longitudinal.export.limit}") int legacyLongitudinalExportLimit
     ) {
         this.programEnrolmentRepository = programEnrolmentRepository;
@@ -77,7 +83,7 @@ public class ExportBatchConfiguration {
         this.groupSubjectRepository = groupSubjectRepository;
         this.authService = authService;
         this.exportS3Service = exportS3Service;
-        this.locationRepository = locationRepository;
+        this.addressLevelService = addressLevelService;
         this.subjectTypeRepository = subjectTypeRepository;
         this.encounterTypeRepository = encounterTypeRepository;
         this.programRepository = programRepository;
@@ -85,6 +91,7 @@ public class ExportBatchConfiguration {
         this.jobRepository = jobRepository;
         this.platformTransactionManager = platformTransactionManager;
         this.longitudinalExportV2Limit = longitudinalExportV2Limit;
+        this.longitudinalExportV2Partitions = longitudinalExportV2Partitions;
         this.legacyLongitudinalExportLimit = legacyLongitudinalExportLimit;
     }
 
@@ -123,13 +130,22 @@ public class ExportBatchConfiguration {
                                    @Value("#{jobParameters['exportJobParamsUUID']}") String exportJobParamsUUID,
                                    LongitudinalExportJobStepListener listener,
                                    ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                   ExportV2Processor exportV2Processor) {
+                                   ExportV2Processor exportV2Processor,
+                                   LongitudinalExportTaskExecutor longitudinalExportTaskExecutor) {
         authService.authenticateByUserId(userId, organisationUUID);
         ExportOutput exportOutput = exportV2CSVFieldExtractor.getExportOutput();
         ExportFilters subjectFilters = exportOutput.getFilters();
         List<Long> addressLevelIds = subjectFilters.getAddressLevelIds();
         List<Long> selectedAddressIds = getLocations(addressLevelIds);
         List<Long> addressParam = selectedAddressIds.isEmpty() ? null : selectedAddressIds;
+        if (longitudinalExportV2Partitions > 1) {
+            List<Long> subjectIds = getRegistrationIds(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
+            LongitudinalExportTasklet partitionedTasklet = new PartitionedLongitudinalExportV2Tasklet(CHUNK_SIZE, longitudinalExportV2Partitions, entityManager,
+                    platformTransactionManager, exportV2CSVFieldExtractor, exportV2Processor, exportS3Service, uuid, subjectIds,
+                    () -> authService.authenticateByUserId(userId, organisationUUID), longitudinalExportTaskExecutor.getTaskExecutor());
+            listener.setItemReaderCleaner(partitionedTasklet);
+            return partitionedTasklet;
+        }
         Stream stream = getRegistrationStream(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
         Stream alteredStream = truncateStream(stream);
         LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, exportS3Service, uuid, alteredStream);
@@ -233,20 +249,15 @@ public class ExportBatchConfiguration {
                 individualRepository.findNonVoidedIndividuals(subjectType.getId(), addressParam, startDateTime, endDateTime);
     }
 
-    private List<Long> getLocations(List<Long> locationIds) {
-        List<AddressLevel> selectedAddressLevels = locationRepository.findAllById(locationIds);
-        List<AddressLevel> allAddressLevels = locationRepository.findAllByIsVoidedFalse();
-        return selectedAddressLevels
-                .stream()
-                .flatMap(al -> findLowestAddresses(al, allAddressLevels))
-                .map(CHSBaseEntity::getId)
-                .collect(Collectors.toList());
+    private List<Long> getRegistrationIds(String subjectTypeUUID, List<Long> addressParam, LocalDate startDateTime, LocalDate endDateTime, boolean includeVoided) {
+        SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUUID);
+        PageRequest limit = PageRequest.of(0, longitudinalExportV2Limit);
+        return includeVoided ? individualRepository.findAllIndividualIds(subjectType.getId(), addressParam, startDateTime, endDateTime, limit) :
+                individualRepository.findNonVoidedIndividualIds(subjectType.getId(), addressParam, startDateTime, endDateTime, limit);
     }
 
-    private Stream<AddressLevel> findLowestAddresses(AddressLevel selectedAddress, List<AddressLevel> allAddresses) {
-        return allAddresses
-                .stream()
-                .filter(al -> al.getLineage().startsWith(selectedAddress.getLineage()));
+    private List<Long> getLocations(List<Long> locationIds) {
+        return addressLevelService.getNonVoidedSelfAndDescendantIds(locationIds);
     }
 
 }
@@ -28,10 +28,19 @@ public class ExportFieldsManager implements ExportEntityTypeVisitor {
     private final String timeZone;
 
     public ExportFieldsManager(FormMappingService formMappingService, EncounterRepository encounterRepository, ProgramEncounterRepository programEncounterRepository, String timeZone) {
+        this(formMappingService, encounterRepository, programEncounterRepository, timeZone, Collections.emptyMap());
+    }
+
+    /**
+     * @param knownMaxCounts max encounter counts already found for the export, which are used instead of querying again
+     */
+    public ExportFieldsManager(FormMappingService formMappingService, EncounterRepository encounterRepository, ProgramEncounterRepository programEncounterRepository, String timeZone,
+                               Map<String, Long> knownMaxCounts) {
         this.formMappingService = formMappingService;
         this.encounterRepository = encounterRepository;
         this.programEncounterRepository = programEncounterRepository;
         this.timeZone = timeZone;
+        this.maxCounts.putAll(knownMaxCounts);
     }
 
     private void setCoreFields(Set<String> allCoreFields, ExportEntityType exportEntityType) {
@@ -84,6 +93,7 @@ public class ExportFieldsManager implements ExportEntityTypeVisitor {
         LinkedHashMap<String, FormElement> encounterCancelFormElements = formMappingService.getAllFormElementsAndDecisionMap(subjectExportEntityType.getUuid(), null, encounter.getUuid(), FormType.IndividualEncounterCancellation);
         secondaryFormMap.put(encounter.getUuid(), this.getObsFields(encounter, encounterCancelFormElements, HeaderCreator.getEncounterCoreFields()));
 
+        if (maxCounts.containsKey(encounter.getUuid())) return;
         ExportFilters.DateFilter dateFilter = encounter.getFilters().getDate();
         Long maxEncounterCount = encounterRepository.getMaxEncounterCount(encounter.getUuid(), DateTimeUtil.getCalendarTime(dateFilter.getFrom(), timeZone), DateTimeUtil.getCalendarTime(dateFilter.getTo(), timeZone));
         maxCounts.put(encounter.getUuid(), maxEncounterCount);
@@ -138,6 +148,7 @@ public class ExportFieldsManager implements ExportEntityTypeVisitor {
         LinkedHashMap<String, FormElement> encounterCancelFormElements = formMappingService.getAllFormElementsAndDecisionMap(subject.getUuid(), program.getUuid(), encounterType.getUuid(), FormType.ProgramEncounterCancellation);
         secondaryFormMap.put(encounterType.getUuid(), this.getObsFields(encounterType, encounterCancelFormElements, HeaderCreator.getEncounterCoreFields()));
 
+        if (maxCounts.containsKey(encounterType.getUuid())) return;
         ExportFilters.DateFilter dateFilter = encounterType.getFilters().getDate();
         Long maxEncounterCount = programEncounterRepository.getMaxProgramEncounterCount(encounterType.getUuid(), DateTimeUtil.getCalendarTime(dateFilter.getFrom(), timeZone), DateTimeUtil.getCalendarTime(dateFilter.getTo(), timeZone));
         maxCounts.put(encounterType.getUuid(), maxEncounterCount);
@@ -159,6 +170,10 @@ public class ExportFieldsManager implements ExportEntityTypeVisitor {
         return aLong;
     }
 
+    public Map<String, Long> getMaxCounts() {
+        return Collections.unmodifiableMap(maxCounts);
+    }
+
     public Map<String, FormElement> getMainFields(ExportEntityType exportEntityType) {
         return mainFormMap.get(exportEntityType.getUuid());
     }
@@ -51,7 +51,8 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
     private ExportOutput exportOutput;
     private List<String> addressLevelTypes = new ArrayList<>();
     private ExportFieldsManager exportFieldsManager;
-    private Map<FormElement, Integer> maxNumberOfQuestionGroupObservations;
+    // by question group form element uuid
+    private Map<String, Integer> maxNumberOfQuestionGroupObservations;
 
     @Autowired
     public ExportV2CSVFieldExtractor(EncounterRepository encounterRepository,
@@ -87,11 +88,32 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
         exportFieldsManager = new ExportFieldsManager(formMappingService, encounterRepository, programEncounterRepository, timeZone);
         exportOutput.accept(exportFieldsManager);
         Map<Form, ExportFilters> formFilters = exportFieldsManager.getAllFormFilters();
-        maxNumberOfQuestionGroupObservations = observationService.getMaxNumberOfQuestionGroupObservations(formFilters, timeZone);
+        Map<FormElement, Integer> maxNumberOfQuestionGroupObservations = observationService.getMaxNumberOfQuestionGroupObservations(formFilters, timeZone);
+        this.maxNumberOfQuestionGroupObservations = maxNumberOfQuestionGroupObservations.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().getUuid(), Map.Entry::getValue));
         this.headerCreator = new HeaderCreator(subjectTypeRepository, addressLevelTypes, maxNumberOfQuestionGroupObservations,
                 encounterTypeRepository, exportFieldsManager, programRepository);
     }
 
+    /**
+     * Creates an extractor for one partition of the export, to be used only on the partition's thread. It loads the forms
+     * again, in the persistence context of the caller, and takes the column counts from this extractor, so that its
+     * rows line up with this extractor's header.
+     */
+    public ExportV2CSVFieldExtractor forPartition() {
+        ExportV2CSVFieldExtractor partitionExtractor = new ExportV2CSVFieldExtractor(encounterRepository, programEncounterRepository, formMappingService,
+                exportJobParamsUUID, subjectTypeRepository, addressLevelService, programRepository, encounterTypeRepository, exportJobService,
+                observationService, exportJobParametersRepository);
+        partitionExtractor.addressLevelTypes = addressLevelTypes;
+        partitionExtractor.timeZone = timeZone;
+        partitionExtractor.exportOutput = exportJobService.getExportOutput(exportJobParamsUUID);
+        partitionExtractor.exportFieldsManager = new ExportFieldsManager(formMappingService, encounterRepository, programEncounterRepository, timeZone,
+                exportFieldsManager.getMaxCounts());
+        partitionExtractor.exportOutput.accept(partitionExtractor.exportFieldsManager);
+        partitionExtractor.maxNumberOfQuestionGroupObservations = maxNumberOfQuestionGroupObservations;
+        return partitionExtractor;
+    }
+
     @Override
     public void writeHeader(Writer writer) throws IOException {
         exportOutput.accept(headerCreator);
@@ -246,7 +268,7 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
                 .collect(Collectors.toList());
         Map<FormElement, List<FormElement>> repeatedFormElements = ExportFieldsManager.groupByQuestionGroup(observationsRepeatedMultipleTimes);
         repeatedFormElements.forEach((group, formElements) -> {
-            Integer maxRepeats = maxNumberOfQuestionGroupObservations.get(group);
+            Integer maxRepeats = maxNumberOfQuestionGroupObservations.get(group.getUuid());
             Concept questionGroupConcept = group.getConcept();
             List<Map<String, Object>> repeatableObservations;
             if (observations == null) repeatableObservations = new ArrayList<>();
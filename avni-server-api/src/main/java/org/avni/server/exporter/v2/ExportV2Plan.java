@@ -0,0 +1,98 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.domain.AbstractEncounter;
+import org.avni.server.web.external.request.export.ExportEntityType;
+import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Filters of an export resolved once per job, so that processing a subject only needs map lookups.
+ */
+public class ExportV2Plan {
+    public static final Comparator<AbstractEncounter> ENCOUNTER_ORDER = Comparator.comparing(ExportV2Plan::getEffectiveDateTime);
+
+    private final Map<String, EntityFilter> generalEncounterFilters;
+    private final Map<String, EntityFilter> programFilters;
+    private final Map<String, EntityFilter> programEncounterFilters;
+    private final Map<String, EntityFilter> groupFilters;
+    private final Map<String, EntityFilter> groupEncounterFilters;
+    private final DateTimeZone timeZone;
+
+    public ExportV2Plan(ExportOutput exportOutput, DateTimeZone timeZone) {
+        List<ExportOutput.ExportNestedOutput> programs = Optional.ofNullable(exportOutput.getPrograms()).orElse(Collections.emptyList());
+        List<ExportOutput.ExportNestedOutput> groups = Optional.ofNullable(exportOutput.getGroups()).orElse(Collections.emptyList());
+        this.generalEncounterFilters = toFilterMap(Optional.ofNullable(exportOutput.getEncounters()).orElse(Collections.emptyList()));
+        this.programFilters = toFilterMap(programs);
+        this.programEncounterFilters = toFilterMap(programs.stream().flatMap(p -> p.getEncounters().stream()).collect(Collectors.toList()));
+        this.groupFilters = toFilterMap(groups);
+        this.groupEncounterFilters = toFilterMap(groups.stream().flatMap(g -> g.getEncounters().stream()).collect(Collectors.toList()));
+        this.timeZone = timeZone;
+    }
+
+    private static Map<String, EntityFilter> toFilterMap(List<? extends ExportEntityType> exportEntityTypes) {
+        return exportEntityTypes.stream().collect(Collectors.toMap(ExportEntityType::getUuid, EntityFilter::new));
+    }
+
+    public static DateTime getEffectiveDateTime(AbstractEncounter encounter) {
+        DateTime encounterDateTime = encounter.getEncounterDateTime();
+        return encounterDateTime != null ? encounterDateTime : encounter.getCancelDateTime();
+    }
+
+    public boolean acceptsGeneralEncounter(AbstractEncounter encounter) {
+        return acceptsEncounter(generalEncounterFilters, encounter);
+    }
+
+    public boolean acceptsProgramEncounter(AbstractEncounter encounter) {
+        return acceptsEncounter(programEncounterFilters, encounter);
+    }
+
+    public boolean acceptsGroupEncounter(AbstractEncounter encounter) {
+        return acceptsEncounter(groupEncounterFilters, encounter);
+    }
+
+    public boolean acceptsProgram(String programUUID, DateTime enrolmentDateTime, boolean isVoided) {
+        return accepts(programFilters, programUUID, enrolmentDateTime, isVoided);
+    }
+
+    public boolean acceptsGroup(String subjectTypeUUID, DateTime registrationDateTime, boolean isVoided) {
+        return accepts(groupFilters, subjectTypeUUID, registrationDateTime, isVoided);
+    }
+
+    public boolean hasGroups() {
+        return !groupFilters.isEmpty();
+    }
+
+    public DateTimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    private static boolean acceptsEncounter(Map<String, EntityFilter> filters, AbstractEncounter encounter) {
+        DateTime effectiveDateTime = getEffectiveDateTime(encounter);
+        return effectiveDateTime != null && accepts(filters, encounter.getEncounterType().getUuid(), effectiveDateTime, encounter.isVoided());
+    }
+
+    private static boolean accepts(Map<String, EntityFilter> filters, String typeUUID, DateTime entityDateTime, boolean isVoided) {
+        EntityFilter filter = filters.get(typeUUID);
+        return filter != null && filter.accepts(entityDateTime, isVoided);
+    }
+
+    static class EntityFilter {
+        private final boolean includeVoided;
+        private final ExportFilters.DateFilter dateFilter;
+
+        EntityFilter(ExportEntityType exportEntityType) {
+            this.includeVoided = exportEntityType.getFilters().includeVoided();
+            this.dateFilter = exportEntityType.isDateEmpty() ? null : exportEntityType.getFilters().getDate();
+        }
+
+        boolean accepts(DateTime entityDateTime, boolean isVoided) {
+            if (!includeVoided && isVoided) return false;
+            return dateFilter == null || dateFilter.apply(entityDateTime);
+        }
+    }
+}
@@ -2,9 +2,7 @@ package org.avni.server.exporter.v2;
 
 import org.avni.server.dao.ExportJobParametersRepository;
 import org.avni.server.domain.*;
-import org.avni.server.web.external.request.export.ExportEntityType;
 import org.avni.server.web.external.request.export.ExportOutput;
-import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
@@ -13,16 +11,18 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
+/**
+ * Holds nothing but the time zone and the export plan, which are not changed once set, so one processor can be used by
+ * all partitions of an export.
+ */
 @Component
 @StepScope
 public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExportItemRow> {
     private final ExportJobParametersRepository exportJobParametersRepository;
     private final String exportJobParamsUUID;
-    private ExportJobParameters exportJobParameters;
-    private ExportOutput exportOutput;
+    private String timeZone;
+    private ExportV2Plan exportPlan;
 
     public ExportV2Processor(ExportJobParametersRepository exportJobParametersRepository,
                              @Value("#{jobParameters['exportJobParamsUUID']}") String exportJobParamsUUID) {
@@ -32,7 +32,7 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
 
     @PostConstruct
     public void init() {
-        exportJobParameters = exportJobParametersRepository.findByUuid(exportJobParamsUUID);
+        timeZone = exportJobParametersRepository.findByUuid(exportJobParamsUUID).getTimezone();
     }
 
     @Override
@@ -53,76 +53,68 @@ public class ExportV2Processor implements ItemProcessor<Object, LongitudinalExpo
     }
 
     private void initGroupSubjectsAndTheirEncounters(LongitudinalExportItemRow exportItemRow, Individual individual) {
-        // filter GroupSubject by exportOutput
-        Map<String, ExportEntityType> groupsToFiltersMap = Optional.ofNullable(exportOutput.getGroups()).orElse(new ArrayList<>())
-                .stream().collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
-        // filter GroupSubject encounters by exportOutput
-        Map<String, ExportEntityType> groupsEncountersToFiltersMap = Optional.ofNullable(exportOutput.getGroups()).orElse(new ArrayList<>())
-                .stream().flatMap(p -> p.getEncounters().stream())
-                .collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
-        Map<Individual, Map<String, List<Encounter>>> individualToEncountersMap = Optional.ofNullable(individual.getMemberGroupSubjects())
-                .orElse(new HashSet<>()).stream()
-                .filter(gr -> applyFilters(groupsToFiltersMap, gr.getGroupSubject().getSubjectType().getUuid(), gr.getGroupSubject().getRegistrationDate()
-                        .toDateTimeAtStartOfDay(DateTimeZone.forID(exportJobParameters.getTimezone())), gr.isVoided()))
-                .flatMap(gs -> gs.getGroupSubject().getEncounters(false))
-                .filter(e -> e.getEncounterDateTime() != null || e.getCancelDateTime() != null)
-                .filter(e -> applyFilters(groupsEncountersToFiltersMap, e.getEncounterType().getUuid(), Optional.ofNullable(e.getEncounterDateTime()).orElse(e.getCancelDateTime()), e.isVoided()))
-                .sorted(this::compareEncounters)
-                .collect(Collectors.groupingBy(Encounter::getIndividual, LinkedHashMap::new,
-                        Collectors.groupingBy(e -> e.getEncounterType().getUuid(), LinkedHashMap::new, Collectors.toList())));
+        Map<Individual, Map<String, List<Encounter>>> individualToEncountersMap = new LinkedHashMap<>();
         exportItemRow.setGroupSubjectToEncountersMap(individualToEncountersMap);
+        if (!exportPlan.hasGroups() || individual.getMemberGroupSubjects() == null) return;
+
+        List<Encounter> encounters = new ArrayList<>();
+        for (GroupSubject groupSubject : individual.getMemberGroupSubjects()) {
+            Individual group = groupSubject.getGroupSubject();
+            if (!exportPlan.acceptsGroup(group.getSubjectType().getUuid(), group.getRegistrationDate().toDateTimeAtStartOfDay(exportPlan.getTimeZone()), groupSubject.isVoided()))
+                continue;
+            for (Encounter encounter : group.getEncounters()) {
+                if (!encounter.isVoided() && exportPlan.acceptsGroupEncounter(encounter)) encounters.add(encounter);
+            }
+        }
+        encounters.sort(ExportV2Plan.ENCOUNTER_ORDER);
+        for (Encounter encounter : encounters) {
+            addByEncounterType(individualToEncountersMap.computeIfAbsent(encounter.getIndividual(), k -> new LinkedHashMap<>()), encounter);
+        }
     }
 
     private void initProgramsAndTheirEncounters(LongitudinalExportItemRow exportItemRow, Individual individual) {
-        // filter ProgramEnrolment by exportOutput
-        Map<String, ExportEntityType> programsToFiltersMap = Optional.ofNullable(exportOutput.getPrograms()).orElse(new ArrayList<>())
-                .stream().collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
-        // filter ProgramEncounters by exportOutput
-        Map<String, ExportEntityType> encountersToFiltersMap = Optional.ofNullable(exportOutput.getPrograms()).orElse(new ArrayList<>())
-                .stream().flatMap(p -> p.getEncounters().stream())
-                .collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
-        Map<ProgramEnrolment, Map<String, List<ProgramEncounter>>> programToEncountersMap = Optional.ofNullable(individual.getProgramEnrolments())
-                .orElse(new HashSet<>()).stream()
-                .filter(pe -> applyFilters(programsToFiltersMap, pe.getProgram().getUuid(), pe.getEnrolmentDateTime(), pe.isVoided()))
-                .flatMap(pe -> pe.getEncounters(false))
-                .filter(e -> e.getEncounterDateTime() != null || e.getCancelDateTime() != null)
-                .filter(e -> applyFilters(encountersToFiltersMap, e.getEncounterType().getUuid(), Optional.ofNullable(e.getEncounterDateTime()).orElse(e.getCancelDateTime()), e.isVoided()))
-                .sorted(this::compareEncounters)
-                .collect(Collectors.groupingBy(ProgramEncounter::getProgramEnrolment, LinkedHashMap::new,
-                        Collectors.groupingBy(pe -> pe.getEncounterType().getUuid(), LinkedHashMap::new, Collectors.toList())));
+        Map<ProgramEnrolment, Map<String, List<ProgramEncounter>>> programToEncountersMap = new LinkedHashMap<>();
         exportItemRow.setProgramEnrolmentToEncountersMap(programToEncountersMap);
+        if (individual.getProgramEnrolments() == null) return;
+
+        List<ProgramEncounter> encounters = new ArrayList<>();
+        for (ProgramEnrolment programEnrolment : individual.getProgramEnrolments()) {
+            if (!exportPlan.acceptsProgram(programEnrolment.getProgram().getUuid(), programEnrolment.getEnrolmentDateTime(), programEnrolment.isVoided()))
+                continue;
+            for (ProgramEncounter encounter : programEnrolment.getProgramEncounters()) {
+                if (!encounter.isVoided() && exportPlan.acceptsProgramEncounter(encounter)) encounters.add(encounter);
+            }
+        }
+        encounters.sort(ExportV2Plan.ENCOUNTER_ORDER);
+        for (ProgramEncounter encounter : encounters) {
+            addByEncounterType(programToEncountersMap.computeIfAbsent(encounter.getProgramEnrolment(), k -> new LinkedHashMap<>()), encounter);
+        }
     }
 
     private void initGeneralEncounters(LongitudinalExportItemRow exportItemRow, Individual individual) {
-        // filter Encounter by exportOutput
-        Map<String, ExportEntityType> generalEncountersToFiltersMap = Optional.ofNullable(exportOutput.getEncounters()).orElse(new ArrayList<>())
-                .stream().collect(Collectors.toMap(ExportEntityType::getUuid, Function.identity()));
-        Map<String, List<Encounter>> generalEncounters = Optional.ofNullable(individual.getEncounters()).orElse(new HashSet<>())
-                .stream()
-                .filter(e -> e.getEncounterDateTime() != null || e.getCancelDateTime() != null)
-                .filter(e -> applyFilters(generalEncountersToFiltersMap, e.getEncounterType().getUuid(), Optional.ofNullable(e.getEncounterDateTime()).orElse(e.getCancelDateTime()), e.isVoided()))
-                .sorted(this::compareEncounters)
-                .collect(Collectors.groupingBy(e -> e.getEncounterType().getUuid(), LinkedHashMap::new, Collectors.toList()));
+        Map<String, List<Encounter>> generalEncounters = new LinkedHashMap<>();
         exportItemRow.setEncounterTypeToEncountersMap(generalEncounters);
-    }
+        if (individual.getEncounters() == null) return;
 
-    public boolean applyFilters(Map<String, ExportEntityType> entityToFiltersMap, String typeUUID, DateTime entityDateTime, boolean isVoided) {
-        ExportEntityType entity = entityToFiltersMap.get(typeUUID);
-        if(entity == null) {
-            return false;
-        } else if(entity.isDateEmpty()) {
-            return (entity.getFilters().includeVoided() || !isVoided);
+        List<Encounter> encounters = new ArrayList<>();
+        for (Encounter encounter : individual.getEncounters()) {
+            if (exportPlan.acceptsGeneralEncounter(encounter)) encounters.add(encounter);
+        }
+        encounters.sort(ExportV2Plan.ENCOUNTER_ORDER);
+        for (Encounter encounter : encounters) {
+            addByEncounterType(generalEncounters, encounter);
         }
-        return (entity.getFilters().includeVoided() || !isVoided) && (entity.getFilters().getDate().apply(entityDateTime));
+    }
+
+    private static <T extends AbstractEncounter> void addByEncounterType(Map<String, List<T>> encounterTypeToEncounters, T encounter) {
+        encounterTypeToEncounters.computeIfAbsent(encounter.getEncounterType().getUuid(), k -> new ArrayList<>()).add(encounter);
     }
 
     public void setExportOutput(ExportOutput exportOutput) {
-        this.exportOutput = exportOutput;
+        setExportPlan(new ExportV2Plan(exportOutput, DateTimeZone.forID(timeZone)));
     }
 
-    private int compareEncounters(AbstractEncounter enc1, AbstractEncounter enc2) {
-        DateTime t1 = Optional.ofNullable(enc1.getEncounterDateTime()).orElse(enc1.getCancelDateTime());
-        DateTime t2 = Optional.ofNullable(enc2.getEncounterDateTime()).orElse(enc2.getCancelDateTime());
-        return t1.compareTo(t2);
+    public void setExportPlan(ExportV2Plan exportPlan) {
+        this.exportPlan = exportPlan;
     }
 }
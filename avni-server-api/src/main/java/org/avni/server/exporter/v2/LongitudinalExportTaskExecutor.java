@@ -0,0 +1,37 @@
+package org.avni.server.exporter.v2;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Threads the partitions of longitudinal exports run on, shared by all exports and shut down with the context. Created
+ * only when more than one partition is configured. Partitions of exports running at the same time wait for a free thread.
+ */
+@Component
+public class LongitudinalExportTaskExecutor implements DisposableBean {
+    private final ThreadPoolTaskExecutor executor;
+
+    public LongitudinalExportTaskExecutor(@Value("${avni.longitudinal.export.v2.partitions}") int partitions) {
+        if (partitions > 1) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(partitions);
+            executor.setMaxPoolSize(partitions);
+            executor.setThreadNamePrefix("longitudinal-export-");
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+    }
+
+    public AsyncTaskExecutor getTaskExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdown();
+    }
+}
@@ -0,0 +1,189 @@
+package org.avni.server.exporter.v2;
+
+import jakarta.persistence.EntityManager;
+import org.avni.server.domain.Individual;
+import org.avni.server.exporter.LongitudinalExportTasklet;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.ExportS3Service;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Exports the given subject ids, ordered by id, in contiguous partitions processed in parallel. Each partition loads
+ * its subjects a chunk at a time in its own transaction, with collection fetches batched across the chunk, and writes
+ * a part file. Part files are appended to the export file in partition order, so the output keeps the id order.
+ *
+ * Partitions share only the processor, which holds the immutable export plan. Each loads its own field extractor, whose
+ * forms are entities, in its transaction.
+ */
+public class PartitionedLongitudinalExportV2Tasklet implements LongitudinalExportTasklet {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedLongitudinalExportV2Tasklet.class);
+    private static final String SUBJECTS_BY_ID_QUERY = "select i from Individual i where i.id in :ids order by i.id";
+
+    private final int chunkSize;
+    private final int partitionCount;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    private final ExportV2Processor exportV2Processor;
+    private final ExportS3Service exportS3Service;
+    private final String jobUuid;
+    private final List<Long> subjectIds;
+    private final Runnable partitionAuthenticator;
+    private final AsyncTaskExecutor taskExecutor;
+    private final List<File> partFiles = new ArrayList<>();
+
+    public PartitionedLongitudinalExportV2Tasklet(int chunkSize, int partitionCount, EntityManager entityManager,
+                                                  PlatformTransactionManager transactionManager,
+                                                  ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                                  ExportV2Processor exportV2Processor, ExportS3Service exportS3Service,
+                                                  String jobUuid, List<Long> subjectIds, Runnable partitionAuthenticator,
+                                                  AsyncTaskExecutor taskExecutor) {
+        this.chunkSize = chunkSize;
+        this.partitionCount = partitionCount;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
+        this.exportV2Processor = exportV2Processor;
+        this.exportS3Service = exportS3Service;
+        this.jobUuid = jobUuid;
+        this.subjectIds = subjectIds;
+        this.partitionAuthenticator = partitionAuthenticator;
+        this.taskExecutor = taskExecutor;
+        this.exportV2Processor.setExportOutput(exportV2CSVFieldExtractor.getExportOutput());
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
+        List<List<Long>> partitions = partition(subjectIds, partitionCount);
+        logger.info(String.format("Exporting %d subjects in %d partitions", subjectIds.size(), partitions.size()));
+        List<Future<?>> partitionResults = new ArrayList<>();
+        try {
+            for (int i = 0; i < partitions.size(); i++) {
+                int partitionIndex = i;
+                File partFile = exportS3Service.getLocalExportFile(String.format("%s.part%d", jobUuid, partitionIndex));
+                partFiles.add(partFile);
+                partitionResults.add(taskExecutor.submit(() -> exportPartition(partitionIndex, partitions.get(partitionIndex), partFile)));
+            }
+            for (Future<?> partitionResult : partitionResults) {
+                partitionResult.get();
+            }
+        } finally {
+            // stops the other partitions when one fails, finished ones are not affected
+            partitionResults.forEach(partitionResult -> partitionResult.cancel(true));
+        }
+        mergePartFiles();
+        logger.info("Completed exporting all partitions");
+        return RepeatStatus.FINISHED;
+    }
+
+    static List<List<Long>> partition(List<Long> ids, int partitionCount) {
+        List<List<Long>> partitions = new ArrayList<>();
+        if (ids.isEmpty()) return partitions;
+        int partitionSize = (ids.size() + partitionCount - 1) / partitionCount;
+        for (int from = 0; from < ids.size(); from += partitionSize) {
+            partitions.add(ids.subList(from, Math.min(from + partitionSize, ids.size())));
+        }
+        return partitions;
+    }
+
+    private void exportPartition(int partitionIndex, List<Long> ids, File partFile) {
+        partitionAuthenticator.run();
+        try {
+            transactionTemplate.executeWithoutResult(status -> exportPartition(ids, partFile));
+            logger.info(String.format("Exported partition %d with %d subjects", partitionIndex, ids.size()));
+        } finally {
+            UserContextHolder.clear();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void exportPartition(List<Long> ids, File partFile) {
+        FlatFileItemWriter<LongitudinalExportItemRow> writer = createPartWriter(partFile, exportV2CSVFieldExtractor.forPartition());
+        try {
+            entityManager.unwrap(Session.class).setFetchBatchSize(chunkSize);
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunkIds = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                List<Individual> individuals = entityManager.createQuery(SUBJECTS_BY_ID_QUERY, Individual.class)
+                        .setParameter("ids", chunkIds)
+                        .getResultList();
+                List<LongitudinalExportItemRow> rows = new ArrayList<>(individuals.size());
+                individuals.forEach(individual -> rows.add(exportV2Processor.process(individual)));
+                write(writer, rows);
+                entityManager.clear();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private FlatFileItemWriter<LongitudinalExportItemRow> createPartWriter(File partFile, ExportV2CSVFieldExtractor fieldExtractor) {
+        FlatFileItemWriter<LongitudinalExportItemRow> writer = new FlatFileItemWriter<>();
+        writer.setResource(new FileSystemResource(partFile));
+        DelimitedLineAggregator<LongitudinalExportItemRow> delimitedLineAggregator = new DelimitedLineAggregator<>();
+        delimitedLineAggregator.setDelimiter(",");
+        delimitedLineAggregator.setFieldExtractor(fieldExtractor);
+        writer.setLineAggregator(delimitedLineAggregator);
+        writer.open(new ExecutionContext());
+        return writer;
+    }
+
+    private void write(FlatFileItemWriter<LongitudinalExportItemRow> writer, List<LongitudinalExportItemRow> rows) {
+        if (rows.isEmpty()) return;
+        try {
+            writer.write(Chunk.of(rows.toArray(new LongitudinalExportItemRow[0])));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void mergePartFiles() throws IOException {
+        File outputFile = exportS3Service.getLocalExportFile(jobUuid);
+        try (Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            exportV2CSVFieldExtractor.writeHeader(writer);
+            writer.write(FlatFileItemWriter.DEFAULT_LINE_SEPARATOR);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(outputFile.toPath(), StandardOpenOption.APPEND)) {
+            for (File partFile : partFiles) {
+                Files.copy(partFile.toPath(), outputStream);
+            }
+        }
+        logger.info(String.format("Merged %d part files into %s", partFiles.size(), outputFile.getAbsolutePath()));
+    }
+
+    @Override
+    public void clean() {
+        for (File partFile : partFiles) {
+            try {
+                Files.deleteIfExists(partFile.toPath());
+            } catch (IOException e) {
+                logger.error("Error deleting export part file", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.avni.server.framework.cache;
+
+import org.avni.server.framework.hibernate.EntityWriteNotifier;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Evicts all entries of a cache when an entity of one of the given types is written, and again when the transaction
+ * that wrote it completes, so that a value loaded by another request before the commit is not served after it.
+ */
+public class EntityWriteCacheEvictor {
+    private final Cache cache;
+    private final Set<Class<?>> invalidatingEntityTypes;
+    private final Consumer<Object> entityWriteListener = this::evictIfInvalidating;
+
+    public EntityWriteCacheEvictor(Cache cache, Set<Class<?>> invalidatingEntityTypes) {
+        this.cache = cache;
+        this.invalidatingEntityTypes = invalidatingEntityTypes;
+    }
+
+    public void registerForEntityWrites() {
+        EntityWriteNotifier.register(entityWriteListener);
+    }
+
+    public void unregisterForEntityWrites() {
+        EntityWriteNotifier.unregister(entityWriteListener);
+    }
+
+    public void evictIfInvalidating(Object entity) {
+        if (!invalidatingEntityTypes.contains(entity.getClass())) return;
+
+        cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EntityWriteCacheEvictor.this);
+                    cache.clear();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.avni.server.framework.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of values computed from entities and evicted when they are written, see EntityWriteCacheEvictor. Values are
+ * loaded through get(key, loader), so use sync = true with @Cacheable. A value is put only if its key was not evicted,
+ * and the cache not cleared, while it was being loaded, as it may have been loaded from the data before the write.
+ *
+ * Hits and misses are recorded in the stats of the underlying Guava cache. Null values are not cached.
+ */
+public class WriteEvictedCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final com.google.common.cache.Cache<Object, Object> cache;
+    // generation of the keys being loaded, incremented when the key is evicted
+    private final ConcurrentMap<Object, KeyGeneration> keysBeingLoaded = new ConcurrentHashMap<>();
+
+    public WriteEvictedCache(String name, com.google.common.cache.Cache<Object, Object> cache) {
+        super(false);
+        this.name = name;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public com.google.common.cache.Cache<Object, Object> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) return (T) fromStoreValue(cached);
+
+        long generation = keysBeingLoaded.compute(key, (k, keyGeneration) -> keyGeneration == null ? new KeyGeneration(0, 1) : keyGeneration.withLoad()).generation;
+        T value = null;
+        try {
+            value = valueLoader.call();
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            T loaded = value;
+            keysBeingLoaded.computeIfPresent(key, (k, keyGeneration) -> {
+                if (loaded != null && keyGeneration.generation == generation) cache.put(key, loaded);
+                return keyGeneration.loads == 1 ? null : keyGeneration.withoutLoad();
+            });
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        keysBeingLoaded.computeIfPresent(key, (k, keyGeneration) -> keyGeneration.next());
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        keysBeingLoaded.replaceAll((k, keyGeneration) -> keyGeneration.next());
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    private static class KeyGeneration {
+        private final long generation;
+        private final int loads;
+
+        private KeyGeneration(long generation, int loads) {
+            this.generation = generation;
+            this.loads = loads;
+        }
+
+        private KeyGeneration next() {
+            return new KeyGeneration(generation + 1, loads);
+        }
+
+        private KeyGeneration withLoad() {
+            return new KeyGeneration(generation, loads + 1);
+        }
+
+        private KeyGeneration withoutLoad() {
+            return new KeyGeneration(generation, loads - 1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.avni.server.framework.tomcat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.avni.server.domain.Organisation;
+import org.avni.server.framework.security.UserContextHolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how long requests wait to borrow a connection from the pool, and the connections borrowed per organisation
+ * tagged with whether the organisation's role had to be set on them (see SetOrganisationJdbcInterceptor). Active and
+ * idle connections of the pool are already published by Spring Boot.
+ */
+@Component
+public class ConnectionPoolMetrics implements BeanPostProcessor {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionPoolMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && "dataSource".equals(beanName)) {
+            return new MeteredDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+    private class MeteredDataSource extends DelegatingDataSource {
+        private final DataSource pool;
+        private volatile Timer checkoutTimer;
+
+        private MeteredDataSource(DataSource pool) {
+            super(pool);
+            this.pool = pool;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) return super.getConnection();
+
+            long start = System.nanoTime();
+            Connection connection = super.getConnection();
+            getCheckoutTimer(registry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (connection.isWrapperFor(ConnectionRole.class)) {
+                Organisation organisation = UserContextHolder.getOrganisation();
+                registry.counter("avni.db.connection.checkouts",
+                        "organisation", organisation == null || organisation.getDbUser() == null ? "none" : organisation.getDbUser(),
+                        "role", connection.unwrap(ConnectionRole.class).isRoleChangedOnBorrow() ? "set" : "reused").increment();
+            }
+            return connection;
+        }
+
+        private Timer getCheckoutTimer(MeterRegistry registry) {
+            if (checkoutTimer == null) {
+                checkoutTimer = registry.timer("avni.db.connection.checkout");
+                Gauge.builder("avni.db.connection.waiting", pool, DataSource::getWaitCount).register(registry);
+            }
+            return checkoutTimer;
+        }
+    }
+}
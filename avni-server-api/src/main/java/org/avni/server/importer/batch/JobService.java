@@ -35,37 +35,70 @@ public class JobService {
     private final Job importJob;
     private final Job importZipJob;
     private final JobLauncher bgJobLauncher;
+    private final Job syncAttributesJob;
+    private final JobLauncher syncAttributesJobLauncher;
+    private final Job bulkSubjectMigrationJob;
+    private final JobLauncher bulkSubjectMigrationJobLauncher;
     private final AvniJobRepository avniJobRepository;
 
     @Autowired
-    public JobService(JobExplorer jobExplorer, JobRepository jobRepository, Job importJob, Job importZipJob, JobLauncher bgJobLauncher, AvniJobRepository avniJobRepository) {
+    public JobService(JobExplorer jobExplorer, JobRepository jobRepository, Job importJob, Job importZipJob, JobLauncher bgJobLauncher,
+                      Job syncAttributesJob, JobLauncher syncAttributesJobLauncher,
+                      Job bulkSubjectMigrationJob, JobLauncher bulkSubjectMigrationJobLauncher,
+                      AvniJobRepository avniJobRepository) {
         this.jobExplorer = jobExplorer;
         this.jobRepository = jobRepository;
         this.importJob = importJob;
         this.importZipJob = importZipJob;
         this.bgJobLauncher = bgJobLauncher;
+        this.syncAttributesJob = syncAttributesJob;
+        this.syncAttributesJobLauncher = syncAttributesJobLauncher;
+        this.bulkSubjectMigrationJob = bulkSubjectMigrationJob;
+        this.bulkSubjectMigrationJobLauncher = bulkSubjectMigrationJobLauncher;
         this.avniJobRepository = avniJobRepository;
     }
 
+    /**
+     * Called at startup, when executions still running were left so by the server stopping. They are all marked failed,
+     * as otherwise their job instances could not be run again. The ones updated in the last two hours are restarted,
+     * which resumes them from their last committed chunk.
+     */
     public void retryJobsFailedInLast2Hours() throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException {
-        for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(importJob.getName())) {
-            BatchStatus status = jobExecution.getStatus();
+        retryJobsFailedInLast2Hours(importJob, bgJobLauncher);
+        retryJobsFailedInLast2Hours(syncAttributesJob, syncAttributesJobLauncher);
+        retryJobsFailedInLast2Hours(bulkSubjectMigrationJob, bulkSubjectMigrationJobLauncher);
+    }
+
+    private void retryJobsFailedInLast2Hours(Job job, JobLauncher jobLauncher) throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(job.getName())) {
             LocalDateTime lastUpdated = jobExecution.getLastUpdated();
             LocalDateTime nowMinus2Hours = LocalDateTime.now().minusHours(2);
-            if (nowMinus2Hours.isBefore(lastUpdated) && Arrays.asList(STARTING, STARTED, UNKNOWN).contains(status)) {
-                jobExecution.upgradeStatus(FAILED);
-                jobExecution.setEndTime(LocalDateTime.now());
-                jobRepository.update(jobExecution);
-                for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
-                    if (Arrays.asList(STARTING, STARTED, UNKNOWN).contains(stepExecution.getStatus())) {
-                        stepExecution.upgradeStatus(FAILED);
-                        stepExecution.setEndTime(LocalDateTime.now());
-                        jobRepository.update(stepExecution);
-                    }
-                }
-                bgJobLauncher.run(importJob, jobExecution.getJobParameters());
+            if (!Arrays.asList(STARTING, STARTED, UNKNOWN).contains(jobExecution.getStatus())) continue;
+
+            markFailed(jobExecution);
+            if (lastUpdated != null && nowMinus2Hours.isBefore(lastUpdated)) {
+                logger.info(format("Restarting %s execution %d left running", job.getName(), jobExecution.getId()));
+                jobLauncher.run(job, jobExecution.getJobParameters());
+            } else {
+                logger.info(format("Marked %s execution %d left running since %s as failed", job.getName(), jobExecution.getId(), lastUpdated));
+            }
+        }
+    }
+
+    private void markFailed(JobExecution jobExecution) {
+        LocalDateTime now = LocalDateTime.now();
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (Arrays.asList(STARTING, STARTED, UNKNOWN).contains(stepExecution.getStatus())) {
+                stepExecution.setStatus(FAILED);
+                stepExecution.setExitStatus(ExitStatus.FAILED);
+                stepExecution.setEndTime(now);
+                jobRepository.update(stepExecution);
             }
         }
+        jobExecution.setStatus(FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED);
+        jobExecution.setEndTime(now);
+        jobRepository.update(jobExecution);
     }
 
     public JobExecution create(String uuid, String type, String fileName, ObjectInfo s3FileInfo, Long userId, String organisationUUID, boolean autoApprove, String locationUploadMode, String locationHierarchy) throws JobParametersInvalidException, JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
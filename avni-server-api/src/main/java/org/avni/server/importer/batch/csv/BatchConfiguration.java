@@ -13,6 +13,7 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileParseException;
@@ -20,6 +21,7 @@ import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FlatFileFormatException;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -59,6 +61,20 @@ public class BatchConfiguration {
     @Bean
     @StepScope
     public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key) throws IOException {
+        return buildCsvFileItemReader(s3Key, true);
+    }
+
+    @Bean
+    @StepScope
+    public SynchronizedItemStreamReader<Row> bulkCsvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key,
+                                                                   BulkImportModeDecider bulkImportModeDecider) throws IOException {
+        // Item counts are not meaningful for restart when chunks are read by several threads
+        SynchronizedItemStreamReader<Row> reader = new SynchronizedItemStreamReader<>();
+        reader.setDelegate(buildCsvFileItemReader(s3Key, bulkImportModeDecider.getThreads() == 1));
+        return reader;
+    }
+
+    private FlatFileItemReader<Row> buildCsvFileItemReader(String s3Key, boolean saveState) throws IOException {
         byte[] bytes = IOUtils.toByteArray(s3Service.getObjectContent(s3Key));
         String[] headers = this.getHeaders(new StringReader(new String(bytes)));
         int numberOfLinesToSkip = this.getNumberOfLinesToSkip(new StringReader(new String(bytes)));
@@ -68,6 +84,7 @@ public class BatchConfiguration {
 
         return new FlatFileItemReaderBuilder<Row>()
                 .name("csvFileItemReader")
+                .saveState(saveState)
                 .resource(new ByteArrayResource(bytes))
                 .linesToSkip(numberOfLinesToSkip)
                 .lineMapper(lineMapper)
@@ -75,11 +92,13 @@ public class BatchConfiguration {
     }
 
     @Bean
-    public Job importJob(ErrorFileCreatorListener listener, Step importStep) {
+    public Job importJob(ErrorFileCreatorListener listener, Step importStep, Step bulkImportStep, BulkImportModeDecider bulkImportModeDecider) {
         return new JobBuilder("importJob", jobRepository)
                 .incrementer(new RunIdIncrementer())
                 .listener(listener)
-                .flow(importStep)
+                .start(bulkImportModeDecider)
+                .on(BulkImportModeDecider.BULK.getName()).to(bulkImportStep)
+                .from(bulkImportModeDecider).on("*").to(importStep)
                 .end()
                 .build();
     }
@@ -103,6 +122,39 @@ public class BatchConfiguration {
                 .build();
     }
 
+    /**
+     * Commits several rows per transaction and optionally processes chunks on multiple threads. When a chunk fails
+     * the faulty rows are found by rewriting the chunk one row per transaction, so the other rows are still saved and
+     * only the faulty ones go to the error file.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")
+    public Step bulkImportStep(SynchronizedItemStreamReader<Row> bulkCsvFileItemReader,
+                               CsvFileItemWriter csvFileItemWriter,
+                               ErrorFileWriterListener errorFileWriterListener,
+                               BulkImportModeDecider bulkImportModeDecider,
+                               BulkImportTaskExecutor bulkImportTaskExecutor) {
+        FaultTolerantStepBuilder<Row, Row> stepBuilder = new StepBuilder("bulkImportStep", jobRepository)
+                .<Row, Row>chunk(bulkImportModeDecider.getChunkSize(), platformTransactionManager)
+                .reader(bulkCsvFileItemReader)
+                .writer(csvFileItemWriter)
+                .faultTolerant()
+                .skip(Exception.class)
+                .skip(RuntimeException.class)
+                .noSkip(FileNotFoundException.class)
+                .noSkip(FlatFileParseException.class)
+                .noSkip(FlatFileFormatException.class)
+                .skipPolicy((error, count) -> true);
+        stepBuilder.listener(errorFileWriterListener);
+        if (bulkImportTaskExecutor.isMultiThreaded()) {
+            stepBuilder.listener(new JobContextChunkListener());
+            stepBuilder.taskExecutor(bulkImportTaskExecutor.getTaskExecutor());
+            // the repeat template runs at most 4 chunks at a time by default, whatever the threads of the executor
+            stepBuilder.throttleLimit(bulkImportModeDecider.getThreads());
+        }
+        return stepBuilder.build();
+    }
+
     @Bean
     public JobLauncher bgJobLauncher() {
         return new TaskExecutorJobLauncher() {{
@@ -0,0 +1,51 @@
+package org.avni.server.importer.batch.csv;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Routes uploads whose rows do not depend on each other to the bulk import step when bulk import is configured.
+ * Locations, users and group members stay on the row-by-row step as later rows can refer to earlier ones.
+ */
+@Component
+public class BulkImportModeDecider implements JobExecutionDecider {
+    public static final FlowExecutionStatus BULK = new FlowExecutionStatus("BULK");
+    public static final FlowExecutionStatus ROW_BY_ROW = new FlowExecutionStatus("ROW_BY_ROW");
+    private static final Set<String> independentRowTypes = new HashSet<>(Arrays.asList("Subject", "ProgramEnrolment", "ProgramEncounter", "Encounter"));
+
+    private final int chunkSize;
+    private final int threads;
+
+    public BulkImportModeDecider(@Value("${avni.bulkUpload.chunkSize}") int chunkSize,
+                                 @Value("${avni.bulkUpload.threads}") int threads) {
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        String type = jobExecution.getJobParameters().getString("type");
+        if (!isBulkImportEnabled() || type == null) return ROW_BY_ROW;
+        return independentRowTypes.contains(type.split("---")[0]) ? BULK : ROW_BY_ROW;
+    }
+
+    public boolean isBulkImportEnabled() {
+        return chunkSize > 1 || threads > 1;
+    }
+
+    public int getChunkSize() {
+        return Math.max(chunkSize, 1);
+    }
+
+    public int getThreads() {
+        return Math.max(threads, 1);
+    }
+}
@@ -0,0 +1,46 @@
+package org.avni.server.importer.batch.csv;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Threads of the bulk import step, created only when more than one is configured and shut down with the context.
+ * Kept out of the context as an Executor bean, as one would replace the application task executor Spring Boot sets up.
+ */
+@Component
+public class BulkImportTaskExecutor implements DisposableBean {
+    private final ThreadPoolTaskExecutor executor;
+
+    public BulkImportTaskExecutor(BulkImportModeDecider bulkImportModeDecider) {
+        int threads = bulkImportModeDecider.getThreads();
+        if (threads > 1) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            // bounds the chunks in flight, the step thread runs a chunk itself when all are busy
+            executor.setQueueCapacity(threads);
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.setThreadNamePrefix("bulk-import-");
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+    }
+
+    public boolean isMultiThreaded() {
+        return executor != null;
+    }
+
+    public TaskExecutor getTaskExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdown();
+    }
+}
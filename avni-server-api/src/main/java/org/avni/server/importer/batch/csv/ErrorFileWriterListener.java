@@ -35,7 +35,7 @@ public class ErrorFileWriterListener {
         appendToErrorFile(item, t);
     }
 
-    public void appendToErrorFile(Row item, Throwable t) {
+    public synchronized void appendToErrorFile(Row item, Throwable t) {
         try {
             bugsnagReporter.logAndReportToBugsnag(t);
             FileWriter fileWriter = new FileWriter(bulkUploadS3Service.getLocalErrorFile(uuid), true);
@@ -0,0 +1,36 @@
+package org.avni.server.importer.batch.csv;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
+
+/**
+ * Makes the job context, and with it job scoped beans, available to chunks processed on task executor threads.
+ * Spring Batch registers only the step context on those threads.
+ */
+public class JobContextChunkListener implements ChunkListener {
+    private final ThreadLocal<Boolean> registered = ThreadLocal.withInitial(() -> false);
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (JobSynchronizationManager.getContext() != null) return;
+        JobSynchronizationManager.register(context.getStepContext().getStepExecution().getJobExecution());
+        registered.set(true);
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        unregister();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        unregister();
+    }
+
+    private void unregister() {
+        if (!registered.get()) return;
+        registered.set(false);
+        JobSynchronizationManager.close();
+    }
+}
@@ -1,13 +1,11 @@
 package org.avni.server.importer.batch.csv.creator;
 
 import org.avni.server.dao.AddressLevelTypeRepository;
-import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.AddressLevelTypes;
 import org.avni.server.importer.batch.model.Row;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -16,12 +14,12 @@ import java.util.List;
 
 @Service
 public class AddressLevelCreator {
-    private final LocationRepository locationRepository;
+    private final ImportMetadataResolver importMetadataResolver;
     private final AddressLevelTypeRepository addressLevelTypeRepository;
 
     @Autowired
-    public AddressLevelCreator(LocationRepository locationRepository, AddressLevelTypeRepository addressLevelTypeRepository) {
-        this.locationRepository = locationRepository;
+    public AddressLevelCreator(ImportMetadataResolver importMetadataResolver, AddressLevelTypeRepository addressLevelTypeRepository) {
+        this.importMetadataResolver = importMetadataResolver;
         this.addressLevelTypeRepository = addressLevelTypeRepository;
     }
 
@@ -34,7 +32,7 @@ public class AddressLevelCreator {
                 .orElseThrow(() -> new RuntimeException("No matching location types found. If subject type has registration locations then only those will be used for matching."));
 
         String title = row.get(firstMatch.getName());
-        List<AddressLevel> matchingAddressLevels = locationRepository.findByTitleAndType(title, firstMatch, PageRequest.of(0, 2));
+        List<AddressLevel> matchingAddressLevels = importMetadataResolver.findAddressLevelsByTitleAndType(title, firstMatch);
         switch (matchingAddressLevels.size()) {
             case 0:
                 throw new RuntimeException(("Address not found: " + title));
@@ -60,7 +58,7 @@ public class AddressLevelCreator {
 
         String lineage = String.join(", ", inputLocations);
 
-        return locationRepository.findByTitleLineageIgnoreCase(lineage)
+        return importMetadataResolver.findAddressLevelByTitleLineage(lineage)
                 .orElseThrow(() -> new RuntimeException("'Address' not found: " + lineage));
     }
 }
@@ -1,24 +1,23 @@
 package org.avni.server.importer.batch.csv.creator;
 
-import org.avni.server.dao.EncounterTypeRepository;
 import org.avni.server.domain.EncounterType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EncounterTypeCreator {
-    private EncounterTypeRepository encounterTypeRepository;
+    private final ImportMetadataResolver importMetadataResolver;
 
     @Autowired
-    public EncounterTypeCreator(EncounterTypeRepository encounterTypeRepository) {
-        this.encounterTypeRepository = encounterTypeRepository;
+    public EncounterTypeCreator(ImportMetadataResolver importMetadataResolver) {
+        this.importMetadataResolver = importMetadataResolver;
     }
 
     public EncounterType getEncounterType(String name, String identifierForErrorMessage) {
         if (name == null || name.isEmpty()) {
             throw new RuntimeException(String.format("'%s' is required", identifierForErrorMessage));
         }
-        EncounterType encounterType = encounterTypeRepository.findByName(name);
+        EncounterType encounterType = importMetadataResolver.getEncounterType(name);
         if (encounterType == null) {
             throw new RuntimeException(String.format("'%s' '%s' is required", identifierForErrorMessage, name));
         }
@@ -0,0 +1,161 @@
+package org.avni.server.importer.batch.csv.creator;
+
+import org.avni.server.application.FormElement;
+import org.avni.server.dao.ConceptRepository;
+import org.avni.server.dao.EncounterTypeRepository;
+import org.avni.server.dao.LocationRepository;
+import org.avni.server.dao.OperationalSubjectTypeRepository;
+import org.avni.server.dao.ProgramRepository;
+import org.avni.server.dao.SubjectTypeRepository;
+import org.avni.server.dao.application.FormElementRepository;
+import org.avni.server.domain.*;
+import org.springframework.batch.core.scope.context.JobContext;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves metadata referred to by import rows. Within an import job the ids of the metadata are looked up once, on the
+ * first lookup, and kept in the job context, and entities are read by id in the session of the chunk asking for them.
+ * So no entity is shared between chunk transactions or worker threads, and a chunk reads each entity at most once (from
+ * the second-level cache when it is there). Outside a job every lookup goes to the repositories.
+ */
+@Component
+public class ImportMetadataResolver {
+    private static final String JOB_METADATA_ATTRIBUTE = ImportMetadataResolver.class.getName();
+
+    private final ConceptRepository conceptRepository;
+    private final FormElementRepository formElementRepository;
+    private final ProgramRepository programRepository;
+    private final EncounterTypeRepository encounterTypeRepository;
+    private final OperationalSubjectTypeRepository operationalSubjectTypeRepository;
+    private final SubjectTypeRepository subjectTypeRepository;
+    private final LocationRepository locationRepository;
+
+    public ImportMetadataResolver(ConceptRepository conceptRepository,
+                                  FormElementRepository formElementRepository,
+                                  ProgramRepository programRepository,
+                                  EncounterTypeRepository encounterTypeRepository,
+                                  OperationalSubjectTypeRepository operationalSubjectTypeRepository,
+                                  SubjectTypeRepository subjectTypeRepository,
+                                  LocationRepository locationRepository) {
+        this.conceptRepository = conceptRepository;
+        this.formElementRepository = formElementRepository;
+        this.programRepository = programRepository;
+        this.encounterTypeRepository = encounterTypeRepository;
+        this.operationalSubjectTypeRepository = operationalSubjectTypeRepository;
+        this.subjectTypeRepository = subjectTypeRepository;
+        this.locationRepository = locationRepository;
+    }
+
+    public Concept getConcept(String name) {
+        JobMetadata jobMetadata = getJobMetadata();
+        return jobMetadata == null ? conceptRepository.findByName(name) : conceptRepository.findEntity(jobMetadata.conceptIdsByName.get(name));
+    }
+
+    public Program getProgram(String name) {
+        JobMetadata jobMetadata = getJobMetadata();
+        return jobMetadata == null ? programRepository.findByName(name) : programRepository.findEntity(jobMetadata.programIdsByName.get(name));
+    }
+
+    public EncounterType getEncounterType(String name) {
+        JobMetadata jobMetadata = getJobMetadata();
+        return jobMetadata == null ? encounterTypeRepository.findByName(name) : encounterTypeRepository.findEntity(jobMetadata.encounterTypeIdsByName.get(name));
+    }
+
+    public SubjectType getSubjectType(String name) {
+        JobMetadata jobMetadata = getJobMetadata();
+        if (jobMetadata == null) {
+            OperationalSubjectType operationalSubjectType = operationalSubjectTypeRepository.findByNameIgnoreCase(name);
+            return operationalSubjectType == null ? null : operationalSubjectType.getSubjectType();
+        }
+        return name == null ? null : subjectTypeRepository.findEntity(jobMetadata.subjectTypeIdsByName.get(name.toLowerCase()));
+    }
+
+    public List<FormElement> getQuestionGroupFormElements(FormElement questionGroupFormElement) {
+        JobMetadata jobMetadata = getJobMetadata();
+        if (jobMetadata == null) return formElementRepository.findAllByGroupId(questionGroupFormElement.getId());
+        List<Long> formElementIds = jobMetadata.questionGroupFormElementIds.computeIfAbsent(questionGroupFormElement.getId(),
+                groupId -> formElementRepository.findAllByGroupId(groupId).stream().map(FormElement::getId).collect(Collectors.toList()));
+        return formElementIds.stream().map(formElementRepository::findEntity).collect(Collectors.toList());
+    }
+
+    public List<AddressLevel> findAddressLevelsByTitleAndType(String title, AddressLevelType addressLevelType) {
+        JobMetadata jobMetadata = getJobMetadata();
+        if (jobMetadata == null) return locationRepository.findByTitleAndType(title, addressLevelType, PageRequest.of(0, 2));
+        List<Long> addressLevelIds = jobMetadata.addressLevelIdsByTypeAndTitle.computeIfAbsent(addressLevelType.getId() + "|" + title,
+                key -> locationRepository.findByTitleAndType(title, addressLevelType, PageRequest.of(0, 2)).stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        return addressLevelIds.stream().map(locationRepository::findEntity).collect(Collectors.toList());
+    }
+
+    public Optional<AddressLevel> findAddressLevelByTitleLineage(String titleLineage) {
+        JobMetadata jobMetadata = getJobMetadata();
+        if (jobMetadata == null) return locationRepository.findByTitleLineageIgnoreCase(titleLineage);
+        Optional<Long> addressLevelId = jobMetadata.addressLevelIdsByTitleLineage.computeIfAbsent(titleLineage.toLowerCase(),
+                key -> locationRepository.findByTitleLineageIgnoreCase(titleLineage).map(AddressLevel::getId));
+        return addressLevelId.map(locationRepository::findEntity);
+    }
+
+    private JobMetadata getJobMetadata() {
+        JobContext jobContext = JobSynchronizationManager.getContext();
+        if (jobContext == null) return null;
+        synchronized (jobContext) {
+            JobMetadata jobMetadata = (JobMetadata) jobContext.getAttribute(JOB_METADATA_ATTRIBUTE);
+            if (jobMetadata == null) {
+                jobMetadata = loadJobMetadata();
+                jobContext.setAttribute(JOB_METADATA_ATTRIBUTE, jobMetadata);
+            }
+            return jobMetadata;
+        }
+    }
+
+    private JobMetadata loadJobMetadata() {
+        Map<String, Long> conceptIdsByName = idsByName(conceptRepository.findAllByOrganisationIds(conceptRepository.buildOrganisationIdList()), Concept::getName);
+        Map<String, Long> programIdsByName = idsByName(programRepository.findAll(), Program::getName);
+        Map<String, Long> encounterTypeIdsByName = idsByName(encounterTypeRepository.findAll(), EncounterType::getName);
+        Map<String, SubjectType> subjectTypesByName = new HashMap<>();
+        for (OperationalSubjectType operationalSubjectType : operationalSubjectTypeRepository.findAll()) {
+            if (operationalSubjectType.getName() == null) continue;
+            subjectTypesByName.merge(operationalSubjectType.getName().toLowerCase(), operationalSubjectType.getSubjectType(), (existing, other) -> existing.isVoided() ? other : existing);
+        }
+        Map<String, Long> subjectTypeIdsByName = new HashMap<>();
+        subjectTypesByName.forEach((name, subjectType) -> subjectTypeIdsByName.put(name, subjectType.getId()));
+        return new JobMetadata(conceptIdsByName, programIdsByName, encounterTypeIdsByName, subjectTypeIdsByName);
+    }
+
+    private static <T extends CHSEntity> Map<String, Long> idsByName(List<T> entities, Function<T, String> nameFunction) {
+        Map<String, T> entitiesByName = new HashMap<>();
+        for (T entity : entities) {
+            String name = nameFunction.apply(entity);
+            if (name == null) continue;
+            entitiesByName.merge(name, entity, (existing, other) -> existing.isVoided() ? other : existing);
+        }
+        Map<String, Long> idsByName = new HashMap<>();
+        entitiesByName.forEach((name, entity) -> idsByName.put(name, entity.getId()));
+        return idsByName;
+    }
+
+    // Only ids, so that it can be shared by the chunks and worker threads of the job
+    private static class JobMetadata {
+        private final Map<String, Long> conceptIdsByName;
+        private final Map<String, Long> programIdsByName;
+        private final Map<String, Long> encounterTypeIdsByName;
+        private final Map<String, Long> subjectTypeIdsByName;
+        private final Map<Long, List<Long>> questionGroupFormElementIds = new ConcurrentHashMap<>();
+        private final Map<String, List<Long>> addressLevelIdsByTypeAndTitle = new ConcurrentHashMap<>();
+        private final Map<String, Optional<Long>> addressLevelIdsByTitleLineage = new ConcurrentHashMap<>();
+
+        private JobMetadata(Map<String, Long> conceptIdsByName, Map<String, Long> programIdsByName,
+                            Map<String, Long> encounterTypeIdsByName, Map<String, Long> subjectTypeIdsByName) {
+            this.conceptIdsByName = conceptIdsByName;
+            this.programIdsByName = programIdsByName;
+            this.encounterTypeIdsByName = encounterTypeIdsByName;
+            this.subjectTypeIdsByName = subjectTypeIdsByName;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package org.avni.server.importer.batch.csv.creator;
 
 import org.avni.server.application.*;
-import org.avni.server.dao.ConceptRepository;
-import org.avni.server.dao.application.FormElementRepository;
 import org.avni.server.dao.application.FormRepository;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptDataType;
@@ -32,30 +30,27 @@ import static java.lang.String.format;
 @Component
 public class ObservationCreator {
     private static final Logger logger = LoggerFactory.getLogger(ObservationCreator.class);
-    private final ConceptRepository conceptRepository;
+    private final ImportMetadataResolver importMetadataResolver;
     private final FormRepository formRepository;
     private final ObservationService observationService;
     private final S3Service s3Service;
     private final IndividualService individualService;
     private final LocationService locationService;
-    private final FormElementRepository formElementRepository;
 
     @Autowired
-    public ObservationCreator(ConceptRepository conceptRepository,
+    public ObservationCreator(ImportMetadataResolver importMetadataResolver,
                               FormRepository formRepository,
                               ObservationService observationService,
                               S3Service s3Service,
                               IndividualService individualService,
                               LocationService locationService,
-                              FormElementRepository formElementRepository,
                               EnhancedValidationService enhancedValidationService) {
-        this.conceptRepository = conceptRepository;
+        this.importMetadataResolver = importMetadataResolver;
         this.formRepository = formRepository;
         this.observationService = observationService;
         this.s3Service = s3Service;
         this.individualService = individualService;
         this.locationService = locationService;
-        this.formElementRepository = formElementRepository;
     }
 
     public Set<Concept> getConceptsInHeader(HeaderCreator headers, FormMapping formMapping, String[] fileHeaders) {
@@ -67,11 +62,11 @@ public class ObservationCreator {
     }
 
     private Concept findConcept(String name, boolean isChildQuestionGroup) {
-        Concept concept = conceptRepository.findByName(name);
+        Concept concept = importMetadataResolver.getConcept(name);
         if (concept == null && name.contains("|")) {
             String[] parentChildNameArray = name.split("\\|");
             String questionGroupConceptName = isChildQuestionGroup ? parentChildNameArray[1] : parentChildNameArray[0];
-            concept = conceptRepository.findByName(questionGroupConceptName);
+            concept = importMetadataResolver.getConcept(questionGroupConceptName);
         }
         return concept;
     }
@@ -87,7 +82,7 @@ public class ObservationCreator {
     private boolean isNonEmptyQuestionGroup(FormElement formElement, Row row) {
         Concept concept = formElement.getConcept();
         if (ConceptDataType.isQuestionGroup(concept.getDataType())) {
-            List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(formElement.getId());
+            List<FormElement> allChildQuestions = importMetadataResolver.getQuestionGroupFormElements(formElement);
             return allChildQuestions.stream().anyMatch(fe -> {
                 String parentChildName = concept.getName() + "|" + fe.getConcept().getName();
                 String headerName = formElement.isRepeatable() ? String.format("%s|1", parentChildName) : parentChildName;
@@ -138,7 +133,7 @@ public class ObservationCreator {
 
 
     private Object constructChildObservations(Row row, HeaderCreator headers, List<String> errorMsgs, FormElement parentFormElement, FormType formType, ObservationCollection oldObservations) {
-        List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(parentFormElement.getId());
+        List<FormElement> allChildQuestions = importMetadataResolver.getQuestionGroupFormElements(parentFormElement);
         if (parentFormElement.isRepeatable()) {
             Pattern repeatableQuestionGroupPattern = Pattern.compile(String.format("%s\\|.*\\|\\d", parentFormElement.getConcept().getName()));
             List<String> repeatableQuestionGroupHeaders = Stream.of(row.getHeaders())
@@ -1,21 +1,20 @@
 package org.avni.server.importer.batch.csv.creator;
 
-import org.avni.server.dao.ProgramRepository;
 import org.avni.server.domain.Program;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ProgramCreator {
-    private final ProgramRepository programRepository;
+    private final ImportMetadataResolver importMetadataResolver;
 
     @Autowired
-    public ProgramCreator(ProgramRepository programRepository) {
-        this.programRepository = programRepository;
+    public ProgramCreator(ImportMetadataResolver importMetadataResolver) {
+        this.importMetadataResolver = importMetadataResolver;
     }
 
     public Program getProgram(String name, String header) {
-        Program program = programRepository.findByName(name);
+        Program program = importMetadataResolver.getProgram(name);
         if (program == null) {
             throw new RuntimeException(String.format("'%s' '%s' not found", header, name));
         }
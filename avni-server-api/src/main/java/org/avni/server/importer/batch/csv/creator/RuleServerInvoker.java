@@ -17,16 +17,20 @@ import org.avni.server.web.request.rules.RulesContractWrapper.EncounterContract;
 import org.avni.server.web.request.rules.RulesContractWrapper.IndividualContract;
 import org.avni.server.web.request.rules.RulesContractWrapper.ProgramEncounterContract;
 import org.avni.server.web.request.rules.RulesContractWrapper.ProgramEnrolmentContract;
+import org.avni.server.web.request.rules.constructWrappers.ContractConstructionContext;
 import org.avni.server.web.request.rules.constructWrappers.IndividualConstructionService;
 import org.avni.server.web.request.rules.constructWrappers.ProgramEncounterConstructionService;
 import org.avni.server.web.request.rules.constructWrappers.ProgramEnrolmentConstructionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class RuleServerInvoker {
+    private static final String API_UPLOAD = "/api/upload";
+
     private final RuleServiceClient restClient;
     private final ProgramEnrolmentConstructionService programEnrolmentConstructionService;
     private final IndividualConstructionService individualConstructionService;
@@ -51,7 +55,7 @@ public class RuleServerInvoker {
     private UploadRuleServerResponseContract invokeRuleServer(Row row, Form form, Object entity, List<String> allErrorMsgs) throws Exception {
         ObjectMapper mapper = ObjectMapperSingleton.getObjectMapper();
         UploadRuleServerRequestContract contract = UploadRuleServerRequestContract.buildRuleServerContract(row, form, entity);
-        UploadRuleServerResponseContract ruleResponse = (UploadRuleServerResponseContract) restClient.post("/api/upload", contract, UploadRuleServerResponseContract.class);
+        UploadRuleServerResponseContract ruleResponse = (UploadRuleServerResponseContract) restClient.post(API_UPLOAD, contract, UploadRuleServerResponseContract.class);
         allErrorMsgs.addAll(ruleResponse.getErrors());
         if (allErrorMsgs.size() > 0) {
             throw new Exception(String.join(", ", allErrorMsgs));
@@ -69,15 +73,35 @@ public class RuleServerInvoker {
         return invokeRuleServer(row, form, entity, allErrorMsgs);
     }
 
-    public UploadRuleServerResponseContract getRuleServerResult(Row row, Form form, ProgramEncounter programEncounter, List<String> allErrorMsgs) throws Exception {
-        ProgramEncounterContract entity = programEncounterConstructionService.constructProgramEncounterContractWrapper(programEncounter);
-        entity.setProgramEnrolment(programEncounterConstructionService.constructEnrolments(programEncounter.getProgramEnrolment(), programEncounter.getUuid()));
-        return invokeRuleServer(row, form, entity, allErrorMsgs);
+    public UploadRuleServerRequestContract getRuleServerRequest(Row row, Form form, ProgramEncounter programEncounter) {
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            ProgramEncounterContract entity = programEncounterConstructionService.constructProgramEncounterContractWrapper(programEncounter);
+            entity.setProgramEnrolment(programEncounterConstructionService.constructEnrolments(programEncounter.getProgramEnrolment(), programEncounter.getUuid()));
+            return UploadRuleServerRequestContract.buildRuleServerContract(row, form, entity);
+        }
     }
 
-    public UploadRuleServerResponseContract getRuleServerResult(Row row, Form form, Encounter encounter, List<String> allErrorMsgs) throws Exception {
-        EncounterContract entity = EncounterContract.fromEncounter(encounter, observationService, entityApprovalStatusService);
-        entity.setSubject(individualConstructionService.getSubjectInfo(encounter.getIndividual()));
-        return invokeRuleServer(row, form, entity, allErrorMsgs);
+    public UploadRuleServerRequestContract getRuleServerRequest(Row row, Form form, Encounter encounter) {
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            EncounterContract entity = EncounterContract.fromEncounter(encounter, observationService, entityApprovalStatusService);
+            entity.setSubject(individualConstructionService.getSubjectInfo(encounter.getIndividual()));
+            return UploadRuleServerRequestContract.buildRuleServerContract(row, form, entity);
+        }
+    }
+
+    /**
+     * Runs the upload rules of many rows in one call. Fails if the rules of any row returned errors, as the rows are
+     * written in one chunk and the failing row is found when the chunk is written again one row at a time.
+     */
+    public List<UploadRuleServerResponseContract> getRuleServerResults(List<UploadRuleServerRequestContract> requests) throws Exception {
+        List<UploadRuleServerResponseContract> ruleResponses = restClient.postBatch(API_UPLOAD, requests, UploadRuleServerResponseContract.class);
+        List<String> allErrorMsgs = new ArrayList<>();
+        for (UploadRuleServerResponseContract ruleResponse : ruleResponses) {
+            allErrorMsgs.addAll(ruleResponse.getErrors());
+        }
+        if (allErrorMsgs.size() > 0) {
+            throw new Exception(String.join(", ", allErrorMsgs));
+        }
+        return ruleResponses;
     }
 }
@@ -2,6 +2,7 @@ package org.avni.server.importer.batch.csv.writer;
 
 import org.avni.server.framework.security.AuthService;
 import org.avni.server.importer.batch.model.Row;
+import org.hibernate.Session;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
@@ -9,6 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.persistence.EntityManager;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,6 +22,7 @@ import static java.lang.String.format;
 public class CsvFileItemWriter implements ItemWriter<Row> {
 
     private final AuthService authService;
+    private final EntityManager entityManager;
     private final Map<String, ItemWriter<Row>> writers = new HashMap<>();
 
     @Value("#{jobParameters['userId']}")
@@ -36,8 +40,10 @@ public class CsvFileItemWriter implements ItemWriter<Row> {
                              ProgramEnrolmentWriter programEnrolmentWriter,
                              ProgramEncounterWriter programEncounterWriter,
                              EncounterWriter encounterWriter,
-                             GroupSubjectWriter groupSubjectWriter) {
+                             GroupSubjectWriter groupSubjectWriter,
+                             EntityManager entityManager) {
         this.authService = authService;
+        this.entityManager = entityManager;
         writers.put("locations", locationWriter);
         writers.put("usersAndCatchments", userAndCatchmentWriter);
         writers.put("Subject", subjectWriter);
@@ -59,6 +65,9 @@ public class CsvFileItemWriter implements ItemWriter<Row> {
     @Override
     public void write(Chunk<? extends Row> chunk) throws Exception {
         authService.authenticateByUserId(userId, organisationUUID);
+        if (chunk.size() > 1) {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(chunk.size());
+        }
         getWriter().write(chunk);
     }
 
@@ -26,7 +26,9 @@ import org.springframework.util.StringUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Component
@@ -73,15 +75,18 @@ public class EncounterWriter extends EntityWriter implements ItemWriter<Row>, Se
 
     @Override
     public void write(Chunk<? extends Row> chunk) throws Exception {
-        for (Row row : chunk.getItems()) write(row);
+        RuleServerBatch<EncounterRow> ruleServerBatch = new RuleServerBatch<>(ruleServerInvoker, this::save);
+        Set<String> chunkLegacyIds = new HashSet<>();
+        for (Row row : chunk.getItems()) write(row, ruleServerBatch, chunkLegacyIds);
+        ruleServerBatch.flush();
     }
 
-    private void write(Row row) throws Exception {
+    private void write(Row row, RuleServerBatch<EncounterRow> ruleServerBatch, Set<String> chunkLegacyIds) throws Exception {
         List<String> allErrorMsgs = new ArrayList<>();
         String legacyId = row.get(EncounterHeadersCreator.ID);
         if (legacyId != null && !legacyId.trim().isEmpty()) {
             Encounter existingEncounter = encounterRepository.findByLegacyIdOrUuid(legacyId);
-            if (existingEncounter != null) {
+            if (existingEncounter != null || !chunkLegacyIds.add(legacyId)) {
                 allErrorMsgs.add(String.format("Entry with id from previous system, %s already present in Avni", legacyId));
             }
         }
@@ -130,21 +135,26 @@ public class EncounterWriter extends EntityWriter implements ItemWriter<Row>, Se
 
         ValidationUtil.handleErrors(allErrorMsgs);
 
-        Encounter savedEncounter;
-
         if (skipRuleExecution()) {
             EncounterHeadersCreator encounterHeadersCreator = new EncounterHeadersCreator(strategyFactory);
             TxnDataHeaderValidator.validateHeaders(row.getHeaders(), formMapping, encounterHeadersCreator);
             encounter.setObservations(observationCreator.getObservations(row, encounterHeadersCreator, allErrorMsgs, FormType.Encounter, encounter.getObservations(), formMapping));
-            savedEncounter = encounterService.save(encounter);
+            Encounter savedEncounter = encounterService.save(encounter);
+            entityApprovalStatusWriter.saveStatus(formMapping, savedEncounter.getId(), EntityApprovalStatus.EntityType.Encounter, savedEncounter.getEncounterType().getUuid());
         } else {
-            UploadRuleServerResponseContract ruleResponse = ruleServerInvoker.getRuleServerResult(row, formMapping.getForm(), encounter, allErrorMsgs);
-            encounter.setObservations(observationService.createObservations(ruleResponse.getObservations()));
-            decisionCreator.addEncounterDecisions(encounter.getObservations(), ruleResponse.getDecisions());
-            decisionCreator.addRegistrationDecisions(null, ruleResponse.getDecisions());
-            savedEncounter = encounterService.save(encounter);
-            visitCreator.saveScheduledVisits(formMapping.getType(), null, null, ruleResponse.getVisitSchedules(), savedEncounter.getUuid());
+            ruleServerBatch.add(encounter.getIndividual().getUuid(), new EncounterRow(encounter, formMapping),
+                    () -> ruleServerInvoker.getRuleServerRequest(row, formMapping.getForm(), encounter));
         }
+    }
+
+    private void save(EncounterRow encounterRow, UploadRuleServerResponseContract ruleResponse) {
+        Encounter encounter = encounterRow.encounter;
+        FormMapping formMapping = encounterRow.formMapping;
+        encounter.setObservations(observationService.createObservations(ruleResponse.getObservations()));
+        decisionCreator.addEncounterDecisions(encounter.getObservations(), ruleResponse.getDecisions());
+        decisionCreator.addRegistrationDecisions(null, ruleResponse.getDecisions());
+        Encounter savedEncounter = encounterService.save(encounter);
+        visitCreator.saveScheduledVisits(formMapping.getType(), null, null, ruleResponse.getVisitSchedules(), savedEncounter.getUuid());
         entityApprovalStatusWriter.saveStatus(formMapping, savedEncounter.getId(), EntityApprovalStatus.EntityType.Encounter, savedEncounter.getEncounterType().getUuid());
     }
 
@@ -160,4 +170,14 @@ public class EncounterWriter extends EntityWriter implements ItemWriter<Row>, Se
         }
         return encounter;
     }
+
+    private static class EncounterRow {
+        private final Encounter encounter;
+        private final FormMapping formMapping;
+
+        private EncounterRow(Encounter encounter, FormMapping formMapping) {
+            this.encounter = encounter;
+            this.formMapping = formMapping;
+        }
+    }
 }
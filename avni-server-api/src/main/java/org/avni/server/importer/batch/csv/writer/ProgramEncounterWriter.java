@@ -28,7 +28,9 @@ import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Component
@@ -81,15 +83,18 @@ public class ProgramEncounterWriter extends EntityWriter implements ItemWriter<R
 
     @Override
     public void write(Chunk<? extends Row> chunk) throws Exception {
-        for (Row row : chunk.getItems()) write(row);
+        RuleServerBatch<ProgramEncounterRow> ruleServerBatch = new RuleServerBatch<>(ruleServerInvoker, this::save);
+        Set<String> chunkLegacyIds = new HashSet<>();
+        for (Row row : chunk.getItems()) write(row, ruleServerBatch, chunkLegacyIds);
+        ruleServerBatch.flush();
     }
 
-    private void write(Row row) throws Exception {
+    private void write(Row row, RuleServerBatch<ProgramEncounterRow> ruleServerBatch, Set<String> chunkLegacyIds) throws Exception {
         List<String> allErrorMsgs = new ArrayList<>();
         String legacyId = row.get(EncounterHeadersCreator.ID);
         if (legacyId != null && !legacyId.trim().isEmpty()) {
             ProgramEncounter existingEncounter = programEncounterRepository.findByLegacyIdOrUuid(legacyId);
-            if (existingEncounter != null) {
+            if (existingEncounter != null || !chunkLegacyIds.add(legacyId)) {
                 allErrorMsgs.add(String.format("Entry with id from previous system, %s already present in Avni", legacyId));
             }
         }
@@ -146,21 +151,28 @@ public class ProgramEncounterWriter extends EntityWriter implements ItemWriter<R
         }
 
         ValidationUtil.handleErrors(allErrorMsgs);
-        ProgramEncounter savedEncounter;
         if (skipRuleExecution()) {
             EncounterHeadersCreator encounterHeadersCreator = new EncounterHeadersCreator(strategyFactory);
             TxnDataHeaderValidator.validateHeaders(row.getHeaders(), formMapping, encounterHeadersCreator);
             programEncounter.setObservations(observationCreator.getObservations(row, encounterHeadersCreator, allErrorMsgs, FormType.ProgramEncounter, programEncounter.getObservations(), formMapping));
-            savedEncounter = programEncounterService.save(programEncounter);
+            ProgramEncounter savedEncounter = programEncounterService.save(programEncounter);
+            entityApprovalStatusWriter.saveStatus(formMapping, savedEncounter.getId(), EntityApprovalStatus.EntityType.ProgramEncounter, savedEncounter.getEncounterType().getUuid());
         } else {
-            UploadRuleServerResponseContract ruleResponse = ruleServerInvoker.getRuleServerResult(row, formMapping.getForm(), programEncounter, allErrorMsgs);
-            programEncounter.setObservations(observationService.createObservations(ruleResponse.getObservations()));
-            decisionCreator.addEncounterDecisions(programEncounter.getObservations(), ruleResponse.getDecisions());
-            decisionCreator.addEnrolmentDecisions(programEnrolment.getObservations(), ruleResponse.getDecisions());
-            savedEncounter = programEncounterService.save(programEncounter);
-            programEnrolmentRepository.save(programEnrolment);
-            visitCreator.saveScheduledVisits(formMapping.getType(), null, programEnrolment.getUuid(), ruleResponse.getVisitSchedules(), savedEncounter.getUuid());
+            ruleServerBatch.add(programEnrolment.getIndividual().getUuid(), new ProgramEncounterRow(programEncounter, formMapping),
+                    () -> ruleServerInvoker.getRuleServerRequest(row, formMapping.getForm(), programEncounter));
         }
+    }
+
+    private void save(ProgramEncounterRow programEncounterRow, UploadRuleServerResponseContract ruleResponse) {
+        ProgramEncounter programEncounter = programEncounterRow.programEncounter;
+        ProgramEnrolment programEnrolment = programEncounter.getProgramEnrolment();
+        FormMapping formMapping = programEncounterRow.formMapping;
+        programEncounter.setObservations(observationService.createObservations(ruleResponse.getObservations()));
+        decisionCreator.addEncounterDecisions(programEncounter.getObservations(), ruleResponse.getDecisions());
+        decisionCreator.addEnrolmentDecisions(programEnrolment.getObservations(), ruleResponse.getDecisions());
+        ProgramEncounter savedEncounter = programEncounterService.save(programEncounter);
+        programEnrolmentRepository.save(programEnrolment);
+        visitCreator.saveScheduledVisits(formMapping.getType(), null, programEnrolment.getUuid(), ruleResponse.getVisitSchedules(), savedEncounter.getUuid());
         entityApprovalStatusWriter.saveStatus(formMapping, savedEncounter.getId(), EntityApprovalStatus.EntityType.ProgramEncounter, savedEncounter.getEncounterType().getUuid());
     }
 
@@ -176,4 +188,14 @@ public class ProgramEncounterWriter extends EntityWriter implements ItemWriter<R
         programEncounter.assignUUIDIfRequired();
         return programEncounter;
     }
+
+    private static class ProgramEncounterRow {
+        private final ProgramEncounter programEncounter;
+        private final FormMapping formMapping;
+
+        private ProgramEncounterRow(ProgramEncounter programEncounter, FormMapping formMapping) {
+            this.programEncounter = programEncounter;
+            this.formMapping = formMapping;
+        }
+    }
 }
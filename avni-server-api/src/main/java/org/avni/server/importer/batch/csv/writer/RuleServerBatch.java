@@ -0,0 +1,56 @@
+package org.avni.server.importer.batch.csv.writer;
+
+import org.avni.server.importer.batch.csv.contract.UploadRuleServerRequestContract;
+import org.avni.server.importer.batch.csv.contract.UploadRuleServerResponseContract;
+import org.avni.server.importer.batch.csv.creator.RuleServerInvoker;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the rows of a chunk so that their upload rules are run in one call to the rule server, and then saves them
+ * in order. Rules of a row see the saved entities of its subject (e.g. earlier visits when scheduling), so the rows
+ * collected so far are run and saved before another row of the same subject is added.
+ */
+class RuleServerBatch<T> {
+    interface RequestBuilder {
+        UploadRuleServerRequestContract build() throws Exception;
+    }
+
+    interface RowSaver<T> {
+        void save(T row, UploadRuleServerResponseContract ruleResponse) throws Exception;
+    }
+
+    private final RuleServerInvoker ruleServerInvoker;
+    private final RowSaver<T> rowSaver;
+    private final List<T> rows = new ArrayList<>();
+    private final List<UploadRuleServerRequestContract> requests = new ArrayList<>();
+    private final Set<String> subjectUuids = new HashSet<>();
+
+    RuleServerBatch(RuleServerInvoker ruleServerInvoker, RowSaver<T> rowSaver) {
+        this.ruleServerInvoker = ruleServerInvoker;
+        this.rowSaver = rowSaver;
+    }
+
+    void add(String subjectUuid, T row, RequestBuilder requestBuilder) throws Exception {
+        if (subjectUuids.contains(subjectUuid)) {
+            flush();
+        }
+        requests.add(requestBuilder.build());
+        rows.add(row);
+        subjectUuids.add(subjectUuid);
+    }
+
+    void flush() throws Exception {
+        if (rows.isEmpty()) return;
+        List<UploadRuleServerResponseContract> ruleResponses = ruleServerInvoker.getRuleServerResults(requests);
+        for (int i = 0; i < rows.size(); i++) {
+            rowSaver.save(rows.get(i), ruleResponses.get(i));
+        }
+        rows.clear();
+        requests.clear();
+        subjectUuids.clear();
+    }
+}
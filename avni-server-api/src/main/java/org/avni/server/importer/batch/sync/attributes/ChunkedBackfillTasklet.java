@@ -0,0 +1,87 @@
+package org.avni.server.importer.batch.sync.attributes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Updates records a chunk at a time instead of in one statement, so that row locks are held only for a chunk and other
+ * transactions (e.g. device syncs) get through in between.
+ *
+ * Records are taken in the order of a cursor, e.g. an id or a position in a list. Each call of execute processes one
+ * chunk in the step's transaction. The cursor reached is saved in the step execution context with the chunk, so a
+ * restarted job continues after the last chunk committed. After each chunk is committed the step pauses before the
+ * next one. Progress is logged and counted in the step's write count.
+ *
+ * Register the tasklet as a chunk listener of its step for the pause.
+ */
+public abstract class ChunkedBackfillTasklet implements Tasklet, ChunkListener {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedBackfillTasklet.class);
+    private static final String CURSOR = "backfill.cursor";
+    private static final String TOTAL = "backfill.total";
+    private static final String DONE = "backfill.done";
+
+    @Value("${avni.backfill.chunkSize}")
+    private int chunkSize;
+
+    @Value("${avni.backfill.pause.millis}")
+    private long pauseMillis;
+
+    private boolean finished;
+
+    /**
+     * @return cursor of the last record of the chunk following afterCursor, null when there are no more records
+     */
+    protected abstract Long getChunkEnd(long afterCursor, int chunkSize);
+
+    /**
+     * Processes the records after afterCursor up to and including toCursor.
+     *
+     * @return number of records processed
+     */
+    protected abstract int backfill(long afterCursor, long toCursor, ExecutionContext stepExecutionContext);
+
+    /**
+     * @return number of records to process, for reporting progress
+     */
+    protected abstract long getTotal();
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext stepExecutionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        if (!stepExecutionContext.containsKey(TOTAL)) {
+            stepExecutionContext.putLong(TOTAL, getTotal());
+        }
+        long afterCursor = stepExecutionContext.getLong(CURSOR, 0L);
+        Long chunkEnd = getChunkEnd(afterCursor, chunkSize);
+        if (chunkEnd == null) {
+            finished = true;
+            logger.info("{} completed, {} of {} done", getClass().getSimpleName(), stepExecutionContext.getLong(DONE, 0L), stepExecutionContext.getLong(TOTAL));
+            return RepeatStatus.FINISHED;
+        }
+
+        int processed = backfill(afterCursor, chunkEnd, stepExecutionContext);
+        long done = stepExecutionContext.getLong(DONE, 0L) + processed;
+        stepExecutionContext.putLong(CURSOR, chunkEnd);
+        stepExecutionContext.putLong(DONE, done);
+        contribution.incrementWriteCount(processed);
+        logger.info("{} {} of {} done", getClass().getSimpleName(), done, stepExecutionContext.getLong(TOTAL));
+        return RepeatStatus.CONTINUABLE;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        if (finished || pauseMillis <= 0) return;
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
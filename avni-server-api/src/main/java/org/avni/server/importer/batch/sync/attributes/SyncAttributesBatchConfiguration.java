@@ -52,6 +52,7 @@ public class SyncAttributesBatchConfiguration {
     public Step updateSyncAttributesStep(UpdateSyncAttributesTasklet tasklet) {
         return new StepBuilder("updateSyncAttributesStep", jobRepository)
                 .tasklet(tasklet, platformTransactionManager)
+                .listener(tasklet)
                 .build();
     }
 }
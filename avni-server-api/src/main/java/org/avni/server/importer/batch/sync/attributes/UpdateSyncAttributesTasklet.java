@@ -2,18 +2,19 @@ package org.avni.server.importer.batch.sync.attributes;
 
 import org.avni.server.domain.SubjectType;
 import org.avni.server.dao.*;
-import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.configuration.annotation.JobScope;
-import org.springframework.batch.core.scope.context.ChunkContext;
-import org.springframework.batch.core.step.tasklet.Tasklet;
-import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Updates the sync attributes of the subjects of a subject type, and of their encounters, enrolments, program
+ * encounters, group memberships and approval statuses, a range of subject ids at a time.
+ */
 @Component
 @JobScope
-public class UpdateSyncAttributesTasklet implements Tasklet {
+public class UpdateSyncAttributesTasklet extends ChunkedBackfillTasklet {
     private final EntityApprovalStatusRepository entityApprovalStatusRepository;
     private final SubjectTypeRepository subjectTypeRepository;
     private final IndividualRepository individualRepository;
@@ -43,16 +44,26 @@ public class UpdateSyncAttributesTasklet implements Tasklet {
     }
 
     @Override
-    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) {
+    protected Long getChunkEnd(long afterCursor, int chunkSize) {
+        return individualRepository.findChunkEndIdForSubjectType(subjectTypeId, afterCursor, chunkSize);
+    }
+
+    @Override
+    protected int backfill(long afterIndividualId, long toIndividualId, ExecutionContext stepExecutionContext) {
         SubjectType subjectType = subjectTypeRepository.findOne(subjectTypeId);
         String syncRegistrationConcept1 = subjectType.getSyncRegistrationConcept1();
         String syncRegistrationConcept2 = subjectType.getSyncRegistrationConcept2();
-        individualRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        encounterRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        programEnrolmentRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        programEncounterRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        groupSubjectRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        entityApprovalStatusRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, syncRegistrationConcept1, syncRegistrationConcept2);
-        return RepeatStatus.FINISHED;
+        int subjectsUpdated = individualRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        encounterRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        programEnrolmentRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        programEncounterRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        groupSubjectRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        entityApprovalStatusRepository.updateConceptSyncAttributesForSubjectType(subjectTypeId, afterIndividualId, toIndividualId, syncRegistrationConcept1, syncRegistrationConcept2);
+        return subjectsUpdated;
+    }
+
+    @Override
+    protected long getTotal() {
+        return individualRepository.countBySubjectTypeId(subjectTypeId);
     }
 }
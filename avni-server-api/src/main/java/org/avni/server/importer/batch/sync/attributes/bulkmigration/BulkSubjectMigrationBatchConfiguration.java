@@ -52,6 +52,7 @@ public class BulkSubjectMigrationBatchConfiguration {
     public Step bulkSubjectMigrationStep(BulkSubjectMigrationTasklet bulkSubjectMigrationTasklet) {
         return new StepBuilder("bulkSubjectMigrationStep", jobRepository)
                 .tasklet(bulkSubjectMigrationTasklet, platformTransactionManager)
+                .listener(bulkSubjectMigrationTasklet)
                 .build();
     }
 }
@@ -1,25 +1,29 @@
 package org.avni.server.importer.batch.sync.attributes.bulkmigration;
 
+import org.avni.server.importer.batch.sync.attributes.ChunkedBackfillTasklet;
 import org.avni.server.service.BulkUploadS3Service;
 import org.avni.server.service.SubjectMigrationService;
 import org.avni.server.web.request.BulkSubjectMigrationRequest;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.scope.context.ChunkContext;
-import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Migrates the requested subjects a chunk of them at a time, the cursor being the number of subjects done.
+ */
 @Component
 @JobScope
-public class BulkSubjectMigrationTasklet implements Tasklet {
-    private static final Logger logger = LoggerFactory.getLogger(BulkSubjectMigrationTasklet.class);
+public class BulkSubjectMigrationTasklet extends ChunkedBackfillTasklet {
+    private static final String FAILED_MIGRATIONS = "failedMigrations";
     private final SubjectMigrationService subjectMigrationService;
 
     @Value("#{jobParameters['uuid']}")
@@ -31,15 +35,50 @@ public class BulkSubjectMigrationTasklet implements Tasklet {
     @Value("#{jobParameters['bulkSubjectMigrationParameters']}")
     BulkSubjectMigrationRequest bulkSubjectMigrationParameters;
 
+    private ExecutionContext jobExecutionContext;
+
     @Autowired
     public BulkSubjectMigrationTasklet(SubjectMigrationService subjectMigrationService, BulkUploadS3Service s3Service) {
         this.subjectMigrationService = subjectMigrationService;
     }
 
     @Override
-    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
-        Map<String, String> failedMigrations = subjectMigrationService.bulkMigrate(SubjectMigrationService.BulkSubjectMigrationModes.valueOf(mode), bulkSubjectMigrationParameters);
-        chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext().put("failedMigrations", failedMigrations);
-        return RepeatStatus.FINISHED;
+    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) {
+        jobExecutionContext = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+        if (!jobExecutionContext.containsKey(FAILED_MIGRATIONS)) {
+            jobExecutionContext.put(FAILED_MIGRATIONS, new HashMap<String, String>());
+        }
+        return super.execute(stepContribution, chunkContext);
+    }
+
+    @Override
+    protected Long getChunkEnd(long afterCursor, int chunkSize) {
+        int subjects = bulkSubjectMigrationParameters.getSubjectIds().size();
+        return afterCursor < subjects ? Math.min(afterCursor + chunkSize, subjects) : null;
+    }
+
+    @Override
+    protected int backfill(long afterCursor, long toCursor, ExecutionContext stepExecutionContext) {
+        List<Long> subjectIds = bulkSubjectMigrationParameters.getSubjectIds().subList((int) afterCursor, (int) toCursor);
+        BulkSubjectMigrationRequest chunk = new BulkSubjectMigrationRequest();
+        chunk.setSubjectIds(subjectIds);
+        chunk.setDestinationAddresses(bulkSubjectMigrationParameters.getDestinationAddresses());
+        chunk.setDestinationSyncConcepts(bulkSubjectMigrationParameters.getDestinationSyncConcepts());
+        Map<String, String> chunkFailures = subjectMigrationService.bulkMigrate(SubjectMigrationService.BulkSubjectMigrationModes.valueOf(mode), chunk);
+
+        // kept in the step context too, which is saved with each chunk, so that failures of chunks before a restart are reported
+        HashMap<String, String> failedMigrations = new HashMap<>();
+        if (stepExecutionContext.containsKey(FAILED_MIGRATIONS)) {
+            failedMigrations.putAll((Map<String, String>) stepExecutionContext.get(FAILED_MIGRATIONS));
+        }
+        failedMigrations.putAll(chunkFailures);
+        stepExecutionContext.put(FAILED_MIGRATIONS, failedMigrations);
+        jobExecutionContext.put(FAILED_MIGRATIONS, failedMigrations);
+        return subjectIds.size();
+    }
+
+    @Override
+    protected long getTotal() {
+        return bulkSubjectMigrationParameters.getSubjectIds().size();
     }
 }
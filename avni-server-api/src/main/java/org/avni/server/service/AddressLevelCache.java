@@ -3,6 +3,7 @@ package org.avni.server.service;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.avni.server.application.projections.CatchmentAddressProjection;
+import org.avni.server.dao.DbRoleRepository;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.dao.RoleSwitchableRepository;
 import org.avni.server.domain.Catchment;
@@ -28,22 +29,16 @@ public class AddressLevelCache extends RoleSwitchableRepository {
     @Cacheable(value = ADDRESSES_PER_CATCHMENT)
     @Transactional
     public List<CatchmentAddressProjection> getAddressLevelsForCatchment(Catchment catchment) {
-        try {
-            setRoleToNone();
+        try (DbRoleRepository.DbRoleScope ignored = withRoleNone()) {
             return locationRepository.getCatchmentAddressesForCatchmentId(catchment.getId());
-        } finally {
-            setRoleBackToUser();
         }
     }
 
     @Cacheable(cacheNames = ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS,  key="T(java.lang.String).valueOf(#catchment?.id + '_' + T(org.springframework.util.StringUtils).collectionToCommaDelimitedString(#matchingAddressLevelTypeIds)).intern()")
     @Transactional
     public List<CatchmentAddressProjection> getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(Catchment catchment, List<Long> matchingAddressLevelTypeIds) {
-        try {
-            setRoleToNone();
+        try (DbRoleRepository.DbRoleScope ignored = withRoleNone()) {
             return locationRepository.getCatchmentAddressesForCatchmentIdAndLocationTypeId(catchment.getId(), matchingAddressLevelTypeIds);
-        } finally {
-            setRoleBackToUser();
         }
     }
 }
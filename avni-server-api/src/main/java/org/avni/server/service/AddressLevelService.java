@@ -41,6 +41,15 @@ public class AddressLevelService {
         this.objectMapper = ObjectMapperSingleton.getObjectMapper();
     }
 
+    /**
+     * Non voided locations under any of the given locations, including themselves, resolved by the database on the
+     * lineage ltree without loading the locations.
+     */
+    public List<Long> getNonVoidedSelfAndDescendantIds(Collection<Long> addressLevelIds) {
+        if (addressLevelIds == null || addressLevelIds.isEmpty()) return new ArrayList<>();
+        return locationRepository.getNonVoidedSelfAndDescendantIds(addressLevelIds);
+    }
+
     public List<Long> getAddressLevelsByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
         return filterByCatchmentAndSubjectType(catchment, subjectType)
                 .map(CatchmentAddressProjection::getAddresslevel_id)
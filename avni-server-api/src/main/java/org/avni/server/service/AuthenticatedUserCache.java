@@ -0,0 +1,55 @@
+package org.avni.server.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.avni.server.domain.Catchment;
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserGroup;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Short lived cache of the user resolved from a token claim (uuid or username), so that repeat requests with the same
+ * identity do not look up the user again. The cached user is detached, as it already is when loaded by the
+ * authentication filter.
+ */
+@Component
+public class AuthenticatedUserCache {
+    public static final String AUTHENTICATED_USERS = "authenticatedUsers";
+    private static final Set<Class<?>> invalidatingEntityTypes = new HashSet<>(Arrays.asList(
+            User.class, UserGroup.class, Catchment.class
+    ));
+
+    private final EntityWriteCacheEvictor cacheEvictor;
+
+    public AuthenticatedUserCache(CacheManager cacheManager) {
+        this.cacheEvictor = new EntityWriteCacheEvictor(cacheManager.getCache(AUTHENTICATED_USERS), invalidatingEntityTypes);
+    }
+
+    @PostConstruct
+    public void registerForEntityWrites() {
+        cacheEvictor.registerForEntityWrites();
+    }
+
+    @PreDestroy
+    public void unregisterForEntityWrites() {
+        cacheEvictor.unregisterForEntityWrites();
+    }
+
+    @Cacheable(cacheNames = AUTHENTICATED_USERS, key = "'uuid:' + #userUUID", sync = true)
+    public User getByUuid(String userUUID, Supplier<User> loader) {
+        return loader.get();
+    }
+
+    @Cacheable(cacheNames = AUTHENTICATED_USERS, key = "'username:' + #username", sync = true)
+    public User getByUsername(String username, Supplier<User> loader) {
+        return loader.get();
+    }
+}
@@ -11,6 +11,9 @@ import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.Verification;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
@@ -20,14 +23,34 @@ import org.springframework.util.StringUtils;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseIAMService implements IAMAuthService {
+    private static final long MAX_VERIFIED_TOKENS = 10000;
+    private static final long MAX_VERIFIED_TOKEN_AGE_IN_HOURS = 24;
+    private static final long MIN_JWKS_FETCH_INTERVAL_IN_MILLIS = 1000;
+    private static final long TOKEN_EXPIRY_LEEWAY_IN_SECONDS = 240;
+
     private final Logger logger = LoggerFactory.getLogger(BaseIAMService.class);
     private final UserRepository userRepository;
-
-    protected BaseIAMService(UserRepository userRepository) {
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final Cache<String, DecodedJWT> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .expireAfterWrite(MAX_VERIFIED_TOKEN_AGE_IN_HOURS, TimeUnit.HOURS)
+            .build();
+    private final Map<String, KeyVerifier> verifiersByKeyId = new ConcurrentHashMap<>();
+    private final long maxJwksAgeInMillis;
+    private volatile JwkProvider jwkProvider;
+
+    protected BaseIAMService(UserRepository userRepository, AuthenticatedUserCache authenticatedUserCache, long maxJwksAgeInSeconds) {
         this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.maxJwksAgeInMillis = TimeUnit.SECONDS.toMillis(maxJwksAgeInSeconds);
     }
 
     private String getValueInToken(DecodedJWT jwt, String name) {
@@ -46,16 +69,34 @@ public abstract class BaseIAMService implements IAMAuthService {
         String username = getValueInToken(jwt, getUsernameField());
         String userUUID = getValueInToken(jwt, getUserUuidField());
         return Strings.isNullOrEmpty(userUUID)
-                ? userRepository.findByUsername(username)
-                : userRepository.findByUuid(userUUID);
+                ? authenticatedUserCache.getByUsername(username, () -> userRepository.findByUsername(username))
+                : authenticatedUserCache.getByUuid(userUUID, () -> userRepository.findByUuid(userUUID));
     }
 
     protected DecodedJWT verifyAndDecodeToken(String token) throws SigningKeyNotFoundException {
+        String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+        DecodedJWT verifiedJwt = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedJwt != null && isNotExpired(verifiedJwt, System.currentTimeMillis())) return verifiedJwt;
+
+        verifiedJwt = verifyAndDecodeUncachedToken(token);
+        if (verifiedJwt != null && verifiedJwt.getExpiresAt() != null) {
+            verifiedTokens.put(tokenHash, verifiedJwt);
+        }
+        return verifiedJwt;
+    }
+
+    // with the same leeway the verifier allows
+    static boolean isNotExpired(DecodedJWT jwt, long nowInMillis) {
+        return jwt.getExpiresAt() != null && jwt.getExpiresAt().getTime() + TimeUnit.SECONDS.toMillis(TOKEN_EXPIRY_LEEWAY_IN_SECONDS) > nowInMillis;
+    }
+
+    private DecodedJWT verifyAndDecodeUncachedToken(String token) throws SigningKeyNotFoundException {
         Jwk jwk;
+        String keyId;
         try {
             DecodedJWT unverifiedJwt = JWT.decode(token);
-            JwkProvider provider = new GuavaCachedJwkProvider(new UrlJwkProvider(new URL(getJwkProviderUrl())));
-            jwk = provider.get(unverifiedJwt.getKeyId());
+            keyId = unverifiedJwt.getKeyId();
+            jwk = getJwkProvider().get(keyId);
         } catch (MalformedURLException e) {
             logger.error("Check the settings for public key " + getIssuer(), e);
             throw new RuntimeException(e);
@@ -71,14 +112,7 @@ public abstract class BaseIAMService implements IAMAuthService {
         }
 
         try {
-            RSAPublicKey publicKey = (RSAPublicKey) jwk.getPublicKey();
-            Algorithm algorithm = Algorithm.RSA256(publicKey, null);
-            Verification verification = JWT.require(algorithm)
-                    .withIssuer(getIssuer())
-                    .withAudience(getAudience())
-                    .acceptLeeway(240);
-            addClaim(verification);
-            JWTVerifier verifier = verification.build();
+            JWTVerifier verifier = getVerifier(keyId, jwk);
             logger.trace(String.format("Verifying token for issuer: %s, token_use: id and audience: %s", this.getIssuer(), getAudience()));
             return verifier.verify(token);
 
@@ -97,6 +131,52 @@ public abstract class BaseIAMService implements IAMAuthService {
         }
     }
 
+    private JWTVerifier getVerifier(String keyId, Jwk jwk) throws InvalidPublicKeyException {
+        KeyVerifier keyVerifier = keyId == null ? null : verifiersByKeyId.get(keyId);
+        // a key fetched again may have new key material under the same key id
+        if (keyVerifier != null && keyVerifier.jwk == jwk) return keyVerifier.verifier;
+
+        RSAPublicKey publicKey = (RSAPublicKey) jwk.getPublicKey();
+        Algorithm algorithm = Algorithm.RSA256(publicKey, null);
+        Verification verification = JWT.require(algorithm)
+                .withIssuer(getIssuer())
+                .withAudience(getAudience())
+                .acceptLeeway(TOKEN_EXPIRY_LEEWAY_IN_SECONDS);
+        addClaim(verification);
+        JWTVerifier verifier = verification.build();
+        if (keyId != null) verifiersByKeyId.put(keyId, new KeyVerifier(jwk, verifier));
+        return verifier;
+    }
+
+    // tokens verified with keys the identity provider no longer publishes are not accepted from the cache either
+    void keyIdsDropped(Set<String> keyIds) {
+        logger.info(String.format("Keys %s are no longer published by %s", keyIds, getIssuer()));
+        verifiersByKeyId.keySet().removeAll(keyIds);
+        verifiedTokens.invalidateAll();
+    }
+
+    private JwkProvider getJwkProvider() throws MalformedURLException {
+        if (jwkProvider == null) {
+            synchronized (this) {
+                if (jwkProvider == null) {
+                    UrlJwkProvider urlJwkProvider = new UrlJwkProvider(new URL(getJwkProviderUrl()));
+                    jwkProvider = new JwkSetProvider(urlJwkProvider::getAll, MIN_JWKS_FETCH_INTERVAL_IN_MILLIS, maxJwksAgeInMillis, this::keyIdsDropped);
+                }
+            }
+        }
+        return jwkProvider;
+    }
+
+    private static class KeyVerifier {
+        private final Jwk jwk;
+        private final JWTVerifier verifier;
+
+        KeyVerifier(Jwk jwk, JWTVerifier verifier) {
+            this.jwk = jwk;
+            this.verifier = verifier;
+        }
+    }
+
     protected abstract String getUserUuidField();
 
     protected abstract String getUsernameField();
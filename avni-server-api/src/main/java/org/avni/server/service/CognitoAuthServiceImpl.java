@@ -8,6 +8,7 @@ import org.avni.server.dao.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 
@@ -20,8 +21,9 @@ public class CognitoAuthServiceImpl extends BaseIAMService {
     private final CognitoConfig cognitoConfig;
 
     @Autowired
-    public CognitoAuthServiceImpl(UserRepository userRepository, CognitoConfig cognitoConfig) {
-        super(userRepository);
+    public CognitoAuthServiceImpl(UserRepository userRepository, CognitoConfig cognitoConfig, AuthenticatedUserCache authenticatedUserCache,
+                                  @Value("${avni.idp.jwks.maxAge.seconds}") long maxJwksAgeInSeconds) {
+        super(userRepository, authenticatedUserCache, maxJwksAgeInSeconds);
         this.cognitoConfig = cognitoConfig;
     }
 
@@ -2,6 +2,7 @@ package org.avni.server.service;
 
 import org.avni.server.dao.ProgramEnrolmentRepository;
 import org.avni.server.dao.SubjectSearchRepository;
+import org.avni.server.dao.search.SearchResultPage;
 import org.avni.server.dao.search.SubjectSearchQueryBuilder;
 import org.avni.server.projection.SearchSubjectEnrolledProgram;
 import org.avni.server.web.request.EnrolmentContract;
@@ -34,11 +35,21 @@ public class IndividualSearchService {
     public LinkedHashMap<String, Object> search(SubjectSearchRequest subjectSearchRequest) {
         long startTime = new DateTime().getMillis();
         logger.info("Searching for individuals");
-        List<Map<String, Object>> searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectSearchQueryBuilder());
+        SearchResultPage searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectSearchQueryBuilder());
         long resultsEnd = new DateTime().getMillis();
-        Long totalCount = subjectSearchRequest.getIncludeDisplayCount() ? subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder()) : -1l;
+        Long totalCount = -1l;
+        boolean estimated = false;
+        if (subjectSearchRequest.getIncludeDisplayCount()) {
+            totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder());
+        } else if (subjectSearchRequest.getIncludeEstimatedCount()) {
+            totalCount = subjectSearchRepository.getEstimatedCount(subjectSearchRequest, new SubjectSearchQueryBuilder());
+            estimated = totalCount != null;
+        }
         logger.info(String.format("Subject search: Time Taken: %dms. Sorted: %s", (resultsEnd - startTime), subjectSearchRequest.getPageElement().getSortColumn()));
-        return constructIndividual(searchResults, totalCount);
+        LinkedHashMap<String, Object> recordsMap = constructIndividual(searchResults.getRecords(), totalCount);
+        recordsMap.put("totalElementsEstimated", estimated);
+        recordsMap.put("hasMore", searchResults.hasMore());
+        return recordsMap;
     }
 
     private LinkedHashMap<String, Object> constructIndividual(List<Map<String, Object>> individualList, Long totalCount) {
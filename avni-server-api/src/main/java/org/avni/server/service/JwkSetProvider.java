@@ -0,0 +1,136 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the whole key set of an identity provider and fetches it again when a token has a key id not in it, e.g. after
+ * the keys are rotated, or when the key set is older than its max age, so that keys removed by the identity provider
+ * stop being accepted.
+ *
+ * Fetches are made one at a time and at most once per interval. Waiting for the interval is done without holding the
+ * lock. A lookup that misses waits for a fetch started after it, so a key id is rejected only when a fetch made after
+ * it was seen does not have it. Key ids not found are remembered for a while, so that tokens with unknown key ids, e.g.
+ * of another identity provider, do not make us fetch again.
+ */
+class JwkSetProvider implements JwkProvider {
+    private static final long MAX_UNKNOWN_KEY_IDS = 1000;
+    private static final long UNKNOWN_KEY_ID_TTL_IN_MINUTES = 5;
+
+    interface KeySetFetcher {
+        List<Jwk> fetch() throws JwkException;
+    }
+
+    interface KeyIdsDroppedListener {
+        void keyIdsDropped(Set<String> keyIds);
+    }
+
+    private final KeySetFetcher fetcher;
+    private final long minFetchIntervalInMillis;
+    private final long maxAgeInMillis;
+    private final KeyIdsDroppedListener keyIdsDroppedListener;
+    private final Cache<String, Boolean> unknownKeyIds = CacheBuilder.newBuilder()
+            .maximumSize(MAX_UNKNOWN_KEY_IDS)
+            .expireAfterWrite(UNKNOWN_KEY_ID_TTL_IN_MINUTES, TimeUnit.MINUTES)
+            .build();
+    private volatile KeySet keySet = new KeySet(Collections.emptyMap(), Long.MIN_VALUE);
+    // start of the last fetch tried, guarded by this
+    private long lastAttemptStartedAt = Long.MIN_VALUE;
+
+    JwkSetProvider(KeySetFetcher fetcher, long minFetchIntervalInMillis, long maxAgeInMillis, KeyIdsDroppedListener keyIdsDroppedListener) {
+        this.fetcher = fetcher;
+        this.minFetchIntervalInMillis = minFetchIntervalInMillis;
+        this.maxAgeInMillis = maxAgeInMillis;
+        this.keyIdsDroppedListener = keyIdsDroppedListener;
+    }
+
+    @Override
+    public Jwk get(String keyId) throws JwkException {
+        KeySet keySet = this.keySet;
+        if (keySet.isOlderThan(maxAgeInMillis, System.currentTimeMillis())) {
+            fetchStartedAfter(keySet.fetchStartedAt);
+            keySet = this.keySet;
+        }
+        Jwk jwk = keySet.find(keyId);
+        if (jwk != null) return jwk;
+        if (keyId != null && unknownKeyIds.getIfPresent(keyId) != null) throw notFound(keyId);
+
+        fetchStartedAfter(System.currentTimeMillis());
+        jwk = this.keySet.find(keyId);
+        if (jwk != null) return jwk;
+        if (keyId != null) unknownKeyIds.put(keyId, Boolean.TRUE);
+        throw notFound(keyId);
+    }
+
+    private void fetchStartedAfter(long seenAt) throws JwkException {
+        while (true) {
+            long waitInMillis;
+            synchronized (this) {
+                if (keySet.fetchStartedAt > seenAt) return;
+                long now = System.currentTimeMillis();
+                waitInMillis = lastAttemptStartedAt == Long.MIN_VALUE ? 0 : lastAttemptStartedAt + minFetchIntervalInMillis - now;
+                if (waitInMillis <= 0) {
+                    fetch(now);
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(waitInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SigningKeyNotFoundException("Interrupted while waiting to fetch the key set", e);
+            }
+        }
+    }
+
+    // called holding the lock
+    private void fetch(long startedAt) throws JwkException {
+        lastAttemptStartedAt = startedAt;
+        Map<String, Jwk> fetched = new HashMap<>();
+        for (Jwk jwk : fetcher.fetch()) {
+            fetched.put(jwk.getId(), jwk);
+        }
+        Set<String> droppedKeyIds = new HashSet<>(keySet.keys.keySet());
+        droppedKeyIds.removeAll(fetched.keySet());
+        keySet = new KeySet(fetched, startedAt);
+        unknownKeyIds.invalidateAll();
+        if (!droppedKeyIds.isEmpty()) keyIdsDroppedListener.keyIdsDropped(droppedKeyIds);
+    }
+
+    private static SigningKeyNotFoundException notFound(String keyId) {
+        return new SigningKeyNotFoundException(String.format("No key found for key id %s", keyId), null);
+    }
+
+    private static class KeySet {
+        private final Map<String, Jwk> keys;
+        private final long fetchStartedAt;
+
+        KeySet(Map<String, Jwk> keys, long fetchStartedAt) {
+            this.keys = keys;
+            this.fetchStartedAt = fetchStartedAt;
+        }
+
+        boolean isOlderThan(long maxAgeInMillis, long now) {
+            return fetchStartedAt == Long.MIN_VALUE || now - fetchStartedAt >= maxAgeInMillis;
+        }
+
+        Jwk find(String keyId) {
+            if (keyId == null) {
+                return keys.size() == 1 ? keys.values().iterator().next() : null;
+            }
+            return keys.get(keyId);
+        }
+    }
+}
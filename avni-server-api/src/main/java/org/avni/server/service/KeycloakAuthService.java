@@ -8,6 +8,7 @@ import org.keycloak.representations.adapters.config.AdapterConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -23,8 +24,9 @@ public class KeycloakAuthService extends BaseIAMService {
     private final AvniKeycloakConfig avniKeycloakConfig;
 
     @Autowired
-    public KeycloakAuthService(UserRepository userRepository, AdapterConfig adapterConfig, AvniKeycloakConfig avniKeycloakConfig) {
-        super(userRepository);
+    public KeycloakAuthService(UserRepository userRepository, AdapterConfig adapterConfig, AvniKeycloakConfig avniKeycloakConfig, AuthenticatedUserCache authenticatedUserCache,
+                               @Value("${avni.idp.jwks.maxAge.seconds}") long maxJwksAgeInSeconds) {
+        super(userRepository, authenticatedUserCache, maxJwksAgeInSeconds);
         this.adapterConfig = adapterConfig;
         this.avniKeycloakConfig = avniKeycloakConfig;
     }
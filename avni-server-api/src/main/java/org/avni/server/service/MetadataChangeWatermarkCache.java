@@ -0,0 +1,63 @@
+package org.avni.server.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.avni.server.application.Form;
+import org.avni.server.application.FormElement;
+import org.avni.server.application.FormElementGroup;
+import org.avni.server.application.FormMapping;
+import org.avni.server.application.menu.MenuItem;
+import org.avni.server.domain.*;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.domain.accessControl.Privilege;
+import org.avni.server.domain.app.dashboard.DashboardFilter;
+import org.avni.server.domain.individualRelationship.IndividualRelation;
+import org.avni.server.domain.individualRelationship.IndividualRelationGenderMapping;
+import org.avni.server.domain.individualRelationship.IndividualRelationshipType;
+import org.avni.server.domain.task.TaskStatus;
+import org.avni.server.domain.task.TaskType;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Component
+public class MetadataChangeWatermarkCache {
+    public static final String METADATA_CHANGE_WATERMARKS = "metadataChangeWatermarks";
+    private static final Set<Class<?>> metadataEntityTypes = new HashSet<>(Arrays.asList(
+            ChecklistDetail.class, Rule.class, RuleDependency.class, Form.class, FormMapping.class, EncounterType.class,
+            Program.class, Gender.class, IndividualRelation.class, IndividualRelationGenderMapping.class,
+            IndividualRelationshipType.class, Concept.class, Video.class, SubjectType.class, ChecklistItemDetail.class,
+            FormElementGroup.class, FormElement.class, ConceptAnswer.class, IdentifierSource.class, OrganisationConfig.class,
+            Translation.class, Group.class, GroupPrivilege.class, GroupRole.class, ReportCard.class, Dashboard.class,
+            DashboardSection.class, DashboardFilter.class, DashboardSectionCardMapping.class, ApprovalStatus.class,
+            GroupDashboard.class, Documentation.class, DocumentationItem.class, Privilege.class,
+            StandardReportCardType.class, TaskType.class, TaskStatus.class, MenuItem.class
+    ));
+
+    private final EntityWriteCacheEvictor cacheEvictor;
+
+    public MetadataChangeWatermarkCache(CacheManager cacheManager) {
+        this.cacheEvictor = new EntityWriteCacheEvictor(cacheManager.getCache(METADATA_CHANGE_WATERMARKS), metadataEntityTypes);
+    }
+
+    @PostConstruct
+    public void registerForEntityWrites() {
+        cacheEvictor.registerForEntityWrites();
+    }
+
+    @PreDestroy
+    public void unregisterForEntityWrites() {
+        cacheEvictor.unregisterForEntityWrites();
+    }
+
+    @Cacheable(cacheNames = METADATA_CHANGE_WATERMARKS, key = "#organisationId", condition = "#organisationId != null", sync = true)
+    public SyncChangeDetectionService.MetadataLastModified get(Long organisationId, Supplier<SyncChangeDetectionService.MetadataLastModified> loader) {
+        return loader.get();
+    }
+}
@@ -18,6 +18,7 @@ import org.avni.server.web.external.request.export.ExportFilters;
 import org.avni.server.web.request.*;
 import org.avni.server.web.request.rules.RulesContractWrapper.Decision;
 import org.avni.server.web.request.rules.constant.WorkFlowTypeEnum;
+import org.avni.server.web.request.rules.constructWrappers.ContractConstructionContext;
 import org.avni.server.web.request.rules.response.KeyValueResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,6 +30,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -218,6 +220,14 @@ public class ObservationService {
 
     public List<ObservationModelContract> constructObservationModelContracts(ObservationCollection observationCollection) {
         if (observationCollection == null) return Collections.emptyList();
+        ContractConstructionContext context = ContractConstructionContext.current();
+        if (context != null) {
+            return context.getObservationModelContracts(observationCollection, this::buildObservationModelContracts);
+        }
+        return buildObservationModelContracts(observationCollection);
+    }
+
+    private List<ObservationModelContract> buildObservationModelContracts(ObservationCollection observationCollection) {
         List<ObservationContract> observationContracts = this.constructObservations(observationCollection);
         return observationContracts.stream()
                 .map(this::constructObservation)
@@ -225,7 +235,7 @@ public class ObservationService {
     }
 
     public ObservationModelContract constructObservation(ObservationContract observationContract) {
-        Concept concept = conceptRepository.findByUuid(observationContract.getConcept().getUuid());
+        Concept concept = findConcept(observationContract.getConcept().getUuid());
         ObservationModelContract observationModelContract = new ObservationModelContract();
         Object value = observationContract.getValue();
         if (concept.getDataType().equals(ConceptDataType.QuestionGroup.toString())) {
@@ -261,26 +271,118 @@ public class ObservationService {
     }
 
     public List<ObservationContract> constructObservations(@NotNull ObservationCollection observationCollection) {
+        prefetchObservationReferences(Collections.singletonList(observationCollection));
         return observationCollection.entrySet().stream().map(this::getObservationContract).collect(Collectors.toList());
     }
 
+    /**
+     * While a contract is being constructed, loads the concepts, subjects and locations referred to by the observations
+     * with one query each (concepts twice, for the questions and then their answers), instead of one query per
+     * observation and answer when the observations are constructed.
+     */
+    public void prefetchObservationReferences(Collection<ObservationCollection> observationCollections) {
+        ContractConstructionContext context = ContractConstructionContext.current();
+        if (context == null) return;
+
+        Set<String> questionConceptUuids = new HashSet<>();
+        observationCollections.forEach(observations -> collectQuestionConceptUuids(observations, questionConceptUuids));
+        Set<String> conceptsToLoad = context.notLoadedConcepts(questionConceptUuids);
+        if (!conceptsToLoad.isEmpty()) {
+            context.addConcepts(conceptsToLoad, conceptRepository.findByUuids(conceptsToLoad));
+        }
+
+        Set<String> answerConceptUuids = new HashSet<>();
+        Set<String> subjectUuids = new HashSet<>();
+        Set<String> locationUuids = new HashSet<>();
+        observationCollections.forEach(observations -> collectAnswerUuids(context, observations, answerConceptUuids, subjectUuids, locationUuids));
+        Set<String> answersToLoad = context.notLoadedConcepts(answerConceptUuids);
+        if (!answersToLoad.isEmpty()) {
+            context.addConcepts(answersToLoad, conceptRepository.findByUuids(answersToLoad));
+        }
+        Set<String> subjectsToLoad = context.notLoadedSubjects(subjectUuids);
+        if (!subjectsToLoad.isEmpty()) {
+            context.addSubjects(subjectsToLoad, individualRepository.findAllByUuidIn(subjectsToLoad));
+        }
+        Set<String> locationsToLoad = context.notLoadedLocations(locationUuids);
+        if (!locationsToLoad.isEmpty()) {
+            context.addLocations(locationsToLoad, locationRepository.findByUuidIn(new ArrayList<>(locationsToLoad)));
+        }
+    }
+
+    private void collectQuestionConceptUuids(Map<String, Object> observations, Set<String> conceptUuids) {
+        if (observations == null) return;
+        observations.forEach((conceptUuid, value) -> {
+            conceptUuids.add(conceptUuid);
+            forEachQuestionGroup(value, questionGroup -> collectQuestionConceptUuids(questionGroup, conceptUuids));
+        });
+    }
+
+    private void collectAnswerUuids(ContractConstructionContext context, Map<String, Object> observations, Set<String> answerConceptUuids, Set<String> subjectUuids, Set<String> locationUuids) {
+        if (observations == null) return;
+        observations.forEach((conceptUuid, value) -> {
+            Concept concept = context.getConcept(conceptUuid, conceptRepository::findByUuid);
+            if (concept == null || value == null) return;
+            String dataType = concept.getDataType();
+            if (dataType.equals(ConceptDataType.Subject.toString())) {
+                addUuids(value, subjectUuids);
+            } else if (dataType.equals(ConceptDataType.Location.toString())) {
+                addUuids(value, locationUuids);
+            } else if (dataType.equals(ConceptDataType.Coded.toString()) && concept.getConceptAnswers().isEmpty()) {
+                addUuids(value, answerConceptUuids);
+            } else if (ConceptDataType.isQuestionGroup(dataType)) {
+                forEachQuestionGroup(value, questionGroup -> collectAnswerUuids(context, questionGroup, answerConceptUuids, subjectUuids, locationUuids));
+            }
+        });
+    }
+
+    private static void addUuids(Object value, Set<String> uuids) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(item -> uuids.add(String.valueOf(item)));
+        } else {
+            uuids.add(String.valueOf(value));
+        }
+    }
+
+    private static void forEachQuestionGroup(Object value, Consumer<Map<String, Object>> action) {
+        if (value instanceof Map) {
+            action.accept((Map<String, Object>) value);
+        } else if (value instanceof Collection) {
+            ((Collection<?>) value).stream().filter(item -> item instanceof Map).forEach(item -> action.accept((Map<String, Object>) item));
+        }
+    }
+
+    private Concept findConcept(String uuid) {
+        ContractConstructionContext context = ContractConstructionContext.current();
+        return context == null ? conceptRepository.findByUuid(uuid) : context.getConcept(uuid, conceptRepository::findByUuid);
+    }
+
+    private Individual findSubject(String uuid) {
+        ContractConstructionContext context = ContractConstructionContext.current();
+        return context == null ? individualRepository.findByUuid(uuid) : context.getSubject(uuid, individualRepository::findByUuid);
+    }
+
+    private AddressLevel findLocation(String uuid) {
+        ContractConstructionContext context = ContractConstructionContext.current();
+        return context == null ? locationRepository.findByUuid(uuid) : context.getLocation(uuid, locationRepository::findByUuid);
+    }
+
     private ObservationContract getObservationContract(Map.Entry<String, Object> entry) {
         ObservationContract observationContract = new ObservationContract();
-        Concept questionConcept = conceptRepository.findByUuid(entry.getKey());
+        Concept questionConcept = findConcept(entry.getKey());
         String conceptDataType = questionConcept.getDataType();
         ConceptContract conceptContract = ConceptContract.create(questionConcept);
         if (conceptDataType.equals(ConceptDataType.Subject.toString())) {
             Object answerValue = entry.getValue();
             List<Individual> subjects;
             if (answerValue instanceof Collection) {
-                subjects = ((ArrayList<String>) answerValue).stream().map(individualRepository::findByUuid).collect(Collectors.toList());
+                subjects = ((ArrayList<String>) answerValue).stream().map(this::findSubject).collect(Collectors.toList());
             } else {
-                subjects = Collections.singletonList(individualRepository.findByUuid((String) answerValue));
+                subjects = Collections.singletonList(findSubject((String) answerValue));
             }
             observationContract.setSubjects(subjects.stream().map(this::convertIndividualToContract).collect(Collectors.toList()));
         }
         if (conceptDataType.equals(ConceptDataType.Location.toString())) {
-            observationContract.setLocation(AddressLevelContractWeb.fromEntity(locationRepository.findByUuid((String) entry.getValue())));
+            observationContract.setLocation(AddressLevelContractWeb.fromEntity(findLocation((String) entry.getValue())));
         }
         // Fetch the answer concept in case it is not there in concept_answer table,
         // We have such cases for Bahmni Avni integration
@@ -288,9 +390,9 @@ public class ObservationService {
             Object answerValue = entry.getValue();
             List<Concept> conceptAnswers;
             if (answerValue instanceof Collection) {
-                conceptAnswers = ((List<String>) answerValue).stream().map(conceptRepository::findByUuid).collect(Collectors.toList());
+                conceptAnswers = ((List<String>) answerValue).stream().map(this::findConcept).collect(Collectors.toList());
             } else {
-                conceptAnswers = Collections.singletonList(conceptRepository.findByUuid((String) answerValue));
+                conceptAnswers = Collections.singletonList(findConcept((String) answerValue));
             }
             conceptContract.setAnswers(conceptAnswers.stream().map(ConceptContract::create).collect(Collectors.toList()));
         }
@@ -44,17 +44,20 @@ public class OrganisationConfigService implements NonScopeAwareService {
     private final ProjectionFactory projectionFactory;
     private final ConceptRepository conceptRepository;
     private final LocationHierarchyService locationHierarchyService;
+    private final SearchableConceptIndexService searchableConceptIndexService;
     private final ObjectMapper objectMapper;
 
     @Autowired
     public OrganisationConfigService(OrganisationConfigRepository organisationConfigRepository,
                                      ProjectionFactory projectionFactory,
                                      ConceptRepository conceptRepository,
-                                     @Lazy LocationHierarchyService locationHierarchyService) {
+                                     @Lazy LocationHierarchyService locationHierarchyService,
+                                     SearchableConceptIndexService searchableConceptIndexService) {
         this.organisationConfigRepository = organisationConfigRepository;
         this.projectionFactory = projectionFactory;
         this.conceptRepository = conceptRepository;
         this.locationHierarchyService = locationHierarchyService;
+        this.searchableConceptIndexService = searchableConceptIndexService;
         this.objectMapper = ObjectMapperSingleton.getObjectMapper();
     }
 
@@ -70,6 +73,7 @@ public class OrganisationConfigService implements NonScopeAwareService {
         organisationConfig.setWorklistUpdationRule(request.getWorklistUpdationRule());
         organisationConfig.updateLastModifiedDateTime();
         organisationConfigRepository.save(organisationConfig);
+        searchableConceptIndexService.createIndexes(organisationConfig.getSettings());
         return organisationConfig;
     }
 
@@ -157,6 +161,7 @@ public class OrganisationConfigService implements NonScopeAwareService {
         jsonObject.with(key, settingObject);
         organisationConfig.updateLastModifiedDateTime();
         organisationConfigRepository.save(organisationConfig);
+        searchableConceptIndexService.createIndexes(jsonObject);
     }
 
     @Transactional
@@ -171,6 +176,7 @@ public class OrganisationConfigService implements NonScopeAwareService {
         organisationConfig.updateLastModifiedDateTime();
 
         organisationConfig.setSettings(updateOrganisationConfigSettings(settings, organisationConfig.getSettings()));
+        searchableConceptIndexService.createIndexes(organisationConfig.getSettings());
 
         return organisationConfigRepository.save(organisationConfig);
     }
@@ -190,6 +196,7 @@ public class OrganisationConfigService implements NonScopeAwareService {
         if (request.getSettings() != null)
             organisationConfig.setSettings(updateOrganisationConfigSettings(request.getSettings(), organisationConfig.getSettings()));
         organisationConfig.updateAudit();
+        searchableConceptIndexService.createIndexes(organisationConfig.getSettings());
         return organisationConfigRepository.save(organisationConfig);
     }
 
@@ -228,12 +228,34 @@ public class RuleService implements NonScopeAwareService {
         return createHttpHeaderAndSendRequest(API_ENCOUNTER_ELIGIBILITY, ruleRequest, null, EligibilityRuleResponseEntity.class);
     }
 
-    public ScheduleRuleResponseEntity executeScheduleRule(String entityType, Long entityId, String scheduleRule) throws RuleExecutionException {
-        String rulesMessage = RULES_MESSAGE_SCHEDULE;
-        Class<ScheduleRuleResponseEntity> responseType = ScheduleRuleResponseEntity.class;
+    /**
+     * Runs the schedule rules of all the message rules of an entity in one call to the rule server. Responses are in the
+     * order of the rules.
+     */
+    public List<ScheduleRuleResponseEntity> executeScheduleRules(String entityType, Long entityId, List<String> scheduleRules) throws RuleExecutionException {
         CHSEntity entity = entityRetrieverService.getEntity(entityType, entityId);
         RuleServerEntityContract contract = ruleServiceEntityContractBuilder.toContract(entityType, entity);
-        return (ScheduleRuleResponseEntity) getBaseRuleResponseEntity(entityType, scheduleRule, rulesMessage, responseType, contract, entity.getUuid());
+        List<MessageRequestEntity> ruleRequests = scheduleRules.stream().map(scheduleRule -> new MessageRequestEntity(contract, scheduleRule, entityType)).collect(Collectors.toList());
+        BaseRuleRequest baseRuleRequest = new BaseRuleRequest();
+        baseRuleRequest.setRuleType(entityType);
+        baseRuleRequest.setFormUuid(entity.getUuid());
+        try {
+            List<ScheduleRuleResponseEntity> ruleResponseEntities = restClient.postBatch(API_MESSAGING_RULE, ruleRequests, ScheduleRuleResponseEntity.class);
+            for (ScheduleRuleResponseEntity ruleResponseEntity : ruleResponseEntities) {
+                if (ruleResponseEntity.getStatus().equals("failure")) {
+                    RuleError ruleError = ruleResponseEntity.getError();
+                    saveRuleError(ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, RULES_MESSAGE_SCHEDULE, entity.getUuid()), ruleError.getMessage(), ruleError.getStack());
+                }
+            }
+            return ruleResponseEntities;
+        } catch (Exception e) {
+            logger.error("Error while executing rule", e);
+            saveRuleError(ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, RULES_MESSAGE_SCHEDULE, entity.getUuid()), e.getMessage(), getStackTrace(e));
+            RuleError ruleError = new RuleError();
+            ruleError.setMessage(e.getMessage());
+            ruleError.setStack(getStackTrace(e));
+            throw new RuleExecutionException(ruleError);
+        }
     }
 
     public MessageRuleResponseEntity executeMessageRule(String entityType, Long entityId, String messageRule) throws RuleExecutionException {
@@ -287,40 +309,42 @@ public class RuleService implements NonScopeAwareService {
         if(StringUtils.isEmpty(rule.getRuleType())) {
             rule.setRuleType(workFlowType);
         }
-        switch (WorkFlowTypeEnum.findByValue(workFlowType.toLowerCase())) {
-            case PROGRAM_ENROLMENT:
-                ProgramEnrolmentRequestEntity programEnrolmentRequestEntity = requestEntityWrapper.getProgramEnrolmentRequestEntity();
-                entityUuid = programEnrolmentRequestEntity.getUuid();
-                ProgramEnrolmentContract programEnrolmentContract = programEnrolmentConstructionService.constructProgramEnrolmentContract(programEnrolmentRequestEntity);
-                programEnrolmentContract.setRule(rule);
-                programEnrolmentContract.setVisitSchedules(new ArrayList<>());
-                programEnrolmentContract.setChecklistDetails(programEnrolmentConstructionService.constructChecklistDetailRequest());
-                entity = programEnrolmentContract;
-                break;
-            case PROGRAM_ENCOUNTER:
-                ProgramEncounterRequestEntity programEncounterRequestEntity = requestEntityWrapper.getProgramEncounterRequestEntity();
-                entityUuid = programEncounterRequestEntity.getUuid();
-                ProgramEncounterContract programEncounterContract = programEncounterConstructionService.constructProgramEncounterContract(programEncounterRequestEntity);
-                programEncounterContract.setRule(rule);
-                programEncounterContract.setVisitSchedules(programEncounterConstructionService.constructProgramEnrolmentVisitScheduleContract(programEncounterRequestEntity));
-                entity = programEncounterContract;
-                break;
-            case ENCOUNTER:
-                EncounterRequestEntity encounterRequestEntity = requestEntityWrapper.getEncounterRequestEntity();
-                entityUuid = encounterRequestEntity.getUuid();
-                EncounterContract encounterContract = programEncounterConstructionService.constructEncounterContract(encounterRequestEntity);
-                encounterContract.setRule(rule);
-                encounterContract.setVisitSchedules(programEncounterConstructionService.constructIndividualVisitScheduleContract(encounterRequestEntity));
-                entity = encounterContract;
-                break;
-            case INDIVIDUAL:
-                IndividualRequestEntity individualRequestEntity = requestEntityWrapper.getIndividualRequestEntity();
-                entityUuid = individualRequestEntity.getUuid();
-                IndividualContract individualContract = new IndividualContractBuilder(contractBuilderServices, individualService).build(individualRequestEntity);
-                individualContract.setRule(rule);
-                individualContract.setVisitSchedules(new ArrayList<>());
-                entity = individualContract;
-                break;
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            switch (WorkFlowTypeEnum.findByValue(workFlowType.toLowerCase())) {
+                case PROGRAM_ENROLMENT:
+                    ProgramEnrolmentRequestEntity programEnrolmentRequestEntity = requestEntityWrapper.getProgramEnrolmentRequestEntity();
+                    entityUuid = programEnrolmentRequestEntity.getUuid();
+                    ProgramEnrolmentContract programEnrolmentContract = programEnrolmentConstructionService.constructProgramEnrolmentContract(programEnrolmentRequestEntity);
+                    programEnrolmentContract.setRule(rule);
+                    programEnrolmentContract.setVisitSchedules(new ArrayList<>());
+                    programEnrolmentContract.setChecklistDetails(programEnrolmentConstructionService.constructChecklistDetailRequest());
+                    entity = programEnrolmentContract;
+                    break;
+                case PROGRAM_ENCOUNTER:
+                    ProgramEncounterRequestEntity programEncounterRequestEntity = requestEntityWrapper.getProgramEncounterRequestEntity();
+                    entityUuid = programEncounterRequestEntity.getUuid();
+                    ProgramEncounterContract programEncounterContract = programEncounterConstructionService.constructProgramEncounterContract(programEncounterRequestEntity);
+                    programEncounterContract.setRule(rule);
+                    programEncounterContract.setVisitSchedules(programEncounterConstructionService.constructProgramEnrolmentVisitScheduleContract(programEncounterRequestEntity));
+                    entity = programEncounterContract;
+                    break;
+                case ENCOUNTER:
+                    EncounterRequestEntity encounterRequestEntity = requestEntityWrapper.getEncounterRequestEntity();
+                    entityUuid = encounterRequestEntity.getUuid();
+                    EncounterContract encounterContract = programEncounterConstructionService.constructEncounterContract(encounterRequestEntity);
+                    encounterContract.setRule(rule);
+                    encounterContract.setVisitSchedules(programEncounterConstructionService.constructIndividualVisitScheduleContract(encounterRequestEntity));
+                    entity = encounterContract;
+                    break;
+                case INDIVIDUAL:
+                    IndividualRequestEntity individualRequestEntity = requestEntityWrapper.getIndividualRequestEntity();
+                    entityUuid = individualRequestEntity.getUuid();
+                    IndividualContract individualContract = new IndividualContractBuilder(contractBuilderServices, individualService).build(individualRequestEntity);
+                    individualContract.setRule(rule);
+                    individualContract.setVisitSchedules(new ArrayList<>());
+                    entity = individualContract;
+                    break;
+            }
         }
 
         RuleFailureLog ruleFailureLog = ruleValidationService.generateRuleFailureLog(rule, SOURCE_WEB, "Rules : " + workFlowType, entityUuid);
@@ -2,10 +2,12 @@ package org.avni.server.service;
 
 import org.avni.server.dao.SyncParameters;
 import org.avni.server.dao.SyncableRepository;
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.domain.sync.SyncEntityName;
 import org.avni.server.domain.CHSEntity;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.domain.User;
+import org.avni.server.util.BadRequestError;
 import org.joda.time.DateTime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -37,8 +39,14 @@ public class ScopeBasedSyncService<T extends CHSEntity> {
     }
 
     public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
+        return getSyncResultsBySubjectTypeRegistrationLocationAsSlice(repository, user, lastModifiedDateTime, now, typeId, pageable, subjectType, syncEntityName, null);
+    }
+
+    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName, String continuationToken) {
         List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(decodeContinuationToken(continuationToken));
+        return repository.getSyncResultsAsSlice(syncParameters);
     }
 
     public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
@@ -49,4 +57,12 @@ public class ScopeBasedSyncService<T extends CHSEntity> {
     public Slice<T> getSyncResultsByCatchmentAsSlice(SyncableRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Pageable pageable, SyncEntityName syncEntityName) {
         return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, null, null, pageable, null, null, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
+
+    private SyncContinuationToken decodeContinuationToken(String continuationToken) {
+        try {
+            return SyncContinuationToken.decode(continuationToken);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestError("%s", e.getMessage());
+        }
+    }
 }
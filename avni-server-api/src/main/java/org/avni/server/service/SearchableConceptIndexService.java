@@ -0,0 +1,162 @@
+package org.avni.server.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.avni.server.dao.search.SearchableConceptIndexRepository;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Creates the trigram indexes of the text and id concepts in the search filters of the organisations, so that the
+ * search by them does not scan the table. Indexes are built concurrently on a thread of their own, one at a time, after
+ * the search filters are saved and when the server starts. Indexes of concepts removed from the search filters are
+ * left as they are.
+ */
+@Service
+public class SearchableConceptIndexService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SearchableConceptIndexService.class);
+    private static final Set<String> INDEXED_DATA_TYPES = new HashSet<>(Arrays.asList("TEXT", "ID"));
+    private static final Map<String, String> TABLES_BY_SCOPE = new HashMap<String, String>() {
+        {
+            put("REGISTRATION", "individual");
+            put("PROGRAMENROLMENT", "program_enrolment");
+            put("PROGRAMENCOUNTER", "program_encounter");
+            put("ENCOUNTER", "encounter");
+        }
+    };
+
+    private final SearchableConceptIndexRepository searchableConceptIndexRepository;
+    private final ThreadPoolTaskExecutor executor;
+
+    public SearchableConceptIndexService(SearchableConceptIndexRepository searchableConceptIndexRepository,
+                                         @Value("${avni.search.conceptIndexes.enabled}") boolean enabled) {
+        this.searchableConceptIndexRepository = searchableConceptIndexRepository;
+        if (enabled) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(1);
+            executor.setMaxPoolSize(1);
+            executor.setThreadNamePrefix("searchable-concept-index-");
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexesOfAllOrganisations() {
+        if (executor == null) return;
+        executor.execute(() -> {
+            Set<SearchableConcept> searchableConcepts = new LinkedHashSet<>();
+            searchableConceptIndexRepository.findAllSearchFilters().forEach(searchFilters ->
+                    searchableConcepts.addAll(getSearchableConcepts(parse(searchFilters))));
+            createIndexes(searchableConcepts);
+        });
+    }
+
+    /**
+     * Called when the settings of an organisation are saved. In a transaction the indexes are created after it commits.
+     */
+    public void createIndexes(JsonObject settings) {
+        if (executor == null || settings == null) return;
+        Set<SearchableConcept> searchableConcepts = getSearchableConcepts(settings.get("searchFilters"));
+        if (searchableConcepts.isEmpty()) return;
+        Runnable createIndexes = () -> executor.execute(() -> createIndexes(searchableConcepts));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    createIndexes.run();
+                }
+            });
+        } else {
+            createIndexes.run();
+        }
+    }
+
+    private void createIndexes(Set<SearchableConcept> searchableConcepts) {
+        for (SearchableConcept searchableConcept : searchableConcepts) {
+            try {
+                searchableConceptIndexRepository.createIndex(searchableConcept.tableName, searchableConcept.conceptUuid);
+            } catch (Exception e) {
+                logger.error(String.format("Could not create index of concept %s on %s", searchableConcept.conceptUuid, searchableConcept.tableName), e);
+            }
+        }
+    }
+
+    static Set<SearchableConcept> getSearchableConcepts(Object searchFilters) {
+        Set<SearchableConcept> searchableConcepts = new LinkedHashSet<>();
+        if (!(searchFilters instanceof Collection)) return searchableConcepts;
+        for (Object searchFilter : (Collection<?>) searchFilters) {
+            if (!(searchFilter instanceof Map)) continue;
+            Map<?, ?> filter = (Map<?, ?>) searchFilter;
+            String conceptUuid = asString(filter.get("conceptUUID"));
+            String dataType = asString(filter.get("conceptDataType"));
+            String scope = asString(filter.get("scope"));
+            if (dataType == null || !INDEXED_DATA_TYPES.contains(dataType.toUpperCase())) continue;
+            if (scope == null || !TABLES_BY_SCOPE.containsKey(scope.toUpperCase())) continue;
+            if (conceptUuid == null || !SearchableConceptIndexRepository.isIndexable(conceptUuid.trim())) continue;
+            searchableConcepts.add(new SearchableConcept(TABLES_BY_SCOPE.get(scope.toUpperCase()), conceptUuid.trim()));
+        }
+        return searchableConcepts;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Object parse(String searchFilters) {
+        try {
+            return ObjectMapperSingleton.getObjectMapper().readValue(searchFilters, new TypeReference<List<Object>>() {});
+        } catch (Exception e) {
+            logger.warn("Ignoring search filters that could not be read", e);
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdown();
+    }
+
+    static class SearchableConcept {
+        private final String tableName;
+        private final String conceptUuid;
+
+        SearchableConcept(String tableName, String conceptUuid) {
+            this.tableName = tableName;
+            this.conceptUuid = conceptUuid;
+        }
+
+        String getTableName() {
+            return tableName;
+        }
+
+        String getConceptUuid() {
+            return conceptUuid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SearchableConcept)) return false;
+            SearchableConcept that = (SearchableConcept) o;
+            return tableName.equals(that.tableName) && conceptUuid.equalsIgnoreCase(that.conceptUuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableName, conceptUuid.toLowerCase());
+        }
+    }
+}
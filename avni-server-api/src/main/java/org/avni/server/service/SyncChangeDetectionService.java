@@ -0,0 +1,101 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.MetadataChangeRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.sync.SyncEntityName;
+import org.avni.server.framework.security.UserContextHolder;
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.avni.server.domain.sync.SyncEntityName.*;
+
+@Service
+public class SyncChangeDetectionService {
+    private static final Map<SyncEntityName, String> metadataTables;
+
+    static {
+        Map<SyncEntityName, String> tables = new EnumMap<>(SyncEntityName.class);
+        tables.put(ChecklistDetail, "checklist_detail");
+        tables.put(Rule, "rule");
+        tables.put(RuleDependency, "rule_dependency");
+        tables.put(Form, "form");
+        tables.put(FormMapping, "form_mapping");
+        tables.put(EncounterType, "encounter_type");
+        tables.put(Program, "program");
+        tables.put(Gender, "gender");
+        tables.put(IndividualRelation, "individual_relation");
+        tables.put(IndividualRelationGenderMapping, "individual_relation_gender_mapping");
+        tables.put(IndividualRelationshipType, "individual_relationship_type");
+        tables.put(Concept, "concept");
+        tables.put(Video, "video");
+        tables.put(SubjectType, "subject_type");
+        tables.put(ChecklistItemDetail, "checklist_item_detail");
+        tables.put(FormElementGroup, "form_element_group");
+        tables.put(FormElement, "form_element");
+        tables.put(ConceptAnswer, "concept_answer");
+        tables.put(IdentifierSource, "identifier_source");
+        tables.put(OrganisationConfig, "organisation_config");
+        tables.put(Translation, "translation");
+        tables.put(Groups, "groups");
+        tables.put(GroupPrivileges, "group_privilege");
+        tables.put(GroupRole, "group_role");
+        tables.put(ReportCard, "report_card");
+        tables.put(Dashboard, "dashboard");
+        tables.put(DashboardSection, "dashboard_section");
+        tables.put(DashboardFilter, "dashboard_filter");
+        tables.put(DashboardSectionCardMapping, "dashboard_section_card_mapping");
+        tables.put(ApprovalStatus, "approval_status");
+        tables.put(GroupDashboard, "group_dashboard");
+        tables.put(Documentation, "documentation");
+        tables.put(DocumentationItem, "documentation_item");
+        tables.put(Privilege, "privilege");
+        tables.put(StandardReportCardType, "standard_report_card_type");
+        tables.put(TaskType, "task_type");
+        tables.put(TaskStatus, "task_status");
+        tables.put(MenuItem, "menu_item");
+        metadataTables = Collections.unmodifiableMap(tables);
+    }
+
+    private final MetadataChangeRepository metadataChangeRepository;
+    private final MetadataChangeWatermarkCache metadataChangeWatermarkCache;
+
+    public SyncChangeDetectionService(MetadataChangeRepository metadataChangeRepository, MetadataChangeWatermarkCache metadataChangeWatermarkCache) {
+        this.metadataChangeRepository = metadataChangeRepository;
+        this.metadataChangeWatermarkCache = metadataChangeWatermarkCache;
+    }
+
+    public MetadataLastModified getMetadataLastModified() {
+        Organisation organisation = UserContextHolder.getOrganisation();
+        return metadataChangeWatermarkCache.get(organisation == null ? null : organisation.getId(), this::loadMetadataLastModified);
+    }
+
+    private MetadataLastModified loadMetadataLastModified() {
+        Map<String, Date> lastModifiedByTable = metadataChangeRepository.getLastModifiedDateTimes(metadataTables.values());
+        Map<SyncEntityName, Date> lastModifiedByEntity = new EnumMap<>(SyncEntityName.class);
+        metadataTables.forEach((syncEntityName, tableName) -> lastModifiedByEntity.put(syncEntityName, lastModifiedByTable.get(tableName)));
+        return new MetadataLastModified(lastModifiedByEntity);
+    }
+
+    public static class MetadataLastModified {
+        private final Map<SyncEntityName, Date> lastModifiedByEntity;
+
+        public MetadataLastModified(Map<SyncEntityName, Date> lastModifiedByEntity) {
+            this.lastModifiedByEntity = lastModifiedByEntity;
+        }
+
+        public boolean covers(SyncEntityName syncEntityName) {
+            return lastModifiedByEntity.containsKey(syncEntityName);
+        }
+
+        public boolean isChanged(SyncEntityName syncEntityName, DateTime loadedSince) {
+            Date lastModifiedDateTime = lastModifiedByEntity.get(syncEntityName);
+            if (lastModifiedDateTime == null || loadedSince == null) return false;
+            return lastModifiedDateTime.after(loadedSince.toDate());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.avni.server.domain.SubjectType;
 import org.avni.server.domain.SyncableItem;
 import org.avni.server.domain.accessControl.GroupPrivileges;
 import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.accessControl.GroupPrivilegeService;
 import org.springframework.stereotype.Service;
 
@@ -28,18 +29,25 @@ public class SyncDetailsService {
     private final ChecklistDetailRepository checklistDetailRepository;
     private final OrganisationConfigService organisationConfigService;
     private final GroupPrivilegeService groupPrivilegeService;
+    private final SyncableItemsCache syncableItemsCache;
 
 
-    public SyncDetailsService(OperationalSubjectTypeRepository subjectTypeRepository1, EncounterTypeRepository encounterTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService) {
+    public SyncDetailsService(OperationalSubjectTypeRepository subjectTypeRepository1, EncounterTypeRepository encounterTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService, SyncableItemsCache syncableItemsCache) {
         this.subjectTypeRepository = subjectTypeRepository1;
         this.formMappingRepository = formMappingRepository;
         this.checklistDetailRepository = checklistDetailRepository;
         this.organisationConfigService = organisationConfigService;
         this.groupPrivilegeService = groupPrivilegeService;
+        this.syncableItemsCache = syncableItemsCache;
     }
 
     @Transactional
     public Set<SyncableItem> getAllSyncableItems(boolean scopeAwareEAS, boolean includeUserSubjectType) {
+        return syncableItemsCache.get(UserContextHolder.getOrganisation(), UserContextHolder.getUser(), scopeAwareEAS, includeUserSubjectType,
+                () -> Collections.unmodifiableSet(computeAllSyncableItems(scopeAwareEAS, includeUserSubjectType)));
+    }
+
+    private Set<SyncableItem> computeAllSyncableItems(boolean scopeAwareEAS, boolean includeUserSubjectType) {
         List<SubjectType> subjectTypes = subjectTypeRepository.findAll()
                 .stream()
                 .filter(st -> !st.getSubjectType().getType().equals(Subject.User) || includeUserSubjectType)
@@ -52,6 +60,9 @@ public class SyncDetailsService {
         List<FormMapping> allRegistrationFormMappings = formMappingRepository.getAllRegistrationFormMappings();
         List<ChecklistDetail> checklistDetails = checklistDetailRepository.findAll();
         GroupPrivileges groupPrivileges = groupPrivilegeService.getGroupPrivileges();
+        boolean commentEnabled = organisationConfigService.isCommentEnabled();
+        Map<Long, FormMapping> registrationFormMappingsBySubjectTypeId = new HashMap<>();
+        allRegistrationFormMappings.forEach(formMapping -> registrationFormMappingsBySubjectTypeId.putIfAbsent(formMapping.getSubjectType().getId(), formMapping));
 
         HashSet<SyncableItem> syncableItems = new HashSet<>();
 
@@ -68,13 +79,13 @@ public class SyncDetailsService {
             if (subjectType.isGroup()) {
                 addToSyncableItems(syncableItems, SyncEntityName.GroupSubject, subjectType.getUuid());
             }
-            if (organisationConfigService.isCommentEnabled()) {
+            if (commentEnabled) {
                 addToSyncableItems(syncableItems, SyncEntityName.Comment, subjectType.getUuid());
                 addToSyncableItems(syncableItems, SyncEntityName.CommentThread, subjectType.getUuid());
             }
 
-            Optional<FormMapping> subjectTypeFormMapping = allRegistrationFormMappings.stream().filter((formMapping -> Objects.equals(formMapping.getSubjectType().getId(), subjectType.getId()))).findFirst();
-            if (scopeAwareEAS && subjectTypeFormMapping.isPresent() && subjectTypeFormMapping.get().isEnableApproval())
+            FormMapping subjectTypeFormMapping = registrationFormMappingsBySubjectTypeId.get(subjectType.getId());
+            if (scopeAwareEAS && subjectTypeFormMapping != null && subjectTypeFormMapping.isEnableApproval())
                 addToSyncableItems(syncableItems, SyncEntityName.SubjectEntityApprovalStatus, subjectType.getUuid());
 
         });
@@ -0,0 +1,49 @@
+package org.avni.server.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.avni.server.application.FormMapping;
+import org.avni.server.domain.*;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Component
+public class SyncableItemsCache {
+    public static final String SYNCABLE_ITEMS = "syncableItems";
+    static final Set<Class<?>> INVALIDATING_ENTITY_TYPES = new HashSet<>(Arrays.asList(
+            FormMapping.class, GroupPrivilege.class, Group.class, UserGroup.class, OperationalSubjectType.class,
+            SubjectType.class, OrganisationConfig.class, ChecklistDetail.class, Program.class, OperationalProgram.class,
+            EncounterType.class, OperationalEncounterType.class
+    ));
+
+    private final EntityWriteCacheEvictor cacheEvictor;
+
+    public SyncableItemsCache(CacheManager cacheManager) {
+        this.cacheEvictor = new EntityWriteCacheEvictor(cacheManager.getCache(SYNCABLE_ITEMS), INVALIDATING_ENTITY_TYPES);
+    }
+
+    @PostConstruct
+    public void registerForEntityWrites() {
+        cacheEvictor.registerForEntityWrites();
+    }
+
+    @PreDestroy
+    public void unregisterForEntityWrites() {
+        cacheEvictor.unregisterForEntityWrites();
+    }
+
+    @Cacheable(cacheNames = SYNCABLE_ITEMS,
+            key = "T(java.lang.String).format('%d:%d:%s:%s', #organisation.id, #user.id, #scopeAwareEAS, #includeUserSubjectType)",
+            condition = "#organisation != null && #user != null", sync = true)
+    public Set<SyncableItem> get(Organisation organisation, User user, boolean scopeAwareEAS, boolean includeUserSubjectType, Supplier<Set<SyncableItem>> loader) {
+        return loader.get();
+    }
+}
@@ -1,6 +1,7 @@
 package org.avni.server.service;
 
 import org.avni.server.dao.*;
+import org.avni.server.dao.search.SearchResultPage;
 import org.avni.server.dao.search.SubjectAssignmentSearchQueryBuilder;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.GroupPrivileges;
@@ -100,7 +101,8 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
     }
 
     public LinkedHashMap<String, Object> searchSubjects(SubjectSearchRequest subjectSearchRequest) {
-        List<Map<String, Object>> searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectAssignmentSearchQueryBuilder());
+        SearchResultPage searchResultPage = subjectSearchRepository.search(subjectSearchRequest, new SubjectAssignmentSearchQueryBuilder());
+        List<Map<String, Object>> searchResults = searchResultPage.getRecords();
         List<Long> subjectIds = searchResults.stream().map(s -> Long.parseLong(s.get("id").toString())).collect(Collectors.toList());
         List<UserSubjectAssignment> userSubjectAssignmentBySubjectIds = userSubjectAssignmentRepository.findUserSubjectAssignmentBySubject_IdIn(subjectIds);
         List<Long> addressIds = searchResults.stream()
@@ -128,6 +130,7 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
         LinkedHashMap<String, Object> recordsMap = new LinkedHashMap<>();
         recordsMap.put("totalElements", totalCount);
         recordsMap.put("listOfRecords", searchResults);
+        recordsMap.put("hasMore", searchResultPage.hasMore());
         return recordsMap;
     }
 
@@ -2,7 +2,6 @@ package org.avni.server.service.accessControl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.validation.constraints.NotNull;
-import org.avni.server.dao.*;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.*;
 import org.avni.server.framework.security.UserContextHolder;
@@ -22,22 +21,14 @@ import java.util.stream.Collectors;
 
 @Service
 public class AccessControlService {
-    private final UserRepository userRepository;
-    private final SubjectTypeRepository subjectTypeRepository;
-    private final ProgramRepository programRepository;
-    private final EncounterTypeRepository encounterTypeRepository;
-    private final PrivilegeRepository privilegeRepository;
+    private final PrivilegeMatrixService privilegeMatrixService;
     private final CatchmentService catchmentService;
     private final UserSubjectAssignmentService userSubjectAssignmentService;
     private final UserService userService;
 
     @Autowired
-    public AccessControlService(UserRepository userRepository, SubjectTypeRepository subjectTypeRepository, ProgramRepository programRepository, EncounterTypeRepository encounterTypeRepository, PrivilegeRepository privilegeRepository, CatchmentService catchmentService, UserSubjectAssignmentService userSubjectAssignmentService, UserService userService) {
-        this.userRepository = userRepository;
-        this.subjectTypeRepository = subjectTypeRepository;
-        this.programRepository = programRepository;
-        this.encounterTypeRepository = encounterTypeRepository;
-        this.privilegeRepository = privilegeRepository;
+    public AccessControlService(PrivilegeMatrixService privilegeMatrixService, CatchmentService catchmentService, UserSubjectAssignmentService userSubjectAssignmentService, UserService userService) {
+        this.privilegeMatrixService = privilegeMatrixService;
         this.catchmentService = catchmentService;
         this.userSubjectAssignmentService = userSubjectAssignmentService;
         this.userService = userService;
@@ -48,18 +39,19 @@ public class AccessControlService {
     }
 
     public void checkOrgPrivilege(PrivilegeType privilegeType) {
-        User user = UserContextHolder.getUser();
-        if (userExistsAndHasAllPrivileges(user)) return;
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(UserContextHolder.getUser());
+        if (privilegeMatrix.hasAllPrivileges()) return;
 
-        if (!userRepository.hasPrivilege(privilegeType.name(), user.getId())) {
+        if (!privilegeMatrix.hasPrivilege(privilegeType)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType);
         }
     }
 
     public void checkPrivilege(User contextUser, PrivilegeType privilegeType) {
-        if (userExistsAndHasAllPrivileges(contextUser) || (contextUser.isAdmin() && privilegeRepository.isAllowedForAdmin(privilegeType))) return;
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || (contextUser.isAdmin() && privilegeMatrix.isAllowedForAdmin(privilegeType))) return;
 
-        if (!userRepository.hasPrivilege(privilegeType.name(), contextUser.getId())) {
+        if (!privilegeMatrix.hasPrivilege(privilegeType)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType);
         }
     }
@@ -69,16 +61,17 @@ public class AccessControlService {
     }
 
     public void checkHasAnyOfSpecificPrivileges(User contextUser, List<PrivilegeType> privilegeTypes) {
-        if (userExistsAndHasAllPrivileges(contextUser) || (contextUser.isAdmin() && privilegeRepository.isAnyOfSpecificAllowedForAdmin(privilegeTypes))) return;
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || (contextUser.isAdmin() && privilegeMatrix.isAnyOfSpecificAllowedForAdmin(privilegeTypes))) return;
 
-        List<String> privilegeTypeNames = privilegeTypes.stream().map(Enum::name).collect(Collectors.toList());
-        if (!userRepository.hasAnyOfSpecificPrivileges(privilegeTypeNames, contextUser.getId())) {
+        if (!privilegeMatrix.hasAnyOfSpecificPrivileges(privilegeTypes)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeTypes);
         }
     }
-    private boolean userExistsAndHasAllPrivileges(User contextUser) {
+
+    private PrivilegeMatrix getPrivilegeMatrix(User contextUser) {
         if (contextUser == null) throw new AvniNoUserSessionException("User not logged in");
-        return userRepository.hasAllPrivileges(contextUser.getId());
+        return privilegeMatrixService.getPrivilegeMatrix(contextUser);
     }
 
     public void checkSubjectPrivilege(PrivilegeType privilegeType, SubjectType subjectType) {
@@ -119,19 +112,17 @@ public class AccessControlService {
     }
 
     public void checkSubjectPrivilege(User contextUser, PrivilegeType privilegeType, @NotNull String subjectTypeUUID) {
-        if (userExistsAndHasAllPrivileges(contextUser)) return;
-        SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUUID);
-        if (subjectType == null) return;
-        if (!userRepository.hasSubjectPrivilege(privilegeType.name(), subjectType.getId(), contextUser.getId())) {
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || !privilegeMatrix.isKnownSubjectType(subjectTypeUUID)) return;
+        if (!privilegeMatrix.hasSubjectPrivilege(privilegeType, subjectTypeUUID)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType, subjectTypeUUID, SubjectType.class);
         }
     }
 
     public void checkHasAnyOfSpecificSubjectPrivileges(User contextUser, List<PrivilegeType> privilegeTypes, @NotNull String subjectTypeUUID) {
-        if (userExistsAndHasAllPrivileges(contextUser)) return;
-        SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUUID);
-        if (subjectType == null) return;
-        if (!userRepository.hasAnyOfSpecificSubjectPrivileges(privilegeTypes.stream().map(Enum::name).collect(Collectors.toList()), subjectType.getId(), contextUser.getId())) {
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || !privilegeMatrix.isKnownSubjectType(subjectTypeUUID)) return;
+        if (!privilegeMatrix.hasAnyOfSpecificSubjectPrivileges(privilegeTypes, subjectTypeUUID)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeTypes);
         }
     }
@@ -153,10 +144,9 @@ public class AccessControlService {
     }
 
     public void checkProgramPrivilege(User contextUser, PrivilegeType privilegeType, @NotNull String programUUID) {
-        if (userExistsAndHasAllPrivileges(contextUser)) return;
-        Program program = programRepository.findByUuid(programUUID);
-        if (program == null) return;
-        if (!userRepository.hasProgramPrivilege(privilegeType.name(), program.getId(), contextUser.getId())) {
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || !privilegeMatrix.isKnownProgram(programUUID)) return;
+        if (!privilegeMatrix.hasProgramPrivilege(privilegeType, programUUID)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType, programUUID, Program.class);
         }
     }
@@ -166,10 +156,9 @@ public class AccessControlService {
     }
 
     public void checkProgramEncounterPrivilege(User contextUser, PrivilegeType privilegeType, @NotNull String encounterTypeUUID) {
-        if (userExistsAndHasAllPrivileges(contextUser)) return;
-        EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUUID);
-        if (encounterType == null) return;
-        if (!userRepository.hasProgramEncounterPrivilege(privilegeType.name(), encounterType.getId(), contextUser.getId())) {
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || !privilegeMatrix.isKnownEncounterType(encounterTypeUUID)) return;
+        if (!privilegeMatrix.hasProgramEncounterPrivilege(privilegeType, encounterTypeUUID)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType, encounterTypeUUID, EncounterType.class);
         }
     }
@@ -179,8 +168,7 @@ public class AccessControlService {
     }
 
     public boolean hasProgramEncounterPrivilege(User contextUser, @NotNull String encounterTypeUUID) {
-        EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUUID);
-        return userRepository.hasProgramEncounterPrivilege(PrivilegeType.ViewVisit.name(), encounterType.getId(), contextUser.getId());
+        return privilegeMatrixService.getPrivilegeMatrix(contextUser).hasProgramEncounterPrivilege(PrivilegeType.ViewVisit, encounterTypeUUID);
     }
 
     public void checkProgramEncounterPrivilege(PrivilegeType privilegeType, @NotNull String encounterTypeUUID) {
@@ -204,10 +192,9 @@ public class AccessControlService {
     }
 
     public void checkEncounterPrivilege(User contextUser, PrivilegeType privilegeType, @NotNull String encounterTypeUUID) {
-        if (userExistsAndHasAllPrivileges(contextUser)) return;
-        EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUUID);
-        if (encounterType == null) return;
-        if (!userRepository.hasEncounterPrivilege(privilegeType.name(), encounterType.getId(), contextUser.getId())) {
+        PrivilegeMatrix privilegeMatrix = getPrivilegeMatrix(contextUser);
+        if (privilegeMatrix.hasAllPrivileges() || !privilegeMatrix.isKnownEncounterType(encounterTypeUUID)) return;
+        if (!privilegeMatrix.hasEncounterPrivilege(privilegeType, encounterTypeUUID)) {
             throw AvniAccessException.createNoPrivilegeException(privilegeType, encounterTypeUUID, EncounterType.class);
         }
     }
@@ -0,0 +1,81 @@
+package org.avni.server.service.accessControl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.avni.server.dao.PrivilegeMatrixRepository;
+import org.avni.server.dao.PrivilegeRepository;
+import org.avni.server.dao.UserRepository;
+import org.avni.server.domain.*;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.domain.accessControl.Privilege;
+import org.avni.server.domain.accessControl.PrivilegeMatrix;
+import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.avni.server.framework.security.UserContextHolder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles and caches the privilege matrix of a user per organisation, so that access checks do not query privileges
+ * on every call. Any write to groups, privileges or the entity types they refer to drops the cached matrices.
+ */
+@Service
+public class PrivilegeMatrixService {
+    public static final String PRIVILEGE_MATRICES = "privilegeMatrices";
+    private static final Set<Class<?>> invalidatingEntityTypes = new HashSet<>(Arrays.asList(
+            GroupPrivilege.class, Privilege.class, Group.class, UserGroup.class, SubjectType.class, Program.class, EncounterType.class
+    ));
+
+    private final UserRepository userRepository;
+    private final PrivilegeRepository privilegeRepository;
+    private final PrivilegeMatrixRepository privilegeMatrixRepository;
+    private final Cache privilegeMatrices;
+    private final EntityWriteCacheEvictor cacheEvictor;
+
+    public PrivilegeMatrixService(UserRepository userRepository, PrivilegeRepository privilegeRepository, PrivilegeMatrixRepository privilegeMatrixRepository,
+                                  CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.privilegeRepository = privilegeRepository;
+        this.privilegeMatrixRepository = privilegeMatrixRepository;
+        this.privilegeMatrices = cacheManager.getCache(PRIVILEGE_MATRICES);
+        this.cacheEvictor = new EntityWriteCacheEvictor(privilegeMatrices, invalidatingEntityTypes);
+    }
+
+    @PostConstruct
+    public void registerForEntityWrites() {
+        cacheEvictor.registerForEntityWrites();
+    }
+
+    @PreDestroy
+    public void unregisterForEntityWrites() {
+        cacheEvictor.unregisterForEntityWrites();
+    }
+
+    public PrivilegeMatrix getPrivilegeMatrix(User user) {
+        Organisation organisation = UserContextHolder.getOrganisation();
+        String key = (organisation == null ? null : organisation.getId()) + ":" + user.getId();
+        return privilegeMatrices.get(key, () -> load(user));
+    }
+
+    public void invalidateAll() {
+        privilegeMatrices.clear();
+    }
+
+    private PrivilegeMatrix load(User user) {
+        List<PrivilegeType> adminPrivilegeTypes = privilegeRepository.getAdminPrivileges().stream().map(Privilege::getType).collect(Collectors.toList());
+        if (userRepository.hasAllPrivileges(user.getId())) {
+            return PrivilegeMatrix.allPrivileges(adminPrivilegeTypes);
+        }
+        PrivilegeMatrix privilegeMatrix = new PrivilegeMatrix(false, adminPrivilegeTypes,
+                privilegeMatrixRepository.getSubjectTypeIds(), privilegeMatrixRepository.getProgramIds(), privilegeMatrixRepository.getEncounterTypeIds());
+        privilegeMatrixRepository.loadAllowedPrivileges(user.getId(), privilegeMatrix);
+        return privilegeMatrix;
+    }
+}
@@ -1,6 +1,7 @@
 package org.avni.server.web;
 
 import com.bugsnag.Bugsnag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
@@ -20,27 +21,31 @@ import org.avni.server.web.request.PointRequest;
 import org.avni.server.web.request.rules.RulesContractWrapper.Decision;
 import org.avni.server.web.request.rules.RulesContractWrapper.Decisions;
 import org.avni.server.web.response.AvniEntityResponse;
+import org.avni.server.web.response.slice.NdjsonSliceWriter;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addUserFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.withReferences;
 
 @RestController
 public class EncounterController extends AbstractController<Encounter> implements RestControllerResourceProcessor<Encounter> {
@@ -225,14 +230,31 @@ public class EncounterController extends AbstractController<Encounter> implement
         @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
         @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
         @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+        @RequestParam(value = "continuationToken", required = false) String continuationToken,
         Pageable pageable) throws Exception {
-        if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
+        return wrap(getEncountersSlice(lastModifiedDateTime, now, encounterTypeUuid, continuationToken, pageable));
+    }
+
+    @GetMapping(value = "/encounter/v2/stream")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public void streamEncountersByOperatingIndividualScope(
+        @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+        @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+        @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+        @RequestParam(value = "continuationToken", required = false) String continuationToken,
+        Pageable pageable,
+        HttpServletResponse response) throws Exception {
+        NdjsonSliceWriter.write(getEncountersSlice(lastModifiedDateTime, now, encounterTypeUuid, continuationToken, pageable), this::references, response);
+    }
+
+    private Slice<Encounter> getEncountersSlice(DateTime lastModifiedDateTime, DateTime now, String encounterTypeUuid, String continuationToken, Pageable pageable) throws Exception {
+        if (encounterTypeUuid.isEmpty()) return new SliceImpl<>(Collections.emptyList());
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
-        if (encounterType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
+        if (encounterType == null) return new SliceImpl<>(Collections.emptyList());
         FormMapping formMapping = formMappingService.find(encounterType, FormType.Encounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Encounter));
+        return scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Encounter, continuationToken);
     }
 
     @RequestMapping(value = "/encounter", method = RequestMethod.GET)
@@ -274,12 +296,16 @@ public class EncounterController extends AbstractController<Encounter> implement
 
     @Override
     public EntityModel<Encounter> process(EntityModel<Encounter> resource) {
-        Encounter encounter = resource.getContent();
-        resource.removeLinks();
-        resource.add(Link.of(encounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(Link.of(encounter.getIndividual().getUuid(), "individualUUID"));
-        addAuditFields(encounter, resource);
-        addUserFields(encounter.getFilledBy(), resource, "filledBy");
-        return resource;
+        return withReferences(resource, references(resource.getContent()));
+    }
+
+    @Override
+    public Map<String, String> references(Encounter encounter) {
+        Map<String, String> references = new LinkedHashMap<>();
+        references.put("encounterTypeUUID", encounter.getEncounterType().getUuid());
+        references.put("individualUUID", encounter.getIndividual().getUuid());
+        addAuditFields(encounter, references);
+        addUserFields(encounter.getFilledBy(), references, "filledBy");
+        return references;
     }
 }
@@ -1,6 +1,7 @@
 package org.avni.server.web;
 
 import com.bugsnag.Bugsnag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
@@ -24,6 +25,7 @@ import org.avni.server.web.request.rules.RulesContractWrapper.IndividualContract
 import org.avni.server.web.request.rules.constructWrappers.IndividualConstructionService;
 import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
 import org.avni.server.web.response.AvniEntityResponse;
+import org.avni.server.web.response.slice.NdjsonSliceWriter;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
 import org.slf4j.LoggerFactory;
@@ -31,23 +33,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.query.Param;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.withReferences;
 import static org.springframework.data.jpa.domain.Specification.where;
 
 @RestController
@@ -157,11 +161,28 @@ public class IndividualController extends AbstractController<Individual> impleme
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid", required = false) String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
-        if (subjectTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
+        return wrap(getIndividualsSlice(lastModifiedDateTime, now, subjectTypeUuid, continuationToken, pageable));
+    }
+
+    @GetMapping(value = "/individual/v2/stream")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public void streamIndividualsByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "subjectTypeUuid", required = false) String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            Pageable pageable,
+            HttpServletResponse response) throws IOException {
+        NdjsonSliceWriter.write(getIndividualsSlice(lastModifiedDateTime, now, subjectTypeUuid, continuationToken, pageable), this::references, response);
+    }
+
+    private Slice<Individual> getIndividualsSlice(DateTime lastModifiedDateTime, DateTime now, String subjectTypeUuid, String continuationToken, Pageable pageable) {
+        if (subjectTypeUuid.isEmpty()) return new SliceImpl<>(Collections.emptyList());
         SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUuid);
-        if (subjectType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Individual));
+        if (subjectType == null) return new SliceImpl<>(Collections.emptyList());
+        return scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Individual, continuationToken);
     }
 
     @GetMapping(value = {"/individual", /*-->Both are Deprecated */ "/individual/search/byCatchmentAndLastModified", "/individual/search/lastModified"})
@@ -330,19 +351,23 @@ public class IndividualController extends AbstractController<Individual> impleme
 
     @Override
     public EntityModel<Individual> process(EntityModel<Individual> resource) {
-        Individual individual = resource.getContent();
-        resource.removeLinks();
+        return withReferences(resource, references(resource.getContent()));
+    }
+
+    @Override
+    public Map<String, String> references(Individual individual) {
+        Map<String, String> references = new LinkedHashMap<>();
         if (individual.getAddressLevel() != null) {
-            resource.add(Link.of(individual.getAddressLevel().getUuid(), "addressUUID"));
+            references.put("addressUUID", individual.getAddressLevel().getUuid());
         }
         if (individual.getGender() != null) {
-            resource.add(Link.of(individual.getGender().getUuid(), "genderUUID"));
+            references.put("genderUUID", individual.getGender().getUuid());
         }
         if (individual.getSubjectType() != null) {
-            resource.add(Link.of(individual.getSubjectType().getUuid(), "subjectTypeUUID"));
+            references.put("subjectTypeUUID", individual.getSubjectType().getUuid());
         }
-        addAuditFields(individual, resource);
-        return resource;
+        addAuditFields(individual, references);
+        return references;
     }
 
     @RequestMapping(value = "/web/individuals", method = RequestMethod.POST)
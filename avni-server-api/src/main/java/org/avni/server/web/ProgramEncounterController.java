@@ -12,15 +12,16 @@ import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.web.request.ProgramEncounterContract;
 import org.avni.server.web.request.ProgramEncounterRequest;
 import org.avni.server.web.response.AvniEntityResponse;
+import org.avni.server.web.response.slice.NdjsonSliceWriter;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
@@ -29,11 +30,15 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addUserFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.withReferences;
 
 @RestController
 public class ProgramEncounterController implements RestControllerResourceProcessor<ProgramEncounter> {
@@ -128,15 +133,32 @@ public class ProgramEncounterController implements RestControllerResourceProcess
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
-        if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
+        return wrap(getProgramEncountersSlice(lastModifiedDateTime, now, encounterTypeUuid, continuationToken, pageable));
+    }
+
+    @GetMapping(value = "/programEncounter/v2/stream")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public void streamProgramEncountersByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            Pageable pageable,
+            HttpServletResponse response) throws Exception {
+        NdjsonSliceWriter.write(getProgramEncountersSlice(lastModifiedDateTime, now, encounterTypeUuid, continuationToken, pageable), this::references, response);
+    }
+
+    private Slice<ProgramEncounter> getProgramEncountersSlice(DateTime lastModifiedDateTime, DateTime now, String encounterTypeUuid, String continuationToken, Pageable pageable) throws Exception {
+        if (encounterTypeUuid.isEmpty()) return new SliceImpl<>(Collections.emptyList());
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
-        if (encounterType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
+        if (encounterType == null) return new SliceImpl<>(Collections.emptyList());
 
         FormMapping formMapping = formMappingService.find(encounterType, FormType.ProgramEncounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for program encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter));
+        return scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter, continuationToken);
     }
 
     @RequestMapping(value = "/programEncounter", method = RequestMethod.GET)
@@ -178,12 +200,16 @@ public class ProgramEncounterController implements RestControllerResourceProcess
 
     @Override
     public EntityModel<ProgramEncounter> process(EntityModel<ProgramEncounter> resource) {
-        ProgramEncounter programEncounter = resource.getContent();
-        resource.removeLinks();
-        resource.add(Link.of(programEncounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(Link.of(programEncounter.getProgramEnrolment().getUuid(), "programEnrolmentUUID"));
-        addAuditFields(programEncounter, resource);
-        addUserFields(programEncounter.getFilledBy(), resource, "filledBy");
-        return resource;
+        return withReferences(resource, references(resource.getContent()));
+    }
+
+    @Override
+    public Map<String, String> references(ProgramEncounter programEncounter) {
+        Map<String, String> references = new LinkedHashMap<>();
+        references.put("encounterTypeUUID", programEncounter.getEncounterType().getUuid());
+        references.put("programEnrolmentUUID", programEncounter.getProgramEnrolment().getUuid());
+        addAuditFields(programEncounter, references);
+        addUserFields(programEncounter.getFilledBy(), references, "filledBy");
+        return references;
     }
 }
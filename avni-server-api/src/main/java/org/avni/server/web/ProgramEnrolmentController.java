@@ -1,5 +1,6 @@
 package org.avni.server.web;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
@@ -13,6 +14,7 @@ import org.avni.server.web.request.EnrolmentContract;
 import org.avni.server.web.request.ProgramEncounterContract;
 import org.avni.server.web.request.ProgramEnrolmentRequest;
 import org.avni.server.web.response.AvniEntityResponse;
+import org.avni.server.web.response.slice.NdjsonSliceWriter;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
 import org.slf4j.LoggerFactory;
@@ -20,20 +22,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.avni.server.web.resourceProcessors.ResourceProcessor.addAuditFields;
+import static org.avni.server.web.resourceProcessors.ResourceProcessor.withReferences;
 
 @RestController
 public class ProgramEnrolmentController extends AbstractController<ProgramEnrolment> implements RestControllerResourceProcessor<ProgramEnrolment> {
@@ -94,16 +99,31 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programUuid", required = false) String programUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
-        if (programUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
-        else {
-            Program program = programRepository.findByUuid(programUuid);
-            if (program == null) return wrap(new SliceImpl<>(Collections.emptyList()));
-            FormMapping formMapping = formMappingService.find(program, FormType.ProgramEnrolment);
-            if (formMapping == null)
-                throw new Exception(String.format("No form mapping found for program %s", program.getName()));
-            return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEnrolment));
-        }
+        return wrap(getProgramEnrolmentsSlice(lastModifiedDateTime, now, programUuid, continuationToken, pageable));
+    }
+
+    @GetMapping(value = {"/programEnrolment/v2/stream"})
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public void streamProgramEnrolmentsByOperatingIndividualScope(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "programUuid", required = false) String programUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            Pageable pageable,
+            HttpServletResponse response) throws Exception {
+        NdjsonSliceWriter.write(getProgramEnrolmentsSlice(lastModifiedDateTime, now, programUuid, continuationToken, pageable), this::references, response);
+    }
+
+    private Slice<ProgramEnrolment> getProgramEnrolmentsSlice(DateTime lastModifiedDateTime, DateTime now, String programUuid, String continuationToken, Pageable pageable) throws Exception {
+        if (programUuid.isEmpty()) return new SliceImpl<>(Collections.emptyList());
+        Program program = programRepository.findByUuid(programUuid);
+        if (program == null) return new SliceImpl<>(Collections.emptyList());
+        FormMapping formMapping = formMappingService.find(program, FormType.ProgramEnrolment);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for program %s", program.getName()));
+        return scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEnrolment, continuationToken);
     }
 
     @GetMapping(value = {"/programEnrolment", /* Deprecated -> */ "/programEnrolment/search/lastModified", "/programEnrolment/search/byIndividualsOfCatchmentAndLastModified"})
@@ -175,11 +195,15 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
 
     @Override
     public EntityModel<ProgramEnrolment> process(EntityModel<ProgramEnrolment> resource) {
-        ProgramEnrolment programEnrolment = resource.getContent();
-        resource.removeLinks();
-        resource.add(Link.of(programEnrolment.getProgram().getUuid(), "programUUID"));
-        resource.add(Link.of(programEnrolment.getIndividual().getUuid(), "individualUUID"));
-        addAuditFields(programEnrolment, resource);
-        return resource;
+        return withReferences(resource, references(resource.getContent()));
+    }
+
+    @Override
+    public Map<String, String> references(ProgramEnrolment programEnrolment) {
+        Map<String, String> references = new LinkedHashMap<>();
+        references.put("programUUID", programEnrolment.getProgram().getUuid());
+        references.put("individualUUID", programEnrolment.getIndividual().getUuid());
+        addAuditFields(programEnrolment, references);
+        return references;
     }
 }
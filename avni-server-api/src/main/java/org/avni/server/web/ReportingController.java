@@ -15,6 +15,7 @@ import org.avni.server.report.AggregateReportResult;
 import org.avni.server.report.AvniReportRepository;
 import org.avni.server.report.ReportService;
 import org.avni.server.report.UserActivityResult;
+import org.avni.server.service.AddressLevelService;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.util.BadRequestError;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,12 +24,10 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @RestController
 public class ReportingController {
@@ -41,6 +40,7 @@ public class ReportingController {
     private final UserGroupRepository userGroupRepository;
     private final UserRepository userRepository;
     private final AccessControlService accessControlService;
+    private final AddressLevelService addressLevelService;
 
     @Autowired
     public ReportingController(FormMappingRepository formMappingRepository,
@@ -49,7 +49,8 @@ public class ReportingController {
                                FormRepository formRepository,
                                LocationRepository locationRepository,
                                UserGroupRepository userGroupRepository,
-                               UserRepository userRepository, AccessControlService accessControlService) {
+                               UserRepository userRepository, AccessControlService accessControlService,
+                               AddressLevelService addressLevelService) {
         this.formMappingRepository = formMappingRepository;
         this.avniReportRepository = avniReportRepository;
         this.reportService = reportService;
@@ -58,6 +59,7 @@ public class ReportingController {
         this.userGroupRepository = userGroupRepository;
         this.userRepository = userRepository;
         this.accessControlService = accessControlService;
+        this.addressLevelService = addressLevelService;
     }
 
     @RequestMapping(value = "/report/aggregate/codedConcepts", method = RequestMethod.GET)
@@ -231,19 +233,6 @@ public class ReportingController {
     }
 
     private List<Long> getLocations(List<Long> addressIds) {
-        if (addressIds.isEmpty()) return new ArrayList<>();
-        List<AddressLevel> selectedAddressLevels = locationRepository.findAllById(addressIds);
-        List<AddressLevel> allAddressLevels = locationRepository.findAllByIsVoidedFalse();
-        return selectedAddressLevels
-                .stream()
-                .flatMap(al -> findLowestAddresses(al, allAddressLevels))
-                .map(CHSBaseEntity::getId)
-                .collect(Collectors.toList());
-    }
-
-    private Stream<AddressLevel> findLowestAddresses(AddressLevel selectedAddress, List<AddressLevel> allAddresses) {
-        return allAddresses
-                .stream()
-                .filter(al -> al.getLineage().startsWith(selectedAddress.getLineage()));
+        return addressLevelService.getNonVoidedSelfAndDescendantIds(addressIds);
     }
 }
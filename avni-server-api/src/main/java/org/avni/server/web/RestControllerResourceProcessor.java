@@ -1,14 +1,18 @@
 package org.avni.server.web;
 
+import org.avni.server.dao.sync.KeysetSlice;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public interface RestControllerResourceProcessor<T> {
@@ -24,12 +28,23 @@ public interface RestControllerResourceProcessor<T> {
     }
 
     default SlicedResources<EntityModel<T>> wrap(Slice<T> slice) {
-        SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext());
+        SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext(),
+                KeysetSlice.encodedContinuationTokenOf(slice));
         List<EntityModel<T>> resources = new ArrayList<>();
         for (T it : slice) resources.add(this.process(EntityModel.of(it)));
         return new SlicedResources<>(resources, sliceMetadata);
     }
 
+    /**
+     * Reference uuids of the entity keyed by name, as used by the streaming sync contract. Controllers serving streaming
+     * sync override this to avoid building an EntityModel per row.
+     */
+    default Map<String, String> references(T t) {
+        Map<String, String> references = new LinkedHashMap<>();
+        for (Link link : this.process(EntityModel.of(t)).getLinks()) references.put(link.getRel().value(), link.getHref());
+        return references;
+    }
+
     default List<EntityModel<T>> wrap(List<T> list) {
         return list.stream().map(t -> this.process(EntityModel.of(t))).collect(Collectors.toList());
     }
@@ -108,6 +108,7 @@ public class SyncController {
     private final UserSubjectAssignmentService userSubjectAssignmentService;
     private final ScopedEntityApprovalStatusService scopedEntityApprovalStatusService;
     private final DashboardFilterService dashboardFilterService;
+    private final SyncChangeDetectionService syncChangeDetectionService;
 
     @Autowired
     public SyncController(Environment environment, IndividualService individualService, EncounterService encounterService,
@@ -140,7 +141,8 @@ public class SyncController {
                           DocumentationService documentationService, DocumentationItemService documentationItemService,
                           TaskService taskService, TaskTypeService taskTypeService, TaskStatusService taskStatusService,
                           TaskUnAssigmentService taskUnAssigmentService, SubjectProgramEligibilityService subjectProgramEligibilityService, MenuItemService menuItemService, UserSubjectAssignmentService userSubjectAssignmentService,
-                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService) {
+                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService,
+                          SyncChangeDetectionService syncChangeDetectionService) {
         this.environment = environment;
         this.individualService = individualService;
         this.encounterService = encounterService;
@@ -207,6 +209,7 @@ public class SyncController {
         this.userSubjectAssignmentService = userSubjectAssignmentService;
         this.scopedEntityApprovalStatusService = scopedEntityApprovalStatusService;
         this.dashboardFilterService = dashboardFilterService;
+        this.syncChangeDetectionService = syncChangeDetectionService;
         this.logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -357,8 +360,9 @@ public class SyncController {
         });
         removeDisabledEntities(clientSyncStatuses, serverSyncableItems);
 
+        SyncChangeDetectionService.MetadataLastModified metadataLastModified = syncChangeDetectionService.getMetadataLastModified();
         return clientSyncStatuses.stream()
-                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, scopeAwareEAS, deviceId))
+                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, scopeAwareEAS, deviceId, metadataLastModified))
                 .collect(Collectors.toList());
     }
 
@@ -398,7 +402,7 @@ public class SyncController {
                 allSyncableItems.stream().noneMatch(entitySyncStatusContract::matchesEntity));
     }
 
-    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, boolean scopeAwareEAS, String deviceId) {
+    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, boolean scopeAwareEAS, String deviceId, SyncChangeDetectionService.MetadataLastModified metadataLastModified) {
         String entityName = entitySyncStatusContract.getEntityName();
         DateTime loadedSince = entitySyncStatusContract.getLoadedSince();
         if (scopeAwareEAS) nonScopeAwareServiceMap.remove(EntityApprovalStatus);
@@ -416,6 +420,10 @@ public class SyncController {
             return deviceAwareService.isSyncRequiredForDevice(loadedSince, deviceId);
         }
 
+        if (nonScopeAwareService != null && metadataLastModified.covers(syncEntityName)) {
+            return metadataLastModified.isChanged(syncEntityName, loadedSince);
+        }
+
         if (nonScopeAwareService != null) {
             return nonScopeAwareService.isNonScopeEntityChanged(loadedSince);
         }
@@ -0,0 +1,103 @@
+package org.avni.server.web.external;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.avni.server.dao.RuleDependencyRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.RuleDependency;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.avni.server.framework.rule.EmbeddedRuleEngine;
+import org.avni.server.framework.rule.RuleDependencySource;
+import org.avni.server.framework.rule.RuleEngineException;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.graalvm.polyglot.Source;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Executes rule requests on the embedded rule engine instead of the node rule server. Requests and responses are the
+ * same JSON documents that are posted to the node server.
+ */
+@Component
+@ConditionalOnProperty(value = "avni.rule.engine", havingValue = "embedded")
+public class EmbeddedRuleExecutor {
+    public static final String RULE_DEPENDENCIES = "ruleDependencies";
+    // APIs handled by ruleInvoker.js, others still go to the node rule server. Batches of these go to /api/batch.
+    private static final Set<String> supportedApis = new HashSet<>(Arrays.asList(
+            "/api/rules", "/api/summaryRule", "/api/encounterEligibility", "/api/messagingRule"
+    ));
+
+    private final RuleDependencyRepository ruleDependencyRepository;
+    private final String invokerPath;
+    private final int contexts;
+    private final long timeoutMillis;
+    private final Cache ruleDependencies;
+    private final EntityWriteCacheEvictor ruleDependencyEvictor;
+    private EmbeddedRuleEngine ruleEngine;
+
+    public EmbeddedRuleExecutor(RuleDependencyRepository ruleDependencyRepository,
+                                @Value("${avni.rule.engine.embedded.invoker}") String invokerPath,
+                                @Value("${avni.rule.engine.embedded.contexts}") int contexts,
+                                @Value("${avni.rule.engine.embedded.timeout.millis}") long timeoutMillis,
+                                CacheManager cacheManager) {
+        this.ruleDependencyRepository = ruleDependencyRepository;
+        this.invokerPath = invokerPath;
+        this.contexts = contexts;
+        this.timeoutMillis = timeoutMillis;
+        this.ruleDependencies = cacheManager.getCache(RULE_DEPENDENCIES);
+        this.ruleDependencyEvictor = new EntityWriteCacheEvictor(ruleDependencies, Collections.singleton(RuleDependency.class));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Source invokerSource = Source.newBuilder("js", new File(invokerPath)).cached(true).build();
+        ruleEngine = new EmbeddedRuleEngine(invokerSource, contexts, timeoutMillis);
+        ruleDependencyEvictor.registerForEntityWrites();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ruleDependencyEvictor.unregisterForEntityWrites();
+        ruleEngine.close();
+    }
+
+    public boolean supports(String api) {
+        return supportedApis.contains(api);
+    }
+
+    public <T> T execute(String api, Object request, Class<T> responseType) {
+        ObjectMapper objectMapper = ObjectMapperSingleton.getObjectMapper();
+        try {
+            Organisation organisation = UserContextHolder.getOrganisation();
+            String organisationKey = organisation == null ? null : organisation.getUuid();
+            String response = ruleEngine.execute(organisationKey, api, objectMapper.writeValueAsString(request), getRuleDependency(organisation));
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new RuleEngineException(String.format("Could not map rule %s request or response", api), e);
+        }
+    }
+
+    private RuleDependencySource getRuleDependency(Organisation organisation) {
+        if (organisation == null) return null;
+        Optional<RuleDependencySource> ruleDependencySource = ruleDependencies.get(organisation.getId(), () -> {
+            RuleDependency ruleDependency = ruleDependencyRepository.findByOrganisationId(organisation.getId());
+            if (ruleDependency == null) return Optional.empty();
+            return Optional.of(new RuleDependencySource(organisation.getUuid(), ruleDependency.getChecksum(), ruleDependency.getCode()));
+        });
+        return ruleDependencySource.orElse(null);
+    }
+}
@@ -1,11 +1,19 @@
 package org.avni.server.web.external;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.avni.server.domain.UserContext;
 import org.avni.server.framework.security.AuthenticationFilter;
 import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.request.rules.request.BatchRuleRequest;
+import org.avni.server.web.request.rules.response.BatchRuleResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -13,31 +21,143 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 @Service
 public class RuleServiceClient {
+    public static final String API_BATCH = "/api/batch";
+
     private final RestTemplate restTemplate;
+    private final Optional<EmbeddedRuleExecutor> embeddedRuleExecutor;
     @Value("${node.server.url}")
     private String NODE_SERVER_HOST;
     private final Logger logger = LoggerFactory.getLogger(RuleServiceClient.class);
+    // Until when the rule server is taken to not have the batch api. Checked again after that, e.g. after the rule server is upgraded.
+    private volatile long batchUnsupportedUntil = 0;
+    private final long batchRetryMillis;
+    // The node rule server has /api/batch only from some version on, so it is not called unless turned on
+    private final boolean nodeServerBatchEnabled;
+    private final MeterRegistry meterRegistry;
+    // Bulkhead, so that a slow rule server holds at most this many request threads
+    private final Semaphore concurrentCalls;
+    private final long concurrentCallsWaitMillis;
 
     @Autowired
-    public RuleServiceClient(RestTemplate restTemplate) {
+    public RuleServiceClient(@Qualifier("ruleServerRestTemplate") RestTemplate restTemplate,
+                             Optional<EmbeddedRuleExecutor> embeddedRuleExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${avni.rule.server.concurrentCalls.max}") int maxConcurrentCalls,
+                             @Value("${avni.rule.server.concurrentCalls.wait.millis}") long concurrentCallsWaitMillis,
+                             @Value("${avni.rule.server.batch.retry.seconds}") long batchRetrySeconds,
+                             @Value("${avni.rule.server.batch.enabled}") boolean nodeServerBatchEnabled) {
         this.restTemplate = restTemplate;
+        this.embeddedRuleExecutor = embeddedRuleExecutor;
+        this.meterRegistry = meterRegistry;
+        this.concurrentCalls = new Semaphore(maxConcurrentCalls);
+        this.concurrentCallsWaitMillis = concurrentCallsWaitMillis;
+        this.batchRetryMillis = TimeUnit.SECONDS.toMillis(batchRetrySeconds);
+        this.nodeServerBatchEnabled = nodeServerBatchEnabled;
     }
 
     public Object post(String api, Object jsonObj, Class responseType) throws HttpClientErrorException {
+        if (embeddedRuleExecutor.isPresent() && embeddedRuleExecutor.get().supports(api)) {
+            return timed(api, "embedded", () -> embeddedRuleExecutor.get().execute(api, jsonObj, responseType));
+        }
         String uri = NODE_SERVER_HOST.concat(api);
         HttpEntity<Object> entityCredentials = new HttpEntity<>(jsonObj, constructHeaders());
         try {
-            return restTemplate.postForObject(uri, entityCredentials, responseType);
+            return callNodeServer(api, () -> restTemplate.postForObject(uri, entityCredentials, responseType));
         } catch (HttpClientErrorException e) {
             logger.info("rule " + api + " not found");
             throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "rule " + api + " not found");
         }
     }
 
+    /**
+     * Evaluates the api for all the requests in one call and returns the responses in the same order. Batches go to the
+     * embedded rule engine when it has the api, and to the node rule server only when avni.rule.server.batch.enabled;
+     * otherwise each request is posted on its own. Falls back to one call per request when the node rule server does
+     * not have the batch api, and checks for it again every avni.rule.server.batch.retry.seconds.
+     */
+    public <T> List<T> postBatch(String api, List<?> requests, Class<T> responseType) throws HttpClientErrorException {
+        if (requests.isEmpty()) return new ArrayList<>();
+        BatchRuleResponse batchResponse = null;
+        if (embeddedRuleExecutor.isPresent() && embeddedRuleExecutor.get().supports(api)) {
+            batchResponse = timed(API_BATCH, "embedded", () -> embeddedRuleExecutor.get().execute(API_BATCH, new BatchRuleRequest(api, requests), BatchRuleResponse.class));
+        } else if (nodeServerBatchEnabled && requests.size() > 1 && System.currentTimeMillis() >= batchUnsupportedUntil) {
+            batchResponse = postBatchToNodeServer(api, requests);
+        }
+        if (batchResponse == null) {
+            List<T> responses = new ArrayList<>(requests.size());
+            for (Object request : requests) {
+                responses.add(responseType.cast(post(api, request, responseType)));
+            }
+            return responses;
+        }
+        List<JsonNode> responseNodes = batchResponse.getResponses();
+        if (responseNodes == null || responseNodes.size() != requests.size()) {
+            throw new IllegalStateException(String.format("rule %s batch returned %d responses for %d requests", api, responseNodes == null ? 0 : responseNodes.size(), requests.size()));
+        }
+        ObjectMapper objectMapper = ObjectMapperSingleton.getObjectMapper();
+        List<T> responses = new ArrayList<>(responseNodes.size());
+        for (JsonNode responseNode : responseNodes) {
+            responses.add(objectMapper.convertValue(responseNode, responseType));
+        }
+        return responses;
+    }
+
+    private BatchRuleResponse postBatchToNodeServer(String api, List<?> requests) {
+        HttpEntity<Object> entityCredentials = new HttpEntity<>(new BatchRuleRequest(api, requests), constructHeaders());
+        try {
+            return callNodeServer(API_BATCH, () -> restTemplate.postForObject(NODE_SERVER_HOST.concat(API_BATCH), entityCredentials, BatchRuleResponse.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.info("rule server does not support " + API_BATCH + ", sending one request per entity for " + batchRetryMillis / 1000 + " seconds");
+            batchUnsupportedUntil = System.currentTimeMillis() + batchRetryMillis;
+            return null;
+        }
+    }
+
+    private <T> T callNodeServer(String api, Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = concurrentCalls.tryAcquire(concurrentCallsWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            meterRegistry.counter("avni.rule.server.rejected", "api", api).increment();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE, "rule server busy, could not run " + api);
+        }
+        try {
+            return timed(api, "node", call);
+        } finally {
+            concurrentCalls.release();
+        }
+    }
+
+    private <T> T timed(String api, String engine, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T response = call.get();
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("avni.rule.server.requests")
+                    .tags("api", api, "engine", engine, "outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
     private HttpHeaders constructHeaders() {
         HttpHeaders httpHeaders = new HttpHeaders();
         UserContext userContext = UserContextHolder.getUserContext();
@@ -0,0 +1,125 @@
+package org.avni.server.web.request.rules.constructWrappers;
+
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.web.request.ObservationModelContract;
+import org.avni.server.web.request.rules.RulesContractWrapper.IndividualContract;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Remembers what was loaded and built while constructing the contract of one rule request, so that the concepts,
+ * subjects and locations referred to by the observations of a subject's entities are loaded once (and in bulk when
+ * prefetched), and the same subject or observation collection is not built again.
+ *
+ * Opened around the construction of a contract and closed after it, as entities change between requests. Opening it
+ * again on the same thread while it is open joins the open one.
+ */
+public class ContractConstructionContext implements AutoCloseable {
+    private static final ThreadLocal<ContractConstructionContext> currentContext = new ThreadLocal<>();
+
+    private int openCount;
+    private final Map<String, Concept> concepts = new HashMap<>();
+    private final Map<String, Individual> subjects = new HashMap<>();
+    private final Map<String, AddressLevel> locations = new HashMap<>();
+    private final Map<ObservationCollection, List<ObservationModelContract>> observationModelContracts = new IdentityHashMap<>();
+    private final Map<String, IndividualContract> basicSubjectContracts = new HashMap<>();
+    private final Map<String, IndividualContract> subjectInfoContracts = new HashMap<>();
+
+    private ContractConstructionContext() {
+    }
+
+    public static ContractConstructionContext open() {
+        ContractConstructionContext context = currentContext.get();
+        if (context == null) {
+            context = new ContractConstructionContext();
+            currentContext.set(context);
+        }
+        context.openCount++;
+        return context;
+    }
+
+    /**
+     * @return the open context of this thread, or null when no contract is being constructed
+     */
+    public static ContractConstructionContext current() {
+        return currentContext.get();
+    }
+
+    @Override
+    public void close() {
+        if (--openCount == 0) {
+            currentContext.remove();
+        }
+    }
+
+    private static <K, V> V get(Map<K, V> map, K key, Function<K, V> loader) {
+        if (map.containsKey(key)) return map.get(key);
+        V value = loader.apply(key);
+        map.put(key, value);
+        return value;
+    }
+
+    private static <T> void putAll(Map<String, T> map, Collection<String> requestedKeys, List<T> loaded, Function<T, String> keyOf) {
+        loaded.forEach(value -> map.put(keyOf.apply(value), value));
+        // remember the ones not found too, so that they are not looked up one by one afterwards
+        requestedKeys.forEach(key -> map.putIfAbsent(key, null));
+    }
+
+    public Concept getConcept(String uuid, Function<String, Concept> loader) {
+        return get(concepts, uuid, loader);
+    }
+
+    public Individual getSubject(String uuid, Function<String, Individual> loader) {
+        return get(subjects, uuid, loader);
+    }
+
+    public AddressLevel getLocation(String uuid, Function<String, AddressLevel> loader) {
+        return get(locations, uuid, loader);
+    }
+
+    public List<ObservationModelContract> getObservationModelContracts(ObservationCollection observations, Function<ObservationCollection, List<ObservationModelContract>> builder) {
+        return get(observationModelContracts, observations, builder);
+    }
+
+    public IndividualContract getBasicSubjectContract(Individual individual, Function<Individual, IndividualContract> builder) {
+        return get(basicSubjectContracts, individual.getUuid(), uuid -> builder.apply(individual));
+    }
+
+    public IndividualContract getSubjectInfoContract(Individual individual, Function<Individual, IndividualContract> builder) {
+        return get(subjectInfoContracts, individual.getUuid(), uuid -> builder.apply(individual));
+    }
+
+    public Set<String> notLoadedConcepts(Collection<String> uuids) {
+        return notLoaded(concepts, uuids);
+    }
+
+    public Set<String> notLoadedSubjects(Collection<String> uuids) {
+        return notLoaded(subjects, uuids);
+    }
+
+    public Set<String> notLoadedLocations(Collection<String> uuids) {
+        return notLoaded(locations, uuids);
+    }
+
+    private static Set<String> notLoaded(Map<String, ?> map, Collection<String> uuids) {
+        Set<String> notLoaded = new HashSet<>(uuids);
+        notLoaded.removeAll(map.keySet());
+        return notLoaded;
+    }
+
+    public void addConcepts(Collection<String> requestedUuids, List<Concept> loaded) {
+        putAll(concepts, requestedUuids, loaded, Concept::getUuid);
+    }
+
+    public void addSubjects(Collection<String> requestedUuids, List<Individual> loaded) {
+        putAll(subjects, requestedUuids, loaded, Individual::getUuid);
+    }
+
+    public void addLocations(Collection<String> requestedUuids, List<AddressLevel> loaded) {
+        putAll(locations, requestedUuids, loaded, AddressLevel::getUuid);
+    }
+}
@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -47,8 +48,24 @@ public class IndividualConstructionService {
     }
 
     public IndividualContract getSubjectInfo(Individual individual) {
-        IndividualContract individualContractWrapper = constructBasicSubject(individual);
-        if (individualContractWrapper == null) return null;
+        if (individual == null) return null;
+        try (ContractConstructionContext context = ContractConstructionContext.open()) {
+            return context.getSubjectInfoContract(individual, this::buildSubjectInfo);
+        }
+    }
+
+    private IndividualContract buildSubjectInfo(Individual individual) {
+        List<ObservationCollection> observationCollections = new ArrayList<>();
+        observationCollections.add(individual.getObservations());
+        individual.getEncounters().forEach(encounter -> observationCollections.add(encounter.getObservations()));
+        individual.getProgramEnrolments().forEach(enrolment -> {
+            observationCollections.add(enrolment.getObservations());
+            observationCollections.add(enrolment.getProgramExitObservations());
+        });
+        observationService.prefetchObservationReferences(observationCollections);
+
+        // not the memoised basic subject, as it is filled in further below and would then contain itself as a group member
+        IndividualContract individualContractWrapper = buildBasicSubject(individual);
         List<EntityApprovalStatusWrapper> entityApprovalStatuses = entityApprovalStatusService.getEntityApprovalStatuses(individual.getId(), EntityApprovalStatus.EntityType.Subject, individual.getUuid());
         individualContractWrapper.setEntityApprovalStatuses(entityApprovalStatuses);
         List<GroupSubjectContract> groups = groupSubjectRepository
@@ -73,10 +90,15 @@ public class IndividualConstructionService {
     }
 
     public IndividualContract constructBasicSubject(Individual individual) {
-        IndividualContract individualContract = new IndividualContract();
         if (individual == null) {
             return null;
         }
+        ContractConstructionContext context = ContractConstructionContext.current();
+        return context == null ? buildBasicSubject(individual) : context.getBasicSubjectContract(individual, this::buildBasicSubject);
+    }
+
+    private IndividualContract buildBasicSubject(Individual individual) {
+        IndividualContract individualContract = new IndividualContract();
         List<ObservationModelContract> observationModelContracts =
                 observationService.constructObservationModelContracts(individual.getObservations());
         individualContract.setObservations(observationModelContracts);
@@ -23,7 +23,9 @@ public class ObservationConstructionService {
     }
 
     public ObservationModelContract constructObservation(ObservationRequestEntity observationRequestEntity) {
-        Concept concept = conceptRepository.findByUuid(observationRequestEntity.getConceptUUID());
+        ContractConstructionContext context = ContractConstructionContext.current();
+        String conceptUuid = observationRequestEntity.getConceptUUID();
+        Concept concept = context == null ? conceptRepository.findByUuid(conceptUuid) : context.getConcept(conceptUuid, conceptRepository::findByUuid);
         ObservationModelContract observationContract = new ObservationModelContract();
         observationContract.setValue(observationRequestEntity.getValue());
         ConceptModelContract conceptModelContract = ConceptModelContract.fromConcept(concept);
@@ -155,6 +155,20 @@ public class ProgramEncounterConstructionService {
     }
 
     public ProgramEnrolmentContract constructEnrolments(ProgramEnrolment programEnrolment, String currentProgramEncounterUUID) {
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            List<ObservationCollection> observationCollections = new ArrayList<>();
+            observationCollections.add(programEnrolment.getObservations());
+            observationCollections.add(programEnrolment.getProgramExitObservations());
+            programEnrolment.getProgramEncounters().forEach(programEncounter -> {
+                observationCollections.add(programEncounter.getObservations());
+                observationCollections.add(programEncounter.getCancelObservations());
+            });
+            observationService.prefetchObservationReferences(observationCollections);
+            return buildEnrolment(programEnrolment, currentProgramEncounterUUID);
+        }
+    }
+
+    private ProgramEnrolmentContract buildEnrolment(ProgramEnrolment programEnrolment, String currentProgramEncounterUUID) {
         ProgramEnrolmentContract enrolmentContract = new ProgramEnrolmentContract();
         enrolmentContract.setUuid(programEnrolment.getUuid());
         enrolmentContract.setOperationalProgramName(programEnrolment.getProgram().getOperationalProgramName());
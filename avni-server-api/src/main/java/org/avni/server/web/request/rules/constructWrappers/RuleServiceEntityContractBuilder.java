@@ -48,17 +48,19 @@ public class RuleServiceEntityContractBuilder {
     }
 
     public RuleServerEntityContract toContract(String entityType, CHSEntity entity) {
-        switch (entityType) {
-            case "Subject":
-                return toContract((Individual) entity);
-            case "ProgramEnrolment":
-                return toContract((ProgramEnrolment) entity);
-            case "Encounter":
-                return toContract((Encounter) entity);
-            case "ProgramEncounter":
-                return toContract((ProgramEncounter) entity);
-            default:
-                throw new IllegalArgumentException("Unknown entityType " + entityType);
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            switch (entityType) {
+                case "Subject":
+                    return toContract((Individual) entity);
+                case "ProgramEnrolment":
+                    return toContract((ProgramEnrolment) entity);
+                case "Encounter":
+                    return toContract((Encounter) entity);
+                case "ProgramEncounter":
+                    return toContract((ProgramEncounter) entity);
+                default:
+                    throw new IllegalArgumentException("Unknown entityType " + entityType);
+            }
         }
     }
 }
@@ -0,0 +1,25 @@
+package org.avni.server.web.request.rules.request;
+
+import java.util.List;
+
+/**
+ * Evaluates the same rule api for many entities in one call. Each request is the document that would otherwise be
+ * posted to the api on its own.
+ */
+public class BatchRuleRequest {
+    private final String api;
+    private final List<?> requests;
+
+    public BatchRuleRequest(String api, List<?> requests) {
+        this.api = api;
+        this.requests = requests;
+    }
+
+    public String getApi() {
+        return api;
+    }
+
+    public List<?> getRequests() {
+        return requests;
+    }
+}
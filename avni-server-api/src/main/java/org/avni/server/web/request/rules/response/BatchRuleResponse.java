@@ -0,0 +1,21 @@
+package org.avni.server.web.request.rules.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Responses of a {@link org.avni.server.web.request.rules.request.BatchRuleRequest}, in the order of its requests.
+ * They are kept as json here as their type depends on the api.
+ */
+public class BatchRuleResponse {
+    private List<JsonNode> responses;
+
+    public List<JsonNode> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<JsonNode> responses) {
+        this.responses = responses;
+    }
+}
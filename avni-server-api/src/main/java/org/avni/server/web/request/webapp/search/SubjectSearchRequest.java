@@ -11,6 +11,7 @@ public class SubjectSearchRequest {
     private IntegerRange age;
     private Boolean includeVoided;
     private boolean includeDisplayCount;
+    private boolean includeEstimatedCount;
     private List<Integer> addressIds = new ArrayList<>();
     private List<Concept> concept;
     private List<String> gender;
@@ -65,6 +66,14 @@ public class SubjectSearchRequest {
         this.includeDisplayCount = includeDisplayCount;
     }
 
+    public boolean getIncludeEstimatedCount() {
+        return includeEstimatedCount;
+    }
+
+    public void setIncludeEstimatedCount(boolean includeEstimatedCount) {
+        this.includeEstimatedCount = includeEstimatedCount;
+    }
+
     public List<Integer> getAddressIds() {
         return addressIds;
     }
@@ -5,6 +5,8 @@ import org.avni.server.domain.User;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 
+import java.util.Map;
+
 public abstract class ResourceProcessor<Entity> {
     /**
      * Individual controllers handle their own resource processing. This is only for backward compatibility. Hence its implementers may not implement resource processing for all the fields
@@ -23,4 +25,22 @@ public abstract class ResourceProcessor<Entity> {
         resource.add(Link.of(user.getUuid(), fieldName + "UUID"));
         resource.add(Link.of(user.getName(), fieldName));
     }
+
+    public static void addAuditFields(CHSEntity chsEntity, Map<String, String> references) {
+        addUserFields(chsEntity.getCreatedBy(), references, "createdBy");
+        addUserFields(chsEntity.getLastModifiedBy(), references, "lastModifiedBy");
+    }
+
+    public static void addUserFields(User user, Map<String, String> references, String fieldName) {
+        if (user == null) return;
+
+        references.put(fieldName + "UUID", user.getUuid());
+        references.put(fieldName, user.getName());
+    }
+
+    public static <Entity> EntityModel<Entity> withReferences(EntityModel<Entity> resource, Map<String, String> references) {
+        resource.removeLinks();
+        references.forEach((name, value) -> resource.add(Link.of(value, name)));
+        return resource;
+    }
 }
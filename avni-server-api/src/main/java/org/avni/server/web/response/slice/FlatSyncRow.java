@@ -0,0 +1,30 @@
+package org.avni.server.web.response.slice;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.Map;
+
+/**
+ * Sync row for the streaming contract: the entity's own fields with the reference uuids written alongside them,
+ * instead of under HAL _links.
+ */
+public class FlatSyncRow<T> {
+    private final T entity;
+    private final Map<String, String> references;
+
+    public FlatSyncRow(T entity, Map<String, String> references) {
+        this.entity = entity;
+        this.references = references;
+    }
+
+    @JsonUnwrapped
+    public T getEntity() {
+        return entity;
+    }
+
+    @JsonAnyGetter
+    public Map<String, String> getReferences() {
+        return references;
+    }
+}
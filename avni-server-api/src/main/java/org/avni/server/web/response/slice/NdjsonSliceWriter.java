@@ -0,0 +1,46 @@
+package org.avni.server.web.response.slice;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.avni.server.dao.sync.KeysetSlice;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes a slice as newline delimited JSON, one {@link FlatSyncRow} per line, directly to the response stream.
+ * Slice metadata goes in response headers since the body carries only rows.
+ */
+public class NdjsonSliceWriter {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+    public static final String HAS_NEXT_HEADER = "X-Avni-Slice-Has-Next";
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Avni-Slice-Continuation-Token";
+
+    private static final ObjectWriter rowWriter = ObjectMapperSingleton.getObjectMapper()
+            .writerFor(FlatSyncRow.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    public static <T> void write(Slice<T> slice, Function<T, Map<String, String>> references, HttpServletResponse response) throws IOException {
+        response.setContentType(MEDIA_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()));
+        String continuationToken = KeysetSlice.encodedContinuationTokenOf(slice);
+        if (continuationToken != null) {
+            response.setHeader(CONTINUATION_TOKEN_HEADER, continuationToken);
+        }
+
+        try (JsonGenerator generator = rowWriter.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (T row : slice) {
+                rowWriter.writeValue(generator, new FlatSyncRow<>(row, references.apply(row)));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.avni.server.web.response.slice;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.core.ResolvableType;
 import org.springframework.hateoas.CollectionModel;
@@ -161,6 +162,10 @@ public class SlicedResources<T> extends CollectionModel<T> {
         @JsonProperty //
         private boolean hasNext;
 
+        @JsonProperty //
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String continuationToken;
+
         protected SliceMetadata() {}
 
         public SliceMetadata(long size, long number) {
@@ -181,6 +186,11 @@ public class SlicedResources<T> extends CollectionModel<T> {
             this.hasNext = hasNext;
         }
 
+        public SliceMetadata(long size, long number, boolean hasNext, @Nullable String continuationToken) {
+            this(size, number, hasNext);
+            this.continuationToken = continuationToken;
+        }
+
         /**
          * Returns the requested size of the slice.
          *
@@ -208,6 +218,16 @@ public class SlicedResources<T> extends CollectionModel<T> {
             return hasNext;
         }
 
+        /**
+         * Returns the opaque token to pass back for fetching the next slice in keyset mode.
+         *
+         * @return the token, or null when the slice was not fetched in keyset mode.
+         */
+        @Nullable
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
 
         /*
          * (non-Javadoc)
@@ -238,7 +258,8 @@ public class SlicedResources<T> extends CollectionModel<T> {
             return super.equals(that) //
                     && Objects.equals(this.number, that.number) //
                     && Objects.equals(this.size, that.size)
-                    && Objects.equals(this.hasNext, that.hasNext);
+                    && Objects.equals(this.hasNext, that.hasNext)
+                    && Objects.equals(this.continuationToken, that.continuationToken);
         }
 
         /*
@@ -1,8 +1,19 @@
 package org.avni.server.web.util;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.avni.server.util.ObjectMapperSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.stereotype.Component;
@@ -25,13 +36,53 @@ public class Configuration {
     }
 
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setMessageConverters(jsonMessageConverters());
+        return restTemplate;
+    }
+
+    /**
+     * Kept apart from the shared client so that a slow rule server can only exhaust its own connections, and gives up
+     * after the configured timeouts instead of holding the calling thread.
+     */
+    @Bean(name = "ruleServerHttpClient")
+    public CloseableHttpClient ruleServerHttpClient(@Value("${avni.rule.server.connections.max}") int maxConnections,
+                                                    @Value("${avni.rule.server.connect.timeout.millis}") long connectTimeoutMillis,
+                                                    @Value("${avni.rule.server.read.timeout.millis}") long readTimeoutMillis,
+                                                    @Value("${avni.rule.server.connection.idle.seconds}") long connectionIdleSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        // all requests go to the one rule server
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(connectionIdleSeconds))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(connectionIdleSeconds))
+                .build();
+    }
+
+    @Bean(name = "ruleServerRestTemplate")
+    public RestTemplate ruleServerRestTemplate(@Qualifier("ruleServerHttpClient") CloseableHttpClient ruleServerHttpClient) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(ruleServerHttpClient));
+        restTemplate.setMessageConverters(jsonMessageConverters());
+        return restTemplate;
+    }
+
+    private static List<HttpMessageConverter<?>> jsonMessageConverters() {
         List<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
         MappingJackson2HttpMessageConverter jsonMessageConverter = new MappingJackson2HttpMessageConverter();
         jsonMessageConverter.setObjectMapper(ObjectMapperSingleton.getObjectMapper());
         messageConverters.add(jsonMessageConverter);
-        restTemplate.setMessageConverters(messageConverters);
-        return restTemplate;
+        return messageConverters;
     }
 }
@@ -6,6 +6,8 @@ create extension if not exists "uuid-ossp";
 create extension if not exists "ltree";
 \c :OPENCHS_DATABASE
 create extension if not exists "hstore";
+\c :OPENCHS_DATABASE
+create extension if not exists "pg_trgm";
 \c postgres
 create role demo with NOINHERIT NOLOGIN;
 grant demo to :OPENCHS_DATABASE_USER;
@@ -0,0 +1,5 @@
+-- concurrently, so that the tables stay writable while the indexes are built. See V1_355__AddKeysetSyncIndexes.sql.conf
+create index concurrently if not exists individual_org_last_modified_id_idx on individual (organisation_id, last_modified_date_time, id);
+create index concurrently if not exists encounter_org_last_modified_id_idx on encounter (organisation_id, last_modified_date_time, id);
+create index concurrently if not exists program_enrolment_org_last_modified_id_idx on program_enrolment (organisation_id, last_modified_date_time, id);
+create index concurrently if not exists program_encounter_org_last_modified_id_idx on program_encounter (organisation_id, last_modified_date_time, id);
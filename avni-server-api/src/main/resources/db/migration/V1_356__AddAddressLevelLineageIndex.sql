@@ -0,0 +1,2 @@
+-- concurrently, so that address_level stays writable while the index is built. See V1_356__AddAddressLevelLineageIndex.sql.conf
+create index concurrently if not exists address_level_lineage_gist_idx on address_level using gist (lineage);
@@ -0,0 +1,12 @@
+-- also created along with uuid-ossp, ltree and hstore when a database is built, this is for existing databases
+create extension if not exists pg_trgm;
+
+-- concurrently, so that the tables stay writable while the indexes are built. See V1_357__AddTrigramSearchIndexes.sql.conf
+
+-- name search: first_name/middle_name/last_name ilike '%token%' or 'token%'
+create index concurrently if not exists individual_first_name_trgm_idx on individual using gin (first_name gin_trgm_ops);
+create index concurrently if not exists individual_middle_name_trgm_idx on individual using gin (middle_name gin_trgm_ops);
+create index concurrently if not exists individual_last_name_trgm_idx on individual using gin (last_name gin_trgm_ops);
+
+-- location search: lower(title) like '%title%'
+create index concurrently if not exists address_level_title_trgm_idx on address_level using gin (lower(title) gin_trgm_ops);
@@ -25,6 +25,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
@@ -111,12 +113,12 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
+        when(ruleService.executeScheduleRules(EntityType.Subject.name(), individualId, Collections.singletonList(scheduleRule))).thenReturn(Collections.singletonList(scheduleRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
         verify(messageReceiverService).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
+        verify(ruleService).executeScheduleRules(eq(EntityType.Subject.name()), eq(individualId), eq(Collections.singletonList(scheduleRule)));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
     }
 
@@ -152,7 +154,6 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
 
         String scheduleRuleAnother = "scheduleRule2";
         when(messageRuleAnother.getScheduleRule()).thenReturn(scheduleRuleAnother);
@@ -164,15 +165,15 @@ public class MessagingServiceTest {
         DateTime scheduledDateTimeOfAnotherRule = formatter.parseDateTime("2019-02-04 10:35:24");
         ScheduleRuleResponseEntity anotherScheduledRuleResponseEntity = new ScheduleRuleResponseEntity();
         anotherScheduledRuleResponseEntity.setScheduledDateTime(scheduledDateTimeOfAnotherRule);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRuleAnother)).thenReturn(anotherScheduledRuleResponseEntity);
+        when(ruleService.executeScheduleRules(EntityType.Subject.name(), individualId, Arrays.asList(scheduleRule, scheduleRuleAnother)))
+                .thenReturn(Arrays.asList(scheduleRuleResponseEntity, anotherScheduledRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
         verify(messageReceiverService, times(2)).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
+        verify(ruleService).executeScheduleRules(eq(EntityType.Subject.name()), eq(individualId), eq(Arrays.asList(scheduleRule, scheduleRuleAnother)));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
 
-        verify(ruleService).executeScheduleRule(eq(messageRuleAnother.getEntityType().name()), eq(individualId), eq(scheduleRuleAnother));
         verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRuleAnother, messageReceiver, individualId, scheduledDateTimeOfAnotherRule);
     }
 
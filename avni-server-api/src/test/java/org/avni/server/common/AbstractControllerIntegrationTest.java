@@ -3,6 +3,7 @@ package org.avni.server.common;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.avni.server.dao.DbRoleRepository;
 import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
@@ -72,7 +73,7 @@ public abstract class AbstractControllerIntegrationTest {
         testWebContextService.setRoles();
         em.getEntityManagerFactory().getCache().evictAll();
         try {
-            em.createNativeQuery("reset role;").executeUpdate();
+            DbRoleRepository.setDbRoleNone(em);
         } catch (Exception ignored) {
         }
         UserContextHolder.clear();
@@ -0,0 +1,120 @@
+package org.avni.server.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.sync.KeysetSlice;
+import org.avni.server.dao.sync.SyncContinuationToken;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestSubjectService;
+import org.avni.server.service.builder.TestSubjectTypeService;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class IndividualRepositoryIntegrationTest extends AbstractControllerIntegrationTest {
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private IndividualRepository individualRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    @Transactional
+    public void shouldPageThroughSubjectsModifiedAtTheSameTimeWithoutSkippingOrRepeatingAny() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        setUser(organisationData.getUser().getUsername());
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build()).getId());
+        }
+        // the first two and the rest have the same last modified date time, so that pages of two split both groups
+        Date earlier = new Date(System.currentTimeMillis() - 60000);
+        Date later = new Date(earlier.getTime() + 1000);
+        entityManager.flush();
+        jdbcTemplate.update("update individual set last_modified_date_time = :lastModifiedDateTime where id in (:ids)",
+                Map.of("lastModifiedDateTime", earlier, "ids", ids.subList(0, 2)));
+        jdbcTemplate.update("update individual set last_modified_date_time = :lastModifiedDateTime where id in (:ids)",
+                Map.of("lastModifiedDateTime", later, "ids", ids.subList(2, 5)));
+        entityManager.clear();
+
+        Specification<Individual> savedSubjects = (root, query, cb) -> root.get("id").in(ids);
+        PageRequest pageOfTwo = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "lastModifiedDateTime", "id"));
+        List<Long> paged = new ArrayList<>();
+        SyncContinuationToken continuationToken = null;
+        int pages = 0;
+        do {
+            Specification<Individual> specification = continuationToken == null ? savedSubjects : savedSubjects.and(individualRepository.keysetSpecification(continuationToken));
+            KeysetSlice<Individual> slice = KeysetSlice.of(individualRepository.findAllAsSlice(specification, pageOfTwo), pageOfTwo);
+            paged.addAll(slice.getContent().stream().map(Individual::getId).collect(Collectors.toList()));
+            continuationToken = slice.hasNext() ? slice.getContinuationToken() : null;
+            pages++;
+        } while (continuationToken != null);
+
+        assertEquals(ids, paged);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void shouldMatchNamesWithIlikeOnTheNameColumns() {
+        String oneName = selectIndividualsNamed("first");
+        String twoNames = selectIndividualsNamed("first last");
+
+        for (String sql : new String[]{oneName, twoNames}) {
+            assertTrue(sql, sql.matches("(?s).*\\.first_name ilike .*"));
+            assertTrue(sql, sql.matches("(?s).*\\.last_name ilike .*"));
+            assertFalse(sql, sql.toLowerCase().contains("upper("));
+            assertFalse(sql, sql.toLowerCase().contains("lower("));
+        }
+    }
+
+    private String selectIndividualsNamed(String name) {
+        List<String> statements = new ArrayList<>();
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        try (Session session = sessionFactory.withOptions().statementInspector(sql -> {
+            statements.add(sql);
+            return sql;
+        }).openSession()) {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<Long> query = cb.createQuery(Long.class);
+            Root<Individual> individual = query.from(Individual.class);
+            query.select(individual.get("id"))
+                    .where(individualRepository.getFilterSpecForName(name).toPredicate(individual, query, cb));
+            session.createQuery(query).getResultList();
+        }
+        assertEquals(1, statements.size());
+        return statements.get(0);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,4 +29,10 @@ public class LocationRepositoryIntegrationTest extends AbstractControllerIntegra
         addressLevels = locationRepository.findByTitleAndType("non-existent address", addressLevel.getType(), PageRequest.of(0, 1));
         assertThat(addressLevels.size()).isEqualTo(0);
     }
+
+    @Test
+    public void shouldGetSelectedLocationsAndTheirDescendants() {
+        List<Long> ids = locationRepository.getNonVoidedSelfAndDescendantIds(Arrays.asList(4L, 7L));
+        assertThat(ids).containsExactlyInAnyOrder(4L, 5L, 7L, 8L);
+    }
 }
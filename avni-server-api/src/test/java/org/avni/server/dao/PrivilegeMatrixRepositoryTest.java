@@ -0,0 +1,38 @@
+package org.avni.server.dao;
+
+import org.avni.server.domain.accessControl.PrivilegeMatrix;
+import org.avni.server.domain.accessControl.PrivilegeType;
+import org.junit.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PrivilegeMatrixRepositoryTest {
+    @Test
+    public void shouldSkipPrivilegeTypesNotKnownToThisVersion() throws Exception {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("type")).thenReturn("SomePrivilegeAddedLater", PrivilegeType.ViewSubject.name());
+        when(resultSet.getObject(eq("subject_type_id"), eq(Long.class))).thenReturn(10L);
+        doAnswer(invocation -> {
+            RowCallbackHandler rowCallbackHandler = invocation.getArgument(2);
+            rowCallbackHandler.processRow(resultSet);
+            rowCallbackHandler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+        PrivilegeMatrix privilegeMatrix = new PrivilegeMatrix(false, Collections.emptyList(),
+                Collections.singletonMap("st-1", 10L), Collections.emptyMap(), Collections.emptyMap());
+
+        new PrivilegeMatrixRepository(jdbcTemplate).loadAllowedPrivileges(1L, privilegeMatrix);
+
+        assertTrue(privilegeMatrix.hasSubjectPrivilege(PrivilegeType.ViewSubject, "st-1"));
+        assertFalse(privilegeMatrix.hasPrivilege(PrivilegeType.EditSubject));
+    }
+}
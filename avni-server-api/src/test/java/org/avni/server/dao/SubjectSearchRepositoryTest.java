@@ -0,0 +1,48 @@
+package org.avni.server.dao;
+
+import org.avni.server.dao.search.SearchResultPage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SubjectSearchRepositoryTest {
+    @Test
+    public void shouldEstimateRowsCountedByTheAggregate() {
+        String plan = "[{\"Plan\": {\"Node Type\": \"Aggregate\", \"Plan Rows\": 1, \"Plans\": [{\"Node Type\": \"Hash Join\", \"Plan Rows\": 4213}]}}]";
+        assertEquals(Long.valueOf(4213), SubjectSearchRepository.getEstimatedRows(plan));
+    }
+
+    @Test
+    public void shouldEstimateRowsCountedByParallelAggregate() {
+        String plan = "[{\"Plan\": {\"Node Type\": \"Aggregate\", \"Partial Mode\": \"Finalize\", \"Plan Rows\": 1, \"Plans\": [" +
+                "{\"Node Type\": \"Gather\", \"Workers Planned\": 2, \"Plan Rows\": 2, \"Plans\": [" +
+                "{\"Node Type\": \"Aggregate\", \"Partial Mode\": \"Partial\", \"Plan Rows\": 1, \"Plans\": [" +
+                "{\"Node Type\": \"Seq Scan\", \"Parallel Aware\": true, \"Plan Rows\": 41667}]}]}]}}]";
+        assertEquals(Long.valueOf(100001), SubjectSearchRepository.getEstimatedRows(plan));
+    }
+
+    @Test
+    public void shouldEstimateRowsOfPlanWithoutChildren() {
+        assertEquals(Long.valueOf(7), SubjectSearchRepository.getEstimatedRows("[{\"Plan\": {\"Node Type\": \"Result\", \"Plan Rows\": 7}}]"));
+        assertNull(SubjectSearchRepository.getEstimatedRows("[]"));
+    }
+
+    @Test
+    public void shouldTrimRowFetchedPastTheLimit() {
+        Map<String, Object> row = Collections.singletonMap("id", 1);
+        List<Map<String, Object>> fetched = Arrays.asList(row, row, row);
+
+        SearchResultPage page = SearchResultPage.of(fetched, 2);
+        assertEquals(2, page.getRecords().size());
+        assertTrue(page.hasMore());
+
+        page = SearchResultPage.of(fetched, 3);
+        assertEquals(3, page.getRecords().size());
+        assertFalse(page.hasMore());
+    }
+}
@@ -55,7 +55,8 @@ public class SubjectSearchQueryBuilderTest {
         System.out.println(sql);
         assertThat(sql).isNotEmpty();
         assertThat(sql).contains("i.subject_type_id = :subjectTypeId");
-        assertThat(sql).contains("'Individual' as \"subjectTypeName\"");
+        assertThat(sql).contains("cast(:subjectTypeName as text) as \"subjectTypeName\"");
+        assertThat(query.getParameters().get("subjectTypeName")).isEqualTo("Individual");
         assertThat(sql).doesNotContain(SubjectSearchQueryBuilder.SubjectTypeColumn);
         assertThat(sql).doesNotContain(SubjectSearchQueryBuilder.SubjectTypeJoin);
     }
@@ -84,7 +85,7 @@ public class SubjectSearchQueryBuilderTest {
         assertThat(query.getParameters().containsValue("%two%")).isTrue();
         assertThat(query.getParameters().containsValue("%tokens%")).isTrue();
         assertThat(query.getParameters().containsValue("%andAnother%")).isTrue();
-        assertThat(query.getParameters().size()).isEqualTo(6);
+        assertThat(query.getParameters().size()).isEqualTo(8);
     }
 
     @Test
@@ -93,7 +94,7 @@ public class SubjectSearchQueryBuilderTest {
                 .withSubjectTypeFilter(subjectType)
                 .withAgeFilter(new IntegerRange(1, null))
                 .build(subjectType);
-        assertThat(query.getParameters().size()).isEqualTo(4);
+        assertThat(query.getParameters().size()).isEqualTo(6);
     }
 
     @Test
@@ -102,14 +103,14 @@ public class SubjectSearchQueryBuilderTest {
                 .withSubjectTypeFilter(subjectType)
                 .withGenderFilter(null)
                 .build(subjectType);
-        assertThat(query.getParameters().size()).isEqualTo(3);
+        assertThat(query.getParameters().size()).isEqualTo(5);
 
         ArrayList<String> genders = new ArrayList<>();
         genders.add("firstGenderUuid");
         query = new SubjectSearchQueryBuilder()
                 .withGenderFilter(genders)
                 .build(subjectType);
-        assertThat(query.getParameters().size()).isEqualTo(3);
+        assertThat(query.getParameters().size()).isEqualTo(5);
     }
 
     @Test
@@ -118,7 +119,7 @@ public class SubjectSearchQueryBuilderTest {
                 .withSubjectTypeFilter(subjectType)
                 .withEncounterDateFilter(new DateRange("2021-01-01", "2022-01-01"))
                 .build(subjectType);
-        assertThat(query.getParameters().size()).isEqualTo(5);
+        assertThat(query.getParameters().size()).isEqualTo(7);
     }
 
     @Test
@@ -128,7 +129,7 @@ public class SubjectSearchQueryBuilderTest {
                 .withProgramEncounterDateFilter(new DateRange("2021-01-01", "2022-01-01"))
                 .withProgramEnrolmentDateFilter(new DateRange("2021-01-01", "2022-01-01"))
                 .build(subjectType);
-        assertThat(query.getParameters().size()).isEqualTo(7);
+        assertThat(query.getParameters().size()).isEqualTo(9);
     }
 
     @Test
@@ -146,4 +147,51 @@ public class SubjectSearchQueryBuilderTest {
                 .withSubjectTypeFilter(subjectType)
                 .forCount().build(subjectType);
     }
+
+    @Test
+    public void shouldMakeTheSameParameterisedSqlForTheSameFilters() {
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSubjectTypeFilter(subjectType)
+                .withNameFilter("first")
+                .withGenderFilter(Arrays.asList("genderUuid"))
+                .withIncludeVoidedFilter(false)
+                .build(subjectType);
+        SqlQuery sameFilters = new SubjectSearchQueryBuilder()
+                .withSubjectTypeFilter(subjectType)
+                .withNameFilter("second")
+                .withGenderFilter(Arrays.asList("otherGenderUuid"))
+                .withIncludeVoidedFilter(false)
+                .build(subjectType);
+
+        assertThat(sameFilters.getSql()).isSameAs(query.getSql());
+        assertThat(query.getSql()).contains("i.organisation_id = :organisationId");
+        assertThat(query.getSql().indexOf("i.subject_type_id = :subjectTypeId")).isLessThan(query.getSql().indexOf("i.first_name ilike"));
+        assertThat(sameFilters.getParameters().get("subjectSearchToken0")).isEqualTo("%second%");
+    }
+
+    @Test
+    public void shouldMatchNamesWithIlikeOnTheColumnsSoThatTheTrigramIndexesAreUsed() {
+        String sql = new SubjectSearchQueryBuilder()
+                .withSubjectTypeFilter(subjectType)
+                .withNameFilter("name")
+                .build(subjectType).getSql();
+        assertThat(sql).contains("i.first_name ilike :subjectSearchToken0");
+        assertThat(sql).contains("i.middle_name ilike :subjectSearchToken0");
+        assertThat(sql).contains("i.last_name ilike :subjectSearchToken0");
+        assertThat(sql).doesNotContainIgnoringCase("upper(i.first_name");
+        assertThat(sql).doesNotContainIgnoringCase("lower(i.first_name");
+    }
+
+    @Test
+    public void shouldPutTheUuidOfTextConceptsInTheQuerySoThatTheirIndexesAreUsed() {
+        String conceptUuid = "b4e5a662-97bf-4846-b9b7-9baeab4d89c4";
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSubjectTypeFilter(subjectType)
+                .withConceptsFilter(Arrays.asList(new Concept(conceptUuid, "registration", "TEXT", null, "value"),
+                        new Concept("not a uuid", "registration", "TEXT", null, "value")))
+                .build(subjectType);
+        assertThat(query.getSql()).contains("i.observations ->> '" + conceptUuid + "' ilike :textValue0");
+        assertThat(query.getSql()).contains("i.observations->> :conceptUuid1 ilike :textValue1");
+        assertThat(query.getParameters().get("textValue0")).isEqualTo("%value%");
+    }
 }
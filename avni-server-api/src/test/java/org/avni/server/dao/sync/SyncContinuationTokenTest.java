@@ -0,0 +1,29 @@
+package org.avni.server.dao.sync;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SyncContinuationTokenTest {
+    @Test
+    public void shouldRoundTripEncodedToken() {
+        SyncContinuationToken token = new SyncContinuationToken(1704067200123L, 42L);
+
+        SyncContinuationToken decoded = SyncContinuationToken.decode(token.encode());
+
+        assertEquals(1704067200123L, decoded.getLastModifiedDateTime().getTime());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    public void shouldTreatMissingTokenAsFirstSlice() {
+        assertNull(SyncContinuationToken.decode(null));
+        assertNull(SyncContinuationToken.decode(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedToken() {
+        SyncContinuationToken.decode("not-a-token");
+    }
+}
@@ -0,0 +1,52 @@
+package org.avni.server.dao.sync;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.domain.Individual;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionDataCriteriaBuilderUtilIntegrationTest extends AbstractControllerIntegrationTest {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void shouldBindAddressLevelIdsAsOneParameter() {
+        String twoIds = selectIndividualsIn(Arrays.asList(1L, 2L));
+        String fiveIds = selectIndividualsIn(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+
+        assertTrue(twoIds, twoIds.contains("= any(?)"));
+        assertEquals(twoIds, 1, twoIds.chars().filter(c -> c == '?').count());
+        assertEquals(twoIds, fiveIds);
+    }
+
+    private String selectIndividualsIn(List<Long> addressLevelIds) {
+        List<String> statements = new ArrayList<>();
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        try (Session session = sessionFactory.withOptions().statementInspector(sql -> {
+            statements.add(sql);
+            return sql;
+        }).openSession()) {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<Long> query = cb.createQuery(Long.class);
+            Root<Individual> individual = query.from(Individual.class);
+            query.select(individual.get("id"))
+                    .where(TransactionDataCriteriaBuilderUtil.addressIdIn(cb, individual.get("addressLevel").get("id"), addressLevelIds));
+            session.createQuery(query).getResultList();
+        }
+        assertEquals(1, statements.size());
+        return statements.get(0);
+    }
+}
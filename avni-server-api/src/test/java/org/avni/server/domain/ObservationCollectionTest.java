@@ -0,0 +1,67 @@
+package org.avni.server.domain;
+
+import org.avni.server.framework.hibernate.AbstractJsonbUserType;
+import org.avni.server.framework.hibernate.ObservationCollectionUserType;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ObservationCollectionTest {
+    private static final String JSON = "{\"weight\": 10, \"name\": \"Ram\", \"answers\": [\"a\", \"b\"]}";
+
+    private static ObservationCollection loaded() {
+        return new ObservationCollection(JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldWriteUnchangedObservationsAsLoaded() throws Exception {
+        ObservationCollection observations = loaded();
+
+        assertEquals(10, observations.get("weight"));
+        assertTrue(observations.containsKey("name"));
+        assertEquals("{\"observations\":" + JSON + "}", AbstractJsonbUserType.mapper.writeValueAsString(Map.of("observations", observations)));
+    }
+
+    @Test
+    public void shouldWriteObservationsFromMapOnceTheyMayHaveChanged() throws Exception {
+        ObservationCollection observations = loaded();
+        ((List<Object>) observations.get("answers")).add("c");
+
+        assertNull(observations.getUnchangedJson());
+        assertEquals(Arrays.asList("a", "b", "c"), AbstractJsonbUserType.mapper.readValue(AbstractJsonbUserType.mapper.writeValueAsString(observations), Map.class).get("answers"));
+
+        ObservationCollection changed = loaded();
+        changed.put("height", 120);
+        assertEquals(120, AbstractJsonbUserType.mapper.readValue(AbstractJsonbUserType.mapper.writeValueAsString(changed), Map.class).get("height"));
+    }
+
+    @Test
+    public void shouldCompareLoadedObservationsWithMaps() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("weight", 10);
+        map.put("name", "Ram");
+        map.put("answers", Arrays.asList("a", "b"));
+
+        assertEquals(loaded(), loaded());
+        assertEquals(loaded(), new ObservationCollection(map));
+        assertEquals(new ObservationCollection(map), loaded());
+        assertEquals(map.hashCode(), loaded().hashCode());
+    }
+
+    @Test
+    public void shouldDetectChangeToCopyOfLoadedObservations() {
+        ObservationCollectionUserType userType = new ObservationCollectionUserType();
+        ObservationCollection observations = loaded();
+        ObservationCollection snapshot = userType.deepCopy(observations);
+
+        assertTrue(userType.equals(snapshot, observations));
+        observations.put("weight", 11);
+        assertFalse(userType.equals(snapshot, observations));
+    }
+}
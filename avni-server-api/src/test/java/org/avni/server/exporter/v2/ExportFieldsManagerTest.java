@@ -24,6 +24,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -102,6 +104,16 @@ public class ExportFieldsManagerTest {
         verifyMainFields(exportEntityType);
     }
 
+    @Test
+    public void shouldUseKnownMaxEncounterCountsInsteadOfQuerying() {
+        ExportEntityType exportEntityType = givenNoStaticHeaders(FormType.Encounter);
+        ExportFieldsManager partitionFieldsManager = new ExportFieldsManager(formMappingService, encounterRepository, programEncounterRepository,
+                TimeZone.getDefault().getDisplayName(), Collections.singletonMap(exportEntityType.getUuid(), 3L));
+        partitionFieldsManager.visitEncounter(exportEntityType, new ExportEntityTypeBuilder().withUuid("st1").build());
+        assertEquals(3, partitionFieldsManager.getMaxEntityCount(exportEntityType));
+        verify(encounterRepository, never()).getMaxEncounterCount(any(), any(), any());
+    }
+
     @Test
     public void groupByQuestionGroup() {
         FormElement qgFE = new TestFormElementBuilder().withId(4).build();
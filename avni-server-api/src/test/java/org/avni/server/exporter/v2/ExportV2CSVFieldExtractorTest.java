@@ -28,8 +28,11 @@ import java.io.IOException;
 import java.util.*;
 
 import static org.avni.server.exporter.v2.LongitudinalExportRequestFieldNameConstants.UUID;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -185,6 +188,56 @@ public class ExportV2CSVFieldExtractorTest {
         assertEquals("\"32\"", getExtractValue(header, "\"ST1_C1_2_C3\"", extract));
     }
 
+    @Test
+    public void partitionExtractorShouldLoadFormsAgainAndKeepTheColumnCounts() throws IOException {
+        User user = new UserBuilder().build();
+        SubjectType subjectType = new SubjectTypeBuilder().setUuid("st1").setName("ST1").build();
+        Map<String, String> qgObs1 = new HashMap<String, String>() {{
+            put("c2", "21");
+        }};
+        Map<String, String> qgObs2 = new HashMap<String, String>() {{
+            put("c2", "22");
+        }};
+        ObservationCollection observationCollection = new ObservationCollectionBuilder().addObservation("c1", Arrays.asList(qgObs1, qgObs2)).build();
+        Individual individual = new SubjectBuilder().withSubjectType(subjectType).withAuditUser(user).withObservations(observationCollection).withUUID("s1").build();
+        LongitudinalExportItemRow longitudinalExportItemRow = new LongitudinalExportItemRowBuilder().withSubject(individual).build();
+
+        when(addressLevelService.getAllAddressLevelTypeNames()).thenReturn(Arrays.asList("State", "District", "Block"));
+        when(exportJobParametersRepository.findByUuid("st1")).thenReturn(exportJobParameters);
+        when(subjectTypeRepository.findByUuid(any())).thenReturn(subjectType);
+        when(exportJobService.getExportOutput(any())).thenAnswer(invocation -> new ExportOutputBuilder().forSubjectType("st1").withFields(Arrays.asList(UUID, "c2")).build());
+
+        // the partition gets its own instances of the form elements, as it loads them in its own persistence context
+        LinkedHashMap<String, FormElement> formElementsMap = repeatableQuestionGroupFormElements();
+        LinkedHashMap<String, FormElement> partitionFormElementsMap = repeatableQuestionGroupFormElements();
+        when(formMappingService.findForSubject(any())).thenReturn(new FormMappingBuilder().withForm(new Form()).build());
+        when(formMappingService.getAllFormElementsAndDecisionMap("st1", null, null, FormType.IndividualProfile)).thenReturn(formElementsMap, partitionFormElementsMap);
+        when(observationService.getMaxNumberOfQuestionGroupObservations(any(), any())).thenReturn(new HashMap<FormElement, Integer>() {{
+            put(formElementsMap.get("c1"), 2);
+        }});
+
+        exportV2CSVFieldExtractor.init();
+        StringBuilderWriter writer = new StringBuilderWriter();
+        exportV2CSVFieldExtractor.writeHeader(writer);
+        String header = writer.toString();
+        Object[] extract = exportV2CSVFieldExtractor.forPartition().extract(longitudinalExportItemRow);
+
+        assertArrayEquals(exportV2CSVFieldExtractor.extract(longitudinalExportItemRow), extract);
+        assertEquals("\"22\"", getExtractValue(header, "\"ST1_C1_2_C2\"", extract));
+        verify(formMappingService, times(2)).getAllFormElementsAndDecisionMap("st1", null, null, FormType.IndividualProfile);
+        verify(observationService, times(1)).getMaxNumberOfQuestionGroupObservations(any(), any());
+    }
+
+    private LinkedHashMap<String, FormElement> repeatableQuestionGroupFormElements() {
+        Concept concept1 = new ConceptBuilder().withUuid("c1").withName("C1").withDataType(ConceptDataType.QuestionGroup).build();
+        Concept concept2 = new ConceptBuilder().withUuid("c2").withName("C2").withDataType(ConceptDataType.Text).build();
+        FormElement qgElement = new TestFormElementBuilder().withUuid("fe1").withConcept(concept1).withRepeatable(true).build();
+        return new LinkedHashMap<String, FormElement>() {{
+            put("c1", qgElement);
+            put("c2", new TestFormElementBuilder().withUuid("fe2").withQuestionGroupElement(qgElement).withConcept(concept2).build());
+        }};
+    }
+
     private Object getExtractValue(String header, String headerFieldName, Object[] extract) {
         String[] headerFields = getHeaderFields(header);
         for (int i = 0; i < headerFields.length; i++) {
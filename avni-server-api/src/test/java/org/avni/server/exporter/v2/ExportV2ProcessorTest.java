@@ -0,0 +1,69 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.domain.Encounter;
+import org.avni.server.domain.EncounterType;
+import org.avni.server.domain.EncounterTypeBuilder;
+import org.avni.server.domain.Individual;
+import org.avni.server.web.external.request.export.ExportEntityType;
+import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExportV2ProcessorTest {
+    private final EncounterType includedType = new EncounterTypeBuilder().withUuid("included").build();
+    private final EncounterType excludedType = new EncounterTypeBuilder().withUuid("excluded").build();
+    private ExportV2Processor exportV2Processor;
+
+    @Before
+    public void setup() {
+        ExportEntityType encounterTypeOutput = new ExportEntityType();
+        encounterTypeOutput.setUuid(includedType.getUuid());
+        ExportFilters filters = new ExportFilters();
+        filters.setDate(new ExportFilters.DateFilter(new DateTime(2024, 12, 31, 0, 0), new DateTime(2024, 1, 1, 0, 0)));
+        encounterTypeOutput.setFilters(filters);
+        ExportOutput exportOutput = new ExportOutput();
+        exportOutput.setEncounters(Collections.singletonList(encounterTypeOutput));
+
+        exportV2Processor = new ExportV2Processor(null, null);
+        exportV2Processor.setExportPlan(new ExportV2Plan(exportOutput, DateTimeZone.UTC));
+    }
+
+    @Test
+    public void shouldKeepOnlyFilteredGeneralEncountersInDateOrder() {
+        Encounter later = encounter(includedType, new DateTime(2024, 6, 1, 0, 0), false);
+        Encounter earlier = encounter(includedType, new DateTime(2024, 3, 1, 0, 0), false);
+        Individual individual = new Individual();
+        individual.setEncounters(new HashSet<>(Arrays.asList(
+                later,
+                earlier,
+                encounter(includedType, new DateTime(2023, 6, 1, 0, 0), false),
+                encounter(includedType, new DateTime(2024, 4, 1, 0, 0), true),
+                encounter(includedType, null, false),
+                encounter(excludedType, new DateTime(2024, 5, 1, 0, 0), false))));
+
+        LongitudinalExportItemRow row = exportV2Processor.process(individual);
+
+        Map<String, List<Encounter>> encounters = row.getEncounterTypeToEncountersMap();
+        assertEquals(Collections.singleton(includedType.getUuid()), encounters.keySet());
+        assertEquals(Arrays.asList(earlier, later), encounters.get(includedType.getUuid()));
+        assertTrue(row.getProgramEnrolmentToEncountersMap().isEmpty());
+        assertTrue(row.getGroupSubjectToEncountersMap().isEmpty());
+    }
+
+    private static Encounter encounter(EncounterType encounterType, DateTime encounterDateTime, boolean voided) {
+        Encounter encounter = new Encounter();
+        encounter.setUuid(UUID.randomUUID().toString());
+        encounter.setEncounterType(encounterType);
+        encounter.setEncounterDateTime(encounterDateTime, null);
+        encounter.setVoided(voided);
+        return encounter;
+    }
+}
@@ -0,0 +1,138 @@
+package org.avni.server.exporter.v2;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.avni.server.domain.Individual;
+import org.avni.server.service.ExportS3Service;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.hibernate.Session;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PartitionedLongitudinalExportV2TaskletTest {
+    @Rule
+    public TemporaryFolder exportDir = new TemporaryFolder();
+
+    private LongitudinalExportTaskExecutor longitudinalExportTaskExecutor;
+
+    @After
+    public void tearDown() {
+        if (longitudinalExportTaskExecutor != null) longitudinalExportTaskExecutor.destroy();
+    }
+
+    @Test
+    public void shouldSplitIdsIntoContiguousPartitionsInOrder() {
+        List<List<Long>> partitions = PartitionedLongitudinalExportV2Tasklet.partition(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), 3);
+
+        assertEquals(3, partitions.size());
+        assertEquals(Arrays.asList(1L, 2L, 3L), partitions.get(0));
+        assertEquals(Arrays.asList(4L, 5L, 6L), partitions.get(1));
+        assertEquals(Collections.singletonList(7L), partitions.get(2));
+    }
+
+    @Test
+    public void shouldNotCreateMorePartitionsThanIds() {
+        List<List<Long>> partitions = PartitionedLongitudinalExportV2Tasklet.partition(Arrays.asList(1L, 2L), 4);
+
+        assertEquals(2, partitions.size());
+        assertTrue(PartitionedLongitudinalExportV2Tasklet.partition(Collections.emptyList(), 4).isEmpty());
+    }
+
+    @Test
+    public void shouldExportTwoPartitionsOnWorkerThreadsEachWithItsOwnFieldExtractor() throws Exception {
+        longitudinalExportTaskExecutor = new LongitudinalExportTaskExecutor(2);
+        ExportS3Service exportS3Service = mock(ExportS3Service.class);
+        when(exportS3Service.getLocalExportFile(anyString())).thenAnswer(invocation -> new File(exportDir.getRoot(), invocation.getArgument(0) + ".csv"));
+
+        // field extractor of each partition to the threads it extracted rows on
+        Map<ExportV2CSVFieldExtractor, Set<String>> partitionExtractorThreads = new ConcurrentHashMap<>();
+        ExportV2CSVFieldExtractor jobFieldExtractor = mock(ExportV2CSVFieldExtractor.class);
+        when(jobFieldExtractor.getExportOutput()).thenReturn(new ExportOutput());
+        doAnswer(invocation -> {
+            invocation.<Writer>getArgument(0).write("id");
+            return null;
+        }).when(jobFieldExtractor).writeHeader(any());
+        when(jobFieldExtractor.forPartition()).thenReturn(partitionFieldExtractor(partitionExtractorThreads), partitionFieldExtractor(partitionExtractorThreads));
+        ExportV2Processor exportV2Processor = mock(ExportV2Processor.class);
+        when(exportV2Processor.process(any())).thenAnswer(invocation -> new LongitudinalExportItemRowBuilder().withSubject(invocation.getArgument(0)).build());
+
+        PartitionedLongitudinalExportV2Tasklet tasklet = new PartitionedLongitudinalExportV2Tasklet(2, 2, entityManager(),
+                new ResourcelessTransactionManager(), jobFieldExtractor, exportV2Processor, exportS3Service, "job",
+                Arrays.asList(1L, 2L, 3L, 4L, 5L), () -> {}, longitudinalExportTaskExecutor.getTaskExecutor());
+
+        assertEquals(RepeatStatus.FINISHED, tasklet.execute(null, null));
+
+        File exportFile = new File(exportDir.getRoot(), "job.csv");
+        assertEquals(Arrays.asList("id", "1", "2", "3", "4", "5"), Files.readAllLines(exportFile.toPath(), StandardCharsets.UTF_8));
+        verify(jobFieldExtractor, never()).extract(any());
+        verify(jobFieldExtractor, times(2)).forPartition();
+        Set<String> workerThreads = new HashSet<>();
+        partitionExtractorThreads.values().forEach(threads -> {
+            assertEquals(1, threads.size());
+            workerThreads.addAll(threads);
+        });
+        assertEquals(2, workerThreads.size());
+        assertTrue(workerThreads.stream().allMatch(name -> name.startsWith("longitudinal-export-")));
+
+        tasklet.clean();
+        assertFalse(new File(exportDir.getRoot(), "job.part0.csv").exists());
+        assertFalse(new File(exportDir.getRoot(), "job.part1.csv").exists());
+    }
+
+    private static ExportV2CSVFieldExtractor partitionFieldExtractor(Map<ExportV2CSVFieldExtractor, Set<String>> partitionExtractorThreads) {
+        ExportV2CSVFieldExtractor partitionFieldExtractor = mock(ExportV2CSVFieldExtractor.class);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        partitionExtractorThreads.put(partitionFieldExtractor, threads);
+        when(partitionFieldExtractor.extract(any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return new Object[]{invocation.<LongitudinalExportItemRow>getArgument(0).getIndividual().getId()};
+        });
+        return partitionFieldExtractor;
+    }
+
+    private static EntityManager entityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(entityManager.createQuery(anyString(), eq(Individual.class))).thenAnswer(invocation -> subjectsByIdQuery());
+        return entityManager;
+    }
+
+    // created while a partition runs, so answers by default rather than by stubbing
+    private static TypedQuery<Individual> subjectsByIdQuery() {
+        AtomicReference<List<Long>> ids = new AtomicReference<>();
+        return mock(TypedQuery.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "setParameter":
+                    ids.set(invocation.getArgument(1));
+                    return invocation.getMock();
+                case "getResultList":
+                    return ids.get().stream().map(id -> {
+                        Individual individual = new Individual();
+                        individual.setId(id);
+                        return individual;
+                    }).collect(Collectors.toList());
+                default:
+                    throw new UnsupportedOperationException(invocation.getMethod().getName());
+            }
+        });
+    }
+}
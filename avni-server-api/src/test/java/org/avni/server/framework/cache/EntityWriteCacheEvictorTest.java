@@ -0,0 +1,53 @@
+package org.avni.server.framework.cache;
+
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.Program;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class EntityWriteCacheEvictorTest {
+    private final Cache cache = new ConcurrentMapCache("test");
+    private final EntityWriteCacheEvictor cacheEvictor = new EntityWriteCacheEvictor(cache, Collections.singleton(Program.class));
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldEvictOnWriteOfInvalidatingEntityOnly() {
+        cache.put(1L, "value");
+        cacheEvictor.evictIfInvalidating(new Concept());
+        assertNotNull(cache.get(1L));
+
+        cacheEvictor.evictIfInvalidating(new Program());
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void shouldEvictAgainWhenWritingTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cacheEvictor.evictIfInvalidating(new Program());
+        cacheEvictor.evictIfInvalidating(new Program());
+        // loaded by another request before the transaction committed
+        cache.put(1L, "stale");
+
+        assertNotNull(cache.get(1L));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertNull(cache.get(1L));
+        assertNull(TransactionSynchronizationManager.getResource(cacheEvictor));
+    }
+}
@@ -0,0 +1,65 @@
+package org.avni.server.framework.cache;
+
+import com.google.common.cache.CacheBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WriteEvictedCacheTest {
+    private final WriteEvictedCache cache = new WriteEvictedCache("test", CacheBuilder.newBuilder().recordStats().build());
+
+    @Test
+    public void shouldCacheLoadedValuesAndCountHitsAndMisses() {
+        assertEquals("value", cache.get(1L, () -> "value"));
+        assertEquals("value", cache.get(1L, () -> "other value"));
+        assertNull(cache.get(2L, () -> null));
+        assertNull(cache.get(2L));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotPutValueLoadedWhileItsKeyWasEvicted() {
+        assertEquals("stale", cache.get(1L, () -> {
+            cache.evict(1L);
+            return "stale";
+        }));
+        assertNull(cache.get(1L));
+
+        assertEquals("value", cache.get(1L, () -> "value"));
+        assertEquals("value", cache.get(1L, () -> "other value"));
+    }
+
+    @Test
+    public void shouldNotPutValueLoadedWhileTheCacheWasCleared() {
+        cache.get(1L, () -> {
+            cache.clear();
+            return "stale";
+        });
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void shouldPutValueLoadedWhileAnotherKeyWasEvicted() {
+        cache.get(1L, () -> {
+            cache.evict(2L);
+            return "value";
+        });
+        assertEquals("value", cache.get(1L).get());
+    }
+
+    @Test
+    public void shouldNotPutValueOfLoadThatOverlappedAnEvictionOfItsKey() {
+        // second load of the key starts and the key is evicted while the first one is loading
+        cache.get(1L, () -> {
+            cache.get(1L, () -> {
+                cache.evict(1L);
+                return "inner";
+            });
+            return "outer";
+        });
+        assertNull(cache.get(1L));
+    }
+}
@@ -11,9 +11,16 @@ import org.avni.server.domain.ProgramEncounter;
 import org.avni.server.domain.User;
 import org.avni.server.framework.hibernate.AbstractJsonbUserType;
 import org.avni.server.framework.hibernate.KeyValuePairsHibernateObject;
+import org.avni.server.framework.hibernate.ObservationCollectionUserType;
 
 import java.io.IOException;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class JsonbUserTypeTest {
     @Test
@@ -34,4 +41,33 @@ public class JsonbUserTypeTest {
         JSONObject jsonObject = new JSONObject(string);
         Assert.assertEquals(10, jsonObject.getJSONObject("observations").getInt("a8d3da51-33f8-4b0d-a867-678471603151"));
     }
+
+    @Test
+    public void readObservationCollectionFromColumnBytes() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getBytes(1)).thenReturn("{\"weight\":10.5,\"name\":\"Zoë\",\"answers\":[\"a\",\"b\"]}".getBytes(StandardCharsets.UTF_8));
+
+        ObservationCollection observations = new ObservationCollectionUserType().nullSafeGet(resultSet, 1, null, null);
+
+        Assert.assertEquals(10.5, observations.get("weight"));
+        Assert.assertEquals("Zoë", observations.get("name"));
+        Assert.assertEquals(Arrays.asList("a", "b"), observations.get("answers"));
+    }
+
+    @Test
+    public void deepCopyObservationCollectionWithoutSharingNestedValues() {
+        Map<String, Object> groupObservation = new HashMap<>();
+        groupObservation.put("height", 120);
+        List<Object> repeatableGroup = new ArrayList<>(Collections.singletonList(groupObservation));
+        ObservationCollection observations = new ObservationCollection();
+        observations.put("group", repeatableGroup);
+        observations.put("name", "Ram");
+
+        ObservationCollection copy = new ObservationCollectionUserType().deepCopy(observations);
+        ((Map<String, Object>) ((List<Object>) copy.get("group")).get(0)).put("height", 130);
+
+        Assert.assertEquals(120, groupObservation.get("height"));
+        Assert.assertEquals("Ram", copy.get("name"));
+        Assert.assertEquals(ObservationCollection.class, copy.getClass());
+    }
 }
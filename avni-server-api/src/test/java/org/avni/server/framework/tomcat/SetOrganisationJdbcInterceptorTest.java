@@ -0,0 +1,160 @@
+package org.avni.server.framework.tomcat;
+
+import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class SetOrganisationJdbcInterceptorTest {
+    private Connection connection;
+    private Statement statement;
+    private PooledConnection pooledConnection;
+    private SetOrganisationJdbcInterceptor interceptor;
+
+    @Before
+    public void setup() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.getAutoCommit()).thenReturn(true);
+        pooledConnection = mock(PooledConnection.class);
+        when(pooledConnection.getConnection()).thenReturn(connection);
+        interceptor = new SetOrganisationJdbcInterceptor();
+        interceptor.setNext(mock(JdbcInterceptor.class));
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    private void borrowFor(String dbUser) {
+        UserContextHolder.clear();
+        if (dbUser != null) {
+            Organisation organisation = new Organisation();
+            organisation.setDbUser(dbUser);
+            UserContext userContext = new UserContext();
+            userContext.setOrganisation(organisation);
+            UserContextHolder.create(userContext);
+        }
+        interceptor.reset(null, pooledConnection);
+    }
+
+    private void invoke(String methodName) throws Throwable {
+        interceptor.invoke(null, Connection.class.getMethod(methodName), null);
+    }
+
+    private void setAutoCommit(boolean autoCommit) throws Throwable {
+        when(connection.getAutoCommit()).thenReturn(autoCommit);
+        interceptor.invoke(null, Connection.class.getMethod("setAutoCommit", boolean.class), new Object[]{autoCommit});
+    }
+
+    @Test
+    public void shouldSetRoleOnlyWhenBorrowedForAnotherOrganisation() throws Throwable {
+        borrowFor("org1");
+        assertTrue(interceptor.isRoleChangedOnBorrow());
+        invoke("close");
+        borrowFor("org1");
+        assertFalse(interceptor.isRoleChangedOnBorrow());
+        invoke("close");
+        verify(statement, times(1)).execute("set role \"org1\";");
+        verify(statement, never()).execute("RESET ROLE");
+
+        borrowFor(null);
+        verify(statement).execute("RESET ROLE");
+    }
+
+    @Test
+    public void shouldSetRoleAgainWhenRoleWasSwitchedWhileBorrowed() throws Throwable {
+        borrowFor("org1");
+        interceptor.switchTo(null);
+        invoke("createStatement");
+        invoke("close");
+        borrowFor("org1");
+
+        verify(statement, times(2)).execute("set role \"org1\";");
+    }
+
+    @Test
+    public void shouldSetRoleAgainWhenTransactionThatSwitchedItIsRolledBack() throws Throwable {
+        borrowFor("org1");
+        setAutoCommit(false);
+        interceptor.switchTo(null);
+        invoke("createStatement");
+        invoke("commit");
+        interceptor.switchTo("org1");
+        invoke("createStatement");
+        invoke("rollback");
+        invoke("createStatement");
+
+        verify(statement, times(1)).execute("RESET ROLE");
+        verify(statement, times(2)).execute("set role \"org1\"");
+    }
+
+    @Test
+    public void shouldKeepRoleSwitchedInCommittedTransaction() throws Throwable {
+        borrowFor("org1");
+        setAutoCommit(false);
+        interceptor.switchTo(null);
+        invoke("createStatement");
+        invoke("commit");
+        invoke("createStatement");
+        invoke("rollback");
+        invoke("createStatement");
+
+        setAutoCommit(false);
+        interceptor.switchTo("org1");
+        invoke("createStatement");
+        setAutoCommit(true);
+        invoke("rollback");
+        invoke("createStatement");
+
+        verify(statement, times(1)).execute("RESET ROLE");
+        verify(statement, times(1)).execute("set role \"org1\"");
+    }
+
+    @Test
+    public void shouldSetRoleAgainOnBorrowWhenReturnedWithTransactionOpen() throws Throwable {
+        borrowFor("org1");
+        setAutoCommit(false);
+        interceptor.switchTo(null);
+        invoke("createStatement");
+        interceptor.switchTo("org1");
+        invoke("createStatement");
+        invoke("close");
+        setAutoCommit(true);
+        borrowFor("org1");
+
+        assertTrue(interceptor.isRoleChangedOnBorrow());
+        verify(statement, times(2)).execute("set role \"org1\";");
+    }
+
+    @Test
+    public void shouldSetRoleAgainOnBorrowWhenSwitchBackWasRolledBack() throws Throwable {
+        borrowFor("org1");
+        setAutoCommit(false);
+        interceptor.switchTo(null);
+        invoke("createStatement");
+        invoke("commit");
+        interceptor.switchTo("org1");
+        invoke("createStatement");
+        invoke("rollback");
+        setAutoCommit(true);
+        invoke("close");
+        borrowFor("org1");
+
+        assertTrue(interceptor.isRoleChangedOnBorrow());
+        verify(statement, times(2)).execute("set role \"org1\";");
+    }
+}
@@ -0,0 +1,92 @@
+package org.avni.server.importer.batch;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestSubjectService;
+import org.avni.server.service.builder.TestSubjectTypeService;
+import org.junit.Test;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class JobServiceIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private JobExplorer jobExplorer;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+
+    @Test
+    public void shouldFailSyncAttributesJobLeftRunningAndResumeItAfterTheSavedCursor() throws Exception {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        setUser(organisationData.getUser().getUsername());
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build()).getId());
+        }
+
+        // as left by a server stopped after committing the chunk of the first two subjects
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("uuid", UUID.randomUUID().toString())
+                .addString("organisationUUID", organisationRepository.findOne(organisationData.getOrganisationId()).getUuid())
+                .addLong("userId", organisationData.getUser().getId(), false)
+                .addLong("subjectTypeId", subjectType.getId())
+                .toJobParameters();
+        JobExecution orphanedExecution = jobRepository.createJobExecution("syncAttributesJob", jobParameters);
+        orphanedExecution.setStatus(BatchStatus.STARTED);
+        orphanedExecution.setStartTime(LocalDateTime.now());
+        jobRepository.update(orphanedExecution);
+        StepExecution orphanedStepExecution = orphanedExecution.createStepExecution("updateSyncAttributesStep");
+        orphanedStepExecution.setStatus(BatchStatus.STARTED);
+        orphanedStepExecution.setStartTime(LocalDateTime.now());
+        jobRepository.add(orphanedStepExecution);
+        orphanedStepExecution.getExecutionContext().putLong("backfill.total", 3);
+        orphanedStepExecution.getExecutionContext().putLong("backfill.cursor", ids.get(1));
+        orphanedStepExecution.getExecutionContext().putLong("backfill.done", 2);
+        jobRepository.updateExecutionContext(orphanedStepExecution);
+
+        jobService.retryJobsFailedInLast2Hours();
+
+        JobExecution restartedExecution = waitForCompletedExecution(orphanedExecution.getJobInstance());
+        assertEquals(BatchStatus.FAILED, jobExplorer.getJobExecution(orphanedExecution.getId()).getStatus());
+        StepExecution restartedStepExecution = restartedExecution.getStepExecutions().iterator().next();
+        assertEquals(1, restartedStepExecution.getWriteCount());
+        assertEquals(ids.get(2).longValue(), restartedStepExecution.getExecutionContext().getLong("backfill.cursor"));
+        assertEquals(3L, restartedStepExecution.getExecutionContext().getLong("backfill.done"));
+    }
+
+    private JobExecution waitForCompletedExecution(JobInstance jobInstance) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            for (JobExecution jobExecution : jobExplorer.getJobExecutions(jobInstance)) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) return jobExecution;
+            }
+            Thread.sleep(100);
+        }
+        fail("Job was not restarted and completed");
+        return null;
+    }
+}
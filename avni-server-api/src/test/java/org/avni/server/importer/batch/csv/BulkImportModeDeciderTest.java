@@ -0,0 +1,30 @@
+package org.avni.server.importer.batch.csv;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BulkImportModeDeciderTest {
+    @Test
+    public void shouldUseBulkStepOnlyForUploadsWithIndependentRows() {
+        BulkImportModeDecider decider = new BulkImportModeDecider(100, 4);
+
+        assertEquals(BulkImportModeDecider.BULK, decider.decide(jobExecution("Subject---Individual"), null));
+        assertEquals(BulkImportModeDecider.BULK, decider.decide(jobExecution("ProgramEncounter---Visit"), null));
+        assertEquals(BulkImportModeDecider.ROW_BY_ROW, decider.decide(jobExecution("locations"), null));
+        assertEquals(BulkImportModeDecider.ROW_BY_ROW, decider.decide(jobExecution("GroupMembers---Household"), null));
+    }
+
+    @Test
+    public void shouldUseRowByRowStepWhenBulkImportIsNotConfigured() {
+        BulkImportModeDecider decider = new BulkImportModeDecider(1, 1);
+
+        assertEquals(BulkImportModeDecider.ROW_BY_ROW, decider.decide(jobExecution("Subject---Individual"), null));
+    }
+
+    private static JobExecution jobExecution(String type) {
+        return new JobExecution(1L, new JobParametersBuilder().addString("type", type).toJobParameters());
+    }
+}
@@ -0,0 +1,121 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.csv.writer.CsvFileItemWriter;
+import org.avni.server.importer.batch.model.Row;
+import org.avni.server.service.S3Service;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class BulkImportStepTest {
+    private BulkImportTaskExecutor bulkImportTaskExecutor;
+
+    @After
+    public void tearDown() {
+        if (bulkImportTaskExecutor != null) bulkImportTaskExecutor.destroy();
+    }
+
+    @Test
+    public void shouldWriteChunksOnWorkerThreadsWithJobContext() throws Exception {
+        BulkImportModeDecider bulkImportModeDecider = new BulkImportModeDecider(2, 2);
+        bulkImportTaskExecutor = new BulkImportTaskExecutor(bulkImportModeDecider);
+        Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger rowsWritten = new AtomicInteger();
+        AtomicInteger chunksWithoutJobContext = new AtomicInteger();
+        CsvFileItemWriter csvFileItemWriter = mock(CsvFileItemWriter.class);
+        doAnswer(invocation -> {
+            // job scoped beans such as the writer resolve through the job context of the thread
+            if (JobSynchronizationManager.getContext() == null) chunksWithoutJobContext.incrementAndGet();
+            writerThreads.add(Thread.currentThread().getName());
+            rowsWritten.addAndGet(((Chunk<?>) invocation.getArgument(0)).size());
+            return null;
+        }).when(csvFileItemWriter).write(any());
+
+        BatchConfiguration batchConfiguration = new BatchConfiguration(mock(JobRepository.class), new ResourcelessTransactionManager(), mock(S3Service.class));
+        Step step = batchConfiguration.bulkImportStep(reader(20), csvFileItemWriter, mock(ErrorFileWriterListener.class), bulkImportModeDecider, bulkImportTaskExecutor);
+        JobExecution jobExecution = new JobExecution(1L, new JobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution("bulkImportStep");
+        stepExecution.setId(1L);
+        step.execute(stepExecution);
+
+        assertEquals(BatchStatus.COMPLETED, stepExecution.getStatus());
+        assertEquals(20, rowsWritten.get());
+        assertEquals(0, chunksWithoutJobContext.get());
+        assertTrue(writerThreads.stream().allMatch(name -> name.startsWith("bulk-import-")));
+    }
+
+    @Test
+    public void shouldWriteAsManyChunksAtATimeAsThereAreThreads() throws Exception {
+        int threads = 6;
+        BulkImportModeDecider bulkImportModeDecider = new BulkImportModeDecider(1, threads);
+        bulkImportTaskExecutor = new BulkImportTaskExecutor(bulkImportModeDecider);
+        CountDownLatch allThreadsWriting = new CountDownLatch(threads);
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        CsvFileItemWriter csvFileItemWriter = mock(CsvFileItemWriter.class);
+        doAnswer(invocation -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            allThreadsWriting.countDown();
+            allThreadsWriting.await(5, TimeUnit.SECONDS);
+            writing.decrementAndGet();
+            return null;
+        }).when(csvFileItemWriter).write(any());
+
+        BatchConfiguration batchConfiguration = new BatchConfiguration(mock(JobRepository.class), new ResourcelessTransactionManager(), mock(S3Service.class));
+        Step step = batchConfiguration.bulkImportStep(reader(threads * 2), csvFileItemWriter, mock(ErrorFileWriterListener.class), bulkImportModeDecider, bulkImportTaskExecutor);
+        JobExecution jobExecution = new JobExecution(1L, new JobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution("bulkImportStep");
+        stepExecution.setId(1L);
+        step.execute(stepExecution);
+
+        assertEquals(BatchStatus.COMPLETED, stepExecution.getStatus());
+        assertEquals(threads, maxWriting.get());
+    }
+
+    @Test
+    public void shouldNotCreateThreadsWhenSingleThreaded() {
+        bulkImportTaskExecutor = new BulkImportTaskExecutor(new BulkImportModeDecider(100, 1));
+        assertFalse(bulkImportTaskExecutor.isMultiThreaded());
+        assertNull(bulkImportTaskExecutor.getTaskExecutor());
+    }
+
+    private static SynchronizedItemStreamReader<Row> reader(int rows) {
+        List<Row> rowList = IntStream.range(0, rows)
+                .mapToObj(i -> new Row(new String[]{"Id"}, new String[]{String.valueOf(i)}))
+                .collect(Collectors.toList());
+        Iterator<Row> iterator = rowList.iterator();
+        SynchronizedItemStreamReader<Row> reader = new SynchronizedItemStreamReader<>();
+        reader.setDelegate(new ItemStreamReader<Row>() {
+            @Override
+            public Row read() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+        });
+        return reader;
+    }
+}
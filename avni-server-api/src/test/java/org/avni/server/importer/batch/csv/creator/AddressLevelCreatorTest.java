@@ -1,7 +1,7 @@
 package org.avni.server.importer.batch.csv.creator;
 
-import org.avni.server.dao.AddressLevelTypeRepository;
-import org.avni.server.dao.LocationRepository;
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormElementRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.AddressLevelTypes;
@@ -38,6 +38,12 @@ public class AddressLevelCreatorTest {
         initMocks(this);
     }
 
+    private AddressLevelCreator addressLevelCreator() {
+        ImportMetadataResolver importMetadataResolver = new ImportMetadataResolver(mock(ConceptRepository.class), mock(FormElementRepository.class),
+                mock(ProgramRepository.class), mock(EncounterTypeRepository.class), mock(OperationalSubjectTypeRepository.class), mock(SubjectTypeRepository.class), locationRepository);
+        return new AddressLevelCreator(importMetadataResolver, addressLevelTypeRepository);
+    }
+
     @Test
     public void shouldFindSingleLocationIfOnlyOneFound() throws Exception {
         Row row = new Row(new String[]{"GP"}, new String[]{"gp1"});
@@ -45,7 +51,7 @@ public class AddressLevelCreatorTest {
 
         when(locationRepository.findByTitleAndType(eq("gp1"), eq(child), any())).thenReturn(Collections.singletonList(gp1AddressLevel));
 
-        AddressLevel addressLevel = new AddressLevelCreator(locationRepository, addressLevelTypeRepository).findAddressLevel(row, new AddressLevelTypes(child, parent));
+        AddressLevel addressLevel = addressLevelCreator().findAddressLevel(row, new AddressLevelTypes(child, parent));
         assertThat(addressLevel).isEqualTo(gp1AddressLevel);
 
         verify(locationRepository).findByTitleAndType(eq("gp1"), eq(child), any());
@@ -58,7 +64,7 @@ public class AddressLevelCreatorTest {
         AddressLevel gp1AddressLevel = new AddressLevelBuilder().title("gp1").type(child).build();
 
         when(locationRepository.findByTitleAndType(eq("gp1"), eq(child), any())).thenReturn(Collections.singletonList(gp1AddressLevel));
-        new AddressLevelCreator(locationRepository, addressLevelTypeRepository).findAddressLevel(row, new AddressLevelTypes(child, parent));
+        addressLevelCreator().findAddressLevel(row, new AddressLevelTypes(child, parent));
     }
 
     @Test
@@ -73,7 +79,7 @@ public class AddressLevelCreatorTest {
         when(locationRepository.findByTitleLineageIgnoreCase("aParent, child")).thenReturn(Optional.of(aChild));
         when(addressLevelTypeRepository.getAllAddressLevelTypes()).thenReturn(new AddressLevelTypes(child, parent));
 
-        AddressLevel addressLevel = new AddressLevelCreator(locationRepository, addressLevelTypeRepository).findAddressLevel(row, addressLevelTypeRepository.getAllAddressLevelTypes());
+        AddressLevel addressLevel = addressLevelCreator().findAddressLevel(row, addressLevelTypeRepository.getAllAddressLevelTypes());
         assertThat(addressLevel).isEqualTo(aChild);
 
         verify(locationRepository).findByTitleAndType(eq("child"), eq(child), any());
@@ -88,7 +94,7 @@ public class AddressLevelCreatorTest {
         when(locationRepository.findByTitleAndType(eq("aParent"), eq(parent), any())).thenReturn(Collections.singletonList(aParent));
         when(addressLevelTypeRepository.getAllAddressLevelTypes()).thenReturn(new AddressLevelTypes(child, parent));
 
-        AddressLevel addressLevel = new AddressLevelCreator(locationRepository, addressLevelTypeRepository).findAddressLevel(row, addressLevelTypeRepository.getAllAddressLevelTypes());
+        AddressLevel addressLevel = addressLevelCreator().findAddressLevel(row, addressLevelTypeRepository.getAllAddressLevelTypes());
         assertThat(addressLevel).isEqualTo(aParent);
     }
 }
@@ -0,0 +1,66 @@
+package org.avni.server.importer.batch.csv.creator;
+
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormElementRepository;
+import org.avni.server.domain.Program;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+public class ImportMetadataResolverTest {
+    private final ProgramRepository programRepository = mock(ProgramRepository.class);
+    private ImportMetadataResolver importMetadataResolver;
+    private Program program;
+
+    @Before
+    public void setup() {
+        importMetadataResolver = new ImportMetadataResolver(mock(ConceptRepository.class), mock(FormElementRepository.class), programRepository,
+                mock(EncounterTypeRepository.class), mock(OperationalSubjectTypeRepository.class), mock(SubjectTypeRepository.class), mock(LocationRepository.class));
+        program = new Program();
+        program.setId(1L);
+        program.setName("Pregnancy");
+        Program voidedProgram = new Program();
+        voidedProgram.setId(2L);
+        voidedProgram.setName("Pregnancy");
+        voidedProgram.setVoided(true);
+        when(programRepository.findAll()).thenReturn(Arrays.asList(voidedProgram, program));
+        when(programRepository.findByName("Pregnancy")).thenReturn(program);
+        when(programRepository.findEntity(1L)).thenReturn(program);
+    }
+
+    @After
+    public void tearDown() {
+        if (JobSynchronizationManager.getContext() != null) JobSynchronizationManager.release();
+    }
+
+    @Test
+    public void shouldLoadMetadataOncePerJob() {
+        JobSynchronizationManager.register(new JobExecution(1L));
+
+        assertSame(program, importMetadataResolver.getProgram("Pregnancy"));
+        assertSame(program, importMetadataResolver.getProgram("Pregnancy"));
+        assertNull(importMetadataResolver.getProgram("Child"));
+
+        verify(programRepository, times(1)).findAll();
+        verify(programRepository, never()).findByName(any());
+        // read by id on every lookup, so that each chunk gets the program in its own session
+        verify(programRepository, times(2)).findEntity(1L);
+        verify(programRepository, never()).findEntity(2L);
+    }
+
+    @Test
+    public void shouldLookUpRepositoryOutsideJob() {
+        assertSame(program, importMetadataResolver.getProgram("Pregnancy"));
+
+        verify(programRepository).findByName("Pregnancy");
+        verify(programRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,65 @@
+package org.avni.server.importer.batch.sync.attributes;
+
+import org.junit.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkedBackfillTaskletTest {
+    private static class RecordingTasklet extends ChunkedBackfillTasklet {
+        private final List<String> chunks = new ArrayList<>();
+
+        private RecordingTasklet() {
+            ReflectionTestUtils.setField(this, "chunkSize", 2);
+            ReflectionTestUtils.setField(this, "pauseMillis", 0L);
+        }
+
+        @Override
+        protected Long getChunkEnd(long afterCursor, int chunkSize) {
+            return afterCursor < 5 ? Math.min(afterCursor + chunkSize, 5) : null;
+        }
+
+        @Override
+        protected int backfill(long afterCursor, long toCursor, ExecutionContext stepExecutionContext) {
+            chunks.add(afterCursor + "-" + toCursor);
+            return (int) (toCursor - afterCursor);
+        }
+
+        @Override
+        protected long getTotal() {
+            return 5;
+        }
+    }
+
+    private static RepeatStatus execute(ChunkedBackfillTasklet tasklet, StepExecution stepExecution) {
+        return tasklet.execute(new StepContribution(stepExecution), new ChunkContext(new StepContext(stepExecution)));
+    }
+
+    @Test
+    public void shouldBackfillAChunkPerExecutionAndContinueFromSavedCursor() {
+        StepExecution stepExecution = new StepExecution("backfill", new JobExecution(1L));
+        RecordingTasklet tasklet = new RecordingTasklet();
+        assertEquals(RepeatStatus.CONTINUABLE, execute(tasklet, stepExecution));
+        assertEquals(RepeatStatus.CONTINUABLE, execute(tasklet, stepExecution));
+
+        StepExecution restartedStepExecution = new StepExecution("backfill", new JobExecution(2L));
+        restartedStepExecution.setExecutionContext(new ExecutionContext(stepExecution.getExecutionContext()));
+        RecordingTasklet restartedTasklet = new RecordingTasklet();
+        assertEquals(RepeatStatus.CONTINUABLE, execute(restartedTasklet, restartedStepExecution));
+        assertEquals(RepeatStatus.FINISHED, execute(restartedTasklet, restartedStepExecution));
+
+        assertEquals(List.of("0-2", "2-4"), tasklet.chunks);
+        assertEquals(List.of("4-5"), restartedTasklet.chunks);
+        assertEquals(5L, restartedStepExecution.getExecutionContext().getLong("backfill.done"));
+    }
+}
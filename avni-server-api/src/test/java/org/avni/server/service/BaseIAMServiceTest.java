@@ -0,0 +1,25 @@
+package org.avni.server.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BaseIAMServiceTest {
+    private static DecodedJWT tokenExpiringAt(long expiresAtInMillis) throws Exception {
+        return JWT.decode(JWT.create().withExpiresAt(new Date(expiresAtInMillis)).sign(Algorithm.HMAC256("secret")));
+    }
+
+    @Test
+    public void shouldTakeCachedTokenAsNotExpiredWithinTheVerifierLeeway() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(BaseIAMService.isNotExpired(tokenExpiringAt(now + 60_000), now));
+        assertTrue(BaseIAMService.isNotExpired(tokenExpiringAt(now - 60_000), now));
+        assertFalse(BaseIAMService.isNotExpired(tokenExpiringAt(now - 300_000), now));
+    }
+}
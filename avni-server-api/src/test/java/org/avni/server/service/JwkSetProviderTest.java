@@ -0,0 +1,124 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JwkSetProviderTest {
+    private List<Jwk> published;
+    private int fetches;
+    private Set<String> droppedKeyIds;
+    private JwkSetProvider provider;
+
+    @Before
+    public void setup() {
+        published = new ArrayList<>(Arrays.asList(jwk("key1")));
+        fetches = 0;
+        droppedKeyIds = new HashSet<>();
+        provider = provider(0, 60_000);
+    }
+
+    private JwkSetProvider provider(long minFetchIntervalInMillis, long maxAgeInMillis) {
+        return new JwkSetProvider(() -> {
+            fetches++;
+            return new ArrayList<>(published);
+        }, minFetchIntervalInMillis, maxAgeInMillis, droppedKeyIds::addAll);
+    }
+
+    private static Jwk jwk(String keyId) {
+        Jwk jwk = mock(Jwk.class);
+        when(jwk.getId()).thenReturn(keyId);
+        return jwk;
+    }
+
+    private boolean isFound(String keyId) throws Exception {
+        try {
+            provider.get(keyId);
+            return true;
+        } catch (SigningKeyNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void shouldFetchKeySetOnlyForKeyIdsNotInIt() throws Exception {
+        assertEquals("key1", provider.get("key1").getId());
+        assertEquals("key1", provider.get("key1").getId());
+        assertEquals(1, fetches);
+    }
+
+    @Test
+    public void shouldFindRotatedKeyAfterMissForKeyOfAnotherProvider() throws Exception {
+        provider.get("key1");
+        assertFalse(isFound("keyOfAnotherProvider"));
+
+        published.add(jwk("key2"));
+        assertTrue(isFound("key2"));
+        assertEquals(3, fetches);
+    }
+
+    @Test
+    public void shouldNotFetchAgainForKeyIdNotFoundRecently() throws Exception {
+        assertFalse(isFound("bogus"));
+        assertFalse(isFound("bogus"));
+        assertFalse(isFound("bogus"));
+        assertEquals(1, fetches);
+    }
+
+    @Test
+    public void shouldWaitForNextFetchInsteadOfRejectingWhenFetchedRecently() throws Exception {
+        provider = provider(50, 60_000);
+        provider.get("key1");
+        published.add(jwk("key2"));
+
+        long startedAt = System.currentTimeMillis();
+        assertEquals("key2", provider.get("key2").getId());
+        assertTrue(System.currentTimeMillis() - startedAt >= 40);
+        assertEquals(2, fetches);
+    }
+
+    @Test
+    public void shouldFetchAgainWhenKeySetIsOlderThanMaxAgeAndStopAcceptingDroppedKeys() throws Exception {
+        provider = provider(0, 20);
+        provider.get("key1");
+        published.clear();
+        published.add(jwk("key2"));
+
+        Thread.sleep(30);
+        assertFalse(isFound("key1"));
+        assertEquals(Collections.singleton("key1"), droppedKeyIds);
+        assertTrue(isFound("key2"));
+    }
+
+    @Test
+    public void shouldNotHoldTheLockWhileWaitingForTheFetchInterval() throws Exception {
+        provider = provider(500, 60_000);
+        provider.get("key1");
+        published.add(jwk("key2"));
+        Thread waiter = new Thread(() -> isFoundQuietly("key2"));
+        waiter.start();
+        Thread.sleep(50);
+
+        long startedAt = System.currentTimeMillis();
+        synchronized (provider) {
+            assertTrue(System.currentTimeMillis() - startedAt < 250);
+        }
+        waiter.join();
+        assertEquals(2, fetches);
+    }
+
+    private void isFoundQuietly(String keyId) {
+        try {
+            isFound(keyId);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
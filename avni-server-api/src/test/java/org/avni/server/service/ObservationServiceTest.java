@@ -6,13 +6,16 @@ import org.avni.server.dao.IndividualRepository;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.dao.application.FormRepository;
 import org.avni.server.domain.Concept;
+import org.avni.server.domain.Individual;
 import org.avni.server.domain.ConceptAnswer;
 import org.avni.server.domain.ConceptDataType;
 import org.avni.server.domain.ObservationCollection;
 import org.avni.server.domain.factory.metadata.ConceptBuilder;
 import org.avni.server.domain.factory.metadata.TestFormBuilder;
 import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.request.ObservationModelContract;
 import org.avni.server.web.request.ObservationRequest;
+import org.avni.server.web.request.rules.constructWrappers.ContractConstructionContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -21,8 +24,10 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class ObservationServiceTest {
@@ -129,4 +134,29 @@ public class ObservationServiceTest {
         assertEquals(2, maxNumberOfObservationSets.get(groupFormElement1).intValue());
         assertEquals(null, maxNumberOfObservationSets.get(groupFormElement2));
     }
+
+    @Test
+    public void shouldLoadReferencesOfAllObservationsInBulkWhileConstructingContract() {
+        Concept weight = new ConceptBuilder().withName("Weight").withUuid("weight").withDataType(ConceptDataType.Numeric).build();
+        Concept mother = new ConceptBuilder().withName("Mother").withUuid("mother").withDataType(ConceptDataType.Subject).build();
+        Individual motherSubject = new Individual();
+        motherSubject.setUuid("mother-subject");
+        when(conceptRepository.findByUuids(new HashSet<>(Arrays.asList("weight", "mother")))).thenReturn(Arrays.asList(weight, mother));
+        when(individualRepository.findAllByUuidIn(Collections.singleton("mother-subject"))).thenReturn(Collections.singletonList(motherSubject));
+
+        ObservationCollection registration = new ObservationCollection(Collections.<String, Object>singletonMap("mother", "mother-subject"));
+        ObservationCollection encounter = new ObservationCollection(Collections.<String, Object>singletonMap("weight", 10));
+        try (ContractConstructionContext ignored = ContractConstructionContext.open()) {
+            observationService.prefetchObservationReferences(Arrays.asList(registration, encounter));
+            List<ObservationModelContract> registrationContracts = observationService.constructObservationModelContracts(registration);
+            observationService.constructObservationModelContracts(encounter);
+
+            assertSame(registrationContracts, observationService.constructObservationModelContracts(registration));
+        }
+
+        verify(conceptRepository, times(1)).findByUuids(any());
+        verify(conceptRepository, never()).findByUuid(anyString());
+        verify(individualRepository, never()).findByUuid(anyString());
+        assertEquals(null, ContractConstructionContext.current());
+    }
 }
@@ -28,7 +28,7 @@ public class OrganisationConfigServiceTest {
         JsonObject settings = new JsonObject().with(OrganisationConfigSettingKey.customRegistrationLocations.name(), true);
         organisationConfig.setSettings(settings);
         when(organisationRepository.findByOrganisationId(25l)).thenReturn(organisationConfig);
-        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationRepository, null, null, null);
+        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationRepository, null, null, null, mock(SearchableConceptIndexService.class));
 
         Organisation organisation = new Organisation();
         organisation.setId(25l);
@@ -56,7 +56,7 @@ public class OrganisationConfigServiceTest {
         JsonObject settings = new JsonObject().with(OrganisationConfigSettingKey.enableMessaging.name(), true);
         organisationConfigWithMessagingEnabled.setSettings(settings);
         when(organisationConfigRepository.findByOrganisationId(organisationId)).thenReturn(organisationConfigWithoutMessagingEnabled).thenReturn(organisationConfigWithMessagingEnabled);
-        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationConfigRepository, null, null, null);
+        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationConfigRepository, null, null, null, mock(SearchableConceptIndexService.class));
 
         assertThat(organisationConfigService.isMessagingEnabled(), is(false));
         assertThat(organisationConfigService.isMessagingEnabled(), is(true));
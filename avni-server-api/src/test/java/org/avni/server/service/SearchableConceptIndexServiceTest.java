@@ -0,0 +1,53 @@
+package org.avni.server.service;
+
+import org.avni.server.service.SearchableConceptIndexService.SearchableConcept;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SearchableConceptIndexServiceTest {
+    private static final String TEXT_CONCEPT = "b4e5a662-97bf-4846-b9b7-9baeab4d89c4";
+    private static final String ID_CONCEPT = "0d4f5c4e-6fb5-4f0b-8a8e-5d1c6b0c1a2f";
+
+    @Test
+    public void shouldIndexTextAndIdConceptsOnTheTableOfTheirScope() {
+        List<Object> searchFilters = Arrays.asList(
+                searchFilter(TEXT_CONCEPT, "Text", "registration"),
+                searchFilter(ID_CONCEPT, "Id", "programEncounter"),
+                searchFilter(TEXT_CONCEPT, "Text", "registration"));
+
+        List<SearchableConcept> searchableConcepts = new ArrayList<>(SearchableConceptIndexService.getSearchableConcepts(searchFilters));
+
+        assertEquals(2, searchableConcepts.size());
+        assertEquals("individual", searchableConcepts.get(0).getTableName());
+        assertEquals(TEXT_CONCEPT, searchableConcepts.get(0).getConceptUuid());
+        assertEquals("program_encounter", searchableConcepts.get(1).getTableName());
+        assertEquals(ID_CONCEPT, searchableConcepts.get(1).getConceptUuid());
+    }
+
+    @Test
+    public void shouldNotIndexOtherFilters() {
+        Map<String, Object> nameFilter = new HashMap<>();
+        nameFilter.put("type", "Name");
+        List<Object> searchFilters = Arrays.asList(
+                nameFilter,
+                searchFilter(TEXT_CONCEPT, "Coded", "registration"),
+                searchFilter(TEXT_CONCEPT, "Text", null),
+                searchFilter("'; drop table individual; --", "Text", "registration"));
+
+        assertTrue(SearchableConceptIndexService.getSearchableConcepts(searchFilters).isEmpty());
+        assertTrue(SearchableConceptIndexService.getSearchableConcepts(null).isEmpty());
+    }
+
+    private static Map<String, Object> searchFilter(String conceptUuid, String conceptDataType, String scope) {
+        Map<String, Object> searchFilter = new HashMap<>();
+        searchFilter.put("type", "Concept");
+        searchFilter.put("conceptUUID", conceptUuid);
+        searchFilter.put("conceptDataType", conceptDataType);
+        searchFilter.put("scope", scope);
+        return searchFilter;
+    }
+}
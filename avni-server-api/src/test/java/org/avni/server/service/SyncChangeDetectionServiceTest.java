@@ -0,0 +1,111 @@
+package org.avni.server.service;
+
+import com.google.common.cache.CacheBuilder;
+import org.avni.server.dao.MetadataChangeRepository;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.sync.SyncEntityName;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.avni.server.framework.cache.WriteEvictedCache;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SyncChangeDetectionServiceTest {
+    @Test
+    public void shouldDetectChangesFromSingleAggregateQuery() {
+        MetadataChangeRepository metadataChangeRepository = mock(MetadataChangeRepository.class);
+        DateTime loadedSince = new DateTime(2024, 1, 10, 0, 0);
+        Map<String, Date> lastModifiedDateTimes = new HashMap<>();
+        lastModifiedDateTimes.put("concept", loadedSince.plusDays(1).toDate());
+        lastModifiedDateTimes.put("form", loadedSince.minusDays(1).toDate());
+        lastModifiedDateTimes.put("video", null);
+        when(metadataChangeRepository.getLastModifiedDateTimes(anyCollection())).thenReturn(lastModifiedDateTimes);
+
+        SyncChangeDetectionService.MetadataLastModified metadataLastModified = new SyncChangeDetectionService(metadataChangeRepository, new MetadataChangeWatermarkCache(new ConcurrentMapCacheManager())).getMetadataLastModified();
+
+        assertTrue(metadataLastModified.isChanged(SyncEntityName.Concept, loadedSince));
+        assertFalse(metadataLastModified.isChanged(SyncEntityName.Form, loadedSince));
+        assertFalse(metadataLastModified.isChanged(SyncEntityName.Video, loadedSince));
+        assertTrue(metadataLastModified.covers(SyncEntityName.Video));
+        assertFalse(metadataLastModified.covers(SyncEntityName.Individual));
+        assertFalse(metadataLastModified.covers(SyncEntityName.UserInfo));
+    }
+
+    @Test
+    public void shouldServeWatermarksFromCachePerOrganisation() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CacheConfiguration.class)) {
+            MetadataChangeWatermarkCache cache = context.getBean(MetadataChangeWatermarkCache.class);
+            SyncChangeDetectionService.MetadataLastModified watermark = new SyncChangeDetectionService.MetadataLastModified(new HashMap<>());
+
+            assertSame(watermark, cache.get(1L, () -> watermark));
+            assertSame(watermark, cache.get(1L, () -> null));
+            assertNull(cache.get(2L, () -> null));
+
+            context.getBean(CacheManager.class).getCache(MetadataChangeWatermarkCache.METADATA_CHANGE_WATERMARKS).clear();
+            assertNull(cache.get(1L, () -> null));
+
+            assertSame(watermark, cache.get(null, () -> watermark));
+            assertNull(cache.get(null, () -> null));
+        }
+    }
+
+    @Test
+    public void shouldNotCacheWatermarkLoadedWhileMetadataWasWritten() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CacheConfiguration.class)) {
+            MetadataChangeWatermarkCache cache = context.getBean(MetadataChangeWatermarkCache.class);
+            WriteEvictedCache watermarks = (WriteEvictedCache) context.getBean(CacheManager.class).getCache(MetadataChangeWatermarkCache.METADATA_CHANGE_WATERMARKS);
+            EntityWriteCacheEvictor cacheEvictor = new EntityWriteCacheEvictor(watermarks, Collections.singleton(Concept.class));
+            SyncChangeDetectionService.MetadataLastModified stale = new SyncChangeDetectionService.MetadataLastModified(new HashMap<>());
+            SyncChangeDetectionService.MetadataLastModified current = new SyncChangeDetectionService.MetadataLastModified(new HashMap<>());
+
+            assertSame(stale, cache.get(1L, () -> {
+                cacheEvictor.evictIfInvalidating(new Concept());
+                return stale;
+            }));
+            assertSame(current, cache.get(1L, () -> current));
+            assertSame(current, cache.get(1L, () -> stale));
+
+            assertEquals(1, watermarks.getHitCount());
+            assertEquals(2, watermarks.getMissCount());
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheConfiguration {
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager() {
+                @Override
+                protected Cache createConcurrentMapCache(String name) {
+                    return new WriteEvictedCache(name, CacheBuilder.newBuilder().recordStats().build());
+                }
+            };
+        }
+
+        @Bean
+        public MetadataChangeWatermarkCache metadataChangeWatermarkCache(CacheManager cacheManager) {
+            return new MetadataChangeWatermarkCache(cacheManager);
+        }
+    }
+}
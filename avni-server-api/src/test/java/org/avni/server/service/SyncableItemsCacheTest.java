@@ -0,0 +1,78 @@
+package org.avni.server.service;
+
+import org.avni.server.domain.*;
+import org.avni.server.framework.cache.EntityWriteCacheEvictor;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SyncableItemsCacheTest {
+    @Test
+    public void shouldCacheSyncableItemsPerUser() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CacheConfiguration.class)) {
+            SyncableItemsCache syncableItemsCache = context.getBean(SyncableItemsCache.class);
+            Organisation organisation = new Organisation();
+            organisation.setId(1L);
+            AtomicInteger loads = new AtomicInteger();
+
+            syncableItemsCache.get(organisation, user(1L), false, false, () -> load(loads));
+            syncableItemsCache.get(organisation, user(1L), false, false, () -> load(loads));
+            assertEquals(1, loads.get());
+
+            syncableItemsCache.get(organisation, user(2L), false, false, () -> load(loads));
+            syncableItemsCache.get(organisation, user(1L), true, false, () -> load(loads));
+            syncableItemsCache.get(null, null, false, false, () -> load(loads));
+            assertEquals(4, loads.get());
+        }
+    }
+
+    @Test
+    public void shouldEvictOnWritesOfProgramsAndEncounterTypes() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(SyncableItemsCache.SYNCABLE_ITEMS);
+        EntityWriteCacheEvictor cacheEvictor = new EntityWriteCacheEvictor(cache, SyncableItemsCache.INVALIDATING_ENTITY_TYPES);
+
+        for (Object entity : new Object[]{new Program(), new OperationalProgram(), new EncounterType(), new OperationalEncounterType()}) {
+            cache.put("key", Collections.emptySet());
+            cacheEvictor.evictIfInvalidating(entity);
+            assertNull(entity.getClass().getSimpleName(), cache.get("key"));
+        }
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Set<SyncableItem> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Collections.emptySet();
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheConfiguration {
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        public SyncableItemsCache syncableItemsCache(CacheManager cacheManager) {
+            return new SyncableItemsCache(cacheManager);
+        }
+    }
+}
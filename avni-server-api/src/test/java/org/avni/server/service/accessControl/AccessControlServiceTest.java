@@ -1,16 +1,25 @@
 package org.avni.server.service.accessControl;
 
+import org.avni.server.dao.PrivilegeMatrixRepository;
 import org.avni.server.dao.PrivilegeRepository;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
 import org.avni.server.domain.accessControl.AvniAccessException;
+import org.avni.server.domain.accessControl.Privilege;
+import org.avni.server.domain.accessControl.PrivilegeMatrix;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.domain.factory.UserBuilder;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
-import static org.mockito.Mockito.when;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class AccessControlServiceTest {
@@ -18,6 +27,8 @@ public class AccessControlServiceTest {
     private UserRepository userRepository;
     @Mock
     private PrivilegeRepository privilegeRepository;
+    @Mock
+    private PrivilegeMatrixRepository privilegeMatrixRepository;
 
     @Before
     public void setup() {
@@ -25,20 +36,55 @@ public class AccessControlServiceTest {
         when(userRepository.hasAllPrivileges(1L)).thenReturn(false);
     }
 
+    private AccessControlService createAccessControlService() {
+        PrivilegeMatrixService privilegeMatrixService = new PrivilegeMatrixService(userRepository, privilegeRepository, privilegeMatrixRepository, new ConcurrentMapCacheManager());
+        return new AccessControlService(privilegeMatrixService, null, null, null);
+    }
+
+    private void allowAdmin(PrivilegeType privilegeType) {
+        Privilege privilege = mock(Privilege.class);
+        when(privilege.getType()).thenReturn(privilegeType);
+        when(privilegeRepository.getAdminPrivileges()).thenReturn(Collections.singletonList(privilege));
+    }
+
     @Test
     public void adminHasPrivilegeForNonTxn() {
-        AccessControlService accessControlService = new AccessControlService(userRepository, null, null, null, privilegeRepository, null, null, null);
+        allowAdmin(PrivilegeType.EditSubjectType);
+        AccessControlService accessControlService = createAccessControlService();
         User user = new UserBuilder().id(1L).isAdmin(true).build();
-        when(privilegeRepository.isAllowedForAdmin(PrivilegeType.EditSubjectType)).thenReturn(true);
         accessControlService.checkPrivilege(user, PrivilegeType.EditSubjectType);
     }
 
     @Test(expected = AvniAccessException.class)
     public void adminDoesntHavePrivilegeTxn() {
-        initMocks(this);
-        AccessControlService accessControlService = new AccessControlService(userRepository, null, null, null, privilegeRepository, null, null, null);
+        allowAdmin(PrivilegeType.EditSubjectType);
+        AccessControlService accessControlService = createAccessControlService();
         User user = new UserBuilder().id(1L).isAdmin(true).build();
-        when(privilegeRepository.isAllowedForAdmin(PrivilegeType.EditSubject)).thenReturn(false);
         accessControlService.checkPrivilege(user, PrivilegeType.EditSubject);
     }
+
+    @Test
+    public void checksSubjectPrivilegesWithoutFurtherQueries() {
+        when(privilegeMatrixRepository.getSubjectTypeIds()).thenReturn(Collections.singletonMap("st-1", 10L));
+        doAnswer(invocation -> {
+            invocation.<PrivilegeMatrix>getArgument(1).allow(PrivilegeType.ViewSubject, 10L, null, null, null);
+            return null;
+        }).when(privilegeMatrixRepository).loadAllowedPrivileges(eq(1L), any(PrivilegeMatrix.class));
+        AccessControlService accessControlService = createAccessControlService();
+        User user = new UserBuilder().id(1L).build();
+
+        accessControlService.checkSubjectPrivilege(user, PrivilegeType.ViewSubject, "st-1");
+        accessControlService.checkSubjectPrivilege(user, PrivilegeType.EditSubject, "unknown-subject-type");
+        accessControlService.checkPrivilege(user, PrivilegeType.ViewSubject);
+
+        verify(userRepository, times(1)).hasAllPrivileges(1L);
+        verify(privilegeMatrixRepository, times(1)).loadAllowedPrivileges(anyLong(), any(PrivilegeMatrix.class));
+    }
+
+    @Test(expected = AvniAccessException.class)
+    public void failsSubjectPrivilegeNotAllowedForSubjectType() {
+        when(privilegeMatrixRepository.getSubjectTypeIds()).thenReturn(Collections.singletonMap("st-1", 10L));
+        AccessControlService accessControlService = createAccessControlService();
+        accessControlService.checkSubjectPrivilege(new UserBuilder().id(1L).build(), PrivilegeType.EditSubject, "st-1");
+    }
 }
@@ -0,0 +1,101 @@
+package org.avni.server.web.external;
+
+import org.avni.server.dao.RuleDependencyRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.RuleDependency;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class EmbeddedRuleExecutorTest {
+    // Stands in for the webpack bundle of ruleInvoker.js, which exposes its exports as the global ruleInvoker
+    private static final String INVOKER = "var ruleInvoker = {\n" +
+            "  execute: function (api, requestJson, ruleDependency) {\n" +
+            "    var request = JSON.parse(requestJson);\n" +
+            "    return JSON.stringify({status: 'success', api: api, name: request.name, common: ruleDependency ? ruleDependency.name : null});\n" +
+            "  },\n" +
+            "  captureRuleDependency: function () {\n" +
+            "    var ruleDependency = globalThis.ruleServiceLibraryInterfaceForSharingModules;\n" +
+            "    globalThis.ruleServiceLibraryInterfaceForSharingModules = undefined;\n" +
+            "    return ruleDependency;\n" +
+            "  }\n" +
+            "};";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private RuleDependencyRepository ruleDependencyRepository;
+    private EmbeddedRuleExecutor embeddedRuleExecutor;
+
+    @Before
+    public void setup() throws Exception {
+        File invoker = temporaryFolder.newFile("ruleInvoker.js");
+        Files.write(invoker.toPath(), INVOKER.getBytes(StandardCharsets.UTF_8));
+        ruleDependencyRepository = mock(RuleDependencyRepository.class);
+        embeddedRuleExecutor = new EmbeddedRuleExecutor(ruleDependencyRepository, invoker.getPath(), 1, 2000, new ConcurrentMapCacheManager());
+        embeddedRuleExecutor.start();
+
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        organisation.setUuid("org-uuid");
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+        embeddedRuleExecutor.stop();
+    }
+
+    @Test
+    public void shouldRunRequestWithOrganisationRuleDependency() {
+        RuleDependency ruleDependency = new RuleDependency();
+        ruleDependency.setChecksum("c1");
+        ruleDependency.setCode("var ruleServiceLibraryInterfaceForSharingModules = {name: 'common'};");
+        when(ruleDependencyRepository.findByOrganisationId(1L)).thenReturn(ruleDependency);
+
+        Map<?, ?> first = embeddedRuleExecutor.execute("/api/rules", Map.of("name", "first"), Map.class);
+        Map<?, ?> second = embeddedRuleExecutor.execute("/api/rules", Map.of("name", "second"), Map.class);
+
+        assertEquals("success", first.get("status"));
+        assertEquals("/api/rules", first.get("api"));
+        assertEquals("first", first.get("name"));
+        assertEquals("common", first.get("common"));
+        assertEquals("second", second.get("name"));
+        assertEquals("common", second.get("common"));
+        verify(ruleDependencyRepository, times(1)).findByOrganisationId(1L);
+    }
+
+    @Test
+    public void shouldRunRequestWithoutRuleDependency() {
+        Map<?, ?> response = embeddedRuleExecutor.execute("/api/summaryRule", Map.of("name", "summary"), Map.class);
+
+        assertEquals("summary", response.get("name"));
+        assertNull(response.get("common"));
+    }
+
+    @Test
+    public void shouldSupportOnlyApisOfRuleInvoker() {
+        assertTrue(embeddedRuleExecutor.supports("/api/rules"));
+        assertTrue(embeddedRuleExecutor.supports("/api/messagingRule"));
+        assertFalse(embeddedRuleExecutor.supports("/api/upload"));
+    }
+}
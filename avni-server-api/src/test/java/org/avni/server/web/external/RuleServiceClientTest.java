@@ -0,0 +1,198 @@
+package org.avni.server.web.external;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.importer.batch.csv.contract.UploadRuleServerResponseContract;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.request.rules.request.BatchRuleRequest;
+import org.avni.server.web.request.rules.response.BatchRuleResponse;
+import org.avni.server.web.request.rules.response.ScheduleRuleResponseEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RuleServiceClientTest {
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private RuleServiceClient ruleServiceClient;
+
+    @Before
+    public void setup() {
+        restTemplate = mock(RestTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ruleServiceClient = new RuleServiceClient(restTemplate, Optional.empty(), meterRegistry, 1, 100, 600, true);
+        ReflectionTestUtils.setField(ruleServiceClient, "NODE_SERVER_HOST", "http://rules");
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(new Organisation());
+        UserContextHolder.create(userContext);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    private static ScheduleRuleResponseEntity response(String status) {
+        ScheduleRuleResponseEntity response = new ScheduleRuleResponseEntity();
+        response.setStatus(status);
+        return response;
+    }
+
+    @Test
+    public void shouldReturnBatchResponsesInOrderOfRequests() {
+        BatchRuleResponse batchResponse = new BatchRuleResponse();
+        batchResponse.setResponses(Arrays.asList(
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("success")),
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("failure"))));
+        when(restTemplate.postForObject(eq("http://rules/api/batch"), any(HttpEntity.class), eq(BatchRuleResponse.class))).thenReturn(batchResponse);
+
+        List<ScheduleRuleResponseEntity> responses = ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("a", "b"), ScheduleRuleResponseEntity.class);
+
+        assertEquals("success", responses.get(0).getStatus());
+        assertEquals("failure", responses.get(1).getStatus());
+        verify(restTemplate, never()).postForObject(eq("http://rules/api/messagingRule"), any(), any());
+    }
+
+    @Test
+    public void shouldPostEachRequestWhenRuleServerDoesNotSupportBatch() {
+        when(restTemplate.postForObject(eq("http://rules/api/batch"), any(HttpEntity.class), eq(BatchRuleResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        when(restTemplate.postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class)))
+                .thenReturn(response("success"), response("failure"), response("success"), response("success"));
+
+        List<ScheduleRuleResponseEntity> responses = ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("a", "b"), ScheduleRuleResponseEntity.class);
+        assertEquals("success", responses.get(0).getStatus());
+        assertEquals("failure", responses.get(1).getStatus());
+
+        ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("c", "d"), ScheduleRuleResponseEntity.class);
+        verify(restTemplate, times(1)).postForObject(eq("http://rules/api/batch"), any(HttpEntity.class), eq(BatchRuleResponse.class));
+        verify(restTemplate, times(4)).postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class));
+    }
+
+    @Test
+    public void shouldPostEachRequestToNodeServerWhenBatchIsNotEnabled() {
+        ruleServiceClient = new RuleServiceClient(restTemplate, Optional.empty(), meterRegistry, 1, 100, 600, false);
+        ReflectionTestUtils.setField(ruleServiceClient, "NODE_SERVER_HOST", "http://rules");
+        when(restTemplate.postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class)))
+                .thenReturn(response("success"), response("failure"));
+
+        List<ScheduleRuleResponseEntity> responses = ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("a", "b"), ScheduleRuleResponseEntity.class);
+
+        assertEquals("success", responses.get(0).getStatus());
+        assertEquals("failure", responses.get(1).getStatus());
+        verify(restTemplate, never()).postForObject(eq("http://rules/api/batch"), any(), any());
+    }
+
+    @Test
+    public void shouldBatchOnEmbeddedEngineWhenNodeServerBatchIsNotEnabled() {
+        EmbeddedRuleExecutor embeddedRuleExecutor = mock(EmbeddedRuleExecutor.class);
+        when(embeddedRuleExecutor.supports("/api/messagingRule")).thenReturn(true);
+        ruleServiceClient = new RuleServiceClient(restTemplate, Optional.of(embeddedRuleExecutor), meterRegistry, 1, 100, 600, false);
+        BatchRuleResponse batchResponse = new BatchRuleResponse();
+        batchResponse.setResponses(Arrays.asList(
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("success")),
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("success"))));
+        when(embeddedRuleExecutor.execute(eq("/api/batch"), any(BatchRuleRequest.class), eq(BatchRuleResponse.class))).thenReturn(batchResponse);
+
+        List<ScheduleRuleResponseEntity> responses = ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("a", "b"), ScheduleRuleResponseEntity.class);
+
+        assertEquals(2, responses.size());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    public void shouldPostEachUploadToNodeServerWhenEmbeddedEngineDoesNotHaveUpload() {
+        EmbeddedRuleExecutor embeddedRuleExecutor = mock(EmbeddedRuleExecutor.class);
+        when(embeddedRuleExecutor.supports("/api/upload")).thenReturn(false);
+        ruleServiceClient = new RuleServiceClient(restTemplate, Optional.of(embeddedRuleExecutor), meterRegistry, 1, 100, 600, false);
+        ReflectionTestUtils.setField(ruleServiceClient, "NODE_SERVER_HOST", "http://rules");
+        when(restTemplate.postForObject(eq("http://rules/api/upload"), any(HttpEntity.class), eq(UploadRuleServerResponseContract.class)))
+                .thenReturn(UploadRuleServerResponseContract.nullObject());
+
+        List<UploadRuleServerResponseContract> responses = ruleServiceClient.postBatch("/api/upload", Arrays.asList("a", "b", "c"), UploadRuleServerResponseContract.class);
+
+        assertEquals(3, responses.size());
+        verify(restTemplate, times(3)).postForObject(eq("http://rules/api/upload"), any(HttpEntity.class), eq(UploadRuleServerResponseContract.class));
+        verify(restTemplate, never()).postForObject(eq("http://rules/api/batch"), any(), any());
+        verify(embeddedRuleExecutor, never()).execute(any(), any(), any());
+    }
+
+    @Test
+    public void shouldTryBatchAgainAfterRetryInterval() {
+        ruleServiceClient = new RuleServiceClient(restTemplate, Optional.empty(), meterRegistry, 1, 100, 0, true);
+        ReflectionTestUtils.setField(ruleServiceClient, "NODE_SERVER_HOST", "http://rules");
+        BatchRuleResponse batchResponse = new BatchRuleResponse();
+        batchResponse.setResponses(Arrays.asList(
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("success")),
+                ObjectMapperSingleton.getObjectMapper().valueToTree(response("success"))));
+        when(restTemplate.postForObject(eq("http://rules/api/batch"), any(HttpEntity.class), eq(BatchRuleResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .thenReturn(batchResponse);
+        when(restTemplate.postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class))).thenReturn(response("success"));
+
+        ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("a", "b"), ScheduleRuleResponseEntity.class);
+        ruleServiceClient.postBatch("/api/messagingRule", Arrays.asList("c", "d"), ScheduleRuleResponseEntity.class);
+
+        verify(restTemplate, times(2)).postForObject(eq("http://rules/api/batch"), any(HttpEntity.class), eq(BatchRuleResponse.class));
+        verify(restTemplate, times(2)).postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class));
+    }
+
+    @Test
+    public void shouldTimeCallsPerApi() {
+        when(restTemplate.postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class))).thenReturn(response("success"));
+
+        ruleServiceClient.post("/api/messagingRule", "a", ScheduleRuleResponseEntity.class);
+
+        assertEquals(1, meterRegistry.get("avni.rule.server.requests").tags("api", "/api/messagingRule", "engine", "node", "outcome", "success").timer().count());
+    }
+
+    @Test
+    public void shouldRejectCallsBeyondConcurrencyLimit() throws InterruptedException {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.postForObject(eq("http://rules/api/messagingRule"), any(HttpEntity.class), eq(ScheduleRuleResponseEntity.class))).thenAnswer(invocation -> {
+            inCall.countDown();
+            release.await();
+            return response("success");
+        });
+        UserContext userContext = UserContextHolder.getUserContext();
+        Thread slowCall = new Thread(() -> {
+            UserContextHolder.create(userContext);
+            ruleServiceClient.post("/api/messagingRule", "a", ScheduleRuleResponseEntity.class);
+        });
+        slowCall.start();
+        assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+        try {
+            ruleServiceClient.post("/api/messagingRule", "b", ScheduleRuleResponseEntity.class);
+            fail("Expected the call to be rejected");
+        } catch (HttpServerErrorException e) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        } finally {
+            release.countDown();
+            slowCall.join();
+        }
+        assertEquals(1.0, meterRegistry.get("avni.rule.server.rejected").counter().count(), 0);
+    }
+}
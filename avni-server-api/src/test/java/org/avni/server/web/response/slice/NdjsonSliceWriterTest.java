@@ -0,0 +1,39 @@
+package org.avni.server.web.response.slice;
+
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NdjsonSliceWriterTest {
+    @Test
+    public void shouldWriteOneFlatRowPerLine() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SliceImpl<Row> slice = new SliceImpl<>(Arrays.asList(new Row("a"), new Row("b")), PageRequest.of(0, 2), true);
+
+        NdjsonSliceWriter.write(slice, row -> Collections.singletonMap("parentUUID", row.getUuid() + "-parent"), response);
+
+        assertEquals(NdjsonSliceWriter.MEDIA_TYPE, response.getContentType().split(";")[0]);
+        assertEquals("true", response.getHeader(NdjsonSliceWriter.HAS_NEXT_HEADER));
+        assertNull(response.getHeader(NdjsonSliceWriter.CONTINUATION_TOKEN_HEADER));
+        assertEquals("{\"uuid\":\"a\",\"parentUUID\":\"a-parent\"}\n{\"uuid\":\"b\",\"parentUUID\":\"b-parent\"}\n", response.getContentAsString());
+    }
+
+    public static class Row {
+        private final String uuid;
+
+        Row(String uuid) {
+            this.uuid = uuid;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+    }
+}
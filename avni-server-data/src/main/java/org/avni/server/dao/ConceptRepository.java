@@ -11,9 +11,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +26,10 @@ public interface ConceptRepository extends ReferenceDataRepository<Concept>, Fin
     @Query("select c from Concept c where c.name = ?1 and c.organisationId IN ?2")
     Concept findByNameAndOrganisationId(String name, List<Long> organisationIds);
 
+    @RestResource(exported = false)
+    @Query("select c from Concept c where c.organisationId IN ?1")
+    List<Concept> findAllByOrganisationIds(List<Long> organisationIds);
+
     default List<Long> buildOrganisationIdList() {
         OrganisationRepository organisationRepository = RepositoryProvider.getOrganisationRepository();
         List<Long> organisationIds = new ArrayList<>();
@@ -63,6 +69,13 @@ public interface ConceptRepository extends ReferenceDataRepository<Concept>, Fin
         return this.findByUuidAndOrganisationId(uuid, buildOrganisationIdList());
     }
 
+    @Query("select c from Concept c where c.uuid in ?1 and c.organisationId IN ?2")
+    List<Concept> findAllByUuidInAndOrganisationId(Collection<String> uuids, List<Long> organisationIds);
+
+    default List<Concept> findByUuids(Collection<String> uuids) {
+        return this.findAllByUuidInAndOrganisationId(uuids, buildOrganisationIdList());
+    }
+
     @Query("select c from Concept c where c.isVoided = false")
     Page<Concept> getAllNonVoidedConcepts(Pageable pageable);
 
@@ -2,6 +2,8 @@ package org.avni.server.dao;
 
 import jakarta.persistence.criteria.*;
 import org.avni.server.application.Subject;
+import org.avni.server.dao.sync.KeysetSlice;
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.domain.sync.SyncEntityName;
 import org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil;
 import org.avni.server.domain.CHSEntity;
@@ -14,6 +16,8 @@ import org.avni.server.util.JsonObjectUtil;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -46,7 +50,28 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
     @Override
     default Slice<T> getSyncResultsAsSlice(SyncParameters syncParameters) {
         Specification specification = getSpecification(syncParameters);
-        return findAllAsSlice(specification, syncParameters.getPageable());
+        if (!syncParameters.isKeysetPaginationSupported()) {
+            return findAllAsSlice(specification, syncParameters.getPageable());
+        }
+        SyncContinuationToken continuationToken = syncParameters.getContinuationToken();
+        if (continuationToken == null) {
+            return KeysetSlice.of(findAllAsSlice(specification, syncParameters.getPageable()), syncParameters.getPageable());
+        }
+        Pageable firstPage = PageRequest.of(0, syncParameters.getPageable().getPageSize());
+        return KeysetSlice.of(findAllAsSlice(specification.and(keysetSpecification(continuationToken)), firstPage), syncParameters.getPageable());
+    }
+
+    default Specification<T> keysetSpecification(SyncContinuationToken continuationToken) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Path<Date> lastModifiedDateTime = root.get("lastModifiedDateTime");
+            return cb.or(
+                    cb.greaterThan(lastModifiedDateTime, cb.literal(continuationToken.getLastModifiedDateTime())),
+                    cb.and(
+                            cb.equal(lastModifiedDateTime, cb.literal(continuationToken.getLastModifiedDateTime())),
+                            cb.greaterThan(root.<Long>get("id"), cb.literal(continuationToken.getId()))
+                    )
+            );
+        };
     }
 
     @Override
@@ -103,16 +128,8 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
         if (subjectType.isShouldSyncByLocation()) {
             List<Long> addressLevels = syncParameters.getAddressLevels();
             if (addressLevels.size() > 0) {
-                CriteriaBuilder.In<Long> inClause;
-                if (syncParameters.isParentOrSelfIndividual()) {
-                    inClause = cb.in(from.get("addressLevel").get("id"));
-                } else {
-                    inClause = cb.in(from.get("addressId"));
-                }
-                for (Long id : addressLevels) {
-                    inClause.value(id);
-                }
-                predicates.add(inClause);
+                Path<Long> addressId = syncParameters.isParentOrSelfIndividual() ? from.get("addressLevel").get("id") : from.get("addressId");
+                predicates.add(TransactionDataCriteriaBuilderUtil.addressIdIn(cb, addressId, addressLevels));
             } else {
                 predicates.add(cb.equal(from.get("id"), cb.literal(0)));
             }
@@ -1,5 +1,6 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.domain.sync.SyncEntityName;
 import org.avni.server.domain.Catchment;
 import org.avni.server.domain.JsonObject;
@@ -21,6 +22,7 @@ public class SyncParameters {
     private final JsonObject syncSettings;
     private final SyncEntityName syncEntityName;
     private final Catchment catchment;
+    private SyncContinuationToken continuationToken;
 
     public SyncParameters(DateTime lastModifiedDateTime,
                           DateTime now, Long typeId,
@@ -107,4 +109,16 @@ public class SyncParameters {
         return this.getSubjectType() == null || !this.getSubjectType().isDirectlyAssignable()
                 || (!this.isParentOrSelfIndividual() && !this.isProgramEncounter() && !this.isEncounter() && !this.isParentOrSelfEnrolment());
     }
+
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(SyncContinuationToken continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    public boolean isKeysetPaginationSupported() {
+        return isModificationCheckOnEntity() && pageable != null && pageable.isPaged();
+    }
 }
@@ -0,0 +1,30 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+public class KeysetSlice<T extends CHSEntity> extends SliceImpl<T> {
+    private final SyncContinuationToken continuationToken;
+
+    public KeysetSlice(List<T> content, Pageable pageable, boolean hasNext) {
+        super(content, pageable, hasNext);
+        this.continuationToken = content.isEmpty() ? null : SyncContinuationToken.after(content.get(content.size() - 1));
+    }
+
+    public static <T extends CHSEntity> KeysetSlice<T> of(Slice<T> slice, Pageable pageable) {
+        return new KeysetSlice<>(slice.getContent(), pageable, slice.hasNext());
+    }
+
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+
+    public static String encodedContinuationTokenOf(Slice<?> slice) {
+        if (!(slice instanceof KeysetSlice) || ((KeysetSlice<?>) slice).getContinuationToken() == null) return null;
+        return ((KeysetSlice<?>) slice).getContinuationToken().encode();
+    }
+}
@@ -0,0 +1,46 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public class SyncContinuationToken {
+    private static final String SEPARATOR = ":";
+    private final long lastModifiedDateTime;
+    private final long id;
+
+    public SyncContinuationToken(long lastModifiedDateTime, long id) {
+        this.lastModifiedDateTime = lastModifiedDateTime;
+        this.id = id;
+    }
+
+    public static SyncContinuationToken after(CHSEntity entity) {
+        return new SyncContinuationToken(entity.getLastModifiedDateTime().getMillis(), entity.getId());
+    }
+
+    public static SyncContinuationToken decode(String token) {
+        if (token == null || token.isEmpty()) return null;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR);
+            return new SyncContinuationToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(String.format("Invalid continuation token: %s", token));
+        }
+    }
+
+    public String encode() {
+        String raw = lastModifiedDateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Date getLastModifiedDateTime() {
+        return new Date(lastModifiedDateTime);
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -1,8 +1,15 @@
 package org.avni.server.dao.sync;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
 import org.avni.server.dao.SyncParameters;
+import org.avni.server.framework.hibernate.AvniFunctionContributor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.util.List;
 
 public class TransactionDataCriteriaBuilderUtil {
     public static Join<Object, Object> joinUserSubjectAssignment(From fromSubject) {
@@ -13,6 +20,16 @@ public class TransactionDataCriteriaBuilderUtil {
         return joinUserSubjectAssignment(from.join("individual"));
     }
 
+    /**
+     * Matches addressId against the catchment's address level ids bound as one array parameter, so that the statement
+     * text does not change with the size of the catchment. The ids go in through HibernateCriteriaBuilder#value, which
+     * binds them; CriteriaBuilder#literal would render them into the statement.
+     */
+    public static Predicate addressIdIn(CriteriaBuilder cb, Expression<Long> addressId, List<Long> addressLevelIds) {
+        Expression<Long[]> addressLevelIdArray = ((HibernateCriteriaBuilder) cb).value(addressLevelIds.toArray(new Long[0]));
+        return cb.isTrue(cb.function(AvniFunctionContributor.EQUALS_ANY, Boolean.class, addressId, addressLevelIdArray));
+    }
+
     public static Join<Object, Object> joinSubjectForUserSubjectType(SyncParameters syncParameters, From from) {
         switch (syncParameters.getSyncEntityName()) {
             case Comment:
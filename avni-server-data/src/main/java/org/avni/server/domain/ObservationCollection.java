@@ -1,14 +1,31 @@
 package org.avni.server.domain;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.avni.server.framework.hibernate.AbstractJsonbUserType;
+import org.avni.server.framework.hibernate.ObservationCollectionSerializer;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
+/**
+ * Observations of an entity keyed by concept uuid.
+ *
+ * When loaded from the database it holds on to the jsonb bytes and parses them only when the observations are first
+ * accessed. Until the observations may have been changed, i.e. nothing other than size, key lookups and scalar values
+ * have been read from it, it is written back as JSON by passing the same bytes through.
+ */
+@JsonSerialize(using = ObservationCollectionSerializer.class)
 public class ObservationCollection extends HashMap<String, Object> implements Serializable {
+    private static final ObjectReader jsonReader = AbstractJsonbUserType.mapper.readerFor(new TypeReference<LinkedHashMap<String, Object>>() {});
 
     public static final String SPLIT_REGEX = "[,]+";
     public static final Pattern SPLIT_PATTERN = Pattern.compile(SPLIT_REGEX);
@@ -17,6 +34,10 @@ public class ObservationCollection extends HashMap<String, Object> implements Se
     public static final int INT_CONSTANT_ONE = 1;
     public static final int INT_CONSTANT_ZERO = 0;
 
+    // JSON these observations were loaded from, dropped once they may have been changed
+    private byte[] json;
+    private boolean parsed = true;
+
     public ObservationCollection() {
     }
 
@@ -24,6 +45,220 @@ public class ObservationCollection extends HashMap<String, Object> implements Se
         this.putAll(observations);
     }
 
+    public ObservationCollection(byte[] json) {
+        this.json = json;
+        this.parsed = false;
+    }
+
+    /**
+     * @return the JSON these observations were loaded from, or null if they may have been changed since
+     */
+    public byte[] getUnchangedJson() {
+        return json;
+    }
+
+    private void parse() {
+        if (parsed) return;
+        try {
+            Map<String, Object> observations = jsonReader.readValue(json);
+            super.putAll(observations);
+            parsed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse observations", e);
+        }
+    }
+
+    private void change() {
+        parse();
+        json = null;
+    }
+
+    private <V> V read(V value) {
+        // nested maps and lists can be changed by the caller
+        if (value instanceof Map || value instanceof Collection) json = null;
+        return value;
+    }
+
+    @Override
+    public int size() {
+        parse();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        parse();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Object get(Object key) {
+        parse();
+        return read(super.get(key));
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        parse();
+        return read(super.getOrDefault(key, defaultValue));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        parse();
+        return super.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        parse();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        change();
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+        change();
+        super.putAll(m);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        change();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        change();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        change();
+        super.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        change();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        change();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        change();
+        return super.entrySet();
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        change();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        change();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        change();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        change();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        change();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        change();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        change();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        change();
+        super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        change();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object clone() {
+        change();
+        return super.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (json != null && o instanceof ObservationCollection other && Arrays.equals(json, other.json)) return true;
+        if (!(o instanceof Map<?, ?> map)) return false;
+        parse();
+        if (map.size() != super.size()) return false;
+        // iterates the entries without going through entrySet(), which would drop the JSON
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null ? !(map.get(entry.getKey()) == null && map.containsKey(entry.getKey())) : !value.equals(map.get(entry.getKey())))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        parse();
+        int hashCode = 0;
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            hashCode += entry.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        parse();
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            joiner.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return joiner.toString();
+    }
+
     public String getStringValue(Object key) {
         Object value = this.getOrDefault(key, null);
        return value == null ? null : value.toString();
@@ -42,7 +277,8 @@ public class ObservationCollection extends HashMap<String, Object> implements Se
     }
 
     public String[] getConceptUUIDs() {
-        return this.keySet().toArray(new String[0]);
+        parse();
+        return super.keySet().toArray(new String[0]);
     }
 
     public Map<Concept, Object> filterByConcepts(List<Concept> mediaConcepts) {
@@ -2,6 +2,8 @@ package org.avni.server.domain;
 
 import org.avni.server.domain.sync.SyncEntityName;
 
+import java.util.Objects;
+
 public class SyncableItem {
     private final SyncEntityName syncEntityName;
     private final String entityTypeUuid;
@@ -26,4 +28,17 @@ public class SyncableItem {
                 ", entityTypeUuid='" + entityTypeUuid + '\'' +
                 '}';
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SyncableItem that = (SyncableItem) o;
+        return syncEntityName == that.syncEntityName && Objects.equals(entityTypeUuid, that.entityTypeUuid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(syncEntityName, entityTypeUuid);
+    }
 }
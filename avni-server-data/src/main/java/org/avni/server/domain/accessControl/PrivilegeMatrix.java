@@ -0,0 +1,131 @@
+package org.avni.server.domain.accessControl;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Privileges allowed to a user, compiled into bit sets indexed by privilege type and, for entity type privileges, by the
+ * subject type, program or encounter type. Answers the same questions as the privilege queries in UserRepository
+ * without going to the database.
+ */
+public class PrivilegeMatrix {
+    private static final int PRIVILEGE_TYPE_COUNT = PrivilegeType.values().length;
+
+    private final boolean hasAllPrivileges;
+    private final BitSet adminPrivileges = new BitSet(PRIVILEGE_TYPE_COUNT);
+    private final BitSet privileges = new BitSet(PRIVILEGE_TYPE_COUNT);
+    private final EntityPrivileges subjectTypePrivileges;
+    private final EntityPrivileges programPrivileges;
+    private final EntityPrivileges programEncounterTypePrivileges;
+    private final EntityPrivileges encounterTypePrivileges;
+
+    public PrivilegeMatrix(boolean hasAllPrivileges, Collection<PrivilegeType> adminPrivilegeTypes,
+                           Map<String, Long> subjectTypeIds, Map<String, Long> programIds, Map<String, Long> encounterTypeIds) {
+        this.hasAllPrivileges = hasAllPrivileges;
+        adminPrivilegeTypes.forEach(privilegeType -> adminPrivileges.set(privilegeType.ordinal()));
+        this.subjectTypePrivileges = new EntityPrivileges(subjectTypeIds);
+        this.programPrivileges = new EntityPrivileges(programIds);
+        this.programEncounterTypePrivileges = new EntityPrivileges(encounterTypeIds);
+        this.encounterTypePrivileges = new EntityPrivileges(encounterTypeIds);
+    }
+
+    public static PrivilegeMatrix allPrivileges(Collection<PrivilegeType> adminPrivilegeTypes) {
+        return new PrivilegeMatrix(true, adminPrivilegeTypes, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Records one allowed group privilege. Only to be called while the matrix is being loaded.
+     */
+    public void allow(PrivilegeType privilegeType, Long subjectTypeId, Long programId, Long programEncounterTypeId, Long encounterTypeId) {
+        privileges.set(privilegeType.ordinal());
+        subjectTypePrivileges.allow(privilegeType, subjectTypeId);
+        programPrivileges.allow(privilegeType, programId);
+        programEncounterTypePrivileges.allow(privilegeType, programEncounterTypeId);
+        encounterTypePrivileges.allow(privilegeType, encounterTypeId);
+    }
+
+    public boolean hasAllPrivileges() {
+        return hasAllPrivileges;
+    }
+
+    public boolean isAllowedForAdmin(PrivilegeType privilegeType) {
+        return adminPrivileges.get(privilegeType.ordinal());
+    }
+
+    public boolean isAnyOfSpecificAllowedForAdmin(Collection<PrivilegeType> privilegeTypes) {
+        return privilegeTypes.stream().anyMatch(this::isAllowedForAdmin);
+    }
+
+    public boolean hasPrivilege(PrivilegeType privilegeType) {
+        return privileges.get(privilegeType.ordinal());
+    }
+
+    public boolean hasAnyOfSpecificPrivileges(Collection<PrivilegeType> privilegeTypes) {
+        return privilegeTypes.stream().anyMatch(this::hasPrivilege);
+    }
+
+    public boolean isKnownSubjectType(String subjectTypeUUID) {
+        return subjectTypePrivileges.isKnown(subjectTypeUUID);
+    }
+
+    public boolean isKnownProgram(String programUUID) {
+        return programPrivileges.isKnown(programUUID);
+    }
+
+    public boolean isKnownEncounterType(String encounterTypeUUID) {
+        return encounterTypePrivileges.isKnown(encounterTypeUUID);
+    }
+
+    public boolean hasSubjectPrivilege(PrivilegeType privilegeType, String subjectTypeUUID) {
+        return subjectTypePrivileges.has(privilegeType, subjectTypeUUID);
+    }
+
+    public boolean hasAnyOfSpecificSubjectPrivileges(Collection<PrivilegeType> privilegeTypes, String subjectTypeUUID) {
+        return privilegeTypes.stream().anyMatch(privilegeType -> subjectTypePrivileges.has(privilegeType, subjectTypeUUID));
+    }
+
+    public boolean hasProgramPrivilege(PrivilegeType privilegeType, String programUUID) {
+        return programPrivileges.has(privilegeType, programUUID);
+    }
+
+    public boolean hasProgramEncounterPrivilege(PrivilegeType privilegeType, String encounterTypeUUID) {
+        return programEncounterTypePrivileges.has(privilegeType, encounterTypeUUID);
+    }
+
+    public boolean hasEncounterPrivilege(PrivilegeType privilegeType, String encounterTypeUUID) {
+        return encounterTypePrivileges.has(privilegeType, encounterTypeUUID);
+    }
+
+    private static class EntityPrivileges {
+        private final Map<String, Integer> indexByUuid = new HashMap<>();
+        private final Map<Long, Integer> indexById = new HashMap<>();
+        private final BitSet allowed = new BitSet();
+
+        private EntityPrivileges(Map<String, Long> idsByUuid) {
+            idsByUuid.forEach((uuid, id) -> {
+                int index = indexByUuid.size();
+                indexByUuid.put(uuid, index);
+                indexById.put(id, index);
+            });
+        }
+
+        private void allow(PrivilegeType privilegeType, Long id) {
+            if (id == null) return;
+            Integer index = indexById.get(id);
+            if (index == null) return;
+            allowed.set(index * PRIVILEGE_TYPE_COUNT + privilegeType.ordinal());
+        }
+
+        private boolean isKnown(String uuid) {
+            return indexByUuid.containsKey(uuid);
+        }
+
+        private boolean has(PrivilegeType privilegeType, String uuid) {
+            Integer index = indexByUuid.get(uuid);
+            return index != null && allowed.get(index * PRIVILEGE_TYPE_COUNT + privilegeType.ordinal());
+        }
+    }
+}
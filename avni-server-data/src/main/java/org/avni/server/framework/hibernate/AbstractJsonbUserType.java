@@ -1,20 +1,41 @@
 package org.avni.server.framework.hibernate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.usertype.UserType;
 
-import java.io.StringWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.*;
 
+/**
+ * Maps a jsonb column to T with Jackson. The reader and writer are bound to T once, and values are parsed straight
+ * from the bytes the driver received, without decoding them to a String first.
+ */
 public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> implements UserType<T> {
     public final static ObjectMapper mapper = new ObjectMapper().registerModule(new JodaModule());
 
+    // first byte of jsonb in binary transfer format
+    private static final byte JSONB_BINARY_VERSION = 1;
+    private static final Object NOT_COPYABLE = new Object();
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    protected AbstractJsonbUserType() {
+        this.reader = mapper.readerFor(returnedClass());
+        this.writer = mapper.writerFor(returnedClass());
+    }
+
     @Override
     public int getSqlType() {
         return Types.JAVA_OBJECT;
@@ -22,14 +43,14 @@ public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> imple
 
     @Override
     public T nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner) throws SQLException {
-        final String cellContent = rs.getString(position);
+        final byte[] cellContent = rs.getBytes(position);
         if (cellContent == null) {
             return null;
         }
         try {
-            return mapper.readValue(cellContent.getBytes("UTF-8"), returnedClass());
+            return read(cellContent);
         } catch (final Exception ex) {
-            throw new RuntimeException("Failed to convert String to Invoice: " + ex.getMessage(), ex);
+            throw new RuntimeException(String.format("Failed to convert jsonb to %s: %s", returnedClass().getSimpleName(), ex.getMessage()), ex);
         }
     }
 
@@ -41,12 +62,80 @@ public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> imple
             return;
         }
         try {
-            final StringWriter w = new StringWriter();
-            mapper.writeValue(w, value);
-            w.flush();
-            ps.setObject(idx, w.toString(), Types.OTHER);
-        } catch (final Exception ex) {
-            throw new RuntimeException("Failed to convert Invoice to String: " + ex.getMessage(), ex);
+            ps.setObject(idx, write(value), Types.OTHER);
+        } catch (final IOException ex) {
+            throw new RuntimeException(String.format("Failed to convert %s to jsonb: %s", returnedClass().getSimpleName(), ex.getMessage()), ex);
+        }
+    }
+
+    T read(byte[] content) throws IOException {
+        int offset = jsonOffset(content);
+        return reader.readValue(content, offset, content.length - offset);
+    }
+
+    static int jsonOffset(byte[] content) {
+        return content.length > 0 && content[0] == JSONB_BINARY_VERSION ? 1 : 0;
+    }
+
+    String write(Object value) throws IOException {
+        return writer.writeValueAsString(value);
+    }
+
+    /**
+     * @return an empty instance to copy map values into, or null when values of this type are copied by serialization
+     */
+    protected Map<String, Object> newMap() {
+        return null;
+    }
+
+    /**
+     * Map values holding only what Jackson reads from JSON (maps, lists, strings, numbers, booleans) are copied
+     * structurally. Anything else falls back to a copy by serialization.
+     */
+    @Override
+    public T deepCopy(final Object value) throws HibernateException {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> copy = value instanceof Map ? newMap() : null;
+        if (copy != null && copyEntries((Map<?, ?>) value, copy) != NOT_COPYABLE) {
+            return (T) copy;
+        }
+        return super.deepCopy(value);
+    }
+
+    private static Object copyJsonValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer
+                || value instanceof Long || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger) {
+            return value;
         }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return copyEntries(map, new LinkedHashMap<>(capacityFor(map.size())));
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                Object itemCopy = copyJsonValue(item);
+                if (itemCopy == NOT_COPYABLE) return NOT_COPYABLE;
+                copy.add(itemCopy);
+            }
+            return copy;
+        }
+        return NOT_COPYABLE;
+    }
+
+    private static <K> Object copyEntries(Map<?, ?> source, Map<K, Object> target) {
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            Object valueCopy = copyJsonValue(entry.getValue());
+            if (valueCopy == NOT_COPYABLE) return NOT_COPYABLE;
+            target.put((K) entry.getKey(), valueCopy);
+        }
+        return target;
+    }
+
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
     }
 }
@@ -0,0 +1,19 @@
+package org.avni.server.framework.hibernate;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+public class AvniFunctionContributor implements FunctionContributor {
+    /**
+     * equals_any(column, array) renders as column = any(array). Used with an array bound as a single parameter, the
+     * SQL text stays the same whatever the number of values, unlike an IN list with one parameter per value.
+     */
+    public static final String EQUALS_ANY = "equals_any";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(EQUALS_ANY, "(?1 = any(?2))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
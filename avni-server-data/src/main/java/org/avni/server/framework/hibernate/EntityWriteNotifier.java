@@ -0,0 +1,26 @@
+package org.avni.server.framework.hibernate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class EntityWriteNotifier {
+    private static final List<Consumer<Object>> listeners = new CopyOnWriteArrayList<>();
+
+    private EntityWriteNotifier() {
+    }
+
+    public static void register(Consumer<Object> listener) {
+        listeners.add(listener);
+    }
+
+    public static void unregister(Consumer<Object> listener) {
+        listeners.remove(listener);
+    }
+
+    static void entityWritten(Object entity) {
+        for (Consumer<Object> listener : listeners) {
+            listener.accept(entity);
+        }
+    }
+}
@@ -2,9 +2,16 @@ package org.avni.server.framework.hibernate;
 
 import org.avni.server.domain.JsonObject;
 
+import java.util.Map;
+
 public class JSONObjectUserType extends AbstractJsonbUserType<JsonObject> {
     @Override
     public Class returnedClass() {
         return JsonObject.class;
     }
+
+    @Override
+    protected Map<String, Object> newMap() {
+        return new JsonObject();
+    }
 }
@@ -0,0 +1,35 @@
+package org.avni.server.framework.hibernate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.avni.server.domain.ObservationCollection;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Writes observations that have not changed since they were loaded as the JSON they were loaded from, without parsing
+ * them. Others are written as any other map.
+ */
+public class ObservationCollectionSerializer extends StdSerializer<ObservationCollection> {
+    public ObservationCollectionSerializer() {
+        super(ObservationCollection.class);
+    }
+
+    @Override
+    public void serialize(ObservationCollection value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        byte[] json = value.getUnchangedJson();
+        if (json != null) {
+            gen.writeRawValue(new String(json, StandardCharsets.UTF_8));
+            return;
+        }
+        provider.findValueSerializer(HashMap.class).serialize(value, gen, provider);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, ObservationCollection value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,10 +1,35 @@
 package org.avni.server.framework.hibernate;
 
 import org.avni.server.domain.ObservationCollection;
+import org.hibernate.HibernateException;
+
+import java.util.Arrays;
+import java.util.Map;
 
 public class ObservationCollectionUserType extends AbstractJsonbUserType<ObservationCollection> {
     @Override
     public Class returnedClass() {
         return ObservationCollection.class;
     }
+
+    // parsed when first accessed, see ObservationCollection
+    @Override
+    ObservationCollection read(byte[] content) {
+        int offset = jsonOffset(content);
+        return new ObservationCollection(offset == 0 ? content : Arrays.copyOfRange(content, offset, content.length));
+    }
+
+    @Override
+    protected Map<String, Object> newMap() {
+        return new ObservationCollection();
+    }
+
+    @Override
+    public ObservationCollection deepCopy(Object value) throws HibernateException {
+        byte[] json = value instanceof ObservationCollection ? ((ObservationCollection) value).getUnchangedJson() : null;
+        if (json != null) {
+            return new ObservationCollection(json);
+        }
+        return super.deepCopy(value);
+    }
 }
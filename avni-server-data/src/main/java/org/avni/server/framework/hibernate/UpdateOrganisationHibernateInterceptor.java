@@ -16,15 +16,22 @@ public class UpdateOrganisationHibernateInterceptor implements Interceptor, Seri
 
     @Override
     public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        EntityWriteNotifier.entityWritten(entity);
         return updateOrganisationId(entity, state, propertyNames);
     }
 
     @Override
     public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState, String[] propertyNames, Type[] types) {
         boolean somethingChanged = false;
+        EntityWriteNotifier.entityWritten(entity);
         return updateOrganisationId(entity, currentState, propertyNames) || somethingChanged;
     }
 
+    @Override
+    public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        EntityWriteNotifier.entityWritten(entity);
+    }
+
     private int getIndexOf(String[] propertyNames, String propertyName) {
         for (int i = 0; i < propertyNames.length; i++) {
             if (propertyNames[i].equals(propertyName)) return i;
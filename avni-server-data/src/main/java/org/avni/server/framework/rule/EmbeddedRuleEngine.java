@@ -0,0 +1,253 @@
+package org.avni.server.framework.rule;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Runs rules in-process on GraalVM JavaScript, as an alternative to posting them to the node rule server.
+ *
+ * Contexts are not thread safe, so a fixed pool of them is created up front, each with the rule invoker bundle already
+ * evaluated, and a call borrows one for its duration. A context is bound to the organisation it first runs a rule of
+ * and runs only that organisation's rules, as its rule dependency bundle is evaluated into the globals of the context.
+ * When no idle context is bound to the organisation, an unbound one is taken, or else the least recently used idle
+ * context of another organisation is replaced. All contexts share one Engine, so sources evaluated in more than one
+ * context (the invoker bundle, rule dependency bundles) are parsed once. A call running past the timeout is cancelled
+ * and its context replaced with a new one.
+ */
+public class EmbeddedRuleEngine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedRuleEngine.class);
+
+    private final Engine engine;
+    private final Source invokerSource;
+    private final long timeoutMillis;
+    private final int poolSize;
+    private final Semaphore contextPermits;
+    // least recently used first, guarded by itself
+    private final LinkedList<RuleContext> idleContexts = new LinkedList<>();
+    // idle and borrowed, guarded by idleContexts
+    private int contexts;
+    private final Map<String, CompiledRuleDependency> ruleDependencySources = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+
+    public EmbeddedRuleEngine(Source invokerSource, int poolSize, long timeoutMillis) {
+        this.engine = Engine.create();
+        this.invokerSource = invokerSource;
+        this.timeoutMillis = timeoutMillis;
+        this.poolSize = poolSize;
+        this.contextPermits = new Semaphore(poolSize, true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rule-engine-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < poolSize; i++) {
+            idleContexts.add(new RuleContext());
+        }
+        contexts = poolSize;
+        logger.info("Embedded rule engine started with {} contexts on {}", poolSize, engine.getImplementationName());
+        if (isInterpreterOnly()) {
+            logger.warn("Embedded rule engine is running rules interpreted, which is much slower than the node rule server. Run on a GraalVM JDK.");
+        }
+    }
+
+    public boolean isInterpreterOnly() {
+        return "Interpreted".equals(engine.getImplementationName());
+    }
+
+    /**
+     * @param organisationKey the organisation whose rule it is, rules of different organisations never share a context
+     */
+    public String execute(String organisationKey, String api, String requestJson, RuleDependencySource ruleDependency) {
+        RuleContext ruleContext = borrow(organisationKey, api);
+        ScheduledFuture<?> cancellation = watchdog.schedule(ruleContext::cancel, timeoutMillis, TimeUnit.MILLISECONDS);
+        boolean reusable = false;
+        try {
+            String response = ruleContext.execute(api, requestJson, ruleDependency);
+            reusable = true;
+            return response;
+        } catch (PolyglotException e) {
+            if (e.isCancelled()) {
+                throw new RuleEngineException(String.format("Rule %s did not complete in %d ms", api, timeoutMillis), e);
+            }
+            reusable = e.isGuestException();
+            throw new RuleEngineException(String.format("Rule %s failed: %s", api, e.getMessage()), e);
+        } finally {
+            boolean cancelled = !cancellation.cancel(false);
+            release(ruleContext, reusable && !cancelled);
+        }
+    }
+
+    private RuleContext borrow(String organisationKey, String api) {
+        try {
+            if (!contextPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RuleEngineException(String.format("No rule context free to run %s in %d ms", api, timeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuleEngineException("Interrupted while waiting for a rule context", e);
+        }
+        try {
+            return takeIdleContext(organisationKey);
+        } catch (RuntimeException e) {
+            contextPermits.release();
+            throw e;
+        }
+    }
+
+    private RuleContext takeIdleContext(String organisationKey) {
+        RuleContext replaced = null;
+        synchronized (idleContexts) {
+            RuleContext unbound = null;
+            for (RuleContext idleContext : idleContexts) {
+                if (idleContext.isBoundTo(organisationKey)) {
+                    idleContexts.remove(idleContext);
+                    return idleContext;
+                }
+                if (unbound == null && !idleContext.bound) unbound = idleContext;
+            }
+            if (unbound != null) {
+                idleContexts.remove(unbound);
+                unbound.bind(organisationKey);
+                return unbound;
+            }
+            if (contexts >= poolSize) {
+                replaced = idleContexts.removeFirst();
+                contexts--;
+            }
+            contexts++;
+        }
+        if (replaced != null) replaced.close();
+        try {
+            RuleContext ruleContext = new RuleContext();
+            ruleContext.bind(organisationKey);
+            return ruleContext;
+        } catch (RuntimeException e) {
+            synchronized (idleContexts) {
+                contexts--;
+            }
+            throw e;
+        }
+    }
+
+    private void release(RuleContext ruleContext, boolean reusable) {
+        try {
+            if (reusable) {
+                synchronized (idleContexts) {
+                    idleContexts.addLast(ruleContext);
+                }
+                return;
+            }
+            ruleContext.close();
+            try {
+                RuleContext replacement = new RuleContext();
+                synchronized (idleContexts) {
+                    idleContexts.addFirst(replacement);
+                }
+            } catch (RuntimeException e) {
+                synchronized (idleContexts) {
+                    contexts--;
+                }
+                logger.error("Could not replace rule context, it is created again when needed", e);
+            }
+        } finally {
+            contextPermits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+        synchronized (idleContexts) {
+            idleContexts.forEach(RuleContext::close);
+            idleContexts.clear();
+        }
+        engine.close();
+    }
+
+    // Keeps only the latest source of each rule dependency, so superseded versions can be collected
+    private Source getRuleDependencySource(RuleDependencySource ruleDependency) {
+        return ruleDependencySources.compute(ruleDependency.getKey(), (key, compiled) -> {
+            if (compiled != null && compiled.checksum.equals(ruleDependency.getChecksum())) return compiled;
+            Source source = Source.newBuilder("js", ruleDependency.getCode(), "ruleDependency-" + key).cached(true).buildLiteral();
+            return new CompiledRuleDependency(ruleDependency.getChecksum(), source);
+        }).source;
+    }
+
+    private class RuleContext {
+        private final Context context;
+        private final Value invoker;
+        private boolean bound;
+        private String organisationKey;
+        private LoadedRuleDependency loadedRuleDependency;
+
+        private RuleContext() {
+            this.context = Context.newBuilder("js").engine(engine).build();
+            context.eval(invokerSource);
+            this.invoker = context.getBindings("js").getMember("ruleInvoker");
+        }
+
+        private void bind(String organisationKey) {
+            this.bound = true;
+            this.organisationKey = organisationKey;
+        }
+
+        private boolean isBoundTo(String organisationKey) {
+            return bound && Objects.equals(this.organisationKey, organisationKey);
+        }
+
+        private String execute(String api, String requestJson, RuleDependencySource ruleDependency) {
+            return invoker.invokeMember("execute", api, requestJson, getRuleDependency(ruleDependency)).asString();
+        }
+
+        private Value getRuleDependency(RuleDependencySource ruleDependency) {
+            if (ruleDependency == null) return null;
+            if (loadedRuleDependency == null || !loadedRuleDependency.checksum.equals(ruleDependency.getChecksum())) {
+                context.eval(getRuleDependencySource(ruleDependency));
+                loadedRuleDependency = new LoadedRuleDependency(ruleDependency.getChecksum(), invoker.invokeMember("captureRuleDependency"));
+            }
+            return loadedRuleDependency.exports;
+        }
+
+        private void cancel() {
+            context.close(true);
+        }
+
+        private void close() {
+            try {
+                context.close(true);
+            } catch (RuntimeException e) {
+                logger.warn("Error closing rule context", e);
+            }
+        }
+    }
+
+    private static class CompiledRuleDependency {
+        private final String checksum;
+        private final Source source;
+
+        private CompiledRuleDependency(String checksum, Source source) {
+            this.checksum = checksum;
+            this.source = source;
+        }
+    }
+
+    private static class LoadedRuleDependency {
+        private final String checksum;
+        private final Value exports;
+
+        private LoadedRuleDependency(String checksum, Value exports) {
+            this.checksum = checksum;
+            this.exports = exports;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.avni.server.framework.rule;
+
+/**
+ * Code of an organisation's rule dependency bundle. The checksum identifies the compiled source, so the bundle is
+ * parsed once per checksum and re-evaluated in a context only when the organisation's checksum changes.
+ */
+public class RuleDependencySource {
+    private final String key;
+    private final String checksum;
+    private final String code;
+
+    public RuleDependencySource(String key, String checksum, String code) {
+        this.key = key;
+        this.checksum = checksum;
+        this.code = code;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
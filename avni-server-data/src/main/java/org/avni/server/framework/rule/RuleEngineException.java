@@ -0,0 +1,11 @@
+package org.avni.server.framework.rule;
+
+public class RuleEngineException extends RuntimeException {
+    public RuleEngineException(String message) {
+        super(message);
+    }
+
+    public RuleEngineException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
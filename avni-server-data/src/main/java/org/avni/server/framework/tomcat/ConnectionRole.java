@@ -0,0 +1,19 @@
+package org.avni.server.framework.tomcat;
+
+/**
+ * Role state of a pooled connection, obtained via {@link java.sql.Connection#unwrap(Class)}. A requested role is applied
+ * only when it differs from the role already set on the connection, and only before the next statement is created.
+ */
+public interface ConnectionRole {
+    /**
+     * @param role database role to use for subsequent statements, null for the login role (reset role)
+     */
+    void switchTo(String role);
+
+    String getCurrentRole();
+
+    /**
+     * @return whether the role had to be set when the connection was borrowed, false when it already had the role
+     */
+    boolean isRoleChangedOnBorrow();
+}
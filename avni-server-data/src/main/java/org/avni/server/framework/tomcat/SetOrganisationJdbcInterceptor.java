@@ -14,63 +14,188 @@ import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Arrays;
+import java.util.Objects;
 
-public class SetOrganisationJdbcInterceptor extends JdbcInterceptor {
+/**
+ * Sets the role of the organisation of the current user on connections borrowed from the pool.
+ *
+ * The pool keeps one interceptor per pooled connection, so the role set on the connection is remembered across
+ * borrows and connections are returned to the pool with the role they have. The role statements are sent only when
+ * the role needed differs from the role the connection already has.
+ *
+ * Postgres undoes a role set in a transaction when the transaction is rolled back. So a role set while auto commit is
+ * off is taken as known only once the transaction commits, and after a rollback the role is set again before the next
+ * statement. A connection whose role was switched while borrowed gets its role set again on the next borrow, as does
+ * one returned with such a transaction still open.
+ */
+public class SetOrganisationJdbcInterceptor extends JdbcInterceptor implements ConnectionRole {
     private static final Logger logger = LoggerFactory.getLogger(SetOrganisationJdbcInterceptor.class);
 
+    private PooledConnection pooledConnection;
+    // physical connection the role below was set on, a reconnected pooled connection starts with the login role
+    private Connection roleConnection;
+    private boolean roleKnown;
+    // a role statement was run in the open transaction, so a rollback would undo it
+    private boolean roleSetInTransaction;
+    private String currentRole;
+    private String requestedRole;
+    private boolean roleSwitchedWhileBorrowed;
+    private boolean roleChangedOnBorrow;
+
     @Override
     public void reset(ConnectionPool connectionPool, PooledConnection pooledConnection) {
+        this.pooledConnection = pooledConnection;
+        this.roleChangedOnBorrow = false;
+        this.roleSwitchedWhileBorrowed = false;
         if (pooledConnection == null || pooledConnection.getConnection() == null) {
             logger.trace("No pooled connection present");
             return;
         }
-        int connectionId = pooledConnection.getConnection().hashCode();
-        logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s", connectionId));
+        Connection connection = pooledConnection.getConnection();
+        if (connection != roleConnection) {
+            roleConnection = connection;
+            roleKnown = true;
+            roleSetInTransaction = false;
+            currentRole = null;
+        }
+        String role = getOrganisationRole(connection.hashCode());
+        requestedRole = role;
+        if (roleKnown && Objects.equals(role, currentRole)) {
+            logger.trace("Getting connection out of connection pool. ConnectionId: {}. Role already set: {}", connection.hashCode(), role);
+            return;
+        }
+
+        roleKnown = false;
+        try (Statement statement = connection.createStatement()) {
+            if (role == null) {
+                statement.execute("RESET ROLE");
+            } else {
+                statement.execute("set role \"" + role + "\";");
+                statement.execute("set application_name to \"" + role + "\";");
+            }
+            roleSetInTransaction = !connection.getAutoCommit();
+        } catch (SQLException exp) {
+            throw new RuntimeException(exp);
+        }
+        currentRole = role;
+        roleKnown = true;
+        roleChangedOnBorrow = true;
+        logger.trace("Getting connection out of connection pool. ConnectionId: {}. Set db user: {}", connection.hashCode(), role);
+    }
+
+    private static String getOrganisationRole(int connectionId) {
         UserContext userContext = UserContextHolder.getUserContext();
         if (userContext == null) {
-            logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s. No user context present", connectionId));
-            return;
+            logger.trace("Getting connection out of connection pool. ConnectionId: {}. No user context present", connectionId);
+            return null;
         }
         Organisation organisation = userContext.getOrganisation();
         if (userContext.getUser() != null && userContext.getUser().isAdmin() && userContext.getOrganisationUUID() == null) {
-            logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s. SuperAdmin user", connectionId));
-            return;
+            logger.trace("Getting connection out of connection pool. ConnectionId: {}. SuperAdmin user", connectionId);
+            return null;
         }
         if (organisation == null) {
-            logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s. No organisation present", connectionId));
-            return;
+            logger.trace("Getting connection out of connection pool. ConnectionId: {}. No organisation present", connectionId);
+            return null;
         }
-
         String dbUser = organisation.getDbUser();
         if (ObjectUtils.isEmpty(dbUser)) {
-            logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s. No db user present", connectionId));
-            return;
+            logger.trace("Getting connection out of connection pool. ConnectionId: {}. No db user present", connectionId);
+            return null;
         }
+        return dbUser;
+    }
 
-        try {
-            Statement statement = pooledConnection.getConnection().createStatement();
-            statement.execute("set role \"" + dbUser + "\";");
-            statement.execute("set application_name to \"" + dbUser + "\";");
-            statement.close();
-            logger.trace(String.format("Getting connection out of connection pool. ConnectionId: %s. Set db user: %s", connectionId, dbUser));
-        } catch (SQLException exp) {
-            throw new RuntimeException(exp);
+    @Override
+    public void switchTo(String role) {
+        requestedRole = role;
+    }
+
+    @Override
+    public String getCurrentRole() {
+        return currentRole;
+    }
+
+    @Override
+    public boolean isRoleChangedOnBorrow() {
+        return roleChangedOnBorrow;
+    }
+
+    private void applyRequestedRole() throws SQLException {
+        if ((roleKnown && Objects.equals(requestedRole, currentRole)) || pooledConnection == null || pooledConnection.getConnection() == null) return;
+
+        Connection connection = pooledConnection.getConnection();
+        roleKnown = false;
+        roleSwitchedWhileBorrowed = true;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(requestedRole == null ? "RESET ROLE" : "set role \"" + requestedRole + "\"");
+        }
+        logger.trace("Switched role from {} to {}", currentRole, requestedRole);
+        currentRole = requestedRole;
+        roleKnown = true;
+        roleSetInTransaction |= !connection.getAutoCommit();
+    }
+
+    private void transactionCommitted() {
+        roleSetInTransaction = false;
+    }
+
+    private void transactionRolledBack() {
+        if (roleSetInTransaction) {
+            logger.trace("Transaction rolled back, role {} may have been undone", currentRole);
+            roleKnown = false;
+            roleSetInTransaction = false;
+        }
+    }
+
+    private void returnToPool() {
+        // the role is trusted across borrows only when it was set on borrow and not switched after, a switch may have
+        // been undone by a rollback not seen here, or by the pool rolling back the open transaction
+        if (roleSwitchedWhileBorrowed || roleSetInTransaction) {
+            roleKnown = false;
         }
+        requestedRole = currentRole;
+        logger.trace("Returning connection to pool with role {}", roleKnown ? currentRole : "unknown");
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        if (Arrays.asList( "getMetaData", "toString").contains(method.getName()))
-            return super.invoke(proxy, method, args);
-
-        Connection connection = (Connection) proxy;
-        logger.trace("Invoked operation {} on Connection: {}", method.getName(), connection.getMetaData().getConnection().hashCode());
-        if ("close".equals(method.getName())) {
-            Statement statement = connection.createStatement();
-            statement.execute("RESET ROLE");
-            statement.close();
-            logger.trace("Role Reset Done");
+        switch (method.getName()) {
+            case "unwrap":
+                if (args != null && ConnectionRole.class.equals(args[0])) return this;
+                break;
+            case "isWrapperFor":
+                if (args != null && ConnectionRole.class.equals(args[0])) return true;
+                break;
+            case "createStatement":
+            case "prepareStatement":
+            case "prepareCall":
+                applyRequestedRole();
+                break;
+            case "close":
+                returnToPool();
+                break;
+            case "rollback":
+                try {
+                    return super.invoke(proxy, method, args);
+                } finally {
+                    transactionRolledBack();
+                }
+            case "commit":
+                try {
+                    Object committed = super.invoke(proxy, method, args);
+                    transactionCommitted();
+                    return committed;
+                } catch (Throwable e) {
+                    // a failed commit rolls the transaction back
+                    transactionRolledBack();
+                    throw e;
+                }
+            case "setAutoCommit":
+                // turning auto commit on commits the open transaction
+                Object result = super.invoke(proxy, method, args);
+                if (Boolean.TRUE.equals(args[0])) transactionCommitted();
+                return result;
         }
         return super.invoke(proxy, method, args);
     }
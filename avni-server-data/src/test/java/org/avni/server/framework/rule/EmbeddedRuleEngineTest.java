@@ -0,0 +1,82 @@
+package org.avni.server.framework.rule;
+
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmbeddedRuleEngineTest {
+    private static final String INVOKER = "var loads = 0;\n" +
+            "var ruleInvoker = {\n" +
+            "  execute: function (api, requestJson, ruleDependency) {\n" +
+            "    var request = JSON.parse(requestJson);\n" +
+            "    if (request.loop) { while (true) {} }\n" +
+            "    return JSON.stringify({api: api, value: request.value, version: ruleDependency ? ruleDependency.version : null, loads: loads});\n" +
+            "  },\n" +
+            "  captureRuleDependency: function () { loads++; return globalThis.ruleServiceLibraryInterfaceForSharingModules; }\n" +
+            "};";
+
+    private EmbeddedRuleEngine ruleEngine;
+
+    @BeforeEach
+    void setup() {
+        ruleEngine = new EmbeddedRuleEngine(Source.newBuilder("js", INVOKER, "invoker.js").buildLiteral(), 1, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ruleEngine.close();
+    }
+
+    private static RuleDependencySource ruleDependency(String version) {
+        return new RuleDependencySource("org", version, "var ruleServiceLibraryInterfaceForSharingModules = {version: '" + version + "'};");
+    }
+
+    @Test
+    void shouldLoadRuleDependencyOncePerChecksum() {
+        assertEquals("{\"api\":\"/api/rules\",\"value\":1,\"version\":\"v1\",\"loads\":1}", ruleEngine.execute("org", "/api/rules", "{\"value\":1}", ruleDependency("v1")));
+        assertEquals("{\"api\":\"/api/rules\",\"value\":2,\"version\":\"v1\",\"loads\":1}", ruleEngine.execute("org", "/api/rules", "{\"value\":2}", ruleDependency("v1")));
+        assertEquals("{\"api\":\"/api/rules\",\"value\":3,\"version\":\"v2\",\"loads\":2}", ruleEngine.execute("org", "/api/rules", "{\"value\":3}", ruleDependency("v2")));
+    }
+
+    @Test
+    void shouldCancelRuleRunningPastTimeoutAndReplaceContext() {
+        assertThrows(RuleEngineException.class, () -> ruleEngine.execute("org", "/api/rules", "{\"loop\":true}", null));
+        assertEquals("{\"api\":\"/api/rules\",\"value\":1,\"version\":null,\"loads\":0}", ruleEngine.execute("org", "/api/rules", "{\"value\":1}", null));
+    }
+
+    @Test
+    void shouldKeepContextAfterRuleThrows() {
+        String invoker = "var calls = 0;\n" +
+                "var ruleInvoker = {\n" +
+                "  execute: function (api, requestJson) { calls++; if (JSON.parse(requestJson).fail) throw new Error('bad rule'); return String(calls); },\n" +
+                "  captureRuleDependency: function () { return null; }\n" +
+                "};";
+        try (EmbeddedRuleEngine engine = new EmbeddedRuleEngine(Source.newBuilder("js", invoker, "invoker.js").buildLiteral(), 1, 2000)) {
+            assertThrows(RuleEngineException.class, () -> engine.execute("org", "/api/rules", "{\"fail\":true}", null));
+            assertEquals("2", engine.execute("org", "/api/rules", "{}", null));
+        }
+    }
+
+    @Test
+    void shouldNotRunRulesOfDifferentOrganisationsInTheSameContext() {
+        String invoker = "var ruleInvoker = {\n" +
+                "  execute: function (api, requestJson) { var request = JSON.parse(requestJson); if (request.set) globalThis.seen = request.set; return String(globalThis.seen); },\n" +
+                "  captureRuleDependency: function () { return null; }\n" +
+                "};";
+        try (EmbeddedRuleEngine engine = new EmbeddedRuleEngine(Source.newBuilder("js", invoker, "invoker.js").buildLiteral(), 2, 2000)) {
+            assertEquals("a", engine.execute("orgA", "/api/rules", "{\"set\":\"a\"}", null));
+            assertEquals("undefined", engine.execute("orgB", "/api/rules", "{}", null));
+            assertEquals("a", engine.execute("orgA", "/api/rules", "{}", null));
+        }
+        try (EmbeddedRuleEngine engine = new EmbeddedRuleEngine(Source.newBuilder("js", invoker, "invoker.js").buildLiteral(), 1, 2000)) {
+            assertEquals("a", engine.execute("orgA", "/api/rules", "{\"set\":\"a\"}", null));
+            // the only context is replaced by one for orgB
+            assertEquals("undefined", engine.execute("orgB", "/api/rules", "{}", null));
+            assertEquals("undefined", engine.execute("orgA", "/api/rules", "{}", null));
+        }
+    }
+}
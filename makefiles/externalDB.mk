@@ -219,6 +219,7 @@ else
 	-psql -p $(dbPort) -U ${su} -d avni_metabase -c 'create extension if not exists "uuid-ossp"';
 	-psql -p $(dbPort) -U ${su} -d avni_metabase -c 'create extension if not exists "ltree"';
 	-psql -p $(dbPort) -U ${su} -d avni_metabase -c 'create extension if not exists "hstore"';
+	-psql -p $(dbPort) -U ${su} -d avni_metabase -c 'create extension if not exists "pg_trgm"';
 	psql -U reporting_user -d avni_metabase < $(dumpFile)
 endif
 
@@ -0,0 +1,31 @@
+package avni
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+
+// Run once against a build that expands the catchment into an IN list and once against one that binds it as an array,
+// e.g. -DbaseUrl=http://localhost:8021 -DuserName=user@org -DsubjectTypeUuid=... for a user whose catchment has ~5k addresses
+class avniSyncLargeCatchmentLoadTest extends Simulation {
+
+  val baseUrl = System.getProperty("baseUrl", "http://localhost:8021")
+  val userName = System.getProperty("userName", "taqim@lahi")
+  val subjectTypeUuid = System.getProperty("subjectTypeUuid", "5a7f1ace-6edb-4625-b259-93c2b6ab4275")
+  val users = Integer.getInteger("users", 20)
+
+  val httpsProtocol = http
+    .baseUrl(baseUrl)
+    .acceptHeader("application/json")
+    .acceptLanguageHeader("en;q=1.0,de-AT;q=0.9")
+    .acceptEncodingHeader("gzip;q=1.0,compress;q=0.5")
+    .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_14_2) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/71.0.3578.98 Safari/537.36")
+
+  val scn = scenario("Sync subjects for large catchment")
+    .exec(http("Get subjects v2")
+      .get("/individual/v2?subjectTypeUuid=" + subjectTypeUuid + "&lastModifiedDateTime=1900-01-01T00:00:00.000Z&now=2023-01-03T05:43:51.546Z&size=100&page=0")
+      .header("accept", "application/json")
+      .header("USER-NAME", userName))
+
+  setUp(scn.inject(rampUsers(users).during(60)).protocols(httpsProtocol))
+
+}